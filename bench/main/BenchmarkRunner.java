@@ -0,0 +1,29 @@
+package main;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+
+    public static final String DEFAULT_RESULT_PATH = "./jmh-result.json";
+
+    /**Run the benchmarks and export the results as JSON, so they can be compared between releases.
+     *
+     * @param args - optionally the path of the JSON file (DEFAULT_RESULT_PATH if not given) followed by
+     *             a regular expression selecting the benchmarks (all benchmarks of the project if not given)
+     */
+    public static void main(String[] args) throws RunnerException {
+        String resultPath = args.length > 0 ? args[0] : DEFAULT_RESULT_PATH;
+        String include = args.length > 1 ? args[1] : "main\\..*Benchmark";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPath)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package main.circuits;
+
+import main.BitStream;
+import main.control.Input;
+import main.utils.DataConverter;
+import main.utils.ExecutionQueue;
+import main.utils.ProcessRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**Benchmark of settling a 16-bit AddSubtract after both operands change, for every AdderArchitecture.
+ * The operands are taken from a fixed sequence of random numbers, so every architecture adds the same numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdderBenchmark {
+
+    private static final int OPERANDS = 1024;
+
+    @Param({"RIPPLE_CARRY", "KOGGE_STONE", "BRENT_KUNG", "CARRY_SELECT"})
+    public AdderArchitecture architecture;
+
+    private ExecutionQueue queue;
+    private Input sourceInput, destinationInput;
+    private BitStream out;
+    private boolean[][] operands;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.queue = ProcessRunner.getPolicy().createQueue();
+
+        BitStream source = new BitStream(16);
+        BitStream destination = new BitStream(16);
+        this.out = new BitStream(16);
+        this.sourceInput = new Input(new boolean[16], source);
+        this.destinationInput = new Input(new boolean[16], destination);
+        new AddSubtract(source, destination, this.out, new BitStream(1), new BitStream(1), this.architecture);
+
+        Random random = new Random(42);
+        this.operands = new boolean[OPERANDS][];
+        for (int i = 0; i < OPERANDS; i++) {
+            this.operands[i] = DataConverter.convertBitsToBool(random.nextInt(1 << 16), 16);
+        }
+    }
+
+    @Benchmark
+    public long addition() {
+        this.sourceInput.setData(this.operands[this.next]);
+        this.destinationInput.setData(this.operands[(this.next + 1) & (OPERANDS - 1)]);
+        this.next = (this.next + 2) & (OPERANDS - 1);
+        ProcessRunner.run(this.queue, this.sourceInput, this.destinationInput);
+        return this.out.getBits();
+    }
+}
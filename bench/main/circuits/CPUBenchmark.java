@@ -0,0 +1,109 @@
+package main.circuits;
+
+import main.BitStream;
+import main.emulator.MicrocodeEmulator;
+import main.memory.RAM;
+import main.utils.ClockDriver;
+import main.utils.DataConverter;
+import main.utils.Freezer;
+import main.utils.NetlistExplorer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**Benchmarks of the full CPU running the program from CPUTest. The program is copied over the whole memory,
+ * so the CPU keeps executing it instead of running into empty memory (the program counter wraps around to the
+ * first copy at the end of the memory). The throughput is reported in clock cycles per second (for the emulator,
+ * in microinstructions per second). Only the CPU is parameterised with the model, and with whether its streams
+ * are frozen into fan-out arrays (see CPUState and Freezer).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CPUBenchmark {
+
+    private static final String[] PROGRAM = {
+            "0001000000000001",
+            "0000000000000101",
+            "0000101000000000",
+            "0000000000000000",
+            "0000101000000010",
+            "0000000000000000"
+    };
+    private static final int MEMORY_SIZE = 1 << Microprocessor.WORD_SIZE;
+
+    private MicrocodeEmulator emulator;
+
+    @Setup
+    public void setup() {
+        this.emulator = new MicrocodeEmulator();
+        CPUBenchmark.loadProgram(this.emulator::putData);
+    }
+
+    /**Copy the program over the whole memory.
+     *
+     * @param memory - the method writing a word of the memory
+     */
+    private static void loadProgram(BiConsumer<Integer, boolean[]> memory) {
+        for (int copy = 0; copy + PROGRAM.length <= MEMORY_SIZE; copy += PROGRAM.length) {
+            for (int i = 0; i < PROGRAM.length; i++) {
+                memory.accept(copy + i, DataConverter.convertBinToBool(PROGRAM[i]));
+            }
+        }
+    }
+
+    @Benchmark
+    public long cpuCycle(CPUState state) {
+        state.clock.run(1);
+        return state.cpu.getBus().getBits();
+    }
+
+    @Benchmark
+    public long emulatorCycle() {
+        this.emulator.cycle();
+        return this.emulator.getBus();
+    }
+
+    /**The CPU connected with a RAM, built with the model given as a parameter. The CPU is frozen when it is built,
+     * so the whole machine (including the streams of the RAM) is either frozen or unfrozen again.
+     */
+    @State(Scope.Thread)
+    public static class CPUState {
+
+        @Param({"GATE_LEVEL", "BEHAVIORAL"})
+        public SimulationModel model;
+
+        @Param({"true", "false"})
+        public boolean frozen;
+
+        private ClockDriver clock;
+        private CPU cpu;
+
+        @Setup
+        public void setup() {
+            BitStream clk = new BitStream(1);
+            BitStream memoryDataOut = new BitStream(Microprocessor.WORD_SIZE);
+            BitStream memoryDataIn = new BitStream(Microprocessor.WORD_SIZE);
+            BitStream memoryAddress = new BitStream(Microprocessor.WORD_SIZE);
+            BitStream memRead = new BitStream(1);
+            BitStream memWrite = new BitStream(1);
+
+            this.clock = new ClockDriver(clk);
+            this.cpu = new CPU(clk, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress, this.model);
+            RAM ram = new RAM(memoryAddress, memoryDataIn, memoryDataOut, memWrite, memRead);
+            CPUBenchmark.loadProgram(ram::putData);
+
+            if (this.frozen) {
+                Freezer.freeze(this.clock.getClock());
+                return;
+            }
+            for (BitStream stream : new NetlistExplorer(clk).getStreams()) {
+                stream.unfreeze();
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package main.circuits;
+
+import main.BitStream;
+import main.circuits.memory.DFlipFlop;
+import main.control.Input;
+import main.utils.ClockDriver;
+import main.utils.DataConverter;
+import main.utils.ExecutionQueue;
+import main.utils.ProcessRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**Benchmarks of settling small circuits: the carry chain of a 16-bit AddSubtract, a 5 to 32 Decoder,
+ * a single clock edge of a DFlipFlop and a write followed by a read of the RegisterFile. Only the RegisterFile
+ * has a behavioral model, so it is the only benchmark parameterised with the model (see RegisterFileState).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircuitBenchmark {
+
+    private static final boolean[] HIGH = new boolean[]{true};
+    private static final boolean[] LOW = new boolean[]{false};
+
+    private ExecutionQueue queue;
+    private boolean toggle;
+
+    private Input addSubSource;
+    private boolean[] allOnes, allZeros;
+    private BitStream addSubOut;
+
+    private Input decoderInput;
+    private boolean[] firstAddress, lastAddress;
+    private BitStream lastDecoderOut;
+
+    private ClockDriver flipFlopClock;
+    private Input flipFlopData;
+    private BitStream flipFlopQ;
+
+    @Setup
+    public void setup() {
+        this.queue = ProcessRunner.getPolicy().createQueue();
+
+        BitStream source = new BitStream(16);
+        BitStream destination = new BitStream(16);
+        this.addSubOut = new BitStream(16);
+        this.allOnes = DataConverter.convertBitsToBool(0xFFFF, 16);
+        this.allZeros = DataConverter.convertBitsToBool(0, 16);
+        this.addSubSource = new Input(this.allZeros, source);
+        new Input(DataConverter.convertBitsToBool(1, 16), destination);
+        new AddSubtract(source, destination, this.addSubOut, new BitStream(1), new BitStream(1));
+
+        BitStream decoderIn = new BitStream(5);
+        List<BitStream> decoderOut = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            decoderOut.add(new BitStream(1));
+        }
+        this.firstAddress = DataConverter.convertBitsToBool(0, 5);
+        this.lastAddress = DataConverter.convertBitsToBool(31, 5);
+        this.decoderInput = new Input(this.firstAddress, decoderIn);
+        new Decoder(decoderIn, decoderOut);
+        this.lastDecoderOut = decoderOut.get(31);
+
+        BitStream D = new BitStream(16);
+        BitStream clock = new BitStream(1);
+        BitStream enable = new BitStream(1);
+        enable.setData(HIGH);
+        this.flipFlopQ = new BitStream(16);
+        this.flipFlopData = new Input(this.allZeros, D);
+        this.flipFlopClock = new ClockDriver(clock);
+        new DFlipFlop(D, clock, enable, new BitStream(1), new BitStream(1), this.flipFlopQ, new BitStream(16), true);
+    }
+
+    @Benchmark
+    public long addSubtractCarryChain() {
+        this.toggle = !this.toggle;
+        this.addSubSource.setData(this.toggle ? this.allOnes : this.allZeros);
+        ProcessRunner.run(this.queue, this.addSubSource);
+        return this.addSubOut.getBits();
+    }
+
+    @Benchmark
+    public long decoder() {
+        this.toggle = !this.toggle;
+        this.decoderInput.setData(this.toggle ? this.lastAddress : this.firstAddress);
+        ProcessRunner.run(this.queue, this.decoderInput);
+        return this.lastDecoderOut.getBits();
+    }
+
+    @Benchmark
+    public long flipFlopClockEdge() {
+        this.toggle = !this.toggle;
+        this.flipFlopData.setData(this.toggle ? this.allOnes : this.allZeros);
+        ProcessRunner.run(this.queue, this.flipFlopData);
+        this.flipFlopClock.run(1);
+        return this.flipFlopQ.getBits();
+    }
+
+    @Benchmark
+    public long registerFileWriteRead(RegisterFileState state) {
+        state.toggle = !state.toggle;
+        state.data.setData(state.toggle ? state.allOnes : state.allZeros);
+        state.in.setData(HIGH);
+        ProcessRunner.run(state.queue, state.data, state.in);
+        state.in.setData(LOW);
+        ProcessRunner.run(state.queue, state.in);
+
+        state.out.setData(HIGH);
+        ProcessRunner.run(state.queue, state.out);
+        long data = state.output.getBits();
+        state.out.setData(LOW);
+        ProcessRunner.run(state.queue, state.out);
+        return data;
+    }
+
+    /**The RegisterFile, built with the model given as a parameter.
+     */
+    @State(Scope.Thread)
+    public static class RegisterFileState {
+
+        @Param({"GATE_LEVEL", "BEHAVIORAL"})
+        public SimulationModel model;
+
+        private ExecutionQueue queue;
+        private boolean toggle;
+        private boolean[] allOnes, allZeros;
+        private Input data, in, out;
+        private BitStream output;
+
+        @Setup
+        public void setup() {
+            this.queue = ProcessRunner.getPolicy().createQueue();
+            this.allOnes = DataConverter.convertBitsToBool(0xFFFF, 16);
+            this.allZeros = DataConverter.convertBitsToBool(0, 16);
+
+            BitStream input = new BitStream(16);
+            BitStream RFIn = new BitStream(1);
+            BitStream RFOut = new BitStream(1);
+            BitStream addressWrite = new BitStream(3);
+            BitStream addressRead = new BitStream(3);
+            this.output = new BitStream(16);
+            this.data = new Input(this.allZeros, input);
+            this.in = new Input(LOW, RFIn);
+            this.out = new Input(LOW, RFOut);
+            new Input(DataConverter.convertBitsToBool(5, 3), addressWrite);
+            new Input(DataConverter.convertBitsToBool(5, 3), addressRead);
+            new RegisterFile(input, this.output, RFIn, RFOut, addressWrite, addressRead,
+                    "registerFile", false, 0, this.model);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package main.gates;
+
+import main.BitStream;
+import main.control.Input;
+import main.control.Output;
+import main.control.Splitter;
+import main.gates.binary.AND;
+import main.gates.binary.XOR;
+import main.gates.multi.MultiNAND;
+import main.utils.DataConverter;
+import main.utils.ExecutionQueue;
+import main.utils.ProcessRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**Benchmarks of the evaluation of single gates and of a Splitter fanning a stream out into single bits.
+ * Every invocation changes one input and runs the circuit until it settles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GateBenchmark {
+
+    private static final int SIZE = 16;
+    private static final boolean[] ENABLED = new boolean[]{true};
+    private static final boolean[] DISABLED = new boolean[]{false};
+
+    private ExecutionQueue queue;
+    private boolean[] low, high;
+    private boolean toggle;
+
+    private Input andInput, xorInput, multiNandInput, triStateControl, splitterInput;
+    private BitStream andOut, xorOut, multiNandOut, triStateOut;
+    private Output splitterOutput;
+
+    @Setup
+    public void setup() {
+        this.queue = ProcessRunner.getPolicy().createQueue();
+        this.low = DataConverter.convertBitsToBool(0x0F0F, SIZE);
+        this.high = DataConverter.convertBitsToBool(0xF0F0, SIZE);
+
+        BitStream andIn1 = new BitStream(SIZE);
+        BitStream andIn2 = new BitStream(SIZE);
+        this.andOut = new BitStream(SIZE);
+        this.andInput = new Input(this.low, andIn1);
+        new Input(DataConverter.convertBitsToBool(0xFFFF, SIZE), andIn2);
+        new AND(andIn1, andIn2, this.andOut);
+
+        BitStream xorIn1 = new BitStream(SIZE);
+        BitStream xorIn2 = new BitStream(SIZE);
+        this.xorOut = new BitStream(SIZE);
+        this.xorInput = new Input(this.low, xorIn1);
+        new Input(DataConverter.convertBitsToBool(0x00FF, SIZE), xorIn2);
+        new XOR(xorIn1, xorIn2, this.xorOut);
+
+        List<BitStream> multiNandIn = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            BitStream in = new BitStream(SIZE);
+            multiNandIn.add(in);
+            if (i == 0) {
+                this.multiNandInput = new Input(this.low, in);
+            }
+            else {
+                new Input(DataConverter.convertBitsToBool(0xFFFF, SIZE), in);
+            }
+        }
+        this.multiNandOut = new BitStream(SIZE);
+        new MultiNAND(multiNandIn, this.multiNandOut);
+
+        BitStream triStateIn = new BitStream(SIZE);
+        BitStream control = new BitStream(1);
+        this.triStateOut = new BitStream(SIZE);
+        new Input(this.high, triStateIn);
+        this.triStateControl = new Input(DISABLED, control);
+        new TriState(triStateIn, control, this.triStateOut);
+
+        BitStream splitterIn = new BitStream(SIZE);
+        List<BitStream> splitterInList = new ArrayList<>();
+        splitterInList.add(splitterIn);
+        List<BitStream> splitterOutList = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            splitterOutList.add(new BitStream(1));
+        }
+        this.splitterInput = new Input(this.low, splitterIn);
+        new Splitter(splitterInList, splitterOutList);
+        this.splitterOutput = new Output(splitterOutList.get(SIZE - 1));
+    }
+
+    /**Get the next value of a toggled input.
+     *
+     * @return - the value that is different from the last returned one
+     */
+    private boolean[] next() {
+        this.toggle = !this.toggle;
+        return this.toggle ? this.high : this.low;
+    }
+
+    @Benchmark
+    public long and() {
+        this.andInput.setData(this.next());
+        ProcessRunner.run(this.queue, this.andInput);
+        return this.andOut.getBits();
+    }
+
+    @Benchmark
+    public long xor() {
+        this.xorInput.setData(this.next());
+        ProcessRunner.run(this.queue, this.xorInput);
+        return this.xorOut.getBits();
+    }
+
+    @Benchmark
+    public long multiNand() {
+        this.multiNandInput.setData(this.next());
+        ProcessRunner.run(this.queue, this.multiNandInput);
+        return this.multiNandOut.getBits();
+    }
+
+    @Benchmark
+    public long triState() {
+        this.toggle = !this.toggle;
+        this.triStateControl.setData(this.toggle ? ENABLED : DISABLED);
+        ProcessRunner.run(this.queue, this.triStateControl);
+        return this.triStateOut.getBits();
+    }
+
+    @Benchmark
+    public boolean splitterFanOut() {
+        this.splitterInput.setData(this.next());
+        ProcessRunner.run(this.queue, this.splitterInput);
+        return this.splitterOutput.getData()[0];
+    }
+}
@@ -2,23 +2,41 @@ package main;
 
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.utils.DataConverter;
+import main.utils.ExecutionQueue;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class BitStream {
 
+    public static final int MAX_SIZE = 64;
+
     private List<Node> endpoints;
+    private Node[] fanOut;
+    private final int size;
+    private final long mask;
+    private long bits;
     private boolean[] data;
+    private boolean dataUpToDate;
     private Node source;
+    private BitStreamListener listener;
+    private boolean observed;
 
-    /**Constructors for the BitStream class.
+    /**Constructors for the BitStream class. The data of the stream is stored packed in a single long,
+     * where the first bit of the stream (the most significant one) is the highest used bit of the long.
+     * Hence, a stream can hold at most MAX_SIZE bits.
      *
      * @param size - the size of the stream (ie how many bits should be contained)
      * @param endpoints - a list of endpoints/nodes connected with this stream
      */
     public BitStream(int size, List<Node> endpoints) {
+        if (size > MAX_SIZE) {
+            throw new BitStreamInputSizeMismatch("BitStream of size " + size
+                    + " exceeds the maximum size of " + MAX_SIZE + " bits");
+        }
         this.endpoints = endpoints;
+        this.size = size;
+        this.mask = size == MAX_SIZE ? -1L : (1L << size) - 1;
         this.data = new boolean[size];
         this.source = null;
 
@@ -32,9 +50,11 @@ public class BitStream {
     /**Method used to initialize the data component to an array consisting of only "false".
      */
     private void initializeBitStream() {
+        this.bits = 0;
         for (int i = 0; i < this.getSize(); i++) {
             this.data[i] = false;
         }
+        this.dataUpToDate = true;
     }
 
     /**Getters for all the attributes of the BitStream class
@@ -43,40 +63,129 @@ public class BitStream {
         return endpoints;
     }
 
+    /**Get the data of the stream as a boolean array. The array is a view of the packed bits that is
+     * only refreshed when this method is called, it should therefore not be modified.
+     *
+     * @return - the data of the stream
+     */
     public boolean[] getData() {
+        if (!this.dataUpToDate) {
+            for (int i = 0; i < this.size; i++) {
+                this.data[i] = ((this.bits >>> (this.size - i - 1)) & 1) != 0;
+            }
+            this.dataUpToDate = true;
+        }
         return data;
     }
 
+    public long getBits() {
+        return bits;
+    }
+
+    /**Get a single bit of the stream.
+     *
+     * @param index - the index of the bit (0 is the first/most significant bit)
+     * @return - the value of the bit
+     */
+    public boolean getBit(int index) {
+        return ((this.bits >>> (this.size - index - 1)) & 1) != 0;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
     public int getSize() {
-        return this.data.length;
+        return this.size;
     }
 
     public Node getSource() {return this.source;}
 
+    public BitStreamListener getListener() {
+        return listener;
+    }
+
+    public boolean isObserved() {
+        return observed;
+    }
+
 
     /**Setters for all the attributes of the BitStream class
      */
     public void setEndpoints(List<Node> endpoints) {
         this.endpoints = endpoints;
+        this.fanOut = null;
     }
 
     public void setData(boolean[] data) {
-        if (data.length != this.data.length) {
+        if (data.length != this.size) {
             throw new BitStreamInputSizeMismatch(this);
         }
+        long oldBits = this.bits;
+        this.bits = DataConverter.convertBoolToBits(data);
         for (int i = 0; i < data.length; i++) {
             this.data[i] = data[i];
         }
+        this.dataUpToDate = true;
+        if (this.listener != null && oldBits != this.bits) {
+            this.listener.valueChanged(this, oldBits, this.bits);
+        }
+    }
+
+    /**Set the packed data of the stream. Bits outside of the size of the stream are ignored.
+     *
+     * @param bits - the new data of the stream
+     */
+    public void setBits(long bits) {
+        bits &= this.mask;
+        if (bits != this.bits) {
+            long oldBits = this.bits;
+            this.bits = bits;
+            this.dataUpToDate = false;
+            if (this.listener != null) {
+                this.listener.valueChanged(this, oldBits, bits);
+            }
+        }
     }
 
     public void setSource(Node source) {this.source = source;}
 
+    /**Set the listener notified after every change of the value of the stream (see BitStreamListener).
+     *
+     * @param listener - the new listener, or null to remove the listener
+     */
+    public void setListener(BitStreamListener listener) {
+        this.listener = listener;
+    }
+
+    /**Mark the stream as read by code (eg: to show the status of a circuit), even if no node reads it.
+     * The optimization passes keep the observed streams and the logic driving them.
+     *
+     * @param observed - true if the stream is read by code, false otherwise
+     */
+    public void setObserved(boolean observed) {
+        this.observed = observed;
+    }
+
+    /**Mark all the given streams as observed (eg: the streams shown in the status of a circuit).
+     *
+     * @param streams - the streams read by code
+     */
+    public static void observe(List<BitStream> streams) {
+        for (BitStream stream : streams) {
+            stream.setObserved(true);
+        }
+    }
+
 
     /**Add a new endpoint to the BitStream.
      *
      * @param node - the endpoint to add
      */
-    public void addNewEndpoint(Node node) {this.endpoints.add(node);}
+    public void addNewEndpoint(Node node) {
+        this.endpoints.add(node);
+        this.fanOut = null;
+    }
 
     /**Remove an endpoint from the BitStream.
      *
@@ -84,6 +193,25 @@ public class BitStream {
      */
     public void removeEndpoint(Node node) {
         this.endpoints.remove(node);
+        this.fanOut = null;
+    }
+
+    /**Freeze the endpoints of the BitStream into a fixed array, so that propagating a change
+     * through the stream no longer needs to allocate. Adding or removing an endpoint afterwards
+     * unfreezes the stream again.
+     */
+    public void freeze() {
+        this.fanOut = this.endpoints.toArray(new Node[0]);
+    }
+
+    /**Unfreeze the stream, so propagating a change through it walks the endpoint list again.
+     */
+    public void unfreeze() {
+        this.fanOut = null;
+    }
+
+    public boolean isFrozen() {
+        return this.fanOut != null;
     }
 
     /**Get all neighbours of a node connected with this BitStream.
@@ -110,6 +238,34 @@ public class BitStream {
         return out;
     }
 
+    /**Add all neighbours of a node connected with this BitStream to the execution queue. The neighbours
+     * are the same as the ones returned by getAllNeighbours. If the stream is frozen, its fan-out array is
+     * used directly and no allocation takes place.
+     *
+     * @param node - the node whose neighbours should be added
+     * @param queue - the execution queue
+     */
+    public void addNeighboursToQueue(Node node, ExecutionQueue queue) {
+        if (this.fanOut == null) {
+            queue.addAll(this.getAllNeighbours(node));
+            return;
+        }
+
+        int countCallingNode = 0;
+        for (Node neighbour : this.fanOut) {
+            if (neighbour != node) {
+                queue.add(neighbour);
+            }
+            else {
+                countCallingNode++;
+            }
+        }
+
+        if (countCallingNode > 1) {
+            queue.add(node);
+        }
+    }
+
     /**Override the default toString method.
      *
      * @return - a String represenation of this
@@ -117,6 +273,6 @@ public class BitStream {
     @Override
     public String toString() {
         return "BitStream<" + this.getSize() + ", " +
-                DataConverter.convertBoolToBin(this.data) + ">";
+                DataConverter.convertBoolToBin(this.getData()) + ">";
     }
 }
@@ -0,0 +1,15 @@
+package main;
+
+/**Interface describing an observer of the value of a BitStream (eg: the VcdWriter). A stream has at most one
+ * listener, which is notified after every change of the value of the stream.
+ */
+public interface BitStreamListener {
+
+    /**Called after the value of a stream changed.
+     *
+     * @param stream - the stream whose value changed
+     * @param oldBits - the packed value before the change
+     * @param newBits - the packed value after the change
+     */
+    void valueChanged(BitStream stream, long oldBits, long newBits);
+}
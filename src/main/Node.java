@@ -1,8 +1,7 @@
 package main;
 
 import main.exceptions.BitStreamInputSizeMismatch;
-
-import java.util.List;
+import main.utils.ExecutionQueue;
 
 /**Interface describing each node/component in a circuit.
  */
@@ -12,10 +11,17 @@ public interface Node {
 
     void setup();
     void checkIfSizesMatch();
-    void evaluate(List<Node> queue);
-    void checkIfSourceIsConsistent(boolean[] newOut);
-    void addNeighboursToQueue(List<Node> queue);
+    void evaluate(ExecutionQueue queue);
+    void checkIfSourceIsConsistent(long newOutBits);
+    void addNeighboursToQueue(ExecutionQueue queue);
+    void freeze();
     void setSourceForOutStream();
-    boolean decideIfEvaluateFurther(boolean[] newOutData);
+    boolean decideIfEvaluateFurther(long newOutBits);
     void debug();
+    String getName();
+
+    boolean isQueued();
+    void setQueued(boolean queued);
+    int getLevel();
+    void setLevel(int level);
 }
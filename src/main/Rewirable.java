@@ -0,0 +1,15 @@
+package main;
+
+/**Interface describing nodes whose input BitStreams can be replaced after they were built (eg: by the
+ * StructuralHasher, when the stream a node reads is merged with an identical one).
+ */
+public interface Rewirable {
+
+    /**Replace an input stream of the node with another stream of the same size. The node stops being an
+     * endpoint of the old stream and becomes an endpoint of the new one. The node is not evaluated.
+     *
+     * @param oldStream - the stream to replace (every input of the node connected with it is replaced)
+     * @param newStream - the stream to read instead
+     */
+    void replaceInput(BitStream oldStream, BitStream newStream);
+}
@@ -0,0 +1,26 @@
+package main;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**Interface describing nodes holding state that is not stored in their BitStreams (eg: the contents of a
+ * memory or the master latch of a behavioral register). The state is captured and restored together with the
+ * BitStreams of the circuit by the CircuitSnapshot.
+ */
+public interface Stateful {
+
+    /**Write the state of the node.
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    void saveState(DataOutput out) throws IOException;
+
+    /**Read back the state written by saveState, replacing the current state of the node.
+     *
+     * @param in - the input to read the state from
+     * @throws IOException - if the state cannot be read
+     */
+    void restoreState(DataInput in) throws IOException;
+}
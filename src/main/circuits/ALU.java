@@ -1,6 +1,7 @@
 package main.circuits;
 
 import main.BitStream;
+import main.circuits.behavioral.BehavioralALU;
 import main.circuits.memory.DFlipFlop;
 import main.circuits.memory.DLatch;
 import main.gates.TriState;
@@ -8,6 +9,7 @@ import main.gates.binary.AND;
 import main.gates.binary.OR;
 import main.gates.multi.MultiOR;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
 
 import java.util.ArrayList;
@@ -19,6 +21,8 @@ public class ALU implements Circuit {
     private final String name;
     private final boolean inDebuggerMode;
     private final int debugDepth;
+    private final SimulationModel model;
+    private final AdderArchitecture adderArchitecture;
 
     /**Constructors for the ALU class.
      *
@@ -31,10 +35,12 @@ public class ALU implements Circuit {
      * @param name - the name of the ALU
      * @param inDebuggerMode - boolean to specify if the unit is in debug mode
      * @param debugDepth - the depth of debugging
+     * @param model - whether the ALU should be built out of gates or as a single behavioral node
+     * @param adderArchitecture - how the carries of the AddSubtract circuit should be computed
      */
     public ALU(BitStream source, BitStream destination, BitStream out,
                BitStream opCode, BitStream aluIn, BitStream overflow, String name,
-               boolean inDebuggerMode, int debugDepth) {
+               boolean inDebuggerMode, int debugDepth, SimulationModel model, AdderArchitecture adderArchitecture) {
         this.source = source;
         this.destination = destination;
         this.out = out;
@@ -45,8 +51,25 @@ public class ALU implements Circuit {
         this.name = name;
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
+        this.model = model;
+        this.adderArchitecture = adderArchitecture;
+
+        CircuitBuilder.construct(this.name, this::build);
+        BitStream.observe(this.getObservedStreams());
+    }
 
-        this.build();
+    public ALU(BitStream source, BitStream destination, BitStream out,
+               BitStream opCode, BitStream aluIn, BitStream overflow, String name,
+               boolean inDebuggerMode, int debugDepth, SimulationModel model) {
+        this(source, destination, out, opCode, aluIn, overflow, name, inDebuggerMode, debugDepth, model,
+                AdderArchitecture.RIPPLE_CARRY);
+    }
+
+    public ALU(BitStream source, BitStream destination, BitStream out,
+               BitStream opCode, BitStream aluIn, BitStream overflow, String name,
+               boolean inDebuggerMode, int debugDepth) {
+        this(source, destination, out, opCode, aluIn, overflow, name, inDebuggerMode, debugDepth,
+                SimulationModel.GATE_LEVEL);
     }
 
     public ALU(BitStream source, BitStream destination, BitStream out,
@@ -67,6 +90,17 @@ public class ALU implements Circuit {
         this(source, destination, out, opCode, aluIn, overflow, "ALU", false, 0);
     }
 
+    public ALU(BitStream source, BitStream destination, BitStream out,
+               BitStream opCode, BitStream aluIn, BitStream overflow, SimulationModel model) {
+        this(source, destination, out, opCode, aluIn, overflow, "ALU", false, 0, model);
+    }
+
+    public ALU(BitStream source, BitStream destination, BitStream out,
+               BitStream opCode, BitStream aluIn, BitStream overflow, AdderArchitecture adderArchitecture) {
+        this(source, destination, out, opCode, aluIn, overflow, "ALU", false, 0, SimulationModel.GATE_LEVEL,
+                adderArchitecture);
+    }
+
     /**Method to return the current state of the ALU.
      *
      * @return - the status of the ALU as String
@@ -88,6 +122,15 @@ public class ALU implements Circuit {
         return status;
     }
 
+    /**Get the streams read by requestStatus. They are marked as observed when the ALU is built, so that the
+     * optimization passes keep them (eg: the overflow, which no node of the CPU reads).
+     *
+     * @return - the streams shown in the status of the ALU
+     */
+    public List<BitStream> getObservedStreams() {
+        return List.of(this.opCode, this.overflow, this.source, this.destination, this.out);
+    }
+
     /**Define the build method to construct the ALU as described in documentation.
      */
     @Override
@@ -95,6 +138,12 @@ public class ALU implements Circuit {
         boolean debugGates = this.debugDepth > 0 ? this.inDebuggerMode : false;
         int size = this.source.getSize();
 
+        if (this.model == SimulationModel.BEHAVIORAL) {
+            BehavioralALU alu = new BehavioralALU(this.source, this.destination, this.out, this.opCode, this.overflow,
+                    this.name, debugGates);
+            return;
+        }
+
         BitStream sourceEnabled = new BitStream(1);
         sourceEnabled.setData(new boolean[]{true});
 
@@ -132,7 +181,7 @@ public class ALU implements Circuit {
         TriState logicTriState = new TriState(logicUnitOut, logicControlOut, this.out, "logicTriState", debugGates);
 
         AddSubtract addSubtract = new AddSubtract(this.source, this.destination, addSubOut, addSubAndOut, this.overflow,
-                "addSub", debugGates, this.debugDepth - 1);
+                "addSub", debugGates, this.debugDepth - 1, this.adderArchitecture);
 
         LogicUnit logicUnit = new LogicUnit(this.source, this.destination, logicUnitOut, logicUnitControls,
                 "logicUnit", debugGates, this.debugDepth - 1);
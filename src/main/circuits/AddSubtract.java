@@ -3,18 +3,25 @@ package main.circuits;
 import main.BitStream;
 import main.control.Splitter;
 import main.gates.binary.AND;
+import main.gates.binary.OR;
 import main.gates.multi.MultiOR;
 import main.gates.binary.XOR;
+import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class AddSubtract implements Circuit {
 
+    public static final int CARRY_SELECT_BLOCK_SIZE = 4;
+
     private final BitStream source, destination, out, control, overflow;
     private final String name;
     private final boolean inDebuggerMode;
     private final int debugDepth;
+    private final AdderArchitecture architecture;
+    private boolean debugGates;
 
     /**Constructors for the AddSubtract circuit.
      *
@@ -27,11 +34,12 @@ public class AddSubtract implements Circuit {
      * @param name - the name of the circuit
      * @param inDebuggerMode - boolean to specify if the circuit should be evaluated in the debug mode
      * @param debugDepth - how deep should the debug go (in how many levels of circuitry)
+     * @param architecture - how the carries should be computed
      */
     public AddSubtract(BitStream source, BitStream destination,
                        BitStream out, BitStream control,
                        BitStream overflow, String name,
-                       boolean inDebuggerMode, int debugDepth) {
+                       boolean inDebuggerMode, int debugDepth, AdderArchitecture architecture) {
         this.source = source;
         this.destination = destination;
         this.out = out;
@@ -40,8 +48,17 @@ public class AddSubtract implements Circuit {
         this.name = name;
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
+        this.architecture = architecture;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
+    }
+
+    public AddSubtract(BitStream source, BitStream destination,
+                       BitStream out, BitStream control,
+                       BitStream overflow, String name,
+                       boolean inDebuggerMode, int debugDepth) {
+        this(source, destination, out, control, overflow, name, inDebuggerMode, debugDepth,
+                AdderArchitecture.RIPPLE_CARRY);
     }
 
     public AddSubtract(BitStream source, BitStream destination,
@@ -63,11 +80,24 @@ public class AddSubtract implements Circuit {
         this(source, destination, out, control, overflow, "ADD/SUB", false, 0);
     }
 
-    /**Method to build the circuit as defined in documentation/AddSub.png.
+    public AddSubtract(BitStream source, BitStream destination,
+                       BitStream out, BitStream control,
+                       BitStream overflow, AdderArchitecture architecture) {
+        this(source, destination, out, control, overflow, "ADD/SUB", false, 0, architecture);
+    }
+
+    /**Getter for the architecture of the adder.
+     */
+    public AdderArchitecture getArchitecture() {
+        return architecture;
+    }
+
+    /**Method to build the circuit. The carries are computed according to the architecture of the adder
+     * (see AdderArchitecture), the ripple carry adder is built as defined in documentation/AddSub.png.
      */
     @Override
     public void build() {
-        boolean debugGates = this.debugDepth > 0 ? this.inDebuggerMode : false;
+        this.debugGates = this.debugDepth > 0 ? this.inDebuggerMode : false;
         int size = this.source.getSize();
 
         //First indexes -> most significant bits
@@ -95,6 +125,55 @@ public class AddSubtract implements Circuit {
             outList.add(bit);
         }
 
+        if (this.architecture == AdderArchitecture.RIPPLE_CARRY) {
+            this.buildRippleCarry(srcOutList, dstOutList, outList);
+        }
+        else {
+            //Last indexes -> most significant bits
+            BitStream[] src = new BitStream[size];
+            BitStream[] rev = new BitStream[size];
+            BitStream[] propagate = new BitStream[size];
+            BitStream[] generate = new BitStream[size];
+            for (int i = 0; i < size; i++) {
+                src[i] = srcOutList.get(size - i - 1);
+                rev[i] = this.xor(this.control, dstOutList.get(size - i - 1), "revXor" + i);
+                propagate[i] = this.xor(rev[i], src[i], "lXor" + i);
+                generate[i] = this.and(src[i], rev[i], "gAnd" + i);
+            }
+
+            BitStream[] carries;
+            if (this.architecture == AdderArchitecture.CARRY_SELECT) {
+                carries = this.buildCarrySelect(propagate, generate, outList);
+            }
+            else {
+                carries = this.buildParallelPrefix(propagate, generate);
+                for (int i = 0; i < size; i++) {
+                    XOR upperXor = new XOR(carries[i], propagate[i], outList.get(size - i - 1), "uXor" + i,
+                            this.debugGates);
+                }
+            }
+            XOR overflowXor = new XOR(carries[size - 1], carries[size], this.overflow, "overXor", this.debugGates);
+        }
+
+        Splitter sourceSplitter = new Splitter(srcInList, srcOutList, "Source splitter", this.debugGates);
+        Splitter destinationSplitter = new Splitter(dstInList, dstOutList, "Destination splitter", this.debugGates);
+
+        List<BitStream> outBitStreamList = new ArrayList<>();
+        outBitStreamList.add(this.out);
+
+        Splitter outputSplitter = new Splitter(outList, outBitStreamList, "Output splitter", this.debugGates);
+    }
+
+    /**Build the chain of full adders.
+     *
+     * @param srcOutList - the bits of the source (first indexes -> most significant bits)
+     * @param dstOutList - the bits of the destination
+     * @param outList - the bits of the output
+     */
+    private void buildRippleCarry(List<BitStream> srcOutList, List<BitStream> dstOutList, List<BitStream> outList) {
+        boolean debugGates = this.debugGates;
+        int size = srcOutList.size();
+
         BitStream carryIn = this.control;
         BitStream lastCarryIn = new BitStream(1);
         for (int i = 0; i < size; i++) {
@@ -125,14 +204,155 @@ public class AddSubtract implements Circuit {
                 XOR overflowXor = new XOR(lastCarryIn, carryIn, this.overflow, "overXor", debugGates);
             }
         }
+    }
+
+    /**Build a parallel prefix (Kogge-Stone or Brent-Kung) network computing the carries. Every carry operator
+     * combines the (generate, propagate) pair of a group of bits with the pair of the group right below it.
+     * The carry in (control) is merged into the generate of bit 0, so a group reaching bit 0 gives the carry
+     * out of its highest bit and its propagate is not needed anymore.
+     *
+     * @param propagate - the propagate bits (last indexes -> most significant bits)
+     * @param generate - the generate bits
+     * @return - the carries, where carries[i] is the carry into bit i (carries[size] is the carry out)
+     */
+    private BitStream[] buildParallelPrefix(BitStream[] propagate, BitStream[] generate) {
+        int size = generate.length;
+        BitStream[] groupGenerate = generate.clone();
+        BitStream[] groupPropagate = propagate.clone();
+        int[] lowest = new int[size];
+        for (int i = 0; i < size; i++) {
+            lowest[i] = i;
+        }
+        groupGenerate[0] = this.or(generate[0], this.and(propagate[0], this.control, "cinAnd"), "cinOr");
+
+        if (this.architecture == AdderArchitecture.KOGGE_STONE) {
+            for (int distance = 1; distance < size; distance *= 2) {
+                BitStream[] nextGenerate = groupGenerate.clone();
+                BitStream[] nextPropagate = groupPropagate.clone();
+                int[] nextLowest = lowest.clone();
+                for (int i = distance; i < size; i++) {
+                    this.combine(i, i - distance, groupGenerate, groupPropagate, lowest,
+                            nextGenerate, nextPropagate, nextLowest, "ks" + distance + "_" + i);
+                }
+                groupGenerate = nextGenerate;
+                groupPropagate = nextPropagate;
+                lowest = nextLowest;
+            }
+        }
+        else {
+            for (int distance = 1; distance < size; distance *= 2) {
+                for (int i = 2 * distance - 1; i < size; i += 2 * distance) {
+                    this.combine(i, i - distance, groupGenerate, groupPropagate, lowest,
+                            groupGenerate, groupPropagate, lowest, "bkUp" + distance + "_" + i);
+                }
+            }
+            for (int distance = Integer.highestOneBit(Math.max(size - 1, 1)) / 2; distance > 0; distance /= 2) {
+                for (int i = 3 * distance - 1; i < size; i += 2 * distance) {
+                    this.combine(i, i - distance, groupGenerate, groupPropagate, lowest,
+                            groupGenerate, groupPropagate, lowest, "bkDown" + distance + "_" + i);
+                }
+            }
+        }
 
-        Splitter sourceSplitter = new Splitter(srcInList, srcOutList, "Source splitter", debugGates);
-        Splitter destinationSplitter = new Splitter(dstInList, dstOutList, "Destination splitter", debugGates);
+        BitStream[] carries = new BitStream[size + 1];
+        carries[0] = this.control;
+        System.arraycopy(groupGenerate, 0, carries, 1, size);
+        return carries;
+    }
 
-        List<BitStream> outBitStreamList = new ArrayList<>();
-        outBitStreamList.add(this.out);
+    /**Build a carry operator: the group ending in bit "high" is extended with the group ending in bit "low".
+     *
+     * @param high - the highest bit of the upper group
+     * @param low - the highest bit of the lower group
+     * @param generate - the generate of the groups ending in every bit
+     * @param propagate - the propagate of the groups ending in every bit
+     * @param lowest - the lowest bit of the groups ending in every bit
+     * @param nextGenerate - array to store the generate of the extended group in
+     * @param nextPropagate - array to store the propagate of the extended group in
+     * @param nextLowest - array to store the lowest bit of the extended group in
+     * @param name - the prefix of the names of the gates
+     */
+    private void combine(int high, int low, BitStream[] generate, BitStream[] propagate, int[] lowest,
+                         BitStream[] nextGenerate, BitStream[] nextPropagate, int[] nextLowest, String name) {
+        BitStream highGenerate = generate[high];
+        BitStream highPropagate = propagate[high];
+        nextGenerate[high] = this.or(highGenerate, this.and(highPropagate, generate[low], name + "_gAnd"),
+                name + "_gOr");
+        nextPropagate[high] = lowest[low] == 0 ? null : this.and(highPropagate, propagate[low], name + "_pAnd");
+        nextLowest[high] = lowest[low];
+    }
+
+    /**Build a carry select adder out of blocks of CARRY_SELECT_BLOCK_SIZE bits. The lowest block is a ripple
+     * carry adder, every other block is built twice (for a carry in of 0 and 1) and its sums and carries are
+     * selected by the carry out of the block below it.
+     *
+     * @param propagate - the propagate bits (last indexes -> most significant bits)
+     * @param generate - the generate bits
+     * @param outList - the bits of the output (first indexes -> most significant bits)
+     * @return - the carries, where carries[i] is the carry into bit i (carries[size] is the carry out)
+     */
+    private BitStream[] buildCarrySelect(BitStream[] propagate, BitStream[] generate, List<BitStream> outList) {
+        int size = generate.length;
+        BitStream[] carries = new BitStream[size + 1];
+        carries[0] = this.control;
+
+        BitStream zero = new BitStream(1);
+        BitStream one = new BitStream(1);
+        one.setData(new boolean[]{true});
+
+        for (int start = 0; start < size; start += CARRY_SELECT_BLOCK_SIZE) {
+            int end = Math.min(start + CARRY_SELECT_BLOCK_SIZE, size);
+            if (start == 0) {
+                for (int i = start; i < end; i++) {
+                    XOR upperXor = new XOR(carries[i], propagate[i], outList.get(size - i - 1), "uXor" + i,
+                            this.debugGates);
+                    carries[i + 1] = this.carry(propagate[i], generate[i], carries[i], "c" + i);
+                }
+                continue;
+            }
+
+            BitStream select = carries[start];
+            BitStream notSelect = new BitStream(1);
+            NOT selectNot = new NOT(select, notSelect, "selNot" + start, this.debugGates);
 
-        Splitter outputSplitter = new Splitter(outList, outBitStreamList, "Output splitter", debugGates);
+            BitStream carry0 = zero;
+            BitStream carry1 = one;
+            for (int i = start; i < end; i++) {
+                BitStream sum0 = this.xor(carry0, propagate[i], "uXor" + i + "_0");
+                BitStream sum1 = this.xor(carry1, propagate[i], "uXor" + i + "_1");
+                OR sumSelect = new OR(this.and(notSelect, sum0, "sel" + i + "_0"), this.and(select, sum1, "sel" + i + "_1"),
+                        outList.get(size - i - 1), "sumSel" + i, this.debugGates);
+
+                carry0 = this.carry(propagate[i], generate[i], carry0, "c" + i + "_0");
+                carry1 = this.carry(propagate[i], generate[i], carry1, "c" + i + "_1");
+                if (i == end - 1 || i == size - 2) {
+                    carries[i + 1] = this.or(this.and(notSelect, carry0, "carrySel" + i + "_0"),
+                            this.and(select, carry1, "carrySel" + i + "_1"), "carrySel" + i);
+                }
+            }
+        }
+        return carries;
     }
-}
 
+    private BitStream carry(BitStream propagate, BitStream generate, BitStream carryIn, String name) {
+        return this.or(generate, this.and(propagate, carryIn, name + "_and"), name + "_or");
+    }
+
+    private BitStream and(BitStream in1, BitStream in2, String name) {
+        BitStream out = new BitStream(1);
+        AND and = new AND(in1, in2, out, name, this.debugGates);
+        return out;
+    }
+
+    private BitStream or(BitStream in1, BitStream in2, String name) {
+        BitStream out = new BitStream(1);
+        OR or = new OR(in1, in2, out, name, this.debugGates);
+        return out;
+    }
+
+    private BitStream xor(BitStream in1, BitStream in2, String name) {
+        BitStream out = new BitStream(1);
+        XOR xor = new XOR(in1, in2, out, name, this.debugGates);
+        return out;
+    }
+}
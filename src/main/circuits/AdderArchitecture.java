@@ -0,0 +1,17 @@
+package main.circuits;
+
+/**Enum with the available ways of computing the carries in an AddSubtract circuit. All of them have the same
+ * ports and compute the same results, but they differ in the number of gates, the logic depth and the number
+ * of node evaluations needed to settle after the operands change.
+ * RIPPLE_CARRY - a chain of full adders, as described in documentation/AddSub.png (smallest, but deepest)
+ * KOGGE_STONE - parallel prefix adder with log2(n) levels of carry operators (shallowest, but largest)
+ * BRENT_KUNG - parallel prefix adder with 2 * log2(n) - 1 levels, using fewer carry operators than KOGGE_STONE
+ * CARRY_SELECT - blocks of ripple carry adders computing both results (for a carry in of 0 and of 1),
+ *                of which the right one is selected by the carry out of the previous block
+ */
+public enum AdderArchitecture {
+    RIPPLE_CARRY,
+    KOGGE_STONE,
+    BRENT_KUNG,
+    CARRY_SELECT
+}
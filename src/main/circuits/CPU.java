@@ -3,6 +3,7 @@ package main.circuits;
 import main.BitStream;
 import main.circuits.memory.DFlipFlop;
 import main.gates.TriState;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
 
 import java.beans.BeanInfo;
@@ -17,6 +18,7 @@ public class CPU implements Circuit {
     private final String name;
     private final boolean inDebuggerMode;
     private final int debugDepth;
+    private final SimulationModel model;
 
     private BitStream bus;
     private RegisterFile registerFile;
@@ -40,10 +42,12 @@ public class CPU implements Circuit {
      * @param name - the name of the circuit
      * @param inDebuggerMode - boolean to specify if the circuit is in debug mode
      * @param debugDepth - how deep should debugging go
+     * @param model - whether the registers, the register file and the ALU should be built out of gates
+     *              or as behavioral nodes
      */
     public CPU(BitStream clock, BitStream memRead, BitStream memWrite,
                BitStream memoryDataOut, BitStream memoryDataIn, BitStream memoryAddress,
-               String name, boolean inDebuggerMode, int debugDepth) {
+               String name, boolean inDebuggerMode, int debugDepth, SimulationModel model) {
         this.clock = clock;
         this.memRead = memRead;
         this.memWrite = memWrite;
@@ -53,8 +57,17 @@ public class CPU implements Circuit {
         this.name = name;
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
+        this.model = model;
 
-        this.build();
+        CircuitBuilder.build(() -> CircuitBuilder.construct(this.name, this::build));
+        BitStream.observe(this.getObservedStreams());
+    }
+
+    public CPU(BitStream clock, BitStream memRead, BitStream memWrite,
+               BitStream memoryDataOut, BitStream memoryDataIn, BitStream memoryAddress,
+               String name, boolean inDebuggerMode, int debugDepth) {
+        this(clock, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress, name, inDebuggerMode, debugDepth,
+                SimulationModel.GATE_LEVEL);
     }
 
     public CPU(BitStream clock, BitStream memRead, BitStream memWrite,
@@ -74,6 +87,12 @@ public class CPU implements Circuit {
         this(clock, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress, "CPU", false, 0);
     }
 
+    public CPU(BitStream clock, BitStream memRead, BitStream memWrite,
+               BitStream memoryDataOut, BitStream memoryDataIn, BitStream memoryAddress,
+               SimulationModel model) {
+        this(clock, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress, "CPU", false, 0, model);
+    }
+
     /**Getter for the bus of the CPU.
      *
      * @return - the bus
@@ -129,6 +148,23 @@ public class CPU implements Circuit {
         return status;
     }
 
+    /**Get the streams read by requestStatus, including the ones of all the parts of the CPU. They are marked as
+     * observed when the CPU is built, so the optimization passes keep them even if no node reads them.
+     *
+     * @return - the streams shown in the status of the CPU
+     */
+    public List<BitStream> getObservedStreams() {
+        List<BitStream> streams = new ArrayList<>(List.of(this.bus, this.XIn, this.ZIn, this.ZOut));
+        streams.addAll(this.controlUnit.getObservedStreams());
+        streams.addAll(this.iag.getObservedStreams());
+        streams.addAll(this.registerFile.getObservedStreams());
+        streams.addAll(this.X.getObservedStreams());
+        streams.addAll(this.alu.getObservedStreams());
+        streams.addAll(this.Z.getObservedStreams());
+        streams.addAll(List.of(this.memoryAddress, this.memoryDataIn, this.memoryDataOut));
+        return streams;
+    }
+
     /**Build the circuit as defined in the documentation.
      */
     @Override
@@ -158,7 +194,7 @@ public class CPU implements Circuit {
                 "controlUnit", debugGates, this.debugDepth - 1);
 
         this.registerFile = new RegisterFile(bus, bus, RFIn, RFOut, rfAddrWrite, rfAddrRead,
-                "registerFile", debugGates, this.debugDepth - 1);
+                "registerFile", debugGates, this.debugDepth - 1, this.model);
 
         this.iag = new IAG(bus, bus, PCIn, PCOut, "IAG", debugGates, this.debugDepth - 1);
 
@@ -182,7 +218,7 @@ public class CPU implements Circuit {
         xOut.setData(new boolean[]{true});
         BitStream xEnable = new BitStream(1);
         xEnable.setData(new boolean[]{true});
-        this.X = new Register(bus, xOutput, XIn, xOut, xEnable, "X", debugGates, this.debugDepth - 1);
+        this.X = new Register(bus, xOutput, XIn, xOut, xEnable, "X", debugGates, this.debugDepth - 1, this.model);
 
         BitStream constant = new BitStream(size);
         constant.setData(new boolean[]{false, false, false, false, false, false, false, false,
@@ -196,10 +232,10 @@ public class CPU implements Circuit {
 
         BitStream aluOutput = new BitStream(size);
         this.alu = new ALU(bus, aluMuxOut, aluOutput, ALUOpcode, new BitStream(1), new BitStream(1),
-                "ALU", debugGates, this.debugDepth - 1);
+                "ALU", debugGates, this.debugDepth - 1, this.model);
 
         BitStream zEnable = new BitStream(1);
         zEnable.setData(new boolean[]{true});
-        this.Z = new Register(aluOutput, bus, ZIn, ZOut, zEnable, "Z", debugGates, this.debugDepth - 1);
+        this.Z = new Register(aluOutput, bus, ZIn, ZOut, zEnable, "Z", debugGates, this.debugDepth - 1, this.model);
     }
 }
@@ -8,6 +8,7 @@ import main.gates.TriState;
 import main.gates.binary.AND;
 import main.gates.binary.OR;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
 
 import java.util.ArrayList;
@@ -25,7 +26,22 @@ public class ControlUnit implements Circuit {
     private Microprocessor microprocessor;
     private BitStream microinstruction;
 
-    private final static int NUM_MICROINSTRUCTIONS = 24;
+    public final static int NUM_MICROINSTRUCTIONS = 24;
+    public final static int CYCLES_PER_MICROINSTRUCTION = 2;
+
+    /**The microinstructions executed in the first seven states of every instruction (fetching IR1 and IR2
+     * and incrementing the program counter twice). In the last state the microinstructions are read from
+     * the microinstruction ROM of the microprocessor.
+     */
+    public final static String[] COMMON_MICROINSTRUCTIONS = {
+            "000000000000000100001000",
+            "000000000000000010100010",
+            "000000100001100100000000",
+            "000000000000011000001000",
+            "000000000000000001100010",
+            "000000100001100100000000",
+            "000000000000011000000000"
+    };
 
     /**Constructors for the ControlUnit circuit. It controls what the components of the CPU should do.
      *
@@ -80,7 +96,8 @@ public class ControlUnit implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
+        BitStream.observe(this.getObservedStreams());
     }
 
     public ControlUnit(BitStream input, BitStream clock, BitStream intermediate, BitStream RFIn, BitStream RFOut,
@@ -119,6 +136,14 @@ public class ControlUnit implements Circuit {
         return microprocessor;
     }
 
+    /**Getter for the current microinstruction of the Control Unit.
+     *
+     * @return - the microinstruction BitStream
+     */
+    public BitStream getMicroinstruction() {
+        return microinstruction;
+    }
+
     /**Method to return the current state of the Control Unit.
      *
      * @return - the status of the Control Unit as String
@@ -131,6 +156,17 @@ public class ControlUnit implements Circuit {
         return status;
     }
 
+    /**Get the streams read by requestStatus: the data of both instruction registers and the microinstruction.
+     *
+     * @return - the streams shown in the status of the Control Unit
+     */
+    public List<BitStream> getObservedStreams() {
+        List<BitStream> streams = new ArrayList<>(this.microprocessor.getIR1().getObservedStreams());
+        streams.addAll(this.microprocessor.getIR2().getObservedStreams());
+        streams.add(this.microinstruction);
+        return streams;
+    }
+
     /**Build the circuit as defined in the documentation.
      */
     @Override
@@ -138,33 +174,19 @@ public class ControlUnit implements Circuit {
         boolean debugGates = this.debugDepth > 0 ? this.inDebuggerMode : false;
 
         BitStream common0 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common0.setData(new boolean[]{false, false, false, false, false, false, false, false,
-                false, false, false, false, false, false, false, true,
-                false, false, false, false, true, false, false, false});
+        common0.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[0]));
         BitStream common1 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common1.setData(new boolean[]{false, false, false, false, false, false, false, false,
-                false, false, false, false, false, false, false, false,
-                true, false, true, false, false, false, true, false});
+        common1.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[1]));
         BitStream common2 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common2.setData(new boolean[]{false, false, false, false, false, false, true, false,
-                false, false, false, true, true, false, false, true,
-                false, false, false, false, false, false, false, false});
+        common2.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[2]));
         BitStream common3 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common3.setData(new boolean[]{false, false, false, false, false, false, false, false,
-                false, false, false, false, false, true, true, false,
-                false, false, false, false, true, false, false, false});
+        common3.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[3]));
         BitStream common4 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common4.setData(new boolean[]{false, false, false, false, false, false, false, false,
-                false, false, false, false, false, false, false, false,
-                false, true, true, false, false, false, true, false});
+        common4.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[4]));
         BitStream common5 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common5.setData(new boolean[]{false, false, false, false, false, false, true, false,
-                false, false, false, true, true, false, false, true,
-                false, false, false, false, false, false, false, false});
+        common5.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[5]));
         BitStream common6 = new BitStream(NUM_MICROINSTRUCTIONS);
-        common6.setData(new boolean[]{false, false, false, false, false, false, false, false,
-                false, false, false, false, false, true, true, false,
-                false, false, false, false, false, false, false, false});
+        common6.setData(DataConverter.convertBinToBool(COMMON_MICROINSTRUCTIONS[6]));
 
         BitStream commonBus = new BitStream(NUM_MICROINSTRUCTIONS);
 
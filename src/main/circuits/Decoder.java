@@ -5,6 +5,7 @@ import main.control.Splitter;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.gates.multi.MultiAND;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
 
 import java.util.ArrayList;
@@ -34,7 +35,7 @@ public class Decoder implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
     }
 
     public Decoder(BitStream input, List<BitStream> outputs,
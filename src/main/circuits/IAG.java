@@ -1,6 +1,10 @@
 package main.circuits;
 
 import main.BitStream;
+import main.utils.CircuitBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class IAG implements Circuit {
 
@@ -32,7 +36,8 @@ public class IAG implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
+        BitStream.observe(this.getObservedStreams());
     }
 
     public IAG(BitStream input, BitStream output, BitStream PCIn, BitStream PCOut,
@@ -60,6 +65,16 @@ public class IAG implements Circuit {
         return status;
     }
 
+    /**Get the streams read by requestStatus, including the ones of the program counter.
+     *
+     * @return - the streams shown in the status of the IAG
+     */
+    public List<BitStream> getObservedStreams() {
+        List<BitStream> streams = new ArrayList<>(List.of(this.PCIn, this.PCOut));
+        streams.addAll(this.programCounter.getObservedStreams());
+        return streams;
+    }
+
     /**Build the circuit as defined in the documentation.
      */
     @Override
@@ -6,6 +6,7 @@ import main.Node;
 import main.gates.TriState;
 import main.gates.binary.*;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 
 import java.util.List;
 
@@ -41,7 +42,7 @@ public class LogicUnit implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
     }
 
     public LogicUnit(BitStream source, BitStream destination,
@@ -4,6 +4,7 @@ import main.BitStream;
 import main.circuits.memory.TFlipFlop;
 import main.control.Splitter;
 import main.memory.ROM;
+import main.utils.CircuitBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,8 @@ public class Microprocessor implements Circuit {
     public static final int WORD_SIZE = 16;
     public static final int INSTRUCTION_SIZE = 8;
     public static final int MAPPING_OUT_SIZE = 8;
+    public static final String MICRO_MAPPING_PATH = "./storage/main/microMapping.stg";
+    public static final String MICROINSTRUCTIONS_PATH = "./storage/main/microinstructions.stg";
 
     /**Constructors for the Microprocessor class. This component is a part of the Control Unit.
      *
@@ -56,7 +59,7 @@ public class Microprocessor implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
     }
 
     public Microprocessor(BitStream input, BitStream clock, BitStream reset, BitStream IR1In, BitStream IR2In,
@@ -129,7 +132,7 @@ public class Microprocessor implements Circuit {
 
         BitStream mapRomOut = new BitStream(MAPPING_OUT_SIZE);
 
-        ROM mapRom = new ROM("./storage/main/microMapping.stg", instruction, mapRomOut, "mapRom", debugGates);
+        ROM mapRom = new ROM(MICRO_MAPPING_PATH, instruction, mapRomOut, "mapRom", debugGates);
 
         BitStream constant = new BitStream(1);
         constant.setData(new boolean[]{true});
@@ -166,7 +169,7 @@ public class Microprocessor implements Circuit {
         AddSubtract addSub = new AddSubtract(counterSplitterOut, mapRomOut, addSubOutput,
                 new BitStream(1), new BitStream(1), "addSub", debugGates, this.debugDepth - 1);
 
-        ROM microinstructionRom = new ROM("./storage/main/microinstructions.stg", addSubOutput, this.microinstruction,
+        ROM microinstructionRom = new ROM(MICROINSTRUCTIONS_PATH, addSubOutput, this.microinstruction,
                 "microinstructionRom", debugGates);
     }
 }
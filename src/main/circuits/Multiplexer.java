@@ -4,6 +4,7 @@ import main.BitStream;
 import main.control.Splitter;
 import main.gates.binary.AND;
 import main.gates.multi.MultiOR;
+import main.utils.CircuitBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,7 +36,7 @@ public class Multiplexer implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
     }
 
     public Multiplexer(List<BitStream> input, BitStream select, BitStream output,
@@ -1,17 +1,22 @@
 package main.circuits;
 
 import main.BitStream;
+import main.circuits.behavioral.BehavioralRegister;
 import main.circuits.memory.DFlipFlop;
 import main.circuits.memory.DLatch;
 import main.gates.TriState;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
 
+import java.util.List;
+
 public class Register implements Circuit {
 
     private final BitStream input, output, regIn, regOut, enable;
     private final String name;
     private final boolean inDebuggerMode;
     private final int debugDepth;
+    private final SimulationModel model;
 
     private BitStream dFlipFlopQ;
 
@@ -25,9 +30,10 @@ public class Register implements Circuit {
      * @param name - the name of the register
      * @param inDebuggerMode - boolean to specify if the register is in debug mode
      * @param debugDepth - integer to specify the depth of debugging
+     * @param model - whether the register should be built out of gates or as a single behavioral node
      */
     public Register(BitStream input, BitStream output, BitStream regIn, BitStream regOut, BitStream enable,
-                    String name, boolean inDebuggerMode, int debugDepth) {
+                    String name, boolean inDebuggerMode, int debugDepth, SimulationModel model) {
         this.input = input;
         this.output = output;
         this.regIn = regIn;
@@ -37,8 +43,14 @@ public class Register implements Circuit {
         this.name = name;
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
+        this.model = model;
+
+        CircuitBuilder.construct(this.name, this::build);
+    }
 
-        this.build();
+    public Register(BitStream input, BitStream output, BitStream regIn, BitStream regOut, BitStream enable,
+                    String name, boolean inDebuggerMode, int debugDepth) {
+        this(input, output, regIn, regOut, enable, name, inDebuggerMode, debugDepth, SimulationModel.GATE_LEVEL);
     }
 
     public Register(BitStream input, BitStream output, BitStream regIn, BitStream regOut, BitStream enable,
@@ -55,6 +67,33 @@ public class Register implements Circuit {
         this(input, output, regIn, regOut, enable, "Register", false, 0);
     }
 
+    public Register(BitStream input, BitStream output, BitStream regIn, BitStream regOut, BitStream enable,
+                    SimulationModel model) {
+        this(input, output, regIn, regOut, enable, "Register", false, 0, model);
+    }
+
+    /**Constructor for a register whose data is held by a behavioral model of a larger circuit
+     * (eg: BehavioralRegisterFile). No circuit is built, the register is only used to report its state.
+     *
+     * @param data - the BitStream holding the data of the register
+     * @param name - the name of the register
+     */
+    Register(BitStream data, String name) {
+        this.input = null;
+        this.output = null;
+        this.regIn = null;
+        this.regOut = null;
+        this.enable = null;
+
+        this.name = name;
+        this.inDebuggerMode = false;
+        this.debugDepth = 0;
+        this.model = SimulationModel.BEHAVIORAL;
+
+        this.dFlipFlopQ = data;
+        this.dFlipFlopQ.setObserved(true);
+    }
+
     /**Getter for the BitStream corresponding to the data currently held by the Register.
      *
      * @return - BitStream containing the current data of the register
@@ -74,6 +113,14 @@ public class Register implements Circuit {
         return status;
     }
 
+    /**Get the streams read by requestStatus. They are marked as observed when the register is built.
+     *
+     * @return - the streams shown in the status of the register
+     */
+    public List<BitStream> getObservedStreams() {
+        return List.of(this.dFlipFlopQ);
+    }
+
     /**Define the build method to construct the register as described in the documentation.
      */
     @Override
@@ -82,6 +129,13 @@ public class Register implements Circuit {
         int size = this.input.getSize();
 
         dFlipFlopQ = new BitStream(size);
+        dFlipFlopQ.setObserved(true);
+        if (this.model == SimulationModel.BEHAVIORAL) {
+            BehavioralRegister register = new BehavioralRegister(this.input, this.output, this.regIn, this.regOut,
+                    this.enable, dFlipFlopQ, this.name, debugGates);
+            return;
+        }
+
         BitStream dFlipFlopNotQ = new BitStream(size);
 
         DFlipFlop mainDFlipFlop = new DFlipFlop(this.input, this.regIn, this.enable, new BitStream(size), new BitStream(1),
@@ -2,7 +2,9 @@ package main.circuits;
 
 
 import main.BitStream;
+import main.circuits.behavioral.BehavioralRegisterFile;
 import main.gates.binary.AND;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
 
 import java.util.ArrayList;
@@ -14,6 +16,7 @@ public class RegisterFile implements Circuit {
     private final String name;
     private final boolean inDebuggerMode;
     private final int debugDepth;
+    private final SimulationModel model;
 
     private List<Register> registers;
 
@@ -28,10 +31,11 @@ public class RegisterFile implements Circuit {
      * @param name - the name of the circuit
      * @param inDebuggerMode - boolean to specify if the circuit is in the debug mode
      * @param debugDepth - how deep should debugging go
+     * @param model - whether the register file should be built out of gates or as a single behavioral node
      */
     public RegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
                         BitStream addressWrite, BitStream addressRead, String name,
-                        boolean inDebuggerMode, int debugDepth) {
+                        boolean inDebuggerMode, int debugDepth, SimulationModel model) {
         this.input = input;
         this.output = output;
         this.RFIn = RFIn;
@@ -42,8 +46,17 @@ public class RegisterFile implements Circuit {
         this.name = name;
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
+        this.model = model;
+
+        CircuitBuilder.construct(this.name, this::build);
+        BitStream.observe(this.getObservedStreams());
+    }
 
-        this.build();
+    public RegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
+                        BitStream addressWrite, BitStream addressRead, String name,
+                        boolean inDebuggerMode, int debugDepth) {
+        this(input, output, RFIn, RFOut, addressWrite, addressRead, name, inDebuggerMode, debugDepth,
+                SimulationModel.GATE_LEVEL);
     }
 
     public RegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
@@ -62,6 +75,11 @@ public class RegisterFile implements Circuit {
         this(input, output, RFIn, RFOut, addressWrite, addressRead, "RegisterFile", false, 0);
     }
 
+    public RegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
+                        BitStream addressWrite, BitStream addressRead, SimulationModel model) {
+        this(input, output, RFIn, RFOut, addressWrite, addressRead, "RegisterFile", false, 0, model);
+    }
+
     /**Getter for the list of registers from this RegisterFile.
      *
      * @return - the list of the registers
@@ -93,6 +111,18 @@ public class RegisterFile implements Circuit {
         return status;
     }
 
+    /**Get the streams read by requestStatus, including the data of every register.
+     *
+     * @return - the streams shown in the status of the register file
+     */
+    public List<BitStream> getObservedStreams() {
+        List<BitStream> streams = new ArrayList<>(List.of(this.RFOut, this.RFIn, this.addressRead, this.addressWrite));
+        for (Register register : this.registers) {
+            streams.addAll(register.getObservedStreams());
+        }
+        return streams;
+    }
+
     /**Define the build method to construct the circuit as described in the documentation.
      */
     @Override
@@ -102,6 +132,11 @@ public class RegisterFile implements Circuit {
         int registerCount = 1 << this.addressRead.getSize();
         List<String> registerNames = new ArrayList<>(List.of("AX", "BX", "CX", "DX", "DI", "SI", "BP", "SP"));
 
+        if (this.model == SimulationModel.BEHAVIORAL) {
+            this.buildBehavioral(registerCount, registerNames);
+            return;
+        }
+
         List<BitStream> addrWriteDecoderOutList = new ArrayList<>();
         List<BitStream> addrReadDecoderOutList = new ArrayList<>();
         for (int i = 0; i < registerCount; i++) {
@@ -133,4 +168,30 @@ public class RegisterFile implements Circuit {
             this.registers.add(register);
         }
     }
+
+    /**Build the register file as a single behavioral node. The registers are only used to report their state.
+     *
+     * @param registerCount - the number of registers
+     * @param registerNames - the names of the registers
+     */
+    private void buildBehavioral(int registerCount, List<String> registerNames) {
+        boolean debugGates = this.debugDepth > 0 ? this.inDebuggerMode : false;
+        int size = this.input.getSize();
+
+        List<BitStream> registerData = new ArrayList<>();
+        this.registers = new ArrayList<>();
+        for (int i = 0; i < registerCount; i++) {
+            BitStream data = new BitStream(size);
+            registerData.add(data);
+
+            String registerName = "REG" + i;
+            if (i < registerNames.size()) {
+                registerName = registerNames.get(i);
+            }
+            this.registers.add(new Register(data, registerName));
+        }
+
+        BehavioralRegisterFile registerFile = new BehavioralRegisterFile(this.input, this.output, this.RFIn, this.RFOut,
+                this.addressWrite, this.addressRead, registerData, this.name, debugGates);
+    }
 }
@@ -0,0 +1,11 @@
+package main.circuits;
+
+/**Enum with the available models for building circuits.
+ * GATE_LEVEL - build the circuit out of gates, as described in the documentation
+ * BEHAVIORAL - replace the circuit with a single node computing the same results with integer arithmetic
+ *              (only supported by some circuits, eg: Register, RegisterFile and ALU)
+ */
+public enum SimulationModel {
+    GATE_LEVEL,
+    BEHAVIORAL
+}
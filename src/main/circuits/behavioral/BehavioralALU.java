@@ -0,0 +1,161 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.utils.ExecutionQueue;
+
+public class BehavioralALU extends BehavioralModel {
+
+    /**The operations of the ALU, as decoded from the opCode.
+     */
+    public static final int ADD = 1;
+    public static final int SUBTRACT = 2;
+    public static final int NOT = 3;
+    public static final int OR = 4;
+    public static final int AND = 5;
+    public static final int XOR = 6;
+    public static final int NAND = 7;
+    public static final int NOR = 8;
+
+    private final BitStream source, destination, out, opCode, overflow;
+
+    /**Constructors for the BehavioralALU class. The model behaves like the gate level ALU: the out stream is
+     * only driven for the opCodes between ADD and NOR, the overflow is always driven with the overflow of the
+     * addition (or the subtraction, if opCode is SUBTRACT).
+     *
+     * @param source - the source BitStream
+     * @param destination - the destination BitStream
+     * @param out - the output BitStream
+     * @param opCode - the BitStream for selecting which operation should be performed
+     * @param overflow - BitStream specifying if overflow occurred
+     * @param name - the name of the ALU
+     * @param inDebuggerMode - boolean to specify if the unit is in debug mode
+     */
+    public BehavioralALU(BitStream source, BitStream destination, BitStream out, BitStream opCode,
+                         BitStream overflow, String name, boolean inDebuggerMode) {
+        super(new BitStream[]{source, destination, opCode}, new BitStream[]{out, overflow}, name, inDebuggerMode);
+        this.source = source;
+        this.destination = destination;
+        this.out = out;
+        this.opCode = opCode;
+        this.overflow = overflow;
+
+        this.setup();
+    }
+
+    public BehavioralALU(BitStream source, BitStream destination, BitStream out, BitStream opCode,
+                         BitStream overflow, String name) {
+        this(source, destination, out, opCode, overflow, name, false);
+    }
+
+    public BehavioralALU(BitStream source, BitStream destination, BitStream out, BitStream opCode,
+                         BitStream overflow, boolean inDebuggerMode) {
+        this(source, destination, out, opCode, overflow, "BehavioralALU", inDebuggerMode);
+    }
+
+    public BehavioralALU(BitStream source, BitStream destination, BitStream out, BitStream opCode,
+                         BitStream overflow) {
+        this(source, destination, out, opCode, overflow, "BehavioralALU", false);
+    }
+
+    /**Evaluate the ALU.
+     *
+     * @param queue - the execution queue
+     */
+    @Override
+    public void evaluate(ExecutionQueue queue) {
+        int operation = (int) this.opCode.getBits();
+        long src = this.source.getBits();
+        long dst = this.destination.getBits();
+        int size = this.source.getSize();
+
+        this.drive(this.overflow, getOverflow(operation, src, dst, size), queue);
+
+        if (operation >= ADD && operation <= NOR) {
+            this.drive(this.out, compute(operation, src, dst, size), queue);
+        }
+        else {
+            this.release(this.out);
+        }
+
+        if (this.isInDebuggerMode()) {
+            this.debug();
+        }
+    }
+
+    /**Compute the result of an operation (the output of the ALU for opCodes between ADD and NOR).
+     *
+     * @param operation - the operation to perform
+     * @param src - the value of the source
+     * @param dst - the value of the destination
+     * @param size - the number of bits of the operands
+     * @return - the result of the operation
+     */
+    public static long compute(int operation, long src, long dst, int size) {
+        long mask = size == 64 ? -1L : (1L << size) - 1;
+        switch (operation) {
+            case NOT:
+                return ~src & mask;
+            case OR:
+                return src | dst;
+            case AND:
+                return src & dst;
+            case XOR:
+                return src ^ dst;
+            case NAND:
+                return ~(src & dst) & mask;
+            case NOR:
+                return ~(src | dst) & mask;
+            case SUBTRACT:
+                return (src + (~dst & mask) + 1) & mask;
+            default:
+                return (src + dst) & mask;
+        }
+    }
+
+    /**Compute the overflow of the addition (or the subtraction, if the operation is SUBTRACT).
+     *
+     * @param operation - the operation to perform
+     * @param src - the value of the source
+     * @param dst - the value of the destination
+     * @param size - the number of bits of the operands
+     * @return - 1 if the addition overflows, 0 otherwise
+     */
+    public static long getOverflow(int operation, long src, long dst, int size) {
+        long mask = size == 64 ? -1L : (1L << size) - 1;
+        long carryIn = operation == SUBTRACT ? 1 : 0;
+        long addend = operation == SUBTRACT ? ~dst & mask : dst;
+        long lowMask = mask >>> 1;
+        long carryIntoLast = size > 1 ? (((src & lowMask) + (addend & lowMask) + carryIn) >>> (size - 1)) & 1 : 0;
+        return carryIntoLast ^ getCarryOut(src, addend, carryIn, size);
+    }
+
+    /**Get the carry out of the most significant bit of an addition.
+     *
+     * @param a - the first operand
+     * @param b - the second operand
+     * @param carryIn - the carry into the least significant bit
+     * @param size - the number of bits of the operands
+     * @return - the carry out (0 or 1)
+     */
+    private static long getCarryOut(long a, long b, long carryIn, int size) {
+        if (size < 64) {
+            return ((a + b + carryIn) >>> size) & 1;
+        }
+        long sum = a + b;
+        long carry = Long.compareUnsigned(sum, a) < 0 ? 1 : 0;
+        return carry | (sum == -1L && carryIn == 1 ? 1 : 0);
+    }
+
+    /**Check if the data streams have the same sizes and the overflow is a single bit.
+     */
+    @Override
+    public void checkIfSizesMatch() {
+        if (this.source.getSize() != this.destination.getSize() || this.source.getSize() != this.out.getSize()) {
+            throw new BitStreamInputSizeMismatch(this);
+        }
+        if (this.overflow.getSize() != 1) {
+            throw new BitStreamInputSizeMismatch(this);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.Node;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
+import main.utils.ExecutionQueue;
+import main.warnings.InconsistentBitStreamSourcesWarning;
+
+import java.util.List;
+
+public abstract class BehavioralModel implements Node {
+
+    private final BitStream[] inputs;
+    private final BitStream[] outputs;
+    private String name;
+    private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
+
+    /**Constructor for the BehavioralModel class, used to represent a whole circuit with a single node.
+     * The node keeps the same BitStreams as the circuit it replaces, but computes its outputs directly.
+     *
+     * @param inputs - the BitStreams read by the model
+     * @param outputs - the BitStreams driven by the model
+     * @param name - the name of the model
+     * @param inDebuggerMode - boolean to specify if additional debug information should be shown
+     */
+    public BehavioralModel(BitStream[] inputs, BitStream[] outputs, String name, boolean inDebuggerMode) {
+        this.inputs = inputs;
+        this.outputs = outputs;
+        this.name = name;
+        this.inDebuggerMode = inDebuggerMode;
+
+        for (BitStream input : this.inputs) {
+            input.addNewEndpoint(this);
+        }
+        for (BitStream output : this.outputs) {
+            output.addNewEndpoint(this);
+        }
+    }
+
+    /**Getters for all the attributes of the class.
+     */
+    public BitStream[] getInputs() {
+        return inputs;
+    }
+
+    public BitStream[] getOutputs() {
+        return outputs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isInDebuggerMode() {
+        return inDebuggerMode;
+    }
+
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**Method used to set up the model. Checks the sizes of the streams and evaluates the model once.
+     */
+    @Override
+    public void setup() {
+        this.checkIfSizesMatch();
+        CircuitBuilder.settle(this);
+    }
+
+    /**Drive an output stream with a new value. The neighbours connected with the stream are added
+     * to the queue if the value changed.
+     *
+     * @param output - the stream to drive
+     * @param newOutBits - the new value of the stream
+     * @param queue - the execution queue
+     */
+    protected void drive(BitStream output, long newOutBits, ExecutionQueue queue) {
+        newOutBits &= output.getMask();
+        if (output.getSource() != null && output.getSource() != this && output.getBits() != newOutBits) {
+            InconsistentBitStreamSourcesWarning.show(output, output.getSource(), this);
+        }
+        if (output.getBits() != newOutBits) {
+            output.addNeighboursToQueue(this, queue);
+            output.setBits(newOutBits);
+        }
+        output.setSource(this);
+    }
+
+    /**Stop driving an output stream (same as a disabled TriState).
+     *
+     * @param output - the stream to release
+     */
+    protected void release(BitStream output) {
+        if (output.getSource() == this) {
+            output.setSource(null);
+        }
+    }
+
+    /**The consistency of the sources is checked per stream when the stream is driven.
+     */
+    @Override
+    public void checkIfSourceIsConsistent(long newOutBits) {}
+
+    /**The outputs are compared one by one when they are driven.
+     */
+    @Override
+    public boolean decideIfEvaluateFurther(long newOutBits) {return false;}
+
+    /**The sources are set per stream when the stream is driven.
+     */
+    @Override
+    public void setSourceForOutStream() {}
+
+    /**Add all neighbours connected with the outputs of the model to the queue.
+     *
+     * @param queue - the execution queue
+     */
+    @Override
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        for (BitStream output : this.outputs) {
+            output.addNeighboursToQueue(this, queue);
+        }
+    }
+
+    /**Freeze all output BitStreams of the model (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        for (BitStream output : this.outputs) {
+            output.freeze();
+        }
+    }
+
+    /**Method used to record the outputs of the model (concatenated) in the Tracer.
+     */
+    @Override
+    public void debug() {
+        Tracer.record(this, List.of(this.outputs));
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "<" + this.name + ", "
+                + this.inputs.length + " inputs, " + this.outputs.length + " outputs>";
+    }
+}
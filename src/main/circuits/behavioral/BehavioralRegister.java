@@ -0,0 +1,110 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.Stateful;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.utils.ExecutionQueue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class BehavioralRegister extends BehavioralModel implements Stateful {
+
+    private final BitStream input, output, regIn, regOut, enable, data;
+    private long master;
+
+    /**Constructors for the BehavioralRegister class. The model behaves like the gate level Register:
+     * while regIn is high the (enabled) input is latched, when regIn falls the latched value is stored
+     * and while regOut is high the stored value is output.
+     *
+     * @param input - the input BitStream to the register
+     * @param output - the output from the register
+     * @param regIn - control line to tell if the register should read input
+     * @param regOut - control line to tell if the register should output data
+     * @param enable - control line to tell if the register is enabled
+     * @param data - BitStream holding the data currently stored in the register
+     * @param name - the name of the register
+     * @param inDebuggerMode - boolean to specify if the register is in debug mode
+     */
+    public BehavioralRegister(BitStream input, BitStream output, BitStream regIn, BitStream regOut,
+                              BitStream enable, BitStream data, String name, boolean inDebuggerMode) {
+        super(new BitStream[]{input, regIn, regOut, enable}, new BitStream[]{data, output}, name, inDebuggerMode);
+        this.input = input;
+        this.output = output;
+        this.regIn = regIn;
+        this.regOut = regOut;
+        this.enable = enable;
+        this.data = data;
+        this.master = data.getBits();
+
+        this.setup();
+    }
+
+    public BehavioralRegister(BitStream input, BitStream output, BitStream regIn, BitStream regOut,
+                              BitStream enable, BitStream data, String name) {
+        this(input, output, regIn, regOut, enable, data, name, false);
+    }
+
+    public BehavioralRegister(BitStream input, BitStream output, BitStream regIn, BitStream regOut,
+                              BitStream enable, BitStream data, boolean inDebuggerMode) {
+        this(input, output, regIn, regOut, enable, data, "BehavioralRegister", inDebuggerMode);
+    }
+
+    public BehavioralRegister(BitStream input, BitStream output, BitStream regIn, BitStream regOut,
+                              BitStream enable, BitStream data) {
+        this(input, output, regIn, regOut, enable, data, "BehavioralRegister", false);
+    }
+
+    /**Evaluate the register.
+     *
+     * @param queue - the execution queue
+     */
+    @Override
+    public void evaluate(ExecutionQueue queue) {
+        if (this.regIn.getBit(0)) {
+            this.master = this.enable.getBit(0) ? this.input.getBits() : this.data.getBits();
+        }
+        else {
+            this.drive(this.data, this.master, queue);
+        }
+
+        if (this.regOut.getBit(0)) {
+            this.drive(this.output, this.data.getBits(), queue);
+        }
+        else {
+            this.release(this.output);
+        }
+
+        if (this.isInDebuggerMode()) {
+            this.debug();
+        }
+    }
+
+    /**Write the state of the register, i.e: the latched (master) value.
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        out.writeLong(this.master);
+    }
+
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        this.master = in.readLong();
+    }
+
+    /**Check if the data streams have the same sizes and the control streams are single bits.
+     */
+    @Override
+    public void checkIfSizesMatch() {
+        if (this.input.getSize() != this.data.getSize() || this.output.getSize() != this.data.getSize()) {
+            throw new BitStreamInputSizeMismatch(this);
+        }
+        if (this.regIn.getSize() != 1 || this.regOut.getSize() != 1 || this.enable.getSize() != 1) {
+            throw new BitStreamInputSizeMismatch(this);
+        }
+    }
+}
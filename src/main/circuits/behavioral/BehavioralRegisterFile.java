@@ -0,0 +1,151 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.Stateful;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.utils.ExecutionQueue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BehavioralRegisterFile extends BehavioralModel implements Stateful {
+
+    private final BitStream input, output, RFIn, RFOut, addressWrite, addressRead;
+    private final BitStream[] registers;
+    private final long[] masters;
+
+    /**Constructors for the BehavioralRegisterFile class. The model behaves like the gate level RegisterFile,
+     * ie: like a set of registers, where only the register at addressWrite is enabled and only the register
+     * at addressRead outputs its data (if RFOut is high).
+     *
+     * @param input - the input to the register file
+     * @param output - the output from the register file
+     * @param RFIn - BitStream to specify if values are written to the register file
+     * @param RFOut - BitStream to specify if values are read from the register file
+     * @param addressWrite - control which register is written to
+     * @param addressRead - control which register outputs its value
+     * @param registers - BitStreams holding the data of each register (there must be 2^#addressRead of them)
+     * @param name - the name of the register file
+     * @param inDebuggerMode - boolean to specify if the register file is in debug mode
+     */
+    public BehavioralRegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
+                                  BitStream addressWrite, BitStream addressRead, List<BitStream> registers,
+                                  String name, boolean inDebuggerMode) {
+        super(new BitStream[]{input, RFIn, RFOut, addressWrite, addressRead},
+                BehavioralRegisterFile.concat(registers, output), name, inDebuggerMode);
+        this.input = input;
+        this.output = output;
+        this.RFIn = RFIn;
+        this.RFOut = RFOut;
+        this.addressWrite = addressWrite;
+        this.addressRead = addressRead;
+        this.registers = registers.toArray(new BitStream[0]);
+        this.masters = new long[this.registers.length];
+        for (int i = 0; i < this.registers.length; i++) {
+            this.masters[i] = this.registers[i].getBits();
+        }
+
+        this.setup();
+    }
+
+    public BehavioralRegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
+                                  BitStream addressWrite, BitStream addressRead, List<BitStream> registers,
+                                  String name) {
+        this(input, output, RFIn, RFOut, addressWrite, addressRead, registers, name, false);
+    }
+
+    public BehavioralRegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
+                                  BitStream addressWrite, BitStream addressRead, List<BitStream> registers,
+                                  boolean inDebuggerMode) {
+        this(input, output, RFIn, RFOut, addressWrite, addressRead, registers, "BehavioralRegisterFile",
+                inDebuggerMode);
+    }
+
+    public BehavioralRegisterFile(BitStream input, BitStream output, BitStream RFIn, BitStream RFOut,
+                                  BitStream addressWrite, BitStream addressRead, List<BitStream> registers) {
+        this(input, output, RFIn, RFOut, addressWrite, addressRead, registers, "BehavioralRegisterFile", false);
+    }
+
+    /**Create the array of the outputs of the model.
+     *
+     * @param registers - the BitStreams of the registers
+     * @param output - the output of the register file
+     * @return - the registers followed by the output
+     */
+    private static BitStream[] concat(List<BitStream> registers, BitStream output) {
+        List<BitStream> outputs = new ArrayList<>(registers);
+        outputs.add(output);
+        return outputs.toArray(new BitStream[0]);
+    }
+
+    /**Evaluate the register file.
+     *
+     * @param queue - the execution queue
+     */
+    @Override
+    public void evaluate(ExecutionQueue queue) {
+        if (this.RFIn.getBit(0)) {
+            int written = (int) this.addressWrite.getBits();
+            for (int i = 0; i < this.registers.length; i++) {
+                this.masters[i] = i == written ? this.input.getBits() : this.registers[i].getBits();
+            }
+        }
+        else {
+            for (int i = 0; i < this.registers.length; i++) {
+                this.drive(this.registers[i], this.masters[i], queue);
+            }
+        }
+
+        if (this.RFOut.getBit(0)) {
+            this.drive(this.output, this.registers[(int) this.addressRead.getBits()].getBits(), queue);
+        }
+        else {
+            this.release(this.output);
+        }
+
+        if (this.isInDebuggerMode()) {
+            this.debug();
+        }
+    }
+
+    /**Write the state of the register file, i.e: the latched (master) values of all registers.
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        for (long master : this.masters) {
+            out.writeLong(master);
+        }
+    }
+
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        for (int i = 0; i < this.masters.length; i++) {
+            this.masters[i] = in.readLong();
+        }
+    }
+
+    /**Check if the number of registers matches the addresses and if all data streams have the same size.
+     */
+    @Override
+    public void checkIfSizesMatch() {
+        if (this.registers.length != 1 << this.addressRead.getSize()
+                || this.addressWrite.getSize() != this.addressRead.getSize()) {
+            throw new BitStreamInputSizeMismatch(this);
+        }
+        if (this.RFIn.getSize() != 1 || this.RFOut.getSize() != 1
+                || this.output.getSize() != this.input.getSize()) {
+            throw new BitStreamInputSizeMismatch(this);
+        }
+        for (BitStream register : this.registers) {
+            if (register.getSize() != this.input.getSize()) {
+                throw new BitStreamInputSizeMismatch(this);
+            }
+        }
+    }
+}
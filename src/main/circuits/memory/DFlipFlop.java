@@ -10,6 +10,7 @@ import main.gates.binary.NOR;
 import main.gates.multi.MultiNAND;
 import main.gates.multi.MultiNOR;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 import main.utils.ProcessRunner;
 
 import java.util.ArrayList;
@@ -36,7 +37,7 @@ public class DFlipFlop extends FlipFlop {
                      String name, boolean inDebuggerMode, int debugDepth) {
         super(D, clock, enable, preset, clear, Q, notQ, risingEdge, name, inDebuggerMode, debugDepth);
 
-        this.build();
+        CircuitBuilder.construct(name, this::build);
     }
 
     public DFlipFlop(BitStream D, BitStream clock, BitStream enable, BitStream preset, BitStream clear,
@@ -6,6 +6,7 @@ import main.control.Splitter;
 import main.gates.binary.AND;
 import main.gates.binary.NOR;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,7 +38,7 @@ public class DLatch implements Circuit {
         this.inDebuggerMode = inDebuggerMode;
         this.debugDepth = debugDepth;
 
-        this.build();
+        CircuitBuilder.construct(this.name, this::build);
     }
 
     public DLatch(BitStream D, BitStream enable, BitStream Q, BitStream notQ,
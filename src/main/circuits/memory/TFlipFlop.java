@@ -5,6 +5,7 @@ import main.circuits.Circuit;
 import main.gates.binary.AND;
 import main.gates.binary.OR;
 import main.gates.unary.NOT;
+import main.utils.CircuitBuilder;
 
 public class TFlipFlop extends FlipFlop {
 
@@ -27,7 +28,7 @@ public class TFlipFlop extends FlipFlop {
                      String name, boolean inDebuggerMode, int debugDepth) {
         super(T, clock, enable, preset, clear, Q, notQ, risingEdge, name, inDebuggerMode, debugDepth);
 
-        this.build();
+        CircuitBuilder.construct(name, this::build);
     }
 
     public TFlipFlop(BitStream T, BitStream clock, BitStream enable, BitStream preset, BitStream clear,
@@ -0,0 +1,502 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.control.Input;
+import main.control.Output;
+import main.control.Splitter;
+import main.exceptions.NetlistCompilationException;
+import main.memory.PackedWordStore;
+import main.memory.RAM;
+import main.memory.ROM;
+import main.memory.RomImage;
+import main.memory.WordStore;
+import main.utils.NetlistExplorer;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BatchSimulator {
+
+    /**Class used to simulate LANES independent copies of a gate level circuit (eg: a CPU running different
+     * programs) at once. The circuit is bit-sliced: every bit of every BitStream is stored in a long, whose bit
+     * number i holds the value of the bit in lane (copy) number i. A gate then computes its result for all
+     * lanes with the same bitwise operation as its compute method, and every evaluation advances all the
+     * lanes together. Every lane of a RAM has its own memory (see getMemory), the ROMs are shared.
+     * The nodes are evaluated in the same event driven way as with the FIFO policy: a node is evaluated when
+     * one of its inputs changed in any of the lanes, which gives the same results in every lane as the
+     * simulation of the circuit on its own (evaluating a node whose inputs did not change leaves it unchanged).
+     * The simulator is built from the current state of the circuit (all lanes start in that state), which is
+     * not modified afterwards. Only gates, splitters, inputs, outputs, RAMs and ROMs are supported, so circuits
+     * using behavioral models or compiled netlists cannot be simulated in batch.
+     */
+
+    public static final int LANES = Long.SIZE;
+
+    private static final int NONE = -1;
+    private static final int COPY = 100;
+    private static final int ROM_READ = 101;
+    private static final int RAM_ACCESS = 102;
+
+    private final NetlistExplorer netlist;
+    private final long[] words;
+    private final int[] offsets;
+    private final int[] wordStreams;
+    private final int[][] endpoints;
+
+    private final int[] opcodes;
+    private final int[][] operands;
+    private final Object[] memories;
+
+    private final int[] queue;
+    private final boolean[] queued;
+    private int head, size;
+
+    private final int[] changedStreams;
+    private final boolean[] changed;
+    private int changedCount;
+
+    private final long[] result;
+
+    private long evaluationCount;
+
+    /**Constructor for the BatchSimulator class. Throws NetlistCompilationException if the circuit contains
+     * a node that cannot be simulated in batch.
+     *
+     * @param roots - streams of the circuit (eg: its clock), from which the circuit is found (see NetlistExplorer)
+     */
+    public BatchSimulator(BitStream... roots) {
+        this.netlist = new NetlistExplorer(roots);
+        List<BitStream> streams = this.netlist.getStreams();
+        List<Node> nodes = this.netlist.getNodes();
+
+        this.offsets = new int[streams.size() + 1];
+        for (int i = 0; i < streams.size(); i++) {
+            this.offsets[i + 1] = this.offsets[i] + streams.get(i).getSize();
+        }
+        this.words = new long[this.offsets[streams.size()]];
+        this.wordStreams = new int[this.words.length];
+        this.endpoints = new int[streams.size()][];
+        int maxSize = 0;
+        for (int i = 0; i < streams.size(); i++) {
+            BitStream stream = streams.get(i);
+            maxSize = Math.max(maxSize, stream.getSize());
+            for (int bit = 0; bit < stream.getSize(); bit++) {
+                this.words[this.offsets[i] + bit] = stream.getBit(bit) ? -1L : 0;
+                this.wordStreams[this.offsets[i] + bit] = i;
+            }
+            this.endpoints[i] = new int[stream.getEndpoints().size()];
+            for (int j = 0; j < this.endpoints[i].length; j++) {
+                this.endpoints[i][j] = this.netlist.indexOf(stream.getEndpoints().get(j));
+            }
+        }
+
+        this.opcodes = new int[nodes.size()];
+        this.operands = new int[nodes.size()][];
+        this.memories = new Object[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            this.compile(i, nodes.get(i));
+        }
+
+        this.queue = new int[nodes.size()];
+        this.queued = new boolean[nodes.size()];
+        this.changedStreams = new int[streams.size()];
+        this.changed = new boolean[streams.size()];
+        this.result = new long[maxSize];
+    }
+
+    /**Translate a node into an instruction. The operands of the instructions are:
+     * gates - the output stream followed by the input streams (see CompiledNetlist for the opcodes)
+     * COPY (Splitter) - pairs of words: the word written followed by the word read
+     * ROM_READ - the address stream and the output stream (the image of the ROM is kept in memories)
+     * RAM_ACCESS - address, dataIn, dataOut, write and read streams (the memories of the lanes and the last
+     *              value of the write signal are kept in memories)
+     *
+     * @param index - the index of the node
+     * @param node - the node
+     */
+    private void compile(int index, Node node) {
+        int opcode = NetlistCompiler.getOpcode(node);
+        if (opcode == CompiledNetlist.SPLIT) {
+            this.opcodes[index] = COPY;
+            this.operands[index] = this.compileSplitter((Splitter) node);
+        }
+        else if (opcode >= 0) {
+            List<BitStream> inputs = NetlistExplorer.getInputs(node);
+            this.opcodes[index] = opcode;
+            this.operands[index] = new int[inputs.size() + 1];
+            this.operands[index][0] = this.netlist.indexOf(NetlistExplorer.getOutputs(node).get(0));
+            for (int i = 0; i < inputs.size(); i++) {
+                this.operands[index][i + 1] = this.netlist.indexOf(inputs.get(i));
+            }
+        }
+        else if (node instanceof ROM) {
+            ROM rom = (ROM) node;
+            this.opcodes[index] = ROM_READ;
+            this.operands[index] = new int[]{this.netlist.indexOf(rom.getAddress()),
+                    this.netlist.indexOf(rom.getOutput())};
+            this.memories[index] = rom.getImage();
+        }
+        else if (node instanceof RAM) {
+            RAM ram = (RAM) node;
+            this.opcodes[index] = RAM_ACCESS;
+            this.operands[index] = new int[]{this.netlist.indexOf(ram.getAddress()),
+                    this.netlist.indexOf(ram.getDataIn()), this.netlist.indexOf(ram.getDataOut()),
+                    this.netlist.indexOf(ram.getWrite()), this.netlist.indexOf(ram.getRead())};
+            this.memories[index] = new RamLanes(ram);
+        }
+        else if (node instanceof Input || node instanceof Output) {
+            this.opcodes[index] = NONE;
+            this.operands[index] = new int[0];
+        }
+        else {
+            throw new NetlistCompilationException(node);
+        }
+    }
+
+    /**Translate a splitter into the words it copies. Every bit of the outputs is a copy of a bit of the inputs
+     * (the bits of the inputs are replicated if the outputs have more bits, see Splitter).
+     *
+     * @param splitter - the splitter
+     * @return - pairs of words: the word written followed by the word read
+     */
+    private int[] compileSplitter(Splitter splitter) {
+        int inSize = splitter.getBitStreamListSize(splitter.getIn());
+        int outSize = splitter.getBitStreamListSize(splitter.getOut());
+        int multiplier = outSize / inSize;
+
+        int[] sources = new int[inSize];
+        int bit = 0;
+        for (BitStream in : splitter.getIn()) {
+            int offset = this.offsets[this.netlist.indexOf(in)];
+            for (int i = 0; i < in.getSize(); i++) {
+                sources[bit++] = offset + i;
+            }
+        }
+
+        int[] copies = new int[outSize * 2];
+        bit = 0;
+        for (BitStream out : splitter.getOut()) {
+            int offset = this.offsets[this.netlist.indexOf(out)];
+            for (int i = 0; i < out.getSize(); i++, bit++) {
+                copies[bit * 2] = offset + i;
+                copies[bit * 2 + 1] = sources[bit / multiplier];
+            }
+        }
+        return copies;
+    }
+
+    /**Getters for the statistics of the simulator.
+     */
+    public int getNodeCount() {
+        return this.opcodes.length;
+    }
+
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    /**Get the value of a stream in one of the lanes.
+     *
+     * @param stream - the stream
+     * @param lane - the lane (between 0 and LANES - 1)
+     * @return - the packed bits of the stream (same as BitStream.getBits)
+     */
+    public long getBits(BitStream stream, int lane) {
+        int index = this.getIndex(stream);
+        long bits = 0;
+        for (int word = this.offsets[index]; word < this.offsets[index + 1]; word++) {
+            bits = (bits << 1) | ((this.words[word] >>> lane) & 1);
+        }
+        return bits;
+    }
+
+    /**Set the value of a stream in one of the lanes. The nodes reading the stream are evaluated by the next run.
+     *
+     * @param stream - the stream
+     * @param lane - the lane (between 0 and LANES - 1)
+     * @param bits - the new packed bits of the stream
+     */
+    public void setBits(BitStream stream, int lane, long bits) {
+        int index = this.getIndex(stream);
+        int shift = this.offsets[index + 1] - this.offsets[index] - 1;
+        for (int word = this.offsets[index]; word < this.offsets[index + 1]; word++, shift--) {
+            long laneBit = ((bits >>> shift) & 1) << lane;
+            this.write(word, (this.words[word] & ~(1L << lane)) | laneBit);
+        }
+        this.scheduleChanged(NONE);
+    }
+
+    /**Set the value of a stream in all the lanes. The nodes reading the stream are evaluated by the next run.
+     *
+     * @param stream - the stream
+     * @param bits - the new packed bits of the stream
+     */
+    public void setBits(BitStream stream, long bits) {
+        int index = this.getIndex(stream);
+        int shift = this.offsets[index + 1] - this.offsets[index] - 1;
+        for (int word = this.offsets[index]; word < this.offsets[index + 1]; word++, shift--) {
+            this.write(word, ((bits >>> shift) & 1) != 0 ? -1L : 0);
+        }
+        this.scheduleChanged(NONE);
+    }
+
+    /**Get the memory of a RAM in one of the lanes. Writing to it is the batch equivalent of RAM.putData.
+     *
+     * @param ram - the RAM
+     * @param lane - the lane (between 0 and LANES - 1)
+     * @return - the memory of the RAM in the lane
+     */
+    public WordStore getMemory(RAM ram, int lane) {
+        int index = this.netlist.indexOf(ram);
+        if (index < 0) {
+            throw new IllegalArgumentException(ram + " is not part of the simulated circuit");
+        }
+        return ((RamLanes) this.memories[index]).stores[lane];
+    }
+
+    private int getIndex(BitStream stream) {
+        int index = this.netlist.indexOf(stream);
+        if (index < 0) {
+            throw new IllegalArgumentException(stream + " is not part of the simulated circuit");
+        }
+        return index;
+    }
+
+    /**Run a number of clock cycles in all the lanes (a cycle is a rising edge followed by a falling edge,
+     * same as with the ClockDriver).
+     *
+     * @param clock - the clock stream of the circuit
+     * @param cycles - the number of cycles to run
+     */
+    public void runCycles(BitStream clock, long cycles) {
+        for (long i = 0; i < cycles; i++) {
+            this.setBits(clock, 1);
+            this.run();
+            this.setBits(clock, 0);
+            this.run();
+        }
+    }
+
+    /**Evaluate the nodes until no stream changes anymore in any of the lanes.
+     */
+    public void run() {
+        while (this.size > 0) {
+            int node = this.queue[this.head];
+            this.head = this.head + 1 == this.queue.length ? 0 : this.head + 1;
+            this.size--;
+            this.queued[node] = false;
+
+            this.evaluate(node);
+            this.scheduleChanged(node);
+        }
+    }
+
+    /**Evaluate a node in all the lanes.
+     *
+     * @param node - the index of the node
+     */
+    private void evaluate(int node) {
+        int[] operands = this.operands[node];
+        long[] words = this.words;
+        this.evaluationCount++;
+
+        switch (this.opcodes[node]) {
+            case NONE:
+                return;
+            case COPY:
+                for (int i = 0; i < operands.length; i += 2) {
+                    this.write(operands[i], words[operands[i + 1]]);
+                }
+                return;
+            case ROM_READ:
+                this.evaluateRom(operands, (RomImage) this.memories[node]);
+                return;
+            case RAM_ACCESS:
+                this.evaluateRam(operands, (RamLanes) this.memories[node]);
+                return;
+            case CompiledNetlist.TRISTATE:
+                long control = words[this.offsets[operands[2]]];
+                if (control == 0) {
+                    return;
+                }
+                for (int out = this.offsets[operands[0]], in = this.offsets[operands[1]];
+                     out < this.offsets[operands[0] + 1]; out++, in++) {
+                    this.write(out, (words[in] & control) | (words[out] & ~control));
+                }
+                return;
+            default:
+                this.evaluateGate(this.opcodes[node], operands);
+        }
+    }
+
+    /**Evaluate a logic gate bit by bit: every bit of the output is computed from the same bits of the inputs
+     * with the same operation as in the compute method of the gate.
+     *
+     * @param opcode - the opcode of the gate (see CompiledNetlist)
+     * @param operands - the output stream followed by the input streams
+     */
+    private void evaluateGate(int opcode, int[] operands) {
+        long[] words = this.words;
+        int size = this.offsets[operands[0] + 1] - this.offsets[operands[0]];
+        for (int bit = 0; bit < size; bit++) {
+            long a = words[this.offsets[operands[1]] + bit];
+            long result;
+            switch (opcode) {
+                case CompiledNetlist.AND:
+                    result = a & words[this.offsets[operands[2]] + bit];
+                    break;
+                case CompiledNetlist.OR:
+                    result = a | words[this.offsets[operands[2]] + bit];
+                    break;
+                case CompiledNetlist.XOR:
+                    result = a ^ words[this.offsets[operands[2]] + bit];
+                    break;
+                case CompiledNetlist.NAND:
+                    result = ~(a & words[this.offsets[operands[2]] + bit]);
+                    break;
+                case CompiledNetlist.NOR:
+                    result = ~(a | words[this.offsets[operands[2]] + bit]);
+                    break;
+                case CompiledNetlist.NOT:
+                    result = ~a;
+                    break;
+                default:
+                    result = a;
+                    for (int i = 2; i < operands.length; i++) {
+                        long b = words[this.offsets[operands[i]] + bit];
+                        result = opcode == CompiledNetlist.MULTI_AND || opcode == CompiledNetlist.MULTI_NAND
+                                ? result & b : result | b;
+                    }
+                    if (opcode == CompiledNetlist.MULTI_NAND || opcode == CompiledNetlist.MULTI_NOR) {
+                        result = ~result;
+                    }
+            }
+            this.write(this.offsets[operands[0]] + bit, result);
+        }
+    }
+
+    /**Evaluate a ROM: the word at the address of every lane is read from the shared image.
+     *
+     * @param operands - the address and the output stream
+     * @param image - the image of the ROM
+     */
+    private void evaluateRom(int[] operands, RomImage image) {
+        int out = this.offsets[operands[1]];
+        int wordSize = this.offsets[operands[1] + 1] - out;
+        long[] result = this.result;
+        Arrays.fill(result, 0, wordSize, 0);
+        for (int lane = 0; lane < LANES; lane++) {
+            long word = image.read((int) this.getLaneBits(operands[0], lane));
+            for (int bit = 0; bit < wordSize; bit++) {
+                result[bit] |= ((word >>> (wordSize - bit - 1)) & 1) << lane;
+            }
+        }
+        for (int bit = 0; bit < wordSize; bit++) {
+            this.write(out + bit, result[bit]);
+        }
+    }
+
+    /**Evaluate a RAM in every lane, the same way as RAM.evaluate: the data is written when the write signal
+     * falls and the output is only updated while the read signal is high.
+     *
+     * @param operands - the address, dataIn, dataOut, write and read streams
+     * @param ram - the memories of the lanes
+     */
+    private void evaluateRam(int[] operands, RamLanes ram) {
+        long write = this.words[this.offsets[operands[3]]];
+        long read = this.words[this.offsets[operands[4]]];
+        long written = ~write & ram.lastWriteSignal;
+        ram.lastWriteSignal = write;
+
+        for (long lanes = written; lanes != 0; lanes &= lanes - 1) {
+            int lane = Long.numberOfTrailingZeros(lanes);
+            ram.stores[lane].write(this.getLaneBits(operands[0], lane), this.getLaneBits(operands[1], lane));
+        }
+        if (read == 0) {
+            return;
+        }
+
+        int out = this.offsets[operands[2]];
+        int wordSize = this.offsets[operands[2] + 1] - out;
+        long[] result = this.result;
+        Arrays.fill(result, 0, wordSize, 0);
+        for (long lanes = read; lanes != 0; lanes &= lanes - 1) {
+            int lane = Long.numberOfTrailingZeros(lanes);
+            long word = ram.stores[lane].read(this.getLaneBits(operands[0], lane));
+            for (int bit = 0; bit < wordSize; bit++) {
+                result[bit] |= ((word >>> (wordSize - bit - 1)) & 1) << lane;
+            }
+        }
+        for (int bit = 0; bit < wordSize; bit++) {
+            this.write(out + bit, (this.words[out + bit] & ~read) | result[bit]);
+        }
+    }
+
+    private long getLaneBits(int stream, int lane) {
+        long bits = 0;
+        for (int word = this.offsets[stream]; word < this.offsets[stream + 1]; word++) {
+            bits = (bits << 1) | ((this.words[word] >>> lane) & 1);
+        }
+        return bits;
+    }
+
+    /**Write a word, remembering its stream if the word changed.
+     *
+     * @param word - the index of the word
+     * @param value - the new value of the word
+     */
+    private void write(int word, long value) {
+        if (this.words[word] != value) {
+            this.words[word] = value;
+            int stream = this.wordStreams[word];
+            if (!this.changed[stream]) {
+                this.changed[stream] = true;
+                this.changedStreams[this.changedCount++] = stream;
+            }
+        }
+    }
+
+    /**Add the endpoints of all changed streams to the queue, except for the node that changed them (unless it
+     * is connected with the stream more than once, same as in BitStream.addNeighboursToQueue).
+     *
+     * @param source - the index of the node that changed the streams, or NONE
+     */
+    private void scheduleChanged(int source) {
+        for (int i = 0; i < this.changedCount; i++) {
+            int stream = this.changedStreams[i];
+            this.changed[stream] = false;
+            boolean skipped = false;
+            for (int node : this.endpoints[stream]) {
+                if (node == source && !skipped) {
+                    skipped = true;
+                }
+                else if (!this.queued[node]) {
+                    this.queued[node] = true;
+                    this.queue[(this.head + this.size++) % this.queue.length] = node;
+                }
+            }
+        }
+        this.changedCount = 0;
+    }
+
+    /**The state of a RAM in all the lanes.
+     */
+    private static class RamLanes {
+
+        private final WordStore[] stores;
+        private long lastWriteSignal;
+
+        RamLanes(RAM ram) {
+            this.stores = new WordStore[LANES];
+            WordStore memory = ram.getMemory();
+            for (int lane = 0; lane < LANES; lane++) {
+                this.stores[lane] = new PackedWordStore(ram.getAddress().getSize(), memory.getWordSize());
+                for (long address = memory.findNonZero(0); address >= 0; address = memory.findNonZero(address + 1)) {
+                    this.stores[lane].write(address, memory.read(address));
+                }
+            }
+            this.lastWriteSignal = ram.getWrite().getBit(0) ? -1L : 0;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.Stateful;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
+import main.utils.ExecutionQueue;
+import main.warnings.InconsistentBitStreamSourcesWarning;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompiledNetlist implements Node, Stateful {
+
+    /**Opcodes of the instructions. The operands of an instruction follow its opcode in the code array:
+     * AND, OR, XOR, NAND, NOR - destination, first source, second source
+     * NOT - destination, source
+     * MULTI_AND, MULTI_OR, MULTI_NAND, MULTI_NOR - destination, number of sources, sources...
+     * TRISTATE - destination, source, control
+     * SPLIT - multiplier, number of sources, sources..., number of destinations, destinations...
+     * All operands are slots, ie indexes of the BitStreams whose values are stored in the values array.
+     */
+    static final int AND = 0;
+    static final int OR = 1;
+    static final int XOR = 2;
+    static final int NAND = 3;
+    static final int NOR = 4;
+    static final int NOT = 5;
+    static final int MULTI_AND = 6;
+    static final int MULTI_OR = 7;
+    static final int MULTI_NAND = 8;
+    static final int MULTI_NOR = 9;
+    static final int TRISTATE = 10;
+    static final int SPLIT = 11;
+
+    private final BitStream[] streams;
+    private final long[] values;
+    private final long[] masks;
+    private final int[] sizes;
+    private final int[] inputSlots;
+    private final int[] drivenSlots;
+    private final int[] outputSlots;
+    private int[] writtenSlots;
+    private final int[] code;
+    private final List<Node> nodes;
+    private final int depth;
+    private final String name;
+    private boolean installed;
+    private boolean queued;
+    private int level;
+
+    /**Constructor for the CompiledNetlist class. Compiled netlists should be created with the NetlistCompiler.
+     *
+     * @param streams - all BitStreams of the netlist, the index of a stream is its slot
+     * @param inputSlots - the slots of the streams that are read but not driven by the netlist
+     * @param drivenSlots - the slots of the streams that are driven by the netlist
+     * @param outputSlots - the slots of the output streams of the netlist
+     * @param code - the levelized instructions of the netlist
+     * @param nodes - the original nodes the netlist was compiled from
+     * @param depth - the number of levels of the netlist
+     * @param name - the name of the netlist
+     */
+    CompiledNetlist(BitStream[] streams, int[] inputSlots, int[] drivenSlots, int[] outputSlots, int[] code,
+                    List<Node> nodes, int depth, String name) {
+        this.streams = streams;
+        this.inputSlots = inputSlots;
+        this.drivenSlots = drivenSlots;
+        this.outputSlots = outputSlots;
+        this.writtenSlots = drivenSlots;
+        this.code = code;
+        this.nodes = nodes;
+        this.depth = depth;
+        this.name = name;
+        this.installed = false;
+
+        this.values = new long[streams.length];
+        this.masks = new long[streams.length];
+        this.sizes = new int[streams.length];
+        for (int i = 0; i < streams.length; i++) {
+            this.values[i] = streams[i].getBits();
+            this.masks[i] = streams[i].getMask();
+            this.sizes[i] = streams[i].getSize();
+        }
+    }
+
+    /**Getters for the attributes of the CompiledNetlist class.
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getInstructionCount() {
+        int count = 0;
+        for (int pc = 0; pc < this.code.length; pc += this.getInstructionLength(pc)) {
+            count++;
+        }
+        return count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isInstalled() {
+        return installed;
+    }
+
+    /**Getters for the streams read and the streams driven by the netlist.
+     */
+    public BitStream[] getInputStreams() {
+        BitStream[] inputs = new BitStream[this.inputSlots.length];
+        for (int i = 0; i < this.inputSlots.length; i++) {
+            inputs[i] = this.streams[this.inputSlots[i]];
+        }
+        return inputs;
+    }
+
+    public BitStream[] getDrivenStreams() {
+        BitStream[] driven = new BitStream[this.drivenSlots.length];
+        for (int i = 0; i < this.drivenSlots.length; i++) {
+            driven[i] = this.streams[this.drivenSlots[i]];
+        }
+        return driven;
+    }
+
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**Replace the original nodes with the compiled netlist. The original nodes are disconnected from all
+     * their BitStreams, so that the event driven simulation only evaluates the netlist from now on.
+     * From then on, only the driven streams that are outputs of the netlist or are read by other nodes
+     * are written back after an evaluation, the purely internal ones only live in the values array.
+     */
+    public void install() {
+        if (this.installed) {
+            return;
+        }
+
+        for (Node node : this.nodes) {
+            for (BitStream stream : this.streams) {
+                while (stream.getEndpoints().contains(node)) {
+                    stream.removeEndpoint(node);
+                }
+            }
+        }
+        for (int slot : this.inputSlots) {
+            this.streams[slot].addNewEndpoint(this);
+        }
+        for (int slot : this.drivenSlots) {
+            this.streams[slot].addNewEndpoint(this);
+        }
+        this.freeze();
+        this.writtenSlots = this.getVisibleSlots();
+        this.installed = true;
+
+        this.setup();
+    }
+
+    /**Get the driven slots whose streams can be observed from outside of the netlist.
+     *
+     * @return - the slots of the output streams and of the streams with other endpoints than the netlist
+     */
+    private int[] getVisibleSlots() {
+        List<Integer> visible = new ArrayList<>();
+        for (int slot : this.drivenSlots) {
+            boolean isOutput = false;
+            for (int outputSlot : this.outputSlots) {
+                isOutput |= outputSlot == slot;
+            }
+            if (isOutput || this.streams[slot].getEndpoints().size() > 1) {
+                visible.add(slot);
+            }
+        }
+
+        int[] out = new int[visible.size()];
+        for (int i = 0; i < visible.size(); i++) {
+            out[i] = visible.get(i);
+        }
+        return out;
+    }
+
+    /**Method used to set up the netlist, evaluating it once.
+     */
+    @Override
+    public void setup() {
+        this.checkIfSizesMatch();
+        CircuitBuilder.settle(this);
+    }
+
+    /**The sizes were already checked by the nodes the netlist was compiled from.
+     */
+    @Override
+    public void checkIfSizesMatch() {}
+
+    /**Evaluate the netlist. The values of the input streams are loaded, all instructions are executed
+     * in one linear pass and the driven streams that changed are written back.
+     *
+     * @param queue - the execution queue
+     */
+    @Override
+    public void evaluate(ExecutionQueue queue) {
+        for (int slot : this.inputSlots) {
+            this.values[slot] = this.streams[slot].getBits();
+        }
+
+        this.execute();
+
+        for (int slot : this.writtenSlots) {
+            BitStream stream = this.streams[slot];
+            long newBits = this.values[slot];
+            if (stream.getSource() != null && stream.getSource() != this && stream.getBits() != newBits) {
+                InconsistentBitStreamSourcesWarning.show(stream, stream.getSource(), this);
+            }
+            if (stream.getBits() != newBits) {
+                stream.addNeighboursToQueue(this, queue);
+                stream.setBits(newBits);
+            }
+            stream.setSource(this);
+        }
+    }
+
+    /**Execute all instructions of the netlist on the values array.
+     */
+    private void execute() {
+        int[] code = this.code;
+        long[] values = this.values;
+        int pc = 0;
+        while (pc < code.length) {
+            switch (code[pc]) {
+                case AND:
+                    values[code[pc + 1]] = values[code[pc + 2]] & values[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case OR:
+                    values[code[pc + 1]] = values[code[pc + 2]] | values[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case XOR:
+                    values[code[pc + 1]] = values[code[pc + 2]] ^ values[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case NAND:
+                    values[code[pc + 1]] = ~(values[code[pc + 2]] & values[code[pc + 3]]) & this.masks[code[pc + 1]];
+                    pc += 4;
+                    break;
+                case NOR:
+                    values[code[pc + 1]] = ~(values[code[pc + 2]] | values[code[pc + 3]]) & this.masks[code[pc + 1]];
+                    pc += 4;
+                    break;
+                case NOT:
+                    values[code[pc + 1]] = ~values[code[pc + 2]] & this.masks[code[pc + 1]];
+                    pc += 3;
+                    break;
+                case MULTI_AND:
+                case MULTI_NAND: {
+                    long result = this.masks[code[pc + 1]];
+                    for (int i = 0; i < code[pc + 2]; i++) {
+                        result &= values[code[pc + 3 + i]];
+                    }
+                    values[code[pc + 1]] = code[pc] == MULTI_AND ? result : ~result & this.masks[code[pc + 1]];
+                    pc += 3 + code[pc + 2];
+                    break;
+                }
+                case MULTI_OR:
+                case MULTI_NOR: {
+                    long result = 0;
+                    for (int i = 0; i < code[pc + 2]; i++) {
+                        result |= values[code[pc + 3 + i]];
+                    }
+                    values[code[pc + 1]] = code[pc] == MULTI_OR ? result : ~result & this.masks[code[pc + 1]];
+                    pc += 3 + code[pc + 2];
+                    break;
+                }
+                case TRISTATE:
+                    if (values[code[pc + 3]] != 0) {
+                        values[code[pc + 1]] = values[code[pc + 2]];
+                    }
+                    pc += 4;
+                    break;
+                case SPLIT:
+                    pc = this.executeSplit(pc);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[pc] + " at " + pc);
+            }
+        }
+    }
+
+    /**Execute a SPLIT instruction, ie concatenate the sources (replicating every bit multiplier times)
+     * and distribute the result over the destinations.
+     *
+     * @param pc - the position of the instruction
+     * @return - the position of the next instruction
+     */
+    private int executeSplit(int pc) {
+        int multiplier = this.code[pc + 1];
+        int inCount = this.code[pc + 2];
+        long word = 0;
+        int wordSize = 0;
+        for (int i = 0; i < inCount; i++) {
+            int slot = this.code[pc + 3 + i];
+            if (multiplier == 1) {
+                word = this.append(word, this.values[slot], this.sizes[slot]);
+                wordSize += this.sizes[slot];
+                continue;
+            }
+            for (int j = this.sizes[slot] - 1; j >= 0; j--) {
+                long replicated = ((this.values[slot] >>> j) & 1) != 0 ? -1L : 0;
+                word = this.append(word, replicated, multiplier);
+                wordSize += multiplier;
+            }
+        }
+
+        int outStart = pc + 3 + inCount;
+        int outCount = this.code[outStart];
+        for (int i = 0; i < outCount; i++) {
+            int slot = this.code[outStart + 1 + i];
+            wordSize -= this.sizes[slot];
+            this.values[slot] = (word >>> wordSize) & this.masks[slot];
+        }
+        return outStart + 1 + outCount;
+    }
+
+    /**Append bits to the end (the least significant side) of a packed word.
+     *
+     * @param word - the word to append to
+     * @param bits - the bits to append
+     * @param size - how many bits should be appended
+     * @return - the extended word
+     */
+    private long append(long word, long bits, int size) {
+        if (size == BitStream.MAX_SIZE) {
+            return bits;
+        }
+        long mask = (1L << size) - 1;
+        return (word << size) | (bits & mask);
+    }
+
+    /**Get the length of the instruction at a given position, including its opcode.
+     *
+     * @param pc - the position of the instruction
+     * @return - the number of ints the instruction occupies
+     */
+    private int getInstructionLength(int pc) {
+        switch (this.code[pc]) {
+            case NOT:
+                return 3;
+            case MULTI_AND:
+            case MULTI_OR:
+            case MULTI_NAND:
+            case MULTI_NOR:
+                return 3 + this.code[pc + 2];
+            case SPLIT:
+                return 4 + this.code[pc + 2] + this.code[pc + 3 + this.code[pc + 2]];
+            default:
+                return 4;
+        }
+    }
+
+    /**The consistency of the sources is checked per stream in evaluate.
+     */
+    @Override
+    public void checkIfSourceIsConsistent(long newOutBits) {}
+
+    /**Add the neighbours of all the written back streams to the queue.
+     *
+     * @param queue - the execution queue
+     */
+    @Override
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        for (int slot : this.writtenSlots) {
+            this.streams[slot].addNeighboursToQueue(this, queue);
+        }
+    }
+
+    /**Freeze all the driven streams of the netlist (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        for (int slot : this.drivenSlots) {
+            this.streams[slot].freeze();
+        }
+    }
+
+    /**Set the source of the written back streams to the netlist.
+     */
+    @Override
+    public void setSourceForOutStream() {
+        for (int slot : this.writtenSlots) {
+            this.streams[slot].setSource(this);
+        }
+    }
+
+    /**The driven streams are compared one by one in evaluate.
+     */
+    @Override
+    public boolean decideIfEvaluateFurther(long newOutBits) {return false;}
+
+    /**Method used to record the streams driven by the netlist (concatenated) in the Tracer.
+     */
+    @Override
+    public void debug() {
+        Tracer.record(this, List.of(this.getDrivenStreams()));
+    }
+
+    /**Write the state of the netlist, i.e: the values of all its slots (the purely internal streams
+     * are not written back to their BitStreams).
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        for (long value : this.values) {
+            out.writeLong(value);
+        }
+    }
+
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = in.readLong();
+        }
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return "CompiledNetlist<" + this.name + ", " + this.nodes.size() + " nodes>";
+    }
+}
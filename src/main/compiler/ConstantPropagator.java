@@ -0,0 +1,358 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.Rewirable;
+import main.control.Splitter;
+import main.gates.Gate;
+import main.gates.binary.AND;
+import main.gates.binary.BinaryGate;
+import main.gates.binary.NAND;
+import main.gates.binary.NOR;
+import main.gates.binary.OR;
+import main.gates.binary.XOR;
+import main.gates.multi.MultiAND;
+import main.gates.multi.MultiInputGate;
+import main.gates.multi.MultiNAND;
+import main.gates.multi.MultiNOR;
+import main.gates.multi.MultiOR;
+import main.utils.NetlistExplorer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class ConstantPropagator {
+
+    /**Class used to remove the logic of a built circuit that does not influence anything observable. The builders
+     * tie a lot of streams to fixed values (eg: the enable of every Register, the constant input of the ALU
+     * multiplexer) and leave others unconnected (eg: the unused outputs of the ALU opcode decoder).
+     * The pass works in two steps:
+     * 1. Constant propagation. A stream is constant if no node drives it and it is not a root. A gate is folded
+     * (removed, leaving its output constant) if all its inputs are constant, or if its constant inputs alone decide
+     * its output (eg: an AND with a zero input). A Splitter is folded if all its inputs are constant. A binary gate
+     * which passes its other input through unchanged (eg: an AND with an input of all ones) is removed and the nodes
+     * reading its output are rewired to read that input instead (see Rewirable).
+     * 2. Dead logic elimination. The live streams are the roots, the observed streams (see BitStream.setObserved),
+     * the streams with a listener (eg: a VcdWriter) and the inputs of the live nodes, which are the nodes that are
+     * not gates or Splitters (eg: Outputs, RAMs), the nodes in debugger mode, the probes (nodes with one of the given
+     * names) and the drivers of the live streams.
+     * All the other gates and Splitters are removed.
+     * Nodes are only folded if they are the only drivers of their outputs, and none of their outputs is a root, is
+     * observed or has a listener; probes and nodes in debugger mode are never folded. Streams that are read by code
+     * (eg: to show them) but by no node should be observed or passed as roots (the CPU and its parts mark the streams
+     * of their status as observed, so a CPU can be optimized from its clock alone), and streams that are set by code
+     * (eg: the clock) must be passed as roots.
+     * The pass does not evaluate any node; the circuit should be settled before (so folded Splitters keep correct
+     * outputs) and should be frozen or levelized again after it, if needed. It is best run before the
+     * StructuralHasher, since folding makes more gates identical.
+     */
+
+    public static final String PASS = "Constant propagation";
+
+    /**Fold the constant logic and remove the dead logic of the circuit connected with the given streams.
+     *
+     * @param roots - streams of the circuit (eg: its clock), from which the circuit is found, and which are kept
+     * @return - the report with the number of removed nodes and streams
+     */
+    public static OptimizationReport optimize(BitStream... roots) {
+        return ConstantPropagator.optimize(Collections.emptySet(), roots);
+    }
+
+    /**Fold the constant logic and remove the dead logic of the circuit connected with the given streams.
+     *
+     * @param probes - the names of the nodes that are kept, together with all the logic they depend on
+     * @param roots - streams of the circuit (eg: its clock), from which the circuit is found, and which are kept
+     * @return - the report with the number of removed nodes and streams
+     */
+    public static OptimizationReport optimize(Collection<String> probes, BitStream... roots) {
+        NetlistExplorer netlist = new NetlistExplorer(roots);
+        Set<BitStream> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(kept, roots);
+        for (BitStream stream : netlist.getStreams()) {
+            if (stream.isObserved() || stream.getListener() != null) {
+                kept.add(stream);
+            }
+        }
+        Set<Node> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<BitStream> unused = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        ConstantPropagator.fold(netlist, probes, kept, removed, unused);
+        ConstantPropagator.removeDeadLogic(netlist, probes, kept, removed, unused);
+        return new OptimizationReport(PASS, netlist.getNodes().size(), netlist.getStreams().size(),
+                removed.size(), unused.size());
+    }
+
+    /**Fold the gates and Splitters whose outputs are decided by constant streams, until none is left.
+     *
+     * @param netlist - the circuit
+     * @param probes - the names of the nodes that are kept
+     * @param kept - the streams that have to be kept
+     * @param removed - the removed nodes, to which the folded nodes are added
+     * @param unused - the streams that are no longer connected
+     */
+    private static void fold(NetlistExplorer netlist, Collection<String> probes, Set<BitStream> kept,
+                             Set<Node> removed, Set<BitStream> unused) {
+        Set<BitStream> constants = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BitStream stream : netlist.getStreams()) {
+            if (!kept.contains(stream) && ConstantPropagator.getDrivers(stream).isEmpty()) {
+                constants.add(stream);
+            }
+        }
+
+        Deque<Node> queue = new ArrayDeque<>(netlist.getNodes());
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (removed.contains(node) || !ConstantPropagator.canFold(node, probes, kept)) {
+                continue;
+            }
+
+            List<BitStream> outputs = NetlistExplorer.getOutputs(node);
+            if (node instanceof Gate) {
+                Gate gate = (Gate) node;
+                Long value = ConstantPropagator.getConstantOutput(gate, constants);
+                BitStream identity = value == null ? ConstantPropagator.getPassedInput(gate, constants) : null;
+                if (value != null) {
+                    gate.getOut().setBits(value);
+                }
+                else if (identity == null || !ConstantPropagator.rewire(gate.getOut(), identity, node)) {
+                    continue;
+                }
+            }
+            else if (!constants.containsAll(NetlistExplorer.getInputs(node))) {
+                continue;
+            }
+
+            StructuralHasher.disconnect(node, unused);
+            removed.add(node);
+            for (BitStream output : outputs) {
+                if (output.getEndpoints().isEmpty()) {
+                    continue;
+                }
+                constants.add(output);
+                queue.addAll(output.getEndpoints());
+            }
+        }
+    }
+
+    /**Check if a node may be folded.
+     *
+     * @param node - the node
+     * @param probes - the names of the nodes that are kept
+     * @param kept - the streams that have to be kept
+     * @return - true if the node is a gate or a Splitter which is not kept and only drives streams that are not kept
+     */
+    private static boolean canFold(Node node, Collection<String> probes, Set<BitStream> kept) {
+        if (!ConstantPropagator.isRemovable(node, probes)) {
+            return false;
+        }
+        for (BitStream output : NetlistExplorer.getOutputs(node)) {
+            if (kept.contains(output) || !StructuralHasher.isOnlyDriver(node, output)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**Get the output of a gate, if it only depends on the constant inputs of the gate.
+     *
+     * @param gate - the gate
+     * @param constants - the constant streams
+     * @return - the packed bits of the output, or null if the output depends on a stream that is not constant
+     */
+    private static Long getConstantOutput(Gate gate, Set<BitStream> constants) {
+        List<BitStream> inputs = NetlistExplorer.getInputs(gate);
+        if (constants.containsAll(inputs)) {
+            return gate.canComputeInParallel() ? gate.compute() : null;
+        }
+
+        long mask = gate.getOut().getMask();
+        if (gate instanceof BinaryGate) {
+            BitStream constant = constants.contains(inputs.get(0)) ? inputs.get(0) : inputs.get(1);
+            if (!constants.contains(constant)) {
+                return null;
+            }
+            Long zero = ConstantPropagator.apply((BinaryGate) gate, 0, constant.getBits());
+            Long ones = ConstantPropagator.apply((BinaryGate) gate, mask, constant.getBits());
+            return zero != null && zero.equals(ones) ? zero : null;
+        }
+        else if (gate instanceof MultiInputGate) {
+            long and = mask, or = 0;
+            for (BitStream input : inputs) {
+                if (constants.contains(input)) {
+                    and &= input.getBits();
+                    or |= input.getBits();
+                }
+            }
+            if (and == 0 && gate instanceof MultiAND) {
+                return 0L;
+            }
+            else if (and == 0 && gate instanceof MultiNAND) {
+                return mask;
+            }
+            else if (or == mask && gate instanceof MultiOR) {
+                return mask;
+            }
+            else if (or == mask && gate instanceof MultiNOR) {
+                return 0L;
+            }
+        }
+        return null;
+    }
+
+    /**Get the input a binary gate passes through unchanged because of its other, constant input
+     * (eg: an AND with an input of all ones).
+     *
+     * @param gate - the gate
+     * @param constants - the constant streams
+     * @return - the input equal to the output of the gate, or null if there is none
+     */
+    private static BitStream getPassedInput(Gate gate, Set<BitStream> constants) {
+        if (!(gate instanceof BinaryGate)) {
+            return null;
+        }
+        BinaryGate binaryGate = (BinaryGate) gate;
+        BitStream constant = constants.contains(binaryGate.getIn1()) ? binaryGate.getIn1() : binaryGate.getIn2();
+        BitStream variable = constant == binaryGate.getIn1() ? binaryGate.getIn2() : binaryGate.getIn1();
+        if (!constants.contains(constant) || constants.contains(variable)) {
+            return null;
+        }
+
+        long mask = gate.getOut().getMask();
+        Long zero = ConstantPropagator.apply(binaryGate, 0, constant.getBits());
+        Long ones = ConstantPropagator.apply(binaryGate, mask, constant.getBits());
+        return zero != null && zero == 0 && ones == mask ? variable : null;
+    }
+
+    /**Compute the output of a binary gate for the given inputs.
+     *
+     * @param gate - the gate
+     * @param in1 - the packed bits of one input
+     * @param in2 - the packed bits of the other input
+     * @return - the packed bits of the output, or null if the gate is unknown
+     */
+    private static Long apply(BinaryGate gate, long in1, long in2) {
+        long mask = gate.getOut().getMask();
+        if (gate instanceof AND) {
+            return in1 & in2;
+        }
+        else if (gate instanceof OR) {
+            return in1 | in2;
+        }
+        else if (gate instanceof XOR) {
+            return in1 ^ in2;
+        }
+        else if (gate instanceof NAND) {
+            return ~(in1 & in2) & mask;
+        }
+        else if (gate instanceof NOR) {
+            return ~(in1 | in2) & mask;
+        }
+        return null;
+    }
+
+    /**Rewire the nodes reading a stream to read another one instead, if all of them are Rewirable.
+     *
+     * @param stream - the stream
+     * @param replacement - the stream to read instead
+     * @param driver - the driver of the stream, which is not rewired
+     * @return - true if the nodes were rewired, false otherwise
+     */
+    private static boolean rewire(BitStream stream, BitStream replacement, Node driver) {
+        for (Node endpoint : stream.getEndpoints()) {
+            if (endpoint != driver && !(endpoint instanceof Rewirable)) {
+                return false;
+            }
+        }
+        for (Node endpoint : new ArrayList<>(stream.getEndpoints())) {
+            if (endpoint != driver) {
+                ((Rewirable) endpoint).replaceInput(stream, replacement);
+            }
+        }
+        return true;
+    }
+
+    /**Remove all the gates and Splitters that do not influence a live stream.
+     *
+     * @param netlist - the circuit
+     * @param probes - the names of the nodes that are kept
+     * @param kept - the streams that have to be kept
+     * @param removed - the removed nodes, to which the dead nodes are added
+     * @param unused - the streams that are no longer connected
+     */
+    private static void removeDeadLogic(NetlistExplorer netlist, Collection<String> probes, Set<BitStream> kept,
+                                        Set<Node> removed, Set<BitStream> unused) {
+        Set<Node> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<BitStream> liveStreams = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node node : netlist.getNodes()) {
+            if (!removed.contains(node) && !ConstantPropagator.isRemovable(node, probes) && live.add(node)) {
+                queue.add(node);
+            }
+        }
+        for (BitStream stream : kept) {
+            liveStreams.add(stream);
+            for (Node driver : ConstantPropagator.getDrivers(stream)) {
+                if (live.add(driver)) {
+                    queue.add(driver);
+                }
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            for (BitStream input : NetlistExplorer.getInputs(queue.poll())) {
+                if (!liveStreams.add(input)) {
+                    continue;
+                }
+                for (Node driver : ConstantPropagator.getDrivers(input)) {
+                    if (live.add(driver)) {
+                        queue.add(driver);
+                    }
+                }
+            }
+        }
+
+        for (Node node : netlist.getNodes()) {
+            if (!removed.contains(node) && !live.contains(node)) {
+                StructuralHasher.disconnect(node, unused);
+                removed.add(node);
+            }
+        }
+    }
+
+    /**Check if a node may be removed from the circuit.
+     *
+     * @param node - the node
+     * @param probes - the names of the nodes that are kept
+     * @return - true if the node is a gate or a Splitter which is not in debugger mode and is not a probe
+     */
+    private static boolean isRemovable(Node node, Collection<String> probes) {
+        if (node instanceof Gate) {
+            return !((Gate) node).isInDebuggerMode() && !probes.contains(node.getName());
+        }
+        else if (node instanceof Splitter) {
+            return !((Splitter) node).isInDebuggerMode() && !probes.contains(node.getName());
+        }
+        return false;
+    }
+
+    /**Get the nodes driving a stream.
+     *
+     * @param stream - the stream
+     * @return - the endpoints of the stream which drive it
+     */
+    private static List<Node> getDrivers(BitStream stream) {
+        List<Node> drivers = new ArrayList<>();
+        for (Node endpoint : stream.getEndpoints()) {
+            if (NetlistExplorer.getOutputs(endpoint).contains(stream) && !drivers.contains(endpoint)) {
+                drivers.add(endpoint);
+            }
+        }
+        return drivers;
+    }
+}
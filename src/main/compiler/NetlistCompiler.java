@@ -0,0 +1,317 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.control.Splitter;
+import main.exceptions.NetlistCompilationException;
+import main.gates.Gate;
+import main.gates.TriState;
+import main.gates.binary.*;
+import main.gates.multi.*;
+import main.gates.unary.NOT;
+import main.gates.unary.UnaryGate;
+import main.utils.NetlistExplorer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class NetlistCompiler {
+
+    /**Class used to compile a combinational part of a built circuit (eg: AddSubtract, LogicUnit, Decoder
+     * or Multiplexer) into a CompiledNetlist. The nodes driving the given output streams are collected
+     * backwards until the input streams (or streams driven by nodes that cannot be compiled, such as an
+     * Input or a RAM) are reached. The nodes are then levelized and translated into a flat array of
+     * instructions that is evaluated in one linear pass, without the execution queue.
+     * Parts containing feedback loops (eg: DLatch or DFlipFlop) cannot be compiled and stay on the event path.
+     */
+
+    /**Compile the part of a circuit between the given input and output streams.
+     *
+     * @param inputs - the input streams of the part
+     * @param outputs - the output streams of the part
+     * @param name - the name of the compiled netlist
+     * @return - the compiled netlist (not yet installed in the circuit, see CompiledNetlist.install)
+     */
+    public static CompiledNetlist compile(List<BitStream> inputs, List<BitStream> outputs, String name) {
+        Map<BitStream, Integer> slots = new IdentityHashMap<>();
+        List<BitStream> streams = new ArrayList<>();
+        Map<BitStream, List<Node>> drivers = new IdentityHashMap<>();
+        Map<Node, Integer> nodeIndexes = new IdentityHashMap<>();
+        List<Node> nodes = new ArrayList<>();
+        List<BitStream> boundary = new ArrayList<>();
+        Set<BitStream> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (BitStream input : inputs) {
+            if (visited.add(input)) {
+                NetlistCompiler.getSlot(input, slots, streams);
+                boundary.add(input);
+            }
+        }
+
+        Deque<BitStream> toVisit = new ArrayDeque<>(outputs);
+        while (!toVisit.isEmpty()) {
+            BitStream stream = toVisit.pop();
+            if (!visited.add(stream)) {
+                continue;
+            }
+            NetlistCompiler.getSlot(stream, slots, streams);
+
+            List<Node> streamDrivers = NetlistCompiler.getDrivers(stream);
+            if (streamDrivers.isEmpty()) {
+                boundary.add(stream);
+                continue;
+            }
+            drivers.put(stream, streamDrivers);
+
+            for (Node driver : streamDrivers) {
+                if (nodeIndexes.containsKey(driver)) {
+                    continue;
+                }
+                nodeIndexes.put(driver, nodes.size());
+                nodes.add(driver);
+                Collections.addAll(toVisit, NetlistCompiler.getInputs(driver));
+                Collections.addAll(toVisit, NetlistCompiler.getOutputs(driver));
+            }
+        }
+
+        List<List<Node>> levels = NetlistCompiler.levelize(nodes, nodeIndexes, drivers);
+
+        List<Integer> code = new ArrayList<>();
+        for (List<Node> level : levels) {
+            for (Node node : level) {
+                NetlistCompiler.emit(node, slots, code);
+            }
+        }
+
+        int[] inputSlots = new int[boundary.size()];
+        for (int i = 0; i < boundary.size(); i++) {
+            inputSlots[i] = slots.get(boundary.get(i));
+        }
+        int[] drivenSlots = new int[drivers.size()];
+        int index = 0;
+        for (BitStream stream : streams) {
+            if (drivers.containsKey(stream)) {
+                drivenSlots[index++] = slots.get(stream);
+            }
+        }
+        int[] outputSlots = new int[outputs.size()];
+        for (int i = 0; i < outputs.size(); i++) {
+            outputSlots[i] = slots.get(outputs.get(i));
+        }
+        int[] codeArray = new int[code.size()];
+        for (int i = 0; i < code.size(); i++) {
+            codeArray[i] = code.get(i);
+        }
+
+        return new CompiledNetlist(streams.toArray(new BitStream[0]), inputSlots, drivenSlots, outputSlots,
+                codeArray, nodes, levels.size(), name);
+    }
+
+    public static CompiledNetlist compile(List<BitStream> inputs, List<BitStream> outputs) {
+        return NetlistCompiler.compile(inputs, outputs, "CompiledNetlist");
+    }
+
+    /**Sort the nodes into levels, such that every node only depends on nodes from lower levels.
+     * Throws NetlistCompilationException if the nodes contain a feedback loop.
+     *
+     * @param nodes - the nodes to levelize
+     * @param nodeIndexes - the index of every node in the nodes list
+     * @param drivers - the nodes driving every stream driven within the part
+     * @return - the list of levels, starting with the nodes depending only on the inputs
+     */
+    private static List<List<Node>> levelize(List<Node> nodes, Map<Node, Integer> nodeIndexes,
+                                             Map<BitStream, List<Node>> drivers) {
+        int[] dependencies = new int[nodes.size()];
+        List<List<Node>> dependants = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            dependants.add(new ArrayList<>());
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            for (BitStream input : NetlistCompiler.getInputs(nodes.get(i))) {
+                List<Node> inputDrivers = drivers.get(input);
+                if (inputDrivers == null) {
+                    continue;
+                }
+                for (Node driver : inputDrivers) {
+                    dependants.get(nodeIndexes.get(driver)).add(nodes.get(i));
+                    dependencies[i]++;
+                }
+            }
+        }
+
+        List<List<Node>> levels = new ArrayList<>();
+        List<Node> level = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (dependencies[i] == 0) {
+                level.add(nodes.get(i));
+            }
+        }
+
+        int levelized = 0;
+        while (!level.isEmpty()) {
+            levels.add(level);
+            levelized += level.size();
+            List<Node> nextLevel = new ArrayList<>();
+            for (Node node : level) {
+                for (Node dependant : dependants.get(nodeIndexes.get(node))) {
+                    int dependantIndex = nodeIndexes.get(dependant);
+                    dependencies[dependantIndex]--;
+                    if (dependencies[dependantIndex] == 0) {
+                        nextLevel.add(dependant);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+
+        if (levelized != nodes.size()) {
+            throw new NetlistCompilationException("The circuit contains a feedback loop, only "
+                    + levelized + " out of " + nodes.size() + " nodes could be levelized");
+        }
+        return levels;
+    }
+
+    /**Translate a node into an instruction and append it to the code.
+     *
+     * @param node - the node to translate
+     * @param slots - the slot of every stream
+     * @param code - the code to append the instruction to
+     */
+    private static void emit(Node node, Map<BitStream, Integer> slots, List<Integer> code) {
+        int opcode = NetlistCompiler.getOpcode(node);
+        code.add(opcode);
+
+        if (node instanceof Splitter) {
+            Splitter splitter = (Splitter) node;
+            code.add(splitter.getBitStreamListSize(splitter.getOut())
+                    / splitter.getBitStreamListSize(splitter.getIn()));
+            code.add(splitter.getIn().size());
+            for (BitStream inStream : splitter.getIn()) {
+                code.add(slots.get(inStream));
+            }
+            code.add(splitter.getOut().size());
+            for (BitStream outStream : splitter.getOut()) {
+                code.add(slots.get(outStream));
+            }
+            return;
+        }
+
+        code.add(slots.get(((Gate) node).getOut()));
+        BitStream[] inputs = NetlistCompiler.getInputs(node);
+        if (node instanceof MultiInputGate) {
+            code.add(inputs.length);
+        }
+        for (BitStream input : inputs) {
+            code.add(slots.get(input));
+        }
+    }
+
+    /**Get the slot of a stream, assigning a new one if the stream does not have one yet.
+     *
+     * @param stream - the stream
+     * @param slots - the slot of every stream
+     * @param streams - the list of streams, indexed by their slots
+     * @return - the slot of the stream
+     */
+    private static int getSlot(BitStream stream, Map<BitStream, Integer> slots, List<BitStream> streams) {
+        Integer slot = slots.get(stream);
+        if (slot == null) {
+            slot = streams.size();
+            slots.put(stream, slot);
+            streams.add(stream);
+        }
+        return slot;
+    }
+
+    /**Get all the nodes that can be compiled and drive a stream. Throws NetlistCompilationException if
+     * the stream is also driven by a node that cannot be compiled.
+     *
+     * @param stream - the stream
+     * @return - the list of the drivers, empty if the stream is an input of the compiled part
+     */
+    private static List<Node> getDrivers(BitStream stream) {
+        List<Node> drivers = new ArrayList<>();
+        boolean drivenExternally = false;
+        for (Node endpoint : stream.getEndpoints()) {
+            boolean drives = false;
+            for (BitStream output : NetlistCompiler.getOutputs(endpoint)) {
+                drives |= output == stream;
+            }
+            if (!drives) {
+                continue;
+            }
+            if (NetlistCompiler.getOpcode(endpoint) < 0) {
+                drivenExternally = true;
+            }
+            else if (!drivers.contains(endpoint)) {
+                drivers.add(endpoint);
+            }
+        }
+
+        if (drivenExternally && !drivers.isEmpty()) {
+            throw new NetlistCompilationException("Stream " + stream
+                    + " is driven both by nodes that can be compiled and by nodes that cannot");
+        }
+        return drivers;
+    }
+
+    /**Get the opcode of the instruction a node is translated into.
+     *
+     * @param node - the node
+     * @return - the opcode, or -1 if the node cannot be compiled
+     */
+    static int getOpcode(Node node) {
+        if (node instanceof AND) return CompiledNetlist.AND;
+        if (node instanceof OR) return CompiledNetlist.OR;
+        if (node instanceof XOR) return CompiledNetlist.XOR;
+        if (node instanceof NAND) return CompiledNetlist.NAND;
+        if (node instanceof NOR) return CompiledNetlist.NOR;
+        if (node instanceof NOT) return CompiledNetlist.NOT;
+        if (node instanceof MultiAND) return CompiledNetlist.MULTI_AND;
+        if (node instanceof MultiOR) return CompiledNetlist.MULTI_OR;
+        if (node instanceof MultiNAND) return CompiledNetlist.MULTI_NAND;
+        if (node instanceof MultiNOR) return CompiledNetlist.MULTI_NOR;
+        if (node instanceof TriState) return CompiledNetlist.TRISTATE;
+        if (node instanceof Splitter) return CompiledNetlist.SPLIT;
+        return -1;
+    }
+
+    /**Get the streams read by a node that can be compiled.
+     *
+     * @param node - the node
+     * @return - the input streams of the node
+     */
+    private static BitStream[] getInputs(Node node) {
+        if (node instanceof BinaryGate) {
+            return new BitStream[]{((BinaryGate) node).getIn1(), ((BinaryGate) node).getIn2()};
+        }
+        if (node instanceof UnaryGate) {
+            return new BitStream[]{((UnaryGate) node).getIn()};
+        }
+        if (node instanceof MultiInputGate) {
+            return ((MultiInputGate) node).getInStreams();
+        }
+        if (node instanceof TriState) {
+            return new BitStream[]{((TriState) node).getIn(), ((TriState) node).getControl()};
+        }
+        if (node instanceof Splitter) {
+            return ((Splitter) node).getIn().toArray(new BitStream[0]);
+        }
+        throw new NetlistCompilationException(node);
+    }
+
+    /**Get the streams driven by a node.
+     *
+     * @param node - the node
+     * @return - the output streams of the node
+     */
+    private static BitStream[] getOutputs(Node node) {
+        return NetlistExplorer.getOutputs(node).toArray(new BitStream[0]);
+    }
+}
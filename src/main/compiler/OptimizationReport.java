@@ -0,0 +1,58 @@
+package main.compiler;
+
+/**Class describing what an optimization pass over a built circuit (eg: the StructuralHasher) removed from it.
+ */
+public class OptimizationReport {
+
+    private final String pass;
+    private final int nodeCount, streamCount;
+    private final int removedNodes, removedStreams;
+
+    /**Constructor for the OptimizationReport class.
+     *
+     * @param pass - the name of the pass
+     * @param nodeCount - the number of nodes of the circuit before the pass
+     * @param streamCount - the number of streams of the circuit before the pass
+     * @param removedNodes - the number of nodes removed from the circuit
+     * @param removedStreams - the number of streams no longer connected with any node
+     */
+    public OptimizationReport(String pass, int nodeCount, int streamCount, int removedNodes, int removedStreams) {
+        this.pass = pass;
+        this.nodeCount = nodeCount;
+        this.streamCount = streamCount;
+        this.removedNodes = removedNodes;
+        this.removedStreams = removedStreams;
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    public String getPass() {
+        return pass;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getStreamCount() {
+        return streamCount;
+    }
+
+    public int getRemovedNodes() {
+        return removedNodes;
+    }
+
+    public int getRemovedStreams() {
+        return removedStreams;
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return this.pass + ": removed " + this.removedNodes + " of " + this.nodeCount + " nodes and "
+                + this.removedStreams + " of " + this.streamCount + " streams";
+    }
+}
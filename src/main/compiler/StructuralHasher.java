@@ -0,0 +1,187 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.Rewirable;
+import main.control.Splitter;
+import main.gates.Gate;
+import main.gates.binary.BinaryGate;
+import main.gates.multi.MultiInputGate;
+import main.utils.NetlistExplorer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class StructuralHasher {
+
+    /**Class used to remove redundant logic from a built circuit. The builders create a lot of gates computing
+     * the same function of the same streams (eg: every Multiplexer builds its own Decoder over the same select
+     * line, and every DFlipFlop its own NOT of the clock). Two gates (or Splitters) are identical if they have
+     * the same type, the same input streams (in any order for the commutative gates) and the same output sizes.
+     * Of every group of identical nodes only the first one found by the NetlistExplorer is kept, and the nodes
+     * reading the outputs of the others are rewired to read its outputs instead (see Rewirable). Since this makes
+     * the consumers identical as well, the pass is repeated until nothing else can be merged.
+     * A node is only merged if it is the only driver of its outputs (and the kept node of its own), if none of
+     * its outputs is a root stream, an observed stream or one of the inputs of the two nodes, and if all the nodes
+     * reading its outputs are Rewirable. The merged nodes are disconnected from all their streams; their outputs are
+     * no longer updated, so streams that are read by code (eg: to show them) should be observed (see
+     * BitStream.setObserved; the CPU marks the streams of its status) or passed as roots.
+     * The pass does not evaluate any node; the circuit should be settled before (so the outputs of identical nodes
+     * hold the same values) and should be frozen or levelized again after it, if needed.
+     */
+
+    public static final String PASS = "Structural hashing";
+
+    /**Merge the identical nodes of the circuit connected with the given streams.
+     *
+     * @param roots - streams of the circuit (eg: its clock), from which the circuit is found, and which are kept
+     * @return - the report with the number of removed nodes and streams
+     */
+    public static OptimizationReport optimize(BitStream... roots) {
+        NetlistExplorer netlist = new NetlistExplorer(roots);
+        Set<BitStream> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(kept, roots);
+        for (BitStream stream : netlist.getStreams()) {
+            if (stream.isObserved()) {
+                kept.add(stream);
+            }
+        }
+        Set<Node> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<BitStream> unused = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            Map<List<Object>, Node> nodes = new HashMap<>();
+            for (Node node : netlist.getNodes()) {
+                if (removed.contains(node) || !(node instanceof Gate || node instanceof Splitter)) {
+                    continue;
+                }
+                Node identical = nodes.putIfAbsent(StructuralHasher.getKey(node, netlist), node);
+                if (identical != null && StructuralHasher.merge(identical, node, kept, unused)) {
+                    removed.add(node);
+                    merged = true;
+                }
+            }
+        }
+        return new OptimizationReport(PASS, netlist.getNodes().size(), netlist.getStreams().size(),
+                removed.size(), unused.size());
+    }
+
+    /**Get the key of a node, which is the same for all identical nodes.
+     *
+     * @param node - the node
+     * @param netlist - the netlist with the indexes of the streams
+     * @return - the type of the node, the indexes of its input streams and the sizes of its output streams
+     */
+    private static List<Object> getKey(Node node, NetlistExplorer netlist) {
+        List<BitStream> inputs = NetlistExplorer.getInputs(node);
+        int[] indexes = new int[inputs.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = netlist.indexOf(inputs.get(i));
+        }
+        if (node instanceof BinaryGate || node instanceof MultiInputGate) {
+            Arrays.sort(indexes);
+        }
+
+        List<Object> key = new ArrayList<>();
+        key.add(node.getClass());
+        for (int index : indexes) {
+            key.add(index);
+        }
+        key.add(-1);
+        for (BitStream output : NetlistExplorer.getOutputs(node)) {
+            key.add(output.getSize());
+        }
+        return key;
+    }
+
+    /**Merge a node into an identical one, if possible.
+     *
+     * @param node - the node that is kept
+     * @param duplicate - the identical node to remove
+     * @param kept - the streams that have to be kept
+     * @param unused - the streams that are no longer connected, to which the outputs of the duplicate are added
+     * @return - true if the duplicate was merged, false if it has to be kept
+     */
+    private static boolean merge(Node node, Node duplicate, Set<BitStream> kept, Set<BitStream> unused) {
+        List<BitStream> outputs = NetlistExplorer.getOutputs(node);
+        List<BitStream> duplicateOutputs = NetlistExplorer.getOutputs(duplicate);
+        List<BitStream> inputs = NetlistExplorer.getInputs(node);
+        inputs.addAll(NetlistExplorer.getInputs(duplicate));
+
+        for (int i = 0; i < outputs.size(); i++) {
+            BitStream output = outputs.get(i);
+            BitStream duplicateOutput = duplicateOutputs.get(i);
+            if (output == duplicateOutput) {
+                continue;
+            }
+            if (kept.contains(duplicateOutput) || inputs.contains(duplicateOutput)
+                    || !StructuralHasher.isOnlyDriver(node, output)
+                    || !StructuralHasher.isOnlyDriver(duplicate, duplicateOutput)) {
+                return false;
+            }
+            for (Node endpoint : duplicateOutput.getEndpoints()) {
+                if (endpoint != duplicate && !(endpoint instanceof Rewirable)) {
+                    return false;
+                }
+            }
+        }
+
+        for (int i = 0; i < outputs.size(); i++) {
+            BitStream output = outputs.get(i);
+            BitStream duplicateOutput = duplicateOutputs.get(i);
+            if (output == duplicateOutput) {
+                continue;
+            }
+            for (Node endpoint : new ArrayList<>(duplicateOutput.getEndpoints())) {
+                if (endpoint != duplicate) {
+                    ((Rewirable) endpoint).replaceInput(duplicateOutput, output);
+                }
+            }
+        }
+
+        StructuralHasher.disconnect(duplicate, unused);
+        return true;
+    }
+
+    /**Disconnect a node from all its streams, so it is no longer part of the circuit.
+     *
+     * @param node - the node to remove
+     * @param unused - the streams that are no longer connected, to which the streams left without endpoints are added
+     */
+    static void disconnect(Node node, Set<BitStream> unused) {
+        for (BitStream stream : NetlistExplorer.getStreams(node)) {
+            while (stream.getEndpoints().contains(node)) {
+                stream.removeEndpoint(node);
+            }
+            if (stream.getSource() == node) {
+                stream.setSource(null);
+            }
+            if (stream.getEndpoints().isEmpty()) {
+                unused.add(stream);
+            }
+        }
+    }
+
+    /**Check if a node is the only driver of a stream.
+     *
+     * @param node - the node
+     * @param stream - a stream driven by the node
+     * @return - true if no other endpoint of the stream drives it, false otherwise
+     */
+    static boolean isOnlyDriver(Node node, BitStream stream) {
+        for (Node endpoint : stream.getEndpoints()) {
+            if (endpoint != node && NetlistExplorer.getOutputs(endpoint).contains(stream)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,22 +2,29 @@ package main.control;
 
 import main.BitStream;
 import main.Node;
+import main.Stateful;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.exceptions.InconsistentBitStreamSources;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
-import main.utils.ProcessRunner;
+import main.utils.ExecutionQueue;
 import main.warnings.InconsistentBitStreamSourcesWarning;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
-public class Input implements Node {
+public class Input implements Node, Stateful {
 
     private boolean[] data;
     private BitStream out;
     private String name;
     private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
 
     /**Constructors for the Input class.
      *
@@ -81,11 +88,33 @@ public class Input implements Node {
         this.inDebuggerMode = inDebuggerMode;
     }
 
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
     /**Method to setup the circuit starting in "this".
      */
     public void setup() {
         this.checkIfSizesMatch();
-        ProcessRunner.run(this);
+        CircuitBuilder.settle(this);
     }
 
     /**Evaluate the Input, i.e: if possible forward the input data to the "out" BitStream,
@@ -94,12 +123,14 @@ public class Input implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void evaluate(List<Node> queue) {
-        this.checkIfSourceIsConsistent(this.data);
+    public void evaluate(ExecutionQueue queue) {
+        long newOutBits = DataConverter.convertBoolToBits(this.data);
+
+        this.checkIfSourceIsConsistent(newOutBits);
 
         this.addNeighboursToQueue(queue);
 
-        this.out.setData(this.data);
+        this.out.setBits(newOutBits);
         this.setSourceForOutStream();
 
         if (this.inDebuggerMode) {
@@ -120,8 +151,15 @@ public class Input implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void addNeighboursToQueue(List<Node> queue) {
-        queue.addAll(this.out.getAllNeighbours(this));
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        this.out.addNeighboursToQueue(this, queue);
+    }
+
+    /**Freeze the output BitStream of the input (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        this.out.freeze();
     }
 
     /**Check if the sizes of the input data and the out stream match.
@@ -135,23 +173,44 @@ public class Input implements Node {
 
     /**Check if the current source of the "out" stream is consistent with the input data.
      *
-     * @param newOutData - the input data
+     * @param newOutBits - the input data
      */
     @Override
-    public void checkIfSourceIsConsistent(boolean[] newOutData) {
+    public void checkIfSourceIsConsistent(long newOutBits) {
         if (this.out.getSource() != null && this.out.getSource() != this) {
-            if (!Arrays.equals(this.out.getData(), newOutData)) {
-                InconsistentBitStreamSourcesWarning.show(this.out.getSource(), this);
+            if (this.out.getBits() != newOutBits) {
+                InconsistentBitStreamSourcesWarning.show(this.out, this.out.getSource(), this);
             }
         }
     }
 
-    /**Function to define what should happen in the debug mode (what kind of message will be displayed).
+    /**Function to define what should happen in the debug mode (the data forwarded to "out" is recorded in the Tracer).
      */
     @Override
     public void debug() {
-        System.out.println("Evaluating " + this.name + ":\n" +
-                "\tInput: " + DataConverter.convertBoolToBin(this.data));
+        Tracer.record(this, this.out);
+    }
+
+    /**Write the state of the Input, i.e: its data.
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        out.writeInt(this.data.length);
+        out.writeLong(DataConverter.convertBoolToBits(this.data));
+    }
+
+    /**Restore the data written by saveState.
+     *
+     * @param in - the input to read the state from
+     * @throws IOException - if the state cannot be read
+     */
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        int size = in.readInt();
+        this.data = DataConverter.convertBitsToBool(in.readLong(), size);
     }
 
     /**Override the default toString method.
@@ -168,5 +227,5 @@ public class Input implements Node {
      * hence the method is never used (we always want to evaluate further).
      */
     @Override
-    public boolean decideIfEvaluateFurther(boolean[] newOutData) {return true;}
+    public boolean decideIfEvaluateFurther(long newOutBits) {return true;}
 }
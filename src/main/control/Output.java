@@ -2,18 +2,27 @@ package main.control;
 
 import main.BitStream;
 import main.Node;
+import main.Rewirable;
+import main.Stateful;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
-import main.utils.ProcessRunner;
+import main.utils.ExecutionQueue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Output implements Node {
+public class Output implements Node, Stateful, Rewirable {
 
     private boolean[] data;
     private BitStream in;
     private String name;
     private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
 
     /**Constructors of the Output class.
      *
@@ -76,10 +85,46 @@ public class Output implements Node {
         this.inDebuggerMode = inDebuggerMode;
     }
 
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**Replace an input stream of the output with another one (see Rewirable).
+     *
+     * @param oldStream - the stream to replace
+     * @param newStream - the stream to read instead
+     */
+    @Override
+    public void replaceInput(BitStream oldStream, BitStream newStream) {
+        if (this.in == oldStream) {
+            this.in = newStream;
+            oldStream.removeEndpoint(this);
+            newStream.addNewEndpoint(this);
+        }
+    }
+
     /**Method to setup the circuit starting in "this".
      */
     public void setup() {
-        ProcessRunner.run(this);
+        CircuitBuilder.settle(this);
     }
 
     /**Method used to evaluate the output, ie: set its data to that of the input stream.
@@ -87,19 +132,44 @@ public class Output implements Node {
      * @param queue - the execution queue (not used here)
      */
     @Override
-    public void evaluate(List<Node> queue) {
-        this.data = this.in.getData();
+    public void evaluate(ExecutionQueue queue) {
+        boolean[] inData = this.in.getData();
+        if (this.data.length != inData.length) {
+            this.data = new boolean[inData.length];
+        }
+        System.arraycopy(inData, 0, this.data, 0, inData.length);
 
         if (this.isInDebuggerMode()) {
             this.debug();
         }
     }
 
-    /**Method used to display debug information for this output.
+    /**Method used to record the data of this output in the Tracer.
      */
     public void debug() {
-        System.out.println("Evaluating " + this.name + ":\n" +
-                "\tOutput: " + DataConverter.convertBoolToBin(this.data));
+        Tracer.record(this, this.in);
+    }
+
+    /**Write the state of the Output, i.e: its data.
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        out.writeInt(this.data.length);
+        out.writeLong(DataConverter.convertBoolToBits(this.data));
+    }
+
+    /**Restore the data written by saveState.
+     *
+     * @param in - the input to read the state from
+     * @throws IOException - if the state cannot be read
+     */
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        int size = in.readInt();
+        this.data = DataConverter.convertBitsToBool(in.readLong(), size);
     }
 
     /**Override the default toString method.
@@ -117,13 +187,16 @@ public class Output implements Node {
     public void checkIfSizesMatch() {}
 
     @Override
-    public boolean decideIfEvaluateFurther(boolean[] newOutData) {return false;}
+    public boolean decideIfEvaluateFurther(long newOutBits) {return false;}
+
+    @Override
+    public void addNeighboursToQueue(ExecutionQueue queue) {}
 
     @Override
-    public void addNeighboursToQueue(List<Node> queue) {}
+    public void freeze() {}
 
     @Override
-    public void checkIfSourceIsConsistent(boolean[] newOut) {}
+    public void checkIfSourceIsConsistent(long newOutBits) {}
 
     @Override
     public void setSourceForOutStream() {}
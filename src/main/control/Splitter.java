@@ -2,20 +2,31 @@ package main.control;
 
 import main.BitStream;
 import main.Node;
+import main.Rewirable;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.exceptions.IllegalSplitException;
-import main.utils.DataConverter;
-import main.utils.ProcessRunner;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
+import main.utils.ExecutionQueue;
 import main.warnings.InconsistentBitStreamSourcesWarning;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class Splitter implements Node {
+public class Splitter implements Node, Rewirable {
 
     private List<BitStream> in;
     private List<BitStream> out;
+    private BitStream[] inStreams;
+    private BitStream[] outStreams;
+    private int[] outShifts;
+    private int inSize;
+    private int outSize;
+    private int multiplier;
     private String name;
     private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
 
     /**Constructors for the Splitter class.
      *
@@ -35,6 +46,19 @@ public class Splitter implements Node {
             outStream.addNewEndpoint(this);
         }
 
+        this.inStreams = in.toArray(new BitStream[0]);
+        this.outStreams = out.toArray(new BitStream[0]);
+        this.inSize = this.getBitStreamListSize(this.in);
+        this.outSize = this.getBitStreamListSize(this.out);
+        this.multiplier = this.inSize == 0 ? 0 : this.outSize / this.inSize;
+
+        this.outShifts = new int[this.outStreams.length];
+        int remaining = this.outSize;
+        for (int i = 0; i < this.outStreams.length; i++) {
+            remaining -= this.outStreams[i].getSize();
+            this.outShifts[i] = remaining;
+        }
+
         this.name = name;
         this.inDebuggerMode = inDebuggerMode;
 
@@ -82,6 +106,47 @@ public class Splitter implements Node {
         this.inDebuggerMode = inDebuggerMode;
     }
 
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**Replace an input stream of the splitter with another one (see Rewirable).
+     *
+     * @param oldStream - the stream to replace
+     * @param newStream - the stream to read instead
+     */
+    @Override
+    public void replaceInput(BitStream oldStream, BitStream newStream) {
+        List<BitStream> in = new ArrayList<>(this.in);
+        for (int i = 0; i < in.size(); i++) {
+            if (in.get(i) == oldStream) {
+                in.set(i, newStream);
+                oldStream.removeEndpoint(this);
+                newStream.addNewEndpoint(this);
+            }
+        }
+        this.in = in;
+        this.inStreams = in.toArray(new BitStream[0]);
+    }
+
     /**Get the total size of a list of BitStreams.
      *
      * @param bitStreams - the list of BitStreams
@@ -100,37 +165,30 @@ public class Splitter implements Node {
     @Override
     public void setup() {
         this.checkIfSizesMatch();
-        ProcessRunner.run(this);
+        CircuitBuilder.settle(this);
     }
 
     /**Evaluate the Splitter. This includes checking the sizes of the BitStreams and their sources
-     * to check for any inconsistencies.
+     * to check for any inconsistencies. Every output is a slice (an offset and a length) of the word formed by
+     * the inputs, which is read straight from the input if there is only one, so no data is copied to compute
+     * it. Only the neighbours of the outputs whose bits changed are added to the queue.
      *
      * @param queue - the execution queue
      */
     @Override
-    public void evaluate(List<Node> queue) {
-        int inSize = this.getBitStreamListSize(this.in);
-        int outSize = this.getBitStreamListSize(this.out);
-        int multiplier = outSize / inSize;
+    public void evaluate(ExecutionQueue queue) {
+        long newOutBits = this.getInputWord();
 
-        boolean[] newOutData = new boolean[outSize];
-        int count = 0;
-        for (BitStream inStream : this.in) {
-            for (boolean bit : inStream.getData()) {
-                for (int i = 0; i < multiplier; i++) {
-                    newOutData[count++] = bit;
-                }
-            }
-        }
-
-        this.checkIfSourceIsConsistent(newOutData);
+        this.checkIfSourceIsConsistent(newOutBits);
 
-        if (this.decideIfEvaluateFurther(newOutData)) {
-            this.addNeighboursToQueue(queue);
+        for (int i = 0; i < this.outStreams.length; i++) {
+            BitStream outStream = this.outStreams[i];
+            long slice = (newOutBits >>> this.outShifts[i]) & outStream.getMask();
+            if (slice != outStream.getBits()) {
+                outStream.addNeighboursToQueue(this, queue);
+                outStream.setBits(slice);
+            }
         }
-
-        this.setOutData(newOutData);
         this.setSourceForOutStream();
 
         if (this.inDebuggerMode) {
@@ -138,61 +196,73 @@ public class Splitter implements Node {
         }
     }
 
+    /**Get the word formed by the inputs, i.e. their concatenation with every bit replicated as many times
+     * as the output is larger than the input.
+     *
+     * @return - the bits of the inputs, packed into a single word
+     */
+    private long getInputWord() {
+        if (this.multiplier == 1 && this.inStreams.length == 1) {
+            return this.inStreams[0].getBits();
+        }
+
+        long word = 0;
+        for (BitStream inStream : this.inStreams) {
+            if (this.multiplier == 1) {
+                word = this.append(word, inStream.getBits(), inStream.getSize());
+                continue;
+            }
+            for (int i = 0; i < inStream.getSize(); i++) {
+                long replicated = inStream.getBit(i) ? -1L : 0;
+                word = this.append(word, replicated, this.multiplier);
+            }
+        }
+        return word;
+    }
+
     /**Check if the number of input BitStreams divides the number of output BitStreams.
-     * Also check if all the inputs and the outputs have the same size.
-     * Throw IllegalSplitException if either of these two conditions hold.
+     * Also check if all the inputs and the outputs have the same size and if the outputs
+     * fit in a single word (BitStream.MAX_SIZE bits).
+     * Throw IllegalSplitException if either of these conditions hold.
      */
     @Override
     public void checkIfSizesMatch() {
         int inSize = this.getBitStreamListSize(this.in);
         int outSize = this.getBitStreamListSize(this.out);
-        if (inSize > outSize || outSize % inSize != 0) {
+        if (inSize > outSize || outSize % inSize != 0 || outSize > BitStream.MAX_SIZE) {
             throw new IllegalSplitException(this);
         }
     }
 
     /**Check if the sources of the output BitStreams are consistent.
      *
-     * @param newOutData - data taken from the input BitStreams, changed to
-     *                   a 1D array
+     * @param newOutBits - data taken from the input BitStreams, packed into
+     *                   a single word
      */
     @Override
-    public void checkIfSourceIsConsistent(boolean[] newOutData) {
-        int count = 0;
-        for (BitStream outStream : this.out) {
+    public void checkIfSourceIsConsistent(long newOutBits) {
+        for (int i = 0; i < this.outStreams.length; i++) {
+            BitStream outStream = this.outStreams[i];
             if (outStream.getSource() != null && outStream.getSource() != this) {
-                for (boolean bit : outStream.getData()) {
-                    if (newOutData[count++] != bit) {
-                        InconsistentBitStreamSourcesWarning.show(outStream.getSource(), this);
-                    }
+                if (((newOutBits >>> this.outShifts[i]) & outStream.getMask()) != outStream.getBits()) {
+                    InconsistentBitStreamSourcesWarning.show(outStream, outStream.getSource(), this);
                 }
-            } else {
-                count += outStream.getSize();
             }
         }
     }
 
     /**Decide if the system should be evaluated further. That should happen
-     * if the new data is different from the old one.
+     * if the new data of any output is different from its old one.
      *
-     * @param newOutData - data taken from the input BitStreams, changed to
-     *                   a 1D array
+     * @param newOutBits - data taken from the input BitStreams, packed into
+     *                   a single word
      * @return - true if the system should be evaluated further, false otherwise
      */
     @Override
-    public boolean decideIfEvaluateFurther(boolean[] newOutData) {
-        int outSize = this.getBitStreamListSize(this.out);
-        boolean[] oldOutData = new boolean[outSize];
-
-        int count = 0;
-        for (BitStream outStream : this.out) {
-            for (boolean bit : outStream.getData()) {
-                oldOutData[count++] = bit;
-            }
-        }
-
-        for (int i = 0; i < outSize; i++) {
-            if (newOutData[i] != oldOutData[i]) {
+    public boolean decideIfEvaluateFurther(long newOutBits) {
+        for (int i = 0; i < this.outStreams.length; i++) {
+            BitStream outStream = this.outStreams[i];
+            if (((newOutBits >>> this.outShifts[i]) & outStream.getMask()) != outStream.getBits()) {
                 return true;
             }
         }
@@ -204,50 +274,50 @@ public class Splitter implements Node {
      * @param queue - the execution queue to add the neighbours to
      */
     @Override
-    public void addNeighboursToQueue(List<Node> queue) {
-        for (BitStream outStream : this.out) {
-            queue.addAll(outStream.getAllNeighbours(this));
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        for (BitStream outStream : this.outStreams) {
+            outStream.addNeighboursToQueue(this, queue);
+        }
+    }
+
+    /**Freeze all output BitStreams of the Splitter (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        for (BitStream outStream : this.outStreams) {
+            outStream.freeze();
         }
     }
 
-    /**Method used to set the data of the output streams to the new values.
+    /**Append bits to the end (the least significant side) of a packed word.
      *
-     * @param newOutData - data taken from the input BitStreams, changed to
-     *                   a 1D array
+     * @param word - the word to append to
+     * @param bits - the bits to append
+     * @param size - how many bits should be appended
+     * @return - the extended word
      */
-    private void setOutData(boolean[] newOutData) {
-        int count = 0;
-        for (BitStream outStream : this.out) {
-            boolean[] streamOutData = new boolean[outStream.getSize()];
-            for (int i = 0; i < outStream.getSize(); i++) {
-                streamOutData[i] = newOutData[count++];
-            }
-            outStream.setData(streamOutData);
+    private long append(long word, long bits, int size) {
+        if (size == BitStream.MAX_SIZE) {
+            return bits;
         }
+        long mask = (1L << size) - 1;
+        return (word << size) | (bits & mask);
     }
 
     /**Set the source of the out streams to the Splitter.
      */
     @Override
     public void setSourceForOutStream() {
-        for (BitStream outStream : this.out) {
+        for (BitStream outStream : this.outStreams) {
             outStream.setSource(this);
         }
     }
 
-    /**Method used to display additional debug information.
+    /**Method used to record the outputs of the splitter (concatenated) in the Tracer.
      */
     @Override
     public void debug() {
-        String msg = "Evaluating " + this.name + ":\n\tInputs:\n";
-        for (BitStream inStream : this.in) {
-            msg += "\t\t" + DataConverter.convertBoolToBin(inStream.getData()) + "\n";
-        }
-        msg += "\tOutputs:\n";
-        for (BitStream outStream : this.out) {
-            msg += "\t\t" + DataConverter.convertBoolToBin(outStream.getData()) + "\n";
-        }
-        System.out.println(msg);
+        Tracer.record(this, this.out);
     }
 
     /**Override the default toString method.
@@ -0,0 +1,114 @@
+package main.emulator;
+
+import main.BitStream;
+import main.circuits.CPU;
+import main.circuits.ControlUnit;
+import main.circuits.Microprocessor;
+import main.circuits.SimulationModel;
+import main.exceptions.EmulatorDivergenceException;
+import main.memory.RAM;
+import main.utils.ClockDriver;
+
+public class LockStepEmulator {
+
+    private final MicrocodeEmulator emulator;
+    private final CPU cpu;
+    private final RAM ram;
+    private final ClockDriver clock;
+    private final int checkInterval;
+
+    private long cycleCount;
+
+    /**Constructors for the LockStepEmulator class. Runs the MicrocodeEmulator together with a gate level CPU
+     * (connected to its own RAM) and compares the status of both every checkInterval cycles.
+     * Throws EmulatorDivergenceException as soon as the states differ.
+     *
+     * @param checkInterval - the number of cycles between two comparisons
+     * @param model - the simulation model of the gate level CPU
+     */
+    public LockStepEmulator(int checkInterval, SimulationModel model) {
+        if (checkInterval < 1) {
+            throw new IllegalArgumentException("The check interval must be positive, got " + checkInterval);
+        }
+        this.checkInterval = checkInterval;
+        this.emulator = new MicrocodeEmulator();
+
+        BitStream clk = new BitStream(1);
+        BitStream memoryDataOut = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memoryDataIn = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memoryAddress = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memRead = new BitStream(1);
+        BitStream memWrite = new BitStream(1);
+
+        this.clock = new ClockDriver(clk);
+        this.cpu = new CPU(clk, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress, model);
+        this.ram = new RAM(memoryAddress, memoryDataIn, memoryDataOut, memWrite, memRead);
+    }
+
+    public LockStepEmulator(int checkInterval) {
+        this(checkInterval, SimulationModel.GATE_LEVEL);
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    public MicrocodeEmulator getEmulator() {
+        return emulator;
+    }
+
+    public CPU getCPU() {
+        return cpu;
+    }
+
+    public RAM getRAM() {
+        return ram;
+    }
+
+    public ClockDriver getClock() {
+        return clock;
+    }
+
+    public int getCheckInterval() {
+        return checkInterval;
+    }
+
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    /**Put data at given address in the memory of both the emulator and the CPU.
+     *
+     * @param address - the address where to put data
+     * @param data - the data to put
+     */
+    public void putData(int address, boolean[] data) {
+        this.emulator.putData(address, data);
+        this.ram.putData(address, data);
+    }
+
+    /**Run a given number of cycles on both the emulator and the CPU (one cycle is two clock periods
+     * of the CPU), comparing their states every checkInterval cycles.
+     *
+     * @param cycles - the number of cycles to run
+     */
+    public void run(long cycles) {
+        for (long i = 0; i < cycles; i++) {
+            this.emulator.cycle();
+            this.clock.run(ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+            this.cycleCount++;
+            if (this.cycleCount % this.checkInterval == 0) {
+                this.check();
+            }
+        }
+    }
+
+    /**Compare the state of the emulator with the state of the CPU.
+     * Throws EmulatorDivergenceException if they differ.
+     */
+    public void check() {
+        String expected = this.cpu.requestStatus();
+        String actual = this.emulator.requestStatus();
+        if (!expected.equals(actual)) {
+            throw new EmulatorDivergenceException(this.cycleCount, expected, actual);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package main.emulator;
+
+import main.circuits.ControlUnit;
+import main.circuits.Microprocessor;
+import main.circuits.behavioral.BehavioralALU;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.memory.RomImage;
+import main.memory.RomImageCache;
+import main.utils.DataConverter;
+
+public class MicrocodeEmulator {
+
+    /**Masks of the control fields of a microinstruction, in the order in which the main splitter
+     * of the ControlUnit splits them (the first field is the most significant bit).
+     */
+    public static final long END = 1L << 23;
+    public static final long RF_IN = 1L << 22;
+    public static final long RF_OUT = 1L << 21;
+    public static final long RF_WRITE_SRC = 1L << 20;
+    public static final long RF_READ_DEST = 1L << 19;
+    public static final long X_IN = 1L << 18;
+    public static final long MUX_CONST = 1L << 17;
+    public static final int ALU_OPCODE_SHIFT = 12;
+    public static final long ALU_OPCODE = 0x1FL << ALU_OPCODE_SHIFT;
+    public static final long Z_IN = 1L << 11;
+    public static final long Z_OUT = 1L << 10;
+    public static final long PC_IN = 1L << 9;
+    public static final long PC_OUT = 1L << 8;
+    public static final long IR1_IN = 1L << 7;
+    public static final long IR2_IN = 1L << 6;
+    public static final long MEM_READ = 1L << 5;
+    public static final long MEM_WRITE = 1L << 4;
+    public static final long MEM_ADDRESS = 1L << 3;
+    public static final long MEM_DATA_IN = 1L << 2;
+    public static final long MEM_DATA_OUT = 1L << 1;
+    public static final long INTER_OUT = 1L;
+
+    private static final int SIZE = Microprocessor.WORD_SIZE;
+    private static final long MASK = (1L << SIZE) - 1;
+    private static final int STATE_COUNT = ControlUnit.COMMON_MICROINSTRUCTIONS.length + 1;
+    private static final int LAST_STATE = STATE_COUNT - 1;
+    private static final int COUNTER_MASK = 7;
+
+    private final String name;
+    private final long[] commonMicroinstructions;
+    private final long[] microinstructions;
+    private final int[] microMapping;
+    private final long[] memory;
+    private final long[] registers;
+
+    private long bus, X, Z, PC, IR1, IR2, MAR, MDIR, MDO, aluOut, overflow;
+    private long microinstruction;
+    private int state, counter;
+    private long cycleCount, instructionCount;
+
+    /**Constructors for the MicrocodeEmulator class. The emulator runs the same microcode as the gate level CPU,
+     * but applies the control fields of every microinstruction directly to a register level model of the CPU
+     * (see CPU for the description of the components). One cycle of the emulator corresponds to one
+     * microinstruction, i.e. to two periods of the clock of the gate level CPU.
+     *
+     * @param microinstructionsPath - the path to the microinstruction ROM
+     * @param microMappingPath - the path to the ROM mapping instructions to microinstruction addresses
+     * @param name - the name of the emulated CPU (as shown in the status)
+     */
+    public MicrocodeEmulator(String microinstructionsPath, String microMappingPath, String name) {
+        this.name = name;
+
+        this.commonMicroinstructions = new long[ControlUnit.COMMON_MICROINSTRUCTIONS.length];
+        for (int i = 0; i < this.commonMicroinstructions.length; i++) {
+            this.commonMicroinstructions[i] = DataConverter.convertBoolToBits(
+                    DataConverter.convertBinToBool(ControlUnit.COMMON_MICROINSTRUCTIONS[i]));
+        }
+
+        RomImageCache cache = RomImageCache.getShared();
+        RomImage microinstructionImage = cache.acquire(microinstructionsPath);
+        try {
+            if (microinstructionImage.getWordSize() != ControlUnit.NUM_MICROINSTRUCTIONS) {
+                throw new BitStreamInputSizeMismatch("Microinstruction ROM has word size "
+                        + microinstructionImage.getWordSize() + ", expected " + ControlUnit.NUM_MICROINSTRUCTIONS);
+            }
+            this.microinstructions = new long[microinstructionImage.getSize()];
+            for (int i = 0; i < this.microinstructions.length; i++) {
+                this.microinstructions[i] = microinstructionImage.read(i);
+            }
+        } finally {
+            cache.release(microinstructionImage);
+        }
+
+        RomImage mappingImage = cache.acquire(microMappingPath);
+        try {
+            this.microMapping = new int[1 << Microprocessor.INSTRUCTION_SIZE];
+            for (int i = 0; i < this.microMapping.length && i < mappingImage.getSize(); i++) {
+                this.microMapping[i] = (int) mappingImage.read(i);
+            }
+        } finally {
+            cache.release(mappingImage);
+        }
+
+        this.memory = new long[1 << SIZE];
+        this.registers = new long[8];
+    }
+
+    public MicrocodeEmulator(String name) {
+        this(Microprocessor.MICROINSTRUCTIONS_PATH, Microprocessor.MICRO_MAPPING_PATH, name);
+    }
+
+    public MicrocodeEmulator() {
+        this(Microprocessor.MICROINSTRUCTIONS_PATH, Microprocessor.MICRO_MAPPING_PATH, "CPU");
+    }
+
+    /**Getters for the state of the emulated CPU.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public long getBus() {
+        return bus;
+    }
+
+    public long getRegister(int index) {
+        return registers[index];
+    }
+
+    public long getX() {
+        return X;
+    }
+
+    public long getZ() {
+        return Z;
+    }
+
+    public long getPC() {
+        return PC;
+    }
+
+    public long getIR1() {
+        return IR1;
+    }
+
+    public long getIR2() {
+        return IR2;
+    }
+
+    public long getMAR() {
+        return MAR;
+    }
+
+    public long getMDIR() {
+        return MDIR;
+    }
+
+    public long getMicroinstruction() {
+        return microinstruction;
+    }
+
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    public long getInstructionCount() {
+        return instructionCount;
+    }
+
+    /**Put data in the memory at given address (same as RAM.putData).
+     *
+     * @param address - the address where to put data
+     * @param data - the data to put
+     */
+    public void putData(int address, boolean[] data) {
+        this.memory[address] = DataConverter.convertBoolToBits(data) & MASK;
+    }
+
+    /**Read the data from the memory at given address.
+     *
+     * @param address - the address to read from
+     * @return - the data at the address
+     */
+    public boolean[] getData(int address) {
+        return DataConverter.convertBitsToBool(this.memory[address], SIZE);
+    }
+
+    /**Run a given number of cycles.
+     *
+     * @param cycles - the number of microinstructions to execute
+     */
+    public void run(long cycles) {
+        for (long i = 0; i < cycles; i++) {
+            this.cycle();
+        }
+    }
+
+    /**Run until a given number of instructions has been completed (i.e. until the microinstruction with
+     * the end bit set has been executed that many times).
+     *
+     * @param instructions - the number of instructions to execute
+     * @return - the number of cycles that were executed
+     */
+    public long runInstructions(long instructions) {
+        long startCycles = this.cycleCount;
+        long target = this.instructionCount + instructions;
+        while (this.instructionCount < target) {
+            this.cycle();
+        }
+        return this.cycleCount - startCycles;
+    }
+
+    /**Execute one microinstruction. First the state of the control unit is advanced and the next microinstruction
+     * is selected (one of the common microinstructions, or the one read from the microinstruction ROM in the
+     * last state). Then the bus is driven, the ALU computes its result and the registers selected by the
+     * microinstruction read their input.
+     */
+    public void cycle() {
+        if (this.state != LAST_STATE) {
+            this.state++;
+            this.counter = 0;
+        }
+        else if ((this.microinstruction & END) != 0) {
+            this.state = 0;
+        }
+        else {
+            this.counter = (this.counter + 1) & COUNTER_MASK;
+        }
+
+        if (this.state == LAST_STATE) {
+            int address = (this.counter + this.microMapping[(int) (this.IR1 & 0xFF)]) & 0xFF;
+            this.microinstruction = this.microinstructions[address];
+        }
+        else {
+            this.microinstruction = this.commonMicroinstructions[this.state];
+        }
+
+        long micro = this.microinstruction;
+        this.propagate(micro);
+
+        long data = this.bus;
+        if ((micro & RF_IN) != 0) {
+            this.registers[this.getAddressWrite(micro)] = data;
+        }
+        if ((micro & X_IN) != 0) {
+            this.X = data;
+        }
+        if ((micro & Z_IN) != 0) {
+            this.Z = this.aluOut;
+        }
+        if ((micro & PC_IN) != 0) {
+            this.PC = data;
+        }
+        if ((micro & IR1_IN) != 0) {
+            this.IR1 = data;
+        }
+        if ((micro & IR2_IN) != 0) {
+            this.IR2 = data;
+        }
+        if ((micro & MEM_ADDRESS) != 0) {
+            this.MAR = data;
+        }
+        if ((micro & MEM_DATA_IN) != 0) {
+            this.MDIR = data;
+        }
+        if ((micro & MEM_WRITE) != 0) {
+            this.memory[(int) this.MAR] = this.MDIR;
+        }
+
+        this.propagate(micro);
+
+        this.cycleCount++;
+        if ((micro & END) != 0) {
+            this.instructionCount++;
+        }
+    }
+
+    /**Update the combinational parts of the CPU: the output of the memory, the bus and the ALU.
+     *
+     * @param micro - the current microinstruction
+     */
+    private void propagate(long micro) {
+        if ((micro & MEM_READ) != 0) {
+            this.MDO = this.memory[(int) this.MAR];
+        }
+
+        if ((micro & RF_OUT) != 0) {
+            this.bus = this.registers[this.getAddressRead(micro)];
+        }
+        else if ((micro & Z_OUT) != 0) {
+            this.bus = this.Z;
+        }
+        else if ((micro & PC_OUT) != 0) {
+            this.bus = this.PC;
+        }
+        else if ((micro & MEM_DATA_OUT) != 0) {
+            this.bus = this.MDO;
+        }
+        else if ((micro & INTER_OUT) != 0) {
+            this.bus = this.IR2;
+        }
+
+        int operation = (int) ((micro & ALU_OPCODE) >>> ALU_OPCODE_SHIFT);
+        long destination = (micro & MUX_CONST) != 0 ? 1 : this.X;
+        this.overflow = BehavioralALU.getOverflow(operation, this.bus, destination, SIZE);
+        if (operation >= BehavioralALU.ADD && operation <= BehavioralALU.NOR) {
+            this.aluOut = BehavioralALU.compute(operation, this.bus, destination, SIZE);
+        }
+    }
+
+    /**Get the addresses of the register file, as selected from the source and destination fields of IR1.
+     *
+     * @param micro - the current microinstruction
+     * @return - the address of the register that is read from (or written to)
+     */
+    private int getAddressRead(long micro) {
+        return (micro & RF_READ_DEST) != 0 ? this.getDestination() : this.getSource();
+    }
+
+    private int getAddressWrite(long micro) {
+        return (micro & RF_WRITE_SRC) != 0 ? this.getSource() : this.getDestination();
+    }
+
+    private int getSource() {
+        return (int) (this.IR1 >>> Microprocessor.INSTRUCTION_SIZE) & 7;
+    }
+
+    private int getDestination() {
+        return (int) (this.IR1 >>> (Microprocessor.INSTRUCTION_SIZE + 3)) & 7;
+    }
+
+    /**Method to return the current state of the emulated CPU, in the same format as CPU.requestStatus.
+     * The signals that are only pulsed in the middle of a cycle (RFIn, XIn, ZIn and PCIn) are always false.
+     *
+     * @return - the status of the CPU as String
+     */
+    public String requestStatus() {
+        long micro = this.microinstruction;
+        String status = "CPU (" + this.name + "):\n";
+        status += "BUS: " + this.formatSigned(this.bus) + "\n";
+        status += "Control Unit (controlUnit):\n";
+        status += "IR1: " + this.formatSigned(this.IR1) + "\n";
+        status += "IR2: " + this.formatSigned(this.IR2) + "\n";
+        status += "Micro Instruction: " + DataConverter.convertBoolToBin(
+                DataConverter.convertBitsToBool(micro, ControlUnit.NUM_MICROINSTRUCTIONS)) + "\n";
+        status += "IAG (IAG):\n";
+        status += "PCIn: false\tPCOut: " + ((micro & PC_OUT) != 0) + "\n";
+        status += "PC: " + this.formatSigned(this.PC) + "\n";
+        status += "Register File (registerFile):\n";
+        status += "RFOut: " + ((micro & RF_OUT) != 0) + "\t";
+        status += "RFIn: false\n";
+        status += "Address Read: " + this.formatUnsigned(this.getAddressRead(micro), 3) + "\t";
+        status += "Address Write: " + this.formatUnsigned(this.getAddressWrite(micro), 3) + "\n";
+        String[] registerNames = {"AX", "BX", "CX", "DX", "DI", "SI", "BP", "SP"};
+        for (int i = 0; i < this.registers.length; i++) {
+            status += registerNames[i] + ": " + this.formatSigned(this.registers[i]);
+            if (i % 2 == 1 && i != this.registers.length - 1) {
+                status += "\n";
+            } else if (i % 2 == 0){
+                status += "\t\t";
+            }
+        }
+        status += "\n";
+        status += "X Register:\n";
+        status += "XIn: false\n";
+        status += "X: " + this.formatSigned(this.X) + "\n";
+        status += "ALU (ALU):\n";
+        status += "OPCode: " + this.formatUnsigned((micro & ALU_OPCODE) >>> ALU_OPCODE_SHIFT, 5) + "\t" +
+                "Overflow: " + (this.overflow != 0) + "\n";
+        status += "SRC: " + this.formatSigned(this.bus) + "\t";
+        status += "DEST: " + this.formatSigned((micro & MUX_CONST) != 0 ? 1 : this.X) + "\n";
+        status += "OUT: " + this.formatSigned(this.aluOut) + "\n";
+        status += "Z Register:\n";
+        status += "ZIn: false\tZOut: " + ((micro & Z_OUT) != 0) + "\n";
+        status += "Z: " + this.formatSigned(this.Z) + "\n";
+        status += "Memory Interface:\n";
+        status += "MA: " + this.formatUnsigned(this.MAR, SIZE) + "\n";
+        status += "MDI: " + this.formatSigned(this.MDIR) + "\n";
+        status += "MDO: " + this.formatSigned(this.MDO) + "\n";
+        return status;
+    }
+
+    /**Format a word as in the status of the CPU: binary, unsigned and signed value.
+     *
+     * @param bits - the word to format
+     * @return - the formatted word
+     */
+    private String formatSigned(long bits) {
+        boolean[] data = DataConverter.convertBitsToBool(bits, SIZE);
+        return DataConverter.convertBoolToBin(data) + " (" + DataConverter.convertBoolToUnsignedDec(data) + ", " +
+                DataConverter.convertBoolToSignedDec(data, SIZE) + ")";
+    }
+
+    private String formatUnsigned(long bits, int size) {
+        boolean[] data = DataConverter.convertBitsToBool(bits, size);
+        return DataConverter.convertBoolToBin(data) + " (" + DataConverter.convertBoolToUnsignedDec(data) + ")";
+    }
+}
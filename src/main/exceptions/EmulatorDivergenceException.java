@@ -0,0 +1,15 @@
+package main.exceptions;
+
+/**Exception indicating that the state of the MicrocodeEmulator differs from the state of the gate level CPU
+ * it is cross-checked against.
+ */
+public class EmulatorDivergenceException extends RuntimeException {
+
+    public EmulatorDivergenceException(long cycle, String expected, String actual) {
+        super("Emulator diverged from the CPU after " + cycle + " cycles\nCPU:\n" + expected + "\nEmulator:\n" + actual);
+    }
+
+    public EmulatorDivergenceException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -1,17 +1,41 @@
 package main.exceptions;
 
+import main.BitStream;
 import main.Node;
 
 /**Exception indicating that a BitStream has two sources that are inconsistent with each other.
  */
 public class InconsistentBitStreamSources extends RuntimeException {
 
+    private BitStream stream;
+    private Node oldSource, newSource;
+
+    public InconsistentBitStreamSources(BitStream stream, Node oldSource, Node newSource) {
+        this(oldSource, newSource);
+        this.stream = stream;
+    }
+
     public InconsistentBitStreamSources(Node oldSource, Node newSource) {
-        super("Inconsistency detected between\n" + oldSource.toString() + " and\n" + newSource.toString());
+        super("Inconsistency detected between\n" + oldSource + " and\n" + newSource);
+        this.oldSource = oldSource;
+        this.newSource = newSource;
     }
 
     public InconsistentBitStreamSources(String errorMessage) {
         super(errorMessage);
     }
 
+    /**Getters for the attributes of the class (null if the exception was created from a message).
+     */
+    public BitStream getStream() {
+        return stream;
+    }
+
+    public Node getOldSource() {
+        return oldSource;
+    }
+
+    public Node getNewSource() {
+        return newSource;
+    }
 }
@@ -0,0 +1,17 @@
+package main.exceptions;
+
+import main.Node;
+
+/**Exception to be thrown when a part of a circuit cannot be compiled into a CompiledNetlist.
+ * This happens when the part contains a feedback loop or a node that is not purely combinational.
+ */
+public class NetlistCompilationException extends RuntimeException {
+
+    public NetlistCompilationException(Node node) {
+        super("Node cannot be compiled: " + node.toString());
+    }
+
+    public NetlistCompilationException(String message) {
+        super(message);
+    }
+}
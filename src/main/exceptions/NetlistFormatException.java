@@ -0,0 +1,17 @@
+package main.exceptions;
+
+import main.Node;
+
+/**Exception to be thrown when a netlist image cannot be saved or loaded. This happens when the circuit contains
+ * a node that cannot be saved in a netlist image, or when the data is not a valid netlist image.
+ */
+public class NetlistFormatException extends RuntimeException {
+
+    public NetlistFormatException(Node node) {
+        super("Node cannot be saved in a netlist image: " + node.toString());
+    }
+
+    public NetlistFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package main.exceptions;
+
+/**Exception to be thrown when a circuit snapshot cannot be read or restored. This happens when the data is not
+ * a snapshot, or when a snapshot is restored into a circuit with a different structure than the one it was
+ * captured from.
+ */
+public class SnapshotException extends RuntimeException {
+
+    public SnapshotException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package main.exceptions;
+
+/**Exception to be thrown when a file cannot be read as a Storage, because it is neither in the binary
+ * format of the Storage class nor a legacy (serialized) Storage, or because its contents are corrupted.
+ */
+public class StorageFormatException extends RuntimeException {
+
+    public StorageFormatException(String filepath, String reason) {
+        super("Cannot read Storage from " + filepath + ": " + reason);
+    }
+
+    public StorageFormatException(String errorMessage) {
+        super(errorMessage);
+    }
+}
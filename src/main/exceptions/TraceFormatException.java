@@ -0,0 +1,15 @@
+package main.exceptions;
+
+/**Exception to be thrown when a file cannot be read as a trace written by the BinaryTraceFileSink,
+ * because it is not a trace, has an unsupported version or is corrupted.
+ */
+public class TraceFormatException extends RuntimeException {
+
+    public TraceFormatException(String filepath, String reason) {
+        super("Cannot read trace from " + filepath + ": " + reason);
+    }
+
+    public TraceFormatException(String errorMessage) {
+        super(errorMessage);
+    }
+}
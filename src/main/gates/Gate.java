@@ -3,11 +3,11 @@ package main.gates;
 import main.BitStream;
 import main.Node;
 import main.exceptions.InconsistentBitStreamSources;
-import main.utils.ProcessRunner;
+import main.utils.CircuitBuilder;
+import main.utils.ExecutionQueue;
 import main.warnings.InconsistentBitStreamSourcesWarning;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public abstract class Gate implements Node {
@@ -15,6 +15,8 @@ public abstract class Gate implements Node {
     private BitStream out;
     private String name;
     private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
 
     /**Constructor for the Gate class.
      *
@@ -54,23 +56,55 @@ public abstract class Gate implements Node {
         this.inDebuggerMode = inDebuggerMode;
     }
 
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
     /**Method to be defined by the children of the class to check if all the inputs and
      * the output match with respect to the size.
      */
     public abstract void checkIfSizesMatch();
 
     /**Abstract class used by the evaluate() method to calculate the actual logic output.
-     * This method has to be defined by all the logic gates.
+     * This method has to be defined by all the logic gates. The result is returned as a primitive
+     * word, so computing it must not allocate any objects (evaluation happens very often).
      *
-     * @return - a boolean array corresponding to the computed logic result
+     * @return - the packed bits corresponding to the computed logic result (see BitStream.getBits())
      */
-    public abstract boolean[] compute();
+    public abstract long compute();
+
+    /**Check if the gate can be evaluated by calling compute() and then update(). This is not the case for
+     * gates whose output depends on more than the result of compute() (eg: TriState).
+     *
+     * @return - true if the evaluation can be split, false otherwise
+     */
+    public boolean canComputeInParallel() {
+        return true;
+    }
 
     /**Method to setup the circuit starting in "this".
      */
     public void setup() {
         this.checkIfSizesMatch();
-        ProcessRunner.run(this);
+        CircuitBuilder.settle(this);
     }
 
     /**Evaluate the logic gate. This also includes checking if evaluation is possible, setting the
@@ -79,16 +113,25 @@ public abstract class Gate implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void evaluate(List<Node> queue) {
-        boolean[] newOutData = compute();
+    public void evaluate(ExecutionQueue queue) {
+        this.update(this.compute(), queue);
+    }
 
-        this.checkIfSourceIsConsistent(newOutData);
+    /**Update the output of the logic gate with an already computed result. Splitting the evaluation into
+     * compute() and update() allows computing the results of many gates in parallel (see ParallelWavefrontRunner)
+     * and then updating the outputs one by one.
+     *
+     * @param newOutBits - the result of compute()
+     * @param queue - the execution queue
+     */
+    public void update(long newOutBits, ExecutionQueue queue) {
+        this.checkIfSourceIsConsistent(newOutBits);
 
-        if (this.decideIfEvaluateFurther(newOutData)) {
+        if (this.decideIfEvaluateFurther(newOutBits)) {
             this.addNeighboursToQueue(queue);
         }
 
-        this.out.setData(newOutData);
+        this.out.setBits(newOutBits);
         this.setSourceForOutStream();
 
         if (this.isInDebuggerMode()) {
@@ -106,27 +149,27 @@ public abstract class Gate implements Node {
     /**Method used to decide if execution should be continued further. That is, if the newly evaluated output
      * is different from the old one, then the evaluation/execution needs to be continued.
      *
-     * @param newOutData - the newly calculated data for this logic gate
+     * @param newOutBits - the newly calculated data for this logic gate
      * @return - true if execution should be continued, false otherwise
      */
     @Override
-    public boolean decideIfEvaluateFurther(boolean[] newOutData) {
-        return !Arrays.equals(this.out.getData(), newOutData);
+    public boolean decideIfEvaluateFurther(long newOutBits) {
+        return this.out.getBits() != newOutBits;
     }
 
     /**Method to check if the sources of the out stream are consistent. In particular, check if the source
      * of the out stream is the current logic gate and if not check if it is possible to merge the old source
      * with the current logic gate.
      *
-     * @param newOutData - the newly calculated output of the branch, to be compared with the old value of the
-     * out stream. If the source is not the current logic gate, newOutData is compared with old BitStream and
+     * @param newOutBits - the newly calculated output of the branch, to be compared with the old value of the
+     * out stream. If the source is not the current logic gate, newOutBits is compared with old BitStream and
      * if they differ at any bit, the method throws an InconsistentBitStreamSources error.
      */
     @Override
-    public void checkIfSourceIsConsistent(boolean[] newOutData) {
+    public void checkIfSourceIsConsistent(long newOutBits) {
         if (this.out.getSource() != null && this.out.getSource() != this) {
-            if (!Arrays.equals(this.out.getData(), newOutData)) {
-                InconsistentBitStreamSourcesWarning.show(this.out.getSource(), this);
+            if (this.out.getBits() != newOutBits) {
+                InconsistentBitStreamSourcesWarning.show(this.out, this.out.getSource(), this);
             }
         }
     }
@@ -137,7 +180,14 @@ public abstract class Gate implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void addNeighboursToQueue(List<Node> queue) {
-        queue.addAll(this.out.getAllNeighbours(this));
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        this.out.addNeighboursToQueue(this, queue);
+    }
+
+    /**Freeze the output BitStream of the logic gate (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        this.out.freeze();
     }
 }
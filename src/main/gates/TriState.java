@@ -2,12 +2,14 @@ package main.gates;
 
 import main.BitStream;
 import main.Node;
+import main.Rewirable;
 import main.exceptions.BitStreamInputSizeMismatch;
-import main.utils.DataConverter;
+import main.trace.Tracer;
+import main.utils.ExecutionQueue;
 
 import java.util.List;
 
-public class TriState extends Gate {
+public class TriState extends Gate implements Rewirable {
 
     private BitStream in, control;
 
@@ -62,19 +64,19 @@ public class TriState extends Gate {
      * @param queue - the execution queue
      */
     @Override
-    public void evaluate(List<Node> queue) {
+    public void evaluate(ExecutionQueue queue) {
 
-        if (this.control.getData()[0]) {
+        if (this.control.getBit(0)) {
 
-            boolean[] newOutData = this.in.getData();
+            long newOutBits = this.compute();
 
-            this.checkIfSourceIsConsistent(newOutData);
+            this.checkIfSourceIsConsistent(newOutBits);
 
-            if (this.decideIfEvaluateFurther(newOutData)) {
+            if (this.decideIfEvaluateFurther(newOutBits)) {
                 this.addNeighboursToQueue(queue);
             }
 
-            this.getOut().setData(newOutData);
+            this.getOut().setBits(newOutBits);
             this.setSourceForOutStream();
 
         }
@@ -89,6 +91,25 @@ public class TriState extends Gate {
         }
     }
 
+    /**Replace an input stream of the gate with another one (see Rewirable).
+     *
+     * @param oldStream - the stream to replace
+     * @param newStream - the stream to read instead
+     */
+    @Override
+    public void replaceInput(BitStream oldStream, BitStream newStream) {
+        if (this.in == oldStream) {
+            this.in = newStream;
+            oldStream.removeEndpoint(this);
+            newStream.addNewEndpoint(this);
+        }
+        if (this.control == oldStream) {
+            this.control = newStream;
+            oldStream.removeEndpoint(this);
+            newStream.addNewEndpoint(this);
+        }
+    }
+
     /**Method to check if the input and the output have the same sizes.
      * The control BitStream can also only be one bit.
      */
@@ -99,13 +120,11 @@ public class TriState extends Gate {
         }
     }
 
-    /**Method used to display additional debug info.
+    /**Record the evaluation in the Tracer, with the value of the output stream.
      */
     @Override
     public void debug() {
-        System.out.println("Evaluating " + this.getName() + ":\n"
-                + "\tInput: " + DataConverter.convertBoolToBin(this.in.getData()) + "\n"
-                + "\tControl: " + this.control.getData()[0]);
+        Tracer.record(this, this.getOut());
     }
 
     /**Override the default toString method.
@@ -116,12 +135,23 @@ public class TriState extends Gate {
     public String toString() {
         return "TriState<" + this.getName() + ", "
                 + this.in + ", "
-                + this.control.getData()[0] + ", "
+                + this.control.getBit(0) + ", "
                 + this.getOut() + ">";
     }
 
-    /**Define an empty compute method defined in Gate.
+    /**The output of the TriState also depends on its control, which compute() does not capture.
+     *
+     * @return - false
+     */
+    @Override
+    public boolean canComputeInParallel() {
+        return false;
+    }
+
+    /**Define the compute method defined in Gate. When enabled, the gate forwards its input.
+     *
+     * @return - the packed bits of the input stream
      */
     @Override
-    public boolean[] compute() {return new boolean[this.in.getSize()];}
+    public long compute() {return this.in.getBits();}
 }
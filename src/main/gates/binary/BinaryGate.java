@@ -1,11 +1,12 @@
 package main.gates.binary;
 
 import main.BitStream;
+import main.Rewirable;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.gates.Gate;
-import main.utils.DataConverter;
+import main.trace.Tracer;
 
-public abstract class BinaryGate extends Gate {
+public abstract class BinaryGate extends Gate implements Rewirable {
 
     private BitStream in1, in2;
 
@@ -38,6 +39,25 @@ public abstract class BinaryGate extends Gate {
         return in2;
     }
 
+    /**Replace an input stream of the gate with another one (see Rewirable).
+     *
+     * @param oldStream - the stream to replace
+     * @param newStream - the stream to read instead
+     */
+    @Override
+    public void replaceInput(BitStream oldStream, BitStream newStream) {
+        if (this.in1 == oldStream) {
+            this.in1 = newStream;
+            oldStream.removeEndpoint(this);
+            newStream.addNewEndpoint(this);
+        }
+        if (this.in2 == oldStream) {
+            this.in2 = newStream;
+            oldStream.removeEndpoint(this);
+            newStream.addNewEndpoint(this);
+        }
+    }
+
     /**Method to check if the sizes of the inputs and the output are correct.
      * Throws BitStreamInputSizeMismatch if not.
      */
@@ -51,15 +71,11 @@ public abstract class BinaryGate extends Gate {
         }
     }
 
-    /**Method to define what should be displayed in the debug mode.
+    /**Method to record the evaluation in the Tracer in the debug mode (the value of the output).
      */
     @Override
     public void debug() {
-        String msg = "Evaluating " + this.getName() + ":\n"
-                + "\tInputs: " + DataConverter.convertBoolToBin(this.in1.getData()) + ", "
-                    + DataConverter.convertBoolToBin(this.in2.getData()) + "\n"
-                + "\tOutput: " + DataConverter.convertBoolToBin(this.getOut().getData());
-        System.out.println(msg);
+        Tracer.record(this, this.getOut());
     }
 
     /**Override the default toString method.
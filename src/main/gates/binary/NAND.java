@@ -35,17 +35,8 @@ public class NAND extends BinaryGate {
      * not automatically forwarded to the out stream)
      */
     @Override
-    public boolean[] compute() {
-        boolean[] newOutData = new boolean[this.getIn1().getSize()];
-
-        for (int i = 0; i < newOutData.length; i++) {
-            newOutData[i] = true;
-            if (this.getIn1().getData()[i] && this.getIn2().getData()[i]) {
-                newOutData[i] = false;
-            }
-        }
-
-        return newOutData;
+    public long compute() {
+        return ~(this.getIn1().getBits() & this.getIn2().getBits()) & this.getOut().getMask();
     }
 
     /**Override the default toString method.
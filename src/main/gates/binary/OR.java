@@ -35,17 +35,8 @@ public class OR extends BinaryGate {
      * not automatically forwarded to the out stream)
      */
     @Override
-    public boolean[] compute() {
-        boolean[] newOutData = new boolean[this.getIn1().getSize()];
-
-        for (int i = 0; i < newOutData.length; i++) {
-            newOutData[i] = false;
-            if (this.getIn1().getData()[i] || this.getIn2().getData()[i]) {
-                newOutData[i] = true;
-            }
-        }
-
-        return newOutData;
+    public long compute() {
+        return this.getIn1().getBits() | this.getIn2().getBits();
     }
 
     /**Override the default toString method.
@@ -30,25 +30,19 @@ public class MultiAND extends MultiInputGate {
     }
 
     /**Define the abstract compute method. This should evaluate AND operation
-     * on the inputs and return the result to an array.
+     * on the inputs and return the result as packed bits.
      *
-     * @return - the boolean array computed by applying AND on all inputs
+     * @return - the bits computed by applying AND on all inputs
      */
     @Override
-    public boolean[] compute() {
-        boolean[] newOutData = new boolean[this.getOut().getSize()];
-
-        for (int i = 0; i < this.getOut().getSize(); i++) {
-            newOutData[i] = true;
-            for (BitStream inStream : this.getIn()) {
-                if (!inStream.getData()[i]) {
-                    newOutData[i] = false;
-                    break;
-                }
-            }
+    public long compute() {
+        long newOutBits = this.getOut().getMask();
+
+        for (BitStream inStream : this.getInStreams()) {
+            newOutBits &= inStream.getBits();
         }
 
-        return newOutData;
+        return newOutBits;
     }
 
     /**Override the toString method.
@@ -1,15 +1,18 @@
 package main.gates.multi;
 
 import main.BitStream;
+import main.Rewirable;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.gates.Gate;
-import main.utils.DataConverter;
+import main.trace.Tracer;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public abstract class MultiInputGate extends Gate {
+public abstract class MultiInputGate extends Gate implements Rewirable {
 
     private List<BitStream> in;
+    private BitStream[] inStreams;
 
     /**Constructor for the MultiInputGate class.
      *
@@ -21,6 +24,7 @@ public abstract class MultiInputGate extends Gate {
     public MultiInputGate(List<BitStream> in, BitStream out, String name, boolean inDebuggerMode) {
         super(out, name, inDebuggerMode);
         this.in = in;
+        this.inStreams = in.toArray(new BitStream[0]);
 
         for (BitStream inStream : this.in) {
             inStream.addNewEndpoint(this);
@@ -35,6 +39,34 @@ public abstract class MultiInputGate extends Gate {
         return in;
     }
 
+    /**Get the input BitStreams as an array. Used by compute(), so that iterating over
+     * the inputs does not allocate an iterator on every evaluation.
+     *
+     * @return - the array of input BitStreams
+     */
+    public BitStream[] getInStreams() {
+        return inStreams;
+    }
+
+    /**Replace an input stream of the gate with another one (see Rewirable).
+     *
+     * @param oldStream - the stream to replace
+     * @param newStream - the stream to read instead
+     */
+    @Override
+    public void replaceInput(BitStream oldStream, BitStream newStream) {
+        List<BitStream> in = new ArrayList<>(this.in);
+        for (int i = 0; i < in.size(); i++) {
+            if (in.get(i) == oldStream) {
+                in.set(i, newStream);
+                oldStream.removeEndpoint(this);
+                newStream.addNewEndpoint(this);
+            }
+        }
+        this.in = in;
+        this.inStreams = in.toArray(new BitStream[0]);
+    }
+
     /**Method to check if all the sizes of the input streams and the output streams match.
      */
     @Override
@@ -46,16 +78,11 @@ public abstract class MultiInputGate extends Gate {
         }
     }
 
-    /**Method to show additional debug information when the gate is evaluated.
+    /**Method to record the output of the gate in the Tracer when it is evaluated in the debug mode.
      */
     @Override
     public void debug() {
-        String msg = "Evaluating " + this.getName() + ":\n\tInputs:\n";
-        for (BitStream inStream : this.in) {
-            msg += "\t\t" + DataConverter.convertBoolToBin(inStream.getData()) + "\n";
-        }
-        msg += "\tOutput: " + DataConverter.convertBoolToBin(this.getOut().getData());
-        System.out.println(msg);
+        Tracer.record(this, this.getOut());
     }
 
     /**Override the default toString method.
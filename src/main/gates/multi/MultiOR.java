@@ -32,23 +32,17 @@ public class MultiOR extends MultiInputGate {
     /**Define the compute method which computes what should be on the output
      * provided the list of inputs to the gate.
      *
-     * @return - OR evaluated boolean array computed from the input BitStreams
+     * @return - OR evaluated bits computed from the input BitStreams
      */
     @Override
-    public boolean[] compute() {
-        boolean[] newOutData = new boolean[this.getOut().getSize()];
-
-        for (int i = 0; i < this.getOut().getSize(); i++) {
-            newOutData[i] = false;
-            for (BitStream inStream : this.getIn()) {
-                if (inStream.getData()[i]) {
-                    newOutData[i] = true;
-                    break;
-                }
-            }
+    public long compute() {
+        long newOutBits = 0;
+
+        for (BitStream inStream : this.getInStreams()) {
+            newOutBits |= inStream.getBits();
         }
 
-        return newOutData;
+        return newOutBits;
     }
 
     /**Override the toString method.
@@ -34,14 +34,8 @@ public class NOT extends UnaryGate {
      * not automatically forwarded to the out stream)
      */
     @Override
-    public boolean[] compute() {
-        boolean[] newOutData = new boolean[this.getIn().getSize()];
-
-        for (int i = 0; i < newOutData.length; i++) {
-            newOutData[i] = !this.getIn().getData()[i];
-        }
-
-        return newOutData;
+    public long compute() {
+        return ~this.getIn().getBits() & this.getOut().getMask();
     }
 
     /**Override the default toString method.
@@ -1,11 +1,12 @@
 package main.gates.unary;
 
 import main.BitStream;
+import main.Rewirable;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.gates.Gate;
-import main.utils.DataConverter;
+import main.trace.Tracer;
 
-public abstract class UnaryGate extends Gate {
+public abstract class UnaryGate extends Gate implements Rewirable {
 
     private BitStream in;
 
@@ -30,6 +31,20 @@ public abstract class UnaryGate extends Gate {
         return in;
     }
 
+    /**Replace an input stream of the gate with another one (see Rewirable).
+     *
+     * @param oldStream - the stream to replace
+     * @param newStream - the stream to read instead
+     */
+    @Override
+    public void replaceInput(BitStream oldStream, BitStream newStream) {
+        if (this.in == oldStream) {
+            this.in = newStream;
+            oldStream.removeEndpoint(this);
+            newStream.addNewEndpoint(this);
+        }
+    }
+
     /**Method to check if the sizes of the inputs and the output are correct.
      * Throws BitStreamInputSizeMismatch if not.
      */
@@ -43,14 +58,11 @@ public abstract class UnaryGate extends Gate {
         }
     }
 
-    /**Method to define what should be displayed in the debug mode.
+    /**Method to record the evaluation in the Tracer in the debug mode (the value of the output).
      */
     @Override
     public void debug() {
-        String msg = "Evaluating " + this.getName() + ":\n"
-                + "\tInput: " + DataConverter.convertBoolToBin(this.in.getData()) + "\n"
-                + "\tOutput: " + DataConverter.convertBoolToBin(this.getOut().getData());
-        System.out.println(msg);
+        Tracer.record(this, this.getOut());
     }
 
     /**Override the default toString method.
@@ -0,0 +1,175 @@
+package main.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedWordStore implements WordStore, Closeable {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_LENGTH = 1L << CHUNK_BITS;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final int wordSize;
+    private final long wordMask;
+    private final int bytesPerWordBits;
+    private final MappedByteBuffer[] chunks;
+
+    /**Constructor for the MappedWordStore class. The words are stored in a file which is mapped into memory,
+     * so the memory image is saved without copying and loaded again by creating a store on the same file.
+     * Every word takes a whole number of bytes (1, 2, 4 or 8). The file is split into chunks of CHUNK_LENGTH
+     * bytes which are only mapped when they are accessed for the first time (the file grows as needed,
+     * as a sparse file on file systems supporting it).
+     *
+     * @param path - the path to the memory image (created if it does not exist)
+     * @param addressSize - the number of bits of an address
+     * @param wordSize - the number of bits in a word
+     */
+    public MappedWordStore(Path path, int addressSize, int wordSize) {
+        if (addressSize < 0 || addressSize > PackedWordStore.MAX_ADDRESS_SIZE) {
+            throw new IllegalArgumentException("Address size must be between 0 and "
+                    + PackedWordStore.MAX_ADDRESS_SIZE + ", got " + addressSize);
+        }
+        int bytesPerWord = Math.max(1, WordStore.getSlotSize(wordSize) / 8);
+        this.path = path;
+        this.size = 1L << addressSize;
+        this.wordSize = wordSize;
+        this.wordMask = wordSize == 64 ? -1L : (1L << wordSize) - 1;
+        this.bytesPerWordBits = Integer.numberOfTrailingZeros(bytesPerWord);
+
+        long byteCount = this.size << this.bytesPerWordBits;
+        this.chunks = new MappedByteBuffer[(int) ((byteCount + CHUNK_LENGTH - 1) >>> CHUNK_BITS)];
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public int getWordSize() {
+        return wordSize;
+    }
+
+    /**Read the word at given address.
+     *
+     * @param address - the address to read from
+     * @return - the word at the address
+     */
+    @Override
+    public long read(long address) {
+        this.checkAddress(address);
+        long offset = address << this.bytesPerWordBits;
+        MappedByteBuffer chunk = this.getChunk(offset);
+        int position = (int) (offset & (CHUNK_LENGTH - 1));
+        switch (this.bytesPerWordBits) {
+            case 0:
+                return chunk.get(position) & this.wordMask;
+            case 1:
+                return chunk.getShort(position) & this.wordMask;
+            case 2:
+                return chunk.getInt(position) & this.wordMask;
+            default:
+                return chunk.getLong(position) & this.wordMask;
+        }
+    }
+
+    /**Write a word at given address.
+     *
+     * @param address - the address to write to
+     * @param word - the word to write
+     */
+    @Override
+    public void write(long address, long word) {
+        this.checkAddress(address);
+        word &= this.wordMask;
+        long offset = address << this.bytesPerWordBits;
+        MappedByteBuffer chunk = this.getChunk(offset);
+        int position = (int) (offset & (CHUNK_LENGTH - 1));
+        switch (this.bytesPerWordBits) {
+            case 0:
+                chunk.put(position, (byte) word);
+                break;
+            case 1:
+                chunk.putShort(position, (short) word);
+                break;
+            case 2:
+                chunk.putInt(position, (int) word);
+                break;
+            default:
+                chunk.putLong(position, word);
+        }
+    }
+
+    /**Get the chunk containing a byte of the file, mapping it if it was not accessed before.
+     *
+     * @param offset - the offset of the byte in the file
+     * @return - the mapped chunk
+     */
+    private MappedByteBuffer getChunk(long offset) {
+        int index = (int) (offset >>> CHUNK_BITS);
+        MappedByteBuffer chunk = this.chunks[index];
+        if (chunk == null) {
+            long start = (long) index << CHUNK_BITS;
+            long length = Math.min(CHUNK_LENGTH, (this.size << this.bytesPerWordBits) - start);
+            try {
+                chunk = this.channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    private void checkAddress(long address) {
+        if (address < 0 || address >= this.size) {
+            throw new IndexOutOfBoundsException("Address " + address + " out of bounds for size " + this.size);
+        }
+    }
+
+    /**Write all changes of the mapped chunks to the file.
+     */
+    public void force() {
+        for (MappedByteBuffer chunk : this.chunks) {
+            if (chunk != null) {
+                chunk.force();
+            }
+        }
+    }
+
+    /**Write all changes to the file and close it. The store cannot be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        this.force();
+        this.channel.close();
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return "MappedWordStore<" + this.path + ", " + this.size + ", " + this.wordSize + ">";
+    }
+}
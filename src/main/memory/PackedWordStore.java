@@ -0,0 +1,176 @@
+package main.memory;
+
+public class PackedWordStore implements WordStore {
+
+    public static final int MAX_ADDRESS_SIZE = 40;
+
+    private static final int PAGE_BITS = 9;
+    private static final int PAGE_LENGTH = 1 << PAGE_BITS;
+    private static final int TABLE_BITS = 10;
+    private static final int TABLE_LENGTH = 1 << TABLE_BITS;
+
+    private final long size;
+    private final int wordSize;
+    private final long wordMask;
+    private final int slotBits;
+    private final int slotsPerLongBits;
+    private final long[][][] directory;
+
+    private int allocatedPages;
+
+    /**Constructor for the PackedWordStore class. The words are packed into longs (as many as fit in a long,
+     * e.g. four 16-bit words), which are grouped into pages of PAGE_LENGTH longs. The pages are only allocated
+     * when a word other than 0 is written to them, so large sparse address spaces stay cheap.
+     *
+     * @param addressSize - the number of bits of an address (at most MAX_ADDRESS_SIZE)
+     * @param wordSize - the number of bits in a word
+     */
+    public PackedWordStore(int addressSize, int wordSize) {
+        if (addressSize < 0 || addressSize > MAX_ADDRESS_SIZE) {
+            throw new IllegalArgumentException("Address size must be between 0 and " + MAX_ADDRESS_SIZE
+                    + ", got " + addressSize);
+        }
+        int slotSize = WordStore.getSlotSize(wordSize);
+        this.size = 1L << addressSize;
+        this.wordSize = wordSize;
+        this.wordMask = wordSize == 64 ? -1L : (1L << wordSize) - 1;
+        this.slotBits = Integer.numberOfTrailingZeros(slotSize);
+        this.slotsPerLongBits = 6 - this.slotBits;
+
+        long longCount = Math.max(1, this.size >>> this.slotsPerLongBits);
+        long pageCount = (longCount + PAGE_LENGTH - 1) >>> PAGE_BITS;
+        this.directory = new long[(int) ((pageCount + TABLE_LENGTH - 1) >>> TABLE_BITS)][][];
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public int getWordSize() {
+        return wordSize;
+    }
+
+    public int getAllocatedPages() {
+        return allocatedPages;
+    }
+
+    /**Read the word at given address. Addresses in pages that were never written read as 0.
+     *
+     * @param address - the address to read from
+     * @return - the word at the address
+     */
+    @Override
+    public long read(long address) {
+        this.checkAddress(address);
+        long index = address >>> this.slotsPerLongBits;
+        long pageIndex = index >>> PAGE_BITS;
+        long[][] table = this.directory[(int) (pageIndex >>> TABLE_BITS)];
+        if (table == null) {
+            return 0;
+        }
+        long[] page = table[(int) (pageIndex & (TABLE_LENGTH - 1))];
+        if (page == null) {
+            return 0;
+        }
+        return (page[(int) (index & (PAGE_LENGTH - 1))] >>> this.getShift(address)) & this.wordMask;
+    }
+
+    /**Write a word at given address, allocating its page if needed.
+     *
+     * @param address - the address to write to
+     * @param word - the word to write
+     */
+    @Override
+    public void write(long address, long word) {
+        this.checkAddress(address);
+        word &= this.wordMask;
+        long index = address >>> this.slotsPerLongBits;
+        long pageIndex = index >>> PAGE_BITS;
+        int tableIndex = (int) (pageIndex >>> TABLE_BITS);
+        long[][] table = this.directory[tableIndex];
+        if (table == null) {
+            if (word == 0) {
+                return;
+            }
+            table = new long[TABLE_LENGTH][];
+            this.directory[tableIndex] = table;
+        }
+        long[] page = table[(int) (pageIndex & (TABLE_LENGTH - 1))];
+        if (page == null) {
+            if (word == 0) {
+                return;
+            }
+            page = new long[PAGE_LENGTH];
+            table[(int) (pageIndex & (TABLE_LENGTH - 1))] = page;
+            this.allocatedPages++;
+        }
+        int shift = this.getShift(address);
+        int offset = (int) (index & (PAGE_LENGTH - 1));
+        page[offset] = (page[offset] & ~(this.wordMask << shift)) | (word << shift);
+    }
+
+    /**Find the first word other than 0 at or after given address, skipping the pages that were never allocated.
+     *
+     * @param address - the address to start searching from
+     * @return - the address of the first non-zero word, or -1 if all remaining words are 0
+     */
+    @Override
+    public long findNonZero(long address) {
+        int slotsPerLong = 1 << this.slotsPerLongBits;
+        long index = Math.max(address, 0) >>> this.slotsPerLongBits;
+        long longCount = Math.max(1, this.size >>> this.slotsPerLongBits);
+        while (index < longCount) {
+            long pageIndex = index >>> PAGE_BITS;
+            long[][] table = this.directory[(int) (pageIndex >>> TABLE_BITS)];
+            if (table == null) {
+                index = ((pageIndex >>> TABLE_BITS) + 1) << (TABLE_BITS + PAGE_BITS);
+                continue;
+            }
+            long[] page = table[(int) (pageIndex & (TABLE_LENGTH - 1))];
+            if (page == null) {
+                index = (pageIndex + 1) << PAGE_BITS;
+                continue;
+            }
+            long packed = page[(int) (index & (PAGE_LENGTH - 1))];
+            if (packed != 0) {
+                long first = index << this.slotsPerLongBits;
+                for (int i = 0; i < slotsPerLong && first + i < this.size; i++) {
+                    long candidate = first + i;
+                    if (candidate >= address && ((packed >>> this.getShift(candidate)) & this.wordMask) != 0) {
+                        return candidate;
+                    }
+                }
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**Get the position of a word in the long holding it.
+     *
+     * @param address - the address of the word
+     * @return - the number of bits the word is shifted by
+     */
+    private int getShift(long address) {
+        return (int) (address & ((1 << this.slotsPerLongBits) - 1)) << this.slotBits;
+    }
+
+    private void checkAddress(long address) {
+        if (address < 0 || address >= this.size) {
+            throw new IndexOutOfBoundsException("Address " + address + " out of bounds for size " + this.size);
+        }
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return "PackedWordStore<" + this.size + ", " + this.wordSize + ", " + this.allocatedPages + " pages>";
+    }
+}
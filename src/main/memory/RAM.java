@@ -2,24 +2,31 @@ package main.memory;
 
 import main.BitStream;
 import main.Node;
+import main.Stateful;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.exceptions.InconsistentBitStreamSources;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
 import main.utils.DataConverter;
-import main.utils.ProcessRunner;
+import main.utils.ExecutionQueue;
 import main.warnings.InconsistentBitStreamSourcesWarning;
 
-import java.util.Arrays;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 
-public class RAM implements Node {
+public class RAM implements Node, Stateful {
 
     private BitStream address, dataIn, dataOut, read, write;
     private String name;
     private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
 
     private boolean lastWriteSignal;
-    private boolean[][] data;
+    private final WordStore memory;
 
     /**Constructors for the RAM class.
      *
@@ -31,9 +38,10 @@ public class RAM implements Node {
      * @param read - line to specify if data should be read from RAM
      * @param name - the name of the memory
      * @param inDebuggerMode - boolean to specify if RAM is in debug mode
+     * @param memory - the store holding the data of the RAM (e.g. a PackedWordStore or a MappedWordStore)
      */
     public RAM(BitStream address, BitStream dataIn, BitStream dataOut, BitStream write, BitStream read,
-               String name, boolean inDebuggerMode) {
+               String name, boolean inDebuggerMode, WordStore memory) {
         this.address = address;
         this.address.addNewEndpoint(this);
 
@@ -54,11 +62,17 @@ public class RAM implements Node {
 
         this.lastWriteSignal = false;
 
-        this.data = new boolean[1 << this.address.getSize()][this.dataOut.getSize()];
+        this.memory = memory;
 
         this.setup();
     }
 
+    public RAM(BitStream address, BitStream dataIn, BitStream dataOut, BitStream write, BitStream read,
+               String name, boolean inDebuggerMode) {
+        this(address, dataIn, dataOut, write, read, name, inDebuggerMode,
+                new PackedWordStore(address.getSize(), dataOut.getSize()));
+    }
+
     public RAM(BitStream address, BitStream dataIn, BitStream dataOut, BitStream write, BitStream read,
                String name) {
         this(address, dataIn, dataOut, write, read, name, false);
@@ -73,8 +87,17 @@ public class RAM implements Node {
         this(address, dataIn, dataOut, write, read, "RAM", false);
     }
 
+    public RAM(BitStream address, BitStream dataIn, BitStream dataOut, BitStream write, BitStream read,
+               WordStore memory) {
+        this(address, dataIn, dataOut, write, read, "RAM", false, memory);
+    }
+
     /**Getters for all the attributes.
      */
+    public WordStore getMemory() {
+        return memory;
+    }
+
     public BitStream getAddress() {
         return address;
     }
@@ -103,6 +126,14 @@ public class RAM implements Node {
         return inDebuggerMode;
     }
 
+    /**Get the write signal seen by the last evaluation (data is written when the signal falls).
+     *
+     * @return - the last write signal
+     */
+    public boolean getLastWriteSignal() {
+        return lastWriteSignal;
+    }
+
     /**Setters for some of the attributes of the class.
      * Setting BitStreams is not possible.
      */
@@ -114,8 +145,43 @@ public class RAM implements Node {
         this.inDebuggerMode = inDebuggerMode;
     }
 
+    public void setLastWriteSignal(boolean lastWriteSignal) {
+        this.lastWriteSignal = lastWriteSignal;
+    }
+
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**Put data at given address, or read the data at given address. The data is copied into the memory.
+     *
+     * @param address - the address of the data
+     * @param data - the data to put
+     */
     public void putData(int address, boolean[] data) {
-        this.data[address] = data;
+        this.memory.write(address, DataConverter.convertBoolToBits(data));
+    }
+
+    public boolean[] getData(int address) {
+        return DataConverter.convertBitsToBool(this.memory.read(address), this.dataOut.getSize());
     }
 
     /**Setup the Node, i.e: check if all the sizes match and
@@ -124,18 +190,21 @@ public class RAM implements Node {
     @Override
     public void setup() {
         this.checkIfSizesMatch();
-        ProcessRunner.run(this);
+        CircuitBuilder.settle(this);
     }
 
     /**Method to check if the sizes of the dataIn and dataOut match.
-     * Also the write and read data lines can only be one bit.
+     * Also the write and read data lines can only be one bit, and the memory has to hold a word
+     * of the size of dataOut for every address.
      * Throw BitStreamInputSizeMismatch if any of these conditions do not hold.
      */
     @Override
     public void checkIfSizesMatch() {
         if (this.dataOut.getSize() != this.dataIn.getSize()
                 || this.write.getSize() != 1
-                || this.read.getSize() != 1) {
+                || this.read.getSize() != 1
+                || this.memory.getWordSize() != this.dataOut.getSize()
+                || this.memory.getSize() < 1L << this.address.getSize()) {
             throw new BitStreamInputSizeMismatch(this);
         }
     }
@@ -146,25 +215,25 @@ public class RAM implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void evaluate(List<Node> queue) {
-        if (!this.write.getData()[0] && this.lastWriteSignal) {
-            this.data[DataConverter.convertBoolToUnsignedDec(this.address.getData())] = this.dataIn.getData().clone();
+    public void evaluate(ExecutionQueue queue) {
+        if (!this.write.getBit(0) && this.lastWriteSignal) {
+            this.memory.write(this.address.getBits(), this.dataIn.getBits());
         }
-        this.lastWriteSignal = this.write.getData()[0];
+        this.lastWriteSignal = this.write.getBit(0);
 
-        boolean[] newOutData = this.dataOut.getData();
+        long newOutBits = this.dataOut.getBits();
 
-        if (this.read.getData()[0]) {
-            newOutData = this.data[DataConverter.convertBoolToUnsignedDec(this.address.getData())];
+        if (this.read.getBit(0)) {
+            newOutBits = this.memory.read(this.address.getBits());
         }
 
-        this.checkIfSourceIsConsistent(newOutData);
+        this.checkIfSourceIsConsistent(newOutBits);
 
-        if (this.decideIfEvaluateFurther(newOutData)) {
+        if (this.decideIfEvaluateFurther(newOutBits)) {
             this.addNeighboursToQueue(queue);
         }
 
-        this.dataOut.setData(newOutData);
+        this.dataOut.setBits(newOutBits);
         this.setSourceForOutStream();
 
         if (this.isInDebuggerMode()) {
@@ -175,13 +244,13 @@ public class RAM implements Node {
     /**Check if the source of dataOut is consistent with the data supposed to
      * be output by the RAM. Show InconsistentBitStreamSourcesWarning if not.
      *
-     * @param newOutData - newly computed output data from RAM
+     * @param newOutBits - newly computed output data from RAM
      */
     @Override
-    public void checkIfSourceIsConsistent(boolean[] newOutData) {
+    public void checkIfSourceIsConsistent(long newOutBits) {
         if (this.dataOut.getSource() != null && this.dataOut.getSource() != this) {
-            if (!Arrays.equals(this.dataOut.getData(), newOutData)) {
-                InconsistentBitStreamSourcesWarning.show(this.dataOut.getSource(), this);
+            if (this.dataOut.getBits() != newOutBits) {
+                InconsistentBitStreamSourcesWarning.show(this.dataOut, this.dataOut.getSource(), this);
             }
         }
     }
@@ -189,12 +258,12 @@ public class RAM implements Node {
     /**Decide if the evaluation of the circuit should continue
      * to the neighbours of the RAM.
      *
-     * @param newOutData - the newly computed output of the RAM
+     * @param newOutBits - the newly computed output of the RAM
      * @return - true if the evaluation should be carried further, false otherwise
      */
     @Override
-    public boolean decideIfEvaluateFurther(boolean[] newOutData) {
-        return !Arrays.equals(this.dataOut.getData(), newOutData);
+    public boolean decideIfEvaluateFurther(long newOutBits) {
+        return this.dataOut.getBits() != newOutBits;
     }
 
     /**Add all the neighbours of RAM to the queue.
@@ -202,8 +271,15 @@ public class RAM implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void addNeighboursToQueue(List<Node> queue) {
-        queue.addAll(this.dataOut.getAllNeighbours(this));
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        this.dataOut.addNeighboursToQueue(this, queue);
+    }
+
+    /**Freeze the output BitStream of the RAM (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        this.dataOut.freeze();
     }
 
     /**Set the source of the dataOut to RAM.
@@ -213,14 +289,45 @@ public class RAM implements Node {
         this.dataOut.setSource(this);
     }
 
-    /**Display additional debug information.
+    /**Record the output of the RAM in the Tracer.
      */
     @Override
     public void debug() {
-        System.out.println("Evaluating " + this.name + ":\n"
-                + "Address: " + DataConverter.convertBoolToBin(this.address.getData())
-                + "\nData in: " + DataConverter.convertBoolToBin(this.dataIn.getData())
-                + "\nData out: " + DataConverter.convertBoolToBin(this.dataOut.getData()));
+        Tracer.record(this, this.dataOut);
+    }
+
+    /**Write the state of the RAM: the last value of the write signal and all words other than 0
+     * (as address/word pairs, terminated by the address -1).
+     *
+     * @param out - the output to write the state to
+     * @throws IOException - if the state cannot be written
+     */
+    @Override
+    public void saveState(DataOutput out) throws IOException {
+        out.writeBoolean(this.lastWriteSignal);
+        for (long address = this.memory.findNonZero(0); address >= 0;
+             address = this.memory.findNonZero(address + 1)) {
+            out.writeLong(address);
+            out.writeLong(this.memory.read(address));
+        }
+        out.writeLong(-1);
+    }
+
+    /**Restore the state written by saveState. All words not contained in the state are cleared.
+     *
+     * @param in - the input to read the state from
+     * @throws IOException - if the state cannot be read
+     */
+    @Override
+    public void restoreState(DataInput in) throws IOException {
+        this.lastWriteSignal = in.readBoolean();
+        for (long address = this.memory.findNonZero(0); address >= 0;
+             address = this.memory.findNonZero(address + 1)) {
+            this.memory.write(address, 0);
+        }
+        for (long address = in.readLong(); address >= 0; address = in.readLong()) {
+            this.memory.write(address, in.readLong());
+        }
     }
 
     /**Override the default toString method.
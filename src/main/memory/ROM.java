@@ -4,24 +4,30 @@ import main.BitStream;
 import main.Node;
 import main.exceptions.BitStreamInputSizeMismatch;
 import main.exceptions.InconsistentBitStreamSources;
-import main.utils.DataConverter;
-import main.utils.ProcessRunner;
+import main.trace.Tracer;
+import main.utils.CircuitBuilder;
+import main.utils.ExecutionQueue;
 import main.warnings.InconsistentBitStreamSourcesWarning;
 
 import javax.xml.crypto.Data;
-import java.util.Arrays;
+import java.lang.ref.Cleaner;
 import java.util.List;
 
 public class ROM implements Node {
 
-    private Storage storage;
+    private final RomImage image;
+    private final Cleaner.Cleanable release;
     private String filepath;
 
     private BitStream address, output;
     private String name;
     private boolean inDebuggerMode;
+    private boolean queued;
+    private int level;
 
-    /**Constructors for the ROM class (Read-only memory).
+    /**Constructors for the ROM class (Read-only memory). The contents of the file are acquired from the
+     * shared RomImageCache, so ROMs reading the same file share one read-only image, which is released
+     * when the ROM is released or becomes unreachable.
      *
      * @param filepath - the path of the file where ROM is saved
      * @param address - BitStream used to specify the address of the data that should be read
@@ -30,7 +36,8 @@ public class ROM implements Node {
      * @param inDebuggerMode - boolean to specify if the memory is in debug mode
      */
     public ROM(String filepath, BitStream address, BitStream output, String name, boolean inDebuggerMode) {
-        this.storage = Storage.read(filepath);
+        this.image = RomImageCache.getShared().acquire(filepath);
+        this.release = RomImageCache.getShared().releaseWhenUnreachable(this, this.image);
         this.filepath = filepath;
 
         this.address = address;
@@ -56,8 +63,16 @@ public class ROM implements Node {
 
     /**Getters for the attributes of the class.
      */
+    public RomImage getImage() {
+        return image;
+    }
+
+    /**Get a copy of the contents of the ROM.
+     *
+     * @return - a Storage with the contents of the ROM
+     */
     public Storage getStorage() {
-        return storage;
+        return this.image.toStorage(this.filepath);
     }
 
     public String getFilepath() {
@@ -90,12 +105,41 @@ public class ROM implements Node {
         this.inDebuggerMode = inDebuggerMode;
     }
 
+    /**Release the image of the ROM in the RomImageCache. The ROM can still be evaluated afterwards, but the
+     * image may be evicted from the cache and read again by new ROMs.
+     */
+    public void release() {
+        this.release.clean();
+    }
+
+    /**Getters and setters for the scheduling state of the node (see ExecutionQueue).
+     */
+    @Override
+    public boolean isQueued() {
+        return queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+    }
+
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
     /**Method to setup the circuit starting in "this".
      */
     @Override
     public void setup() {
         this.checkIfSizesMatch();
-        ProcessRunner.run(this);
+        CircuitBuilder.settle(this);
     }
 
     /**Method to check if the size of the output matches the word size of
@@ -103,7 +147,7 @@ public class ROM implements Node {
      */
     @Override
     public void checkIfSizesMatch() {
-        if (this.output.getSize() != this.storage.getWordSize()) {
+        if (this.output.getSize() != this.image.getWordSize()) {
             throw new BitStreamInputSizeMismatch(this);
         }
     }
@@ -114,17 +158,17 @@ public class ROM implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void evaluate(List<Node> queue) {
-        int address = DataConverter.convertBoolToUnsignedDec(this.address.getData());
-        boolean[] newOutData = this.storage.getData()[address];
+    public void evaluate(ExecutionQueue queue) {
+        int address = (int) this.address.getBits();
+        long newOutBits = this.image.read(address);
 
-        this.checkIfSourceIsConsistent(newOutData);
+        this.checkIfSourceIsConsistent(newOutBits);
 
-        if (this.decideIfEvaluateFurther(newOutData)) {
+        if (this.decideIfEvaluateFurther(newOutBits)) {
             this.addNeighboursToQueue(queue);
         }
 
-        this.output.setData(newOutData);
+        this.output.setBits(newOutBits);
         this.setSourceForOutStream();
 
         if (this.isInDebuggerMode()) {
@@ -134,25 +178,25 @@ public class ROM implements Node {
 
     /**Check if the current source of the "out" stream is consistent with the input data.
      *
-     * @param newOutData - the input data
+     * @param newOutBits - the input data
      */
     @Override
-    public void checkIfSourceIsConsistent(boolean[] newOutData) {
+    public void checkIfSourceIsConsistent(long newOutBits) {
         if (this.output.getSource() != this && this.output.getSource() != null) {
-            if (!Arrays.equals(this.output.getData(), newOutData)) {
-                  InconsistentBitStreamSourcesWarning.show(this.output.getSource(), this);
+            if (this.output.getBits() != newOutBits) {
+                  InconsistentBitStreamSourcesWarning.show(this.output, this.output.getSource(), this);
             }
         }
     }
 
     /**Decide if the circuit should be evaluated further.
      *
-     * @param newOutData - the data that should be the new output of the ROM
+     * @param newOutBits - the data that should be the new output of the ROM
      * @return - true if the circuit should be evaluated further, false otherwise
      */
     @Override
-    public boolean decideIfEvaluateFurther(boolean[] newOutData) {
-        return !Arrays.equals(this.output.getData(), newOutData);
+    public boolean decideIfEvaluateFurther(long newOutBits) {
+        return this.output.getBits() != newOutBits;
     }
 
     /**Add all neighbours of the ROM to the queue.
@@ -160,8 +204,15 @@ public class ROM implements Node {
      * @param queue - the execution queue
      */
     @Override
-    public void addNeighboursToQueue(List<Node> queue) {
-        queue.addAll(this.output.getAllNeighbours(this));
+    public void addNeighboursToQueue(ExecutionQueue queue) {
+        this.output.addNeighboursToQueue(this, queue);
+    }
+
+    /**Freeze the output BitStream of the ROM (see BitStream.freeze).
+     */
+    @Override
+    public void freeze() {
+        this.output.freeze();
     }
 
     /**Set the source of the output stream to this.
@@ -171,13 +222,11 @@ public class ROM implements Node {
         this.output.setSource(this);
     }
 
-    /**Display additional debug information.
+    /**Record the output of the ROM in the Tracer.
      */
     @Override
     public void debug() {
-        System.out.println("Evaluating " + this.name + ":\n"
-                + "Address: " + DataConverter.convertBoolToBin(this.address.getData())
-                + "\nOutput: " + DataConverter.convertBoolToBin(this.output.getData()));
+        Tracer.record(this, this.output);
     }
 
     /**Override the default toString method.
@@ -0,0 +1,94 @@
+package main.memory;
+
+import main.utils.DataConverter;
+
+import java.util.Arrays;
+
+public final class RomImage {
+
+    private final long[] words;
+    private final int wordSize;
+    private final int hash;
+
+    /**Constructor for the RomImage class. A RomImage is an immutable, packed copy of the contents of a
+     * Storage (one long per row), which can be shared by any number of ROMs (see RomImageCache).
+     * Two images are equal if they have the same word size and the same words, regardless of the file
+     * they were read from.
+     *
+     * @param storage - the storage to copy the contents from (with a word size of at most 64)
+     */
+    public RomImage(Storage storage) {
+        if (storage.getWordSize() > Long.SIZE) {
+            throw new IllegalArgumentException("Word size of " + storage + " is larger than " + Long.SIZE);
+        }
+        this.wordSize = storage.getWordSize();
+        this.words = new long[storage.getSize()];
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] = DataConverter.convertBoolToBits(storage.getData()[i]);
+        }
+        this.hash = 31 * Arrays.hashCode(this.words) + this.wordSize;
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    public int getSize() {
+        return this.words.length;
+    }
+
+    public int getWordSize() {
+        return wordSize;
+    }
+
+    /**Read the word at given address.
+     *
+     * @param address - the address to read from
+     * @return - the word at the address
+     */
+    public long read(int address) {
+        return this.words[address];
+    }
+
+    /**Create a (mutable) Storage with the contents of the image.
+     *
+     * @param filepath - the path of the created Storage
+     * @return - the created Storage
+     */
+    public Storage toStorage(String filepath) {
+        Storage storage = new Storage(filepath, this.words.length, this.wordSize);
+        for (int i = 0; i < this.words.length; i++) {
+            storage.putData(i, DataConverter.convertBitsToBool(this.words[i], this.wordSize));
+        }
+        return storage;
+    }
+
+    /**Define the equals method to check if two images have the same contents.
+     *
+     * @param o - the other object to check if equal to "this"
+     * @return - true if o.equals(this), false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RomImage)) {
+            return false;
+        }
+        RomImage other = (RomImage) o;
+        return this.hash == other.hash && this.wordSize == other.wordSize && Arrays.equals(this.words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return "RomImage<" + this.words.length + ", " + this.wordSize + ">";
+    }
+}
@@ -0,0 +1,209 @@
+package main.memory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RomImageCache {
+
+    /**Cache of the RomImages read from Storage files, shared by all ROMs (and emulators) of the process, so
+     * that creating many CPUs does not read the microcode from disk every time.
+     * The files are looked up by their path and are read again whenever their modification time or size
+     * changes. Images with equal contents are stored only once, even if they were read from different files.
+     * Every image has a reference count: acquiring an image increments it and releasing the image (or the
+     * owner of the image becoming unreachable) decrements it. Images which are no longer referenced are kept
+     * in the cache, up to a maximum number, after which the least recently released ones are evicted.
+     */
+
+    public static final int DEFAULT_MAX_UNREFERENCED = 16;
+
+    private static final RomImageCache SHARED = new RomImageCache(DEFAULT_MAX_UNREFERENCED);
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final int maxUnreferenced;
+    private final Map<String, FileEntry> files;
+    private final Map<RomImage, ImageEntry> images;
+    private final LinkedHashMap<RomImage, ImageEntry> unreferenced;
+
+    private long hits, misses, evictions;
+
+    /**Constructor for the RomImageCache class. Use getShared to get the cache of the process.
+     *
+     * @param maxUnreferenced - the maximum number of images kept in the cache while not referenced
+     */
+    public RomImageCache(int maxUnreferenced) {
+        this.maxUnreferenced = Math.max(maxUnreferenced, 0);
+        this.files = new HashMap<>();
+        this.images = new HashMap<>();
+        this.unreferenced = new LinkedHashMap<>();
+    }
+
+    /**Get the cache shared by the whole process.
+     *
+     * @return - the shared cache
+     */
+    public static RomImageCache getShared() {
+        return SHARED;
+    }
+
+    /**Getters for the attributes and the statistics of the cache.
+     */
+    public int getMaxUnreferenced() {
+        return maxUnreferenced;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getImageCount() {
+        return this.images.size();
+    }
+
+    /**Get the number of references to an image.
+     *
+     * @param image - the image
+     * @return - the number of references (0 if the image is not in the cache)
+     */
+    public synchronized int getReferenceCount(RomImage image) {
+        ImageEntry entry = this.images.get(image);
+        return entry == null || entry.image != image ? 0 : entry.references;
+    }
+
+    /**Acquire the image of a Storage file, reading the file only if it is not in the cache or if it was
+     * modified since it was read. The image has to be released once it is no longer used. Throws
+     * UncheckedIOException if the file cannot be read.
+     *
+     * @param filepath - the path to the Storage file
+     * @return - the image of the file
+     */
+    public synchronized RomImage acquire(String filepath) {
+        Path path = Path.of(filepath).toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        FileTime modified = attributes.lastModifiedTime();
+        long size = attributes.size();
+
+        String key = path.toString();
+        FileEntry file = this.files.get(key);
+        ImageEntry entry;
+        if (file != null && file.modified.equals(modified) && file.size == size) {
+            this.hits++;
+            entry = file.entry;
+        }
+        else {
+            this.misses++;
+            RomImage image = new RomImage(Storage.read(filepath));
+            entry = this.images.get(image);
+            if (entry == null) {
+                entry = new ImageEntry(image);
+                this.images.put(image, entry);
+            }
+            this.files.put(key, new FileEntry(modified, size, entry));
+        }
+
+        if (entry.references++ == 0) {
+            this.unreferenced.remove(entry.image);
+        }
+        return entry.image;
+    }
+
+    /**Release an image once its owner becomes unreachable. The returned Cleanable can be used to release
+     * the image earlier (the image is released only once).
+     *
+     * @param owner - the object using the image
+     * @param image - the image acquired for the owner
+     * @return - the Cleanable releasing the image
+     */
+    public Cleaner.Cleanable releaseWhenUnreachable(Object owner, RomImage image) {
+        return CLEANER.register(owner, () -> this.release(image));
+    }
+
+    /**Release an image acquired from the cache. Throws IllegalStateException if the image is not referenced.
+     *
+     * @param image - the image to release
+     */
+    public synchronized void release(RomImage image) {
+        ImageEntry entry = this.images.get(image);
+        if (entry == null || entry.image != image || entry.references == 0) {
+            throw new IllegalStateException(image + " is not referenced in the cache");
+        }
+        if (--entry.references == 0) {
+            this.unreferenced.put(image, entry);
+            this.evict(this.maxUnreferenced);
+        }
+    }
+
+    /**Evict all images which are not referenced.
+     */
+    public synchronized void evictUnreferenced() {
+        this.evict(0);
+    }
+
+    /**Evict the least recently released images until at most a given number of unreferenced images is left.
+     *
+     * @param limit - the number of unreferenced images to keep
+     */
+    private void evict(int limit) {
+        Iterator<ImageEntry> iterator = this.unreferenced.values().iterator();
+        while (this.unreferenced.size() > limit) {
+            ImageEntry entry = iterator.next();
+            iterator.remove();
+            this.images.remove(entry.image);
+            this.files.values().removeIf(file -> file.entry == entry);
+            this.evictions++;
+        }
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public synchronized String toString() {
+        return "RomImageCache<" + this.images.size() + " images, " + this.unreferenced.size() + " unreferenced>";
+    }
+
+    private static class ImageEntry {
+
+        private final RomImage image;
+        private int references;
+
+        ImageEntry(RomImage image) {
+            this.image = image;
+        }
+    }
+
+    private static class FileEntry {
+
+        private final FileTime modified;
+        private final long size;
+        private final ImageEntry entry;
+
+        FileEntry(FileTime modified, long size, ImageEntry entry) {
+            this.modified = modified;
+            this.size = size;
+            this.entry = entry;
+        }
+    }
+}
@@ -1,9 +1,36 @@
 package main.memory;
 
-import java.io.*;
+import main.exceptions.StorageFormatException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
 
 public class Storage implements Serializable {
 
+    /**Files written by the Storage class start with a header of HEADER_SIZE bytes: the MAGIC number,
+     * the VERSION of the format, the number of rows, the word size and the CRC32 checksum of the rows.
+     * The rows follow the header, bit-packed one after another (MSB first, without padding between rows).
+     * Files starting with LEGACY_MAGIC are Storages serialized with an ObjectOutputStream, as written by
+     * older versions of the class. They can still be read, but are saved in the binary format.
+     */
+    public static final int MAGIC = 0x53544742;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    private static final short LEGACY_MAGIC = (short) 0xACED;
+
+    private static final long serialVersionUID = 0x93DAE8A4CB3110E9L;
+    private static final ObjectInputFilter LEGACY_FILTER =
+            ObjectInputFilter.Config.createFilter(Storage.class.getName() + ";[[Z;[Z;!*");
+
     private boolean[][] data;
     private transient String filepath;
 
@@ -34,7 +61,7 @@ public class Storage implements Serializable {
     }
 
     public int getWordSize() {
-        return this.data[0].length;
+        return this.data.length == 0 ? 0 : this.data[0].length;
     }
 
     /**Setter for the filepath.
@@ -52,38 +79,149 @@ public class Storage implements Serializable {
         this.data[address] = data;
     }
 
-    /**Static method to read the storage from a file.
+    /**Static method to read the storage from a file. Both the binary format and legacy (serialized)
+     * files are accepted. Throws StorageFormatException if the file is in neither of the formats
+     * or if the checksum of the rows does not match, and UncheckedIOException if the file cannot be read.
      *
      * @param filepath - filepath to read the Storage from
      * @return - the read Storage
      */
     public static Storage read(String filepath) {
-        try {
-            FileInputStream fis = new FileInputStream(filepath);
-            ObjectInputStream ois = new ObjectInputStream(fis);
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Path.of(filepath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new StorageFormatException(filepath, "file is too large (" + fileSize + " bytes)");
+            }
+            buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read Storage from " + filepath, e);
+        }
+
+        Storage newStorage;
+        if (buffer.remaining() >= 2 && buffer.getShort(0) == LEGACY_MAGIC) {
+            newStorage = readLegacy(filepath, buffer);
+        }
+        else {
+            newStorage = readBinary(filepath, buffer);
+        }
+        newStorage.setFilepath(filepath);
+        return newStorage;
+    }
+
+    /**Decode a Storage in the binary format.
+     *
+     * @param filepath - the path the buffer was read from (used in error messages)
+     * @param buffer - the contents of the file
+     * @return - the decoded Storage
+     */
+    private static Storage readBinary(String filepath, ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new StorageFormatException(filepath, "not a Storage file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new StorageFormatException(filepath, "unsupported version " + version);
+        }
+        int numRows = buffer.getInt();
+        int wordSize = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (numRows < 0 || wordSize < 0 || buffer.remaining() != getPayloadSize(numRows, wordSize)) {
+            throw new StorageFormatException(filepath, "expected " + numRows + " rows of " + wordSize
+                    + " bits, but the file has " + buffer.remaining() + " bytes of data");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if (crc.getValue() != checksum) {
+            throw new StorageFormatException(filepath, "checksum mismatch");
+        }
+
+        Storage newStorage = new Storage(filepath, numRows, wordSize);
+        int start = buffer.position();
+        long bit = 0;
+        for (boolean[] row : newStorage.data) {
+            for (int i = 0; i < wordSize; i++, bit++) {
+                row[i] = (buffer.get(start + (int) (bit >>> 3)) & (0x80 >>> (bit & 7))) != 0;
+            }
+        }
+        return newStorage;
+    }
+
+    /**Decode a Storage serialized with an ObjectOutputStream. Only the Storage class and boolean arrays
+     * are allowed to be deserialized.
+     *
+     * @param filepath - the path the buffer was read from (used in error messages)
+     * @param buffer - the contents of the file
+     * @return - the decoded Storage
+     */
+    private static Storage readLegacy(String filepath, ByteBuffer buffer) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(
+                buffer.array(), buffer.position(), buffer.remaining()))) {
+            ois.setObjectInputFilter(LEGACY_FILTER);
             Storage newStorage = (Storage) ois.readObject();
-            ois.close();
-            newStorage.setFilepath(filepath);
+            if (newStorage.data == null) {
+                throw new StorageFormatException(filepath, "legacy Storage without data");
+            }
             return newStorage;
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return null;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new StorageFormatException(filepath, "invalid legacy Storage (" + e + ")");
         }
     }
 
-    /**Save the Storage to its filepath.
+    /**Save the Storage to its filepath in the binary format. Throws StorageFormatException
+     * if the rows do not all have the same size, and UncheckedIOException if the file cannot be written.
      */
     public void save() {
-        try {
-            FileOutputStream fos = new FileOutputStream(filepath);
-            ObjectOutputStream oos = new ObjectOutputStream(fos);
-            oos.writeObject(this);
-            oos.close();
+        int wordSize = this.getWordSize();
+        ByteBuffer payload = ByteBuffer.allocate((int) getPayloadSize(this.data.length, wordSize));
+        long bit = 0;
+        for (int row = 0; row < this.data.length; row++) {
+            if (this.data[row].length != wordSize) {
+                throw new StorageFormatException("Row " + row + " has " + this.data[row].length
+                        + " bits, but the word size of " + this + " is " + wordSize);
+            }
+            for (int i = 0; i < wordSize; i++, bit++) {
+                if (this.data[row][i]) {
+                    int index = (int) (bit >>> 3);
+                    payload.put(index, (byte) (payload.get(index) | (0x80 >>> (bit & 7))));
+                }
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(this.data.length).putInt(wordSize).putLong(crc.getValue());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(Path.of(filepath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, payload};
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(buffers);
+            }
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Cannot save " + this + " to " + filepath, e);
         }
     }
 
+    /**Get the number of bytes needed to store the bit-packed rows.
+     *
+     * @param numRows - the number of rows
+     * @param wordSize - the width of each row
+     * @return - the size of the rows in bytes
+     */
+    private static long getPayloadSize(int numRows, int wordSize) {
+        return ((long) numRows * wordSize + 7) >>> 3;
+    }
+
     /**Define the equals method to check if two storages are equal.
      *
      * @param o - the other object to check if equal to "this"
@@ -96,7 +234,7 @@ public class Storage implements Serializable {
         }
         Storage other = (Storage) o;
         if (other.getData().length != this.getData().length
-                || other.getData()[0].length != this.getData()[0].length) {
+                || other.getWordSize() != this.getWordSize()) {
             return false;
         }
         for (int i = 0; i < this.getData().length; i++) {
@@ -115,6 +253,6 @@ public class Storage implements Serializable {
      */
     @Override
     public String toString() {
-        return "Storage<" + this.data.length + ", " + this.data[0].length +">";
+        return "Storage<" + this.data.length + ", " + this.getWordSize() +">";
     }
 }
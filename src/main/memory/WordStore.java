@@ -0,0 +1,56 @@
+package main.memory;
+
+/**Interface describing the storage behind a RAM. Every address holds one word of getWordSize bits, packed
+ * in the lowest bits of a long (the most significant bit of the word is the first bit of the data,
+ * same as in BitStream). Words that were never written read as 0.
+ */
+public interface WordStore {
+
+    /**Read the word at given address.
+     *
+     * @param address - the address to read from
+     * @return - the word at the address
+     */
+    long read(long address);
+
+    /**Write a word at given address. The bits above the word size are ignored.
+     *
+     * @param address - the address to write to
+     * @param word - the word to write
+     */
+    void write(long address, long word);
+
+    /**Find the first word other than 0 at or after given address. The default implementation reads
+     * the words one by one, stores which know which parts of the memory are empty should skip them.
+     *
+     * @param address - the address to start searching from
+     * @return - the address of the first non-zero word, or -1 if all remaining words are 0
+     */
+    default long findNonZero(long address) {
+        for (long i = Math.max(address, 0); i < this.getSize(); i++) {
+            if (this.read(i) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**Getters for the number of words and the number of bits in a word.
+     */
+    long getSize();
+
+    int getWordSize();
+
+    /**Get the number of bits used to store a word: the word size rounded up to a power of two,
+     * so that a whole number of words fits in a long.
+     *
+     * @param wordSize - the number of bits in a word
+     * @return - the number of bits of a slot holding one word
+     */
+    static int getSlotSize(int wordSize) {
+        if (wordSize < 1 || wordSize > 64) {
+            throw new IllegalArgumentException("Word size must be between 1 and 64, got " + wordSize);
+        }
+        return wordSize == 1 ? 1 : Integer.highestOneBit(wordSize - 1) << 1;
+    }
+}
@@ -0,0 +1,125 @@
+package main.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RingBufferTraceSink implements TraceSink {
+
+    /**Sink keeping the last events in memory, in a ring buffer of primitive arrays. Recording an event only claims
+     * the next slot with an atomic increment and writes the three fields, so it never blocks and never allocates
+     * (older events are overwritten once the buffer is full). The events can be read at any time with getEvents;
+     * events recorded while reading may be missing or, if the buffer wraps around, mixed up.
+     */
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final int[] nodeIds;
+    private final long[] times;
+    private final long[] values;
+    private final int mask;
+    private final AtomicLong next;
+    private final Map<Integer, String> names;
+    private final Map<Integer, Integer> widths;
+
+    /**Constructors for the RingBufferTraceSink class.
+     *
+     * @param capacity - the number of events kept (rounded up to a power of 2)
+     */
+    public RingBufferTraceSink(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity of a trace buffer must be between 1 and " + (1 << 30));
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.nodeIds = new int[size];
+        this.times = new long[size];
+        this.values = new long[size];
+        this.mask = size - 1;
+        this.next = new AtomicLong();
+        this.names = new ConcurrentHashMap<>();
+        this.widths = new ConcurrentHashMap<>();
+    }
+
+    public RingBufferTraceSink() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**Getters for the size of the buffer and the number of recorded events.
+     */
+    public int getCapacity() {
+        return this.values.length;
+    }
+
+    public long getRecordedCount() {
+        return this.next.get();
+    }
+
+    /**Get the number of events that were overwritten by newer events.
+     *
+     * @return - the number of lost events
+     */
+    public long getDroppedCount() {
+        return Math.max(0, this.next.get() - this.values.length);
+    }
+
+    /**Getters for the definitions of the nodes.
+     */
+    public String getName(int nodeId) {
+        return this.names.get(nodeId);
+    }
+
+    public int getWidth(int nodeId) {
+        return this.widths.getOrDefault(nodeId, 0);
+    }
+
+    @Override
+    public void define(int nodeId, String name, int width) {
+        this.names.put(nodeId, name);
+        this.widths.put(nodeId, width);
+    }
+
+    @Override
+    public void record(int nodeId, long time, long value) {
+        int slot = (int) (this.next.getAndIncrement() & this.mask);
+        this.nodeIds[slot] = nodeId;
+        this.times[slot] = time;
+        this.values[slot] = value;
+    }
+
+    /**Get the events in the buffer, from the oldest to the newest.
+     *
+     * @return - the events
+     */
+    public List<TraceEvent> getEvents() {
+        long end = this.next.get();
+        long start = Math.max(0, end - this.values.length);
+        List<TraceEvent> events = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            int slot = (int) (i & this.mask);
+            events.add(new TraceEvent(this.nodeIds[slot], this.times[slot], this.values[slot]));
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    /**Remove all events (the definitions of the nodes are kept).
+     */
+    public void clear() {
+        this.next.set(0);
+    }
+
+    /**Format the events in the buffer as text (see TextTraceSink).
+     *
+     * @return - one line per event
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        for (TraceEvent event : this.getEvents()) {
+            TextTraceSink.format(builder, this.getName(event.getNodeId()), this.getWidth(event.getNodeId()),
+                    event.getTime(), event.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package main.trace;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class TextTraceSink implements TraceSink {
+
+    /**Sink writing the events as lines of text ("[time] name: value", with the value in binary), for the nodes
+     * whose name is accepted by the filter. The lines are collected in a buffer, which is written out when it
+     * holds more than bufferSize characters (so with a bufferSize of 0 every line is written immediately).
+     */
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Appendable out;
+    private final Predicate<String> filter;
+    private final int bufferSize;
+    private final StringBuilder buffer;
+    private final List<String> names;
+    private final List<Integer> widths;
+
+    /**Constructors for the TextTraceSink class.
+     *
+     * @param out - where the text should be written (eg: System.out or a Writer)
+     * @param filter - filter for the names of the nodes whose events should be written
+     * @param bufferSize - the number of characters collected before they are written out
+     */
+    public TextTraceSink(Appendable out, Predicate<String> filter, int bufferSize) {
+        this.out = out;
+        this.filter = filter;
+        this.bufferSize = bufferSize;
+        this.buffer = new StringBuilder();
+        this.names = new ArrayList<>();
+        this.widths = new ArrayList<>();
+    }
+
+    public TextTraceSink(Appendable out, Predicate<String> filter) {
+        this(out, filter, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TextTraceSink(Appendable out) {
+        this(out, name -> true, DEFAULT_BUFFER_SIZE);
+    }
+
+    @Override
+    public void define(int nodeId, String name, int width) {
+        while (this.names.size() <= nodeId) {
+            this.names.add(null);
+            this.widths.add(0);
+        }
+        this.names.set(nodeId, this.filter.test(name) ? name : null);
+        this.widths.set(nodeId, width);
+    }
+
+    @Override
+    public void record(int nodeId, long time, long value) {
+        String name = this.names.get(nodeId);
+        if (name == null) {
+            return;
+        }
+        TextTraceSink.format(this.buffer, name, this.widths.get(nodeId), time, value).append('\n');
+        if (this.buffer.length() > this.bufferSize) {
+            this.flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            this.out.append(this.buffer);
+            if (this.out instanceof Flushable) {
+                ((Flushable) this.out).flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.buffer.setLength(0);
+    }
+
+    /**Format an event.
+     *
+     * @param builder - the builder to append the event to
+     * @param name - the name of the node
+     * @param width - the number of bits of the value
+     * @param time - the time of the event
+     * @param value - the packed value
+     * @return - the builder
+     */
+    public static StringBuilder format(StringBuilder builder, String name, int width, long time, long value) {
+        builder.append('[').append(time).append("] ").append(name).append(": ");
+        for (int bit = width - 1; bit >= 0; bit--) {
+            builder.append((value >>> bit & 1) == 1 ? '1' : '0');
+        }
+        return builder;
+    }
+}
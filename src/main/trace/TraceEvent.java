@@ -0,0 +1,65 @@
+package main.trace;
+
+public final class TraceEvent {
+
+    private final int nodeId;
+    private final long time;
+    private final long value;
+
+    /**Constructor for the TraceEvent class. A TraceEvent is a single event read back from a trace.
+     *
+     * @param nodeId - the id of the evaluated node
+     * @param time - the time of the evaluation
+     * @param value - the packed value of the output of the node
+     */
+    public TraceEvent(int nodeId, long time, long value) {
+        this.nodeId = nodeId;
+        this.time = time;
+        this.value = value;
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    /**Define the equals method to check if two events are the same.
+     *
+     * @param o - the other object to check if equal to "this"
+     * @return - true if o.equals(this), false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TraceEvent)) {
+            return false;
+        }
+        TraceEvent other = (TraceEvent) o;
+        return this.nodeId == other.nodeId && this.time == other.time && this.value == other.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * this.nodeId + Long.hashCode(this.time)) * 31 + Long.hashCode(this.value);
+    }
+
+    /**Override the default toString method.
+     *
+     * @return - a String representation of this
+     */
+    @Override
+    public String toString() {
+        return "TraceEvent<" + this.nodeId + ", " + this.time + ", " + this.value + ">";
+    }
+}
@@ -0,0 +1,100 @@
+package main.trace;
+
+import main.exceptions.TraceFormatException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class TraceReader {
+
+    /**Class used to read a trace written by the BinaryTraceFileSink and format it offline.
+     */
+
+    private final Map<Integer, String> names;
+    private final Map<Integer, Integer> widths;
+    private final List<TraceEvent> events;
+
+    /**Constructor for the TraceReader class. Reads the whole trace. Throws TraceFormatException if the file
+     * is not a trace or is corrupted.
+     *
+     * @param path - the path of the trace file
+     */
+    public TraceReader(Path path) {
+        this.names = new HashMap<>();
+        this.widths = new HashMap<>();
+        this.events = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != BinaryTraceFileSink.MAGIC) {
+                throw new TraceFormatException(path.toString(), "not a trace file");
+            }
+            int version = in.readInt();
+            if (version != BinaryTraceFileSink.VERSION) {
+                throw new TraceFormatException(path.toString(), "unsupported version " + version);
+            }
+            for (int tag = in.read(); tag >= 0; tag = in.read()) {
+                if (tag == BinaryTraceFileSink.DEFINE) {
+                    int nodeId = in.readInt();
+                    this.names.put(nodeId, in.readUTF());
+                    this.widths.put(nodeId, in.readInt());
+                }
+                else if (tag == BinaryTraceFileSink.EVENT) {
+                    this.events.add(new TraceEvent(in.readInt(), in.readLong(), in.readLong()));
+                }
+                else {
+                    throw new TraceFormatException(path.toString(), "unknown record " + tag);
+                }
+            }
+        } catch (EOFException e) {
+            throw new TraceFormatException(path.toString(), "truncated");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Getters for the contents of the trace.
+     */
+    public List<TraceEvent> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    public String getName(int nodeId) {
+        return this.names.get(nodeId);
+    }
+
+    public int getWidth(int nodeId) {
+        return this.widths.getOrDefault(nodeId, 0);
+    }
+
+    /**Format the events of the nodes accepted by the filter (see TextTraceSink).
+     *
+     * @param filter - filter for the names of the nodes
+     * @return - one line per event
+     */
+    public String format(Predicate<String> filter) {
+        StringBuilder builder = new StringBuilder();
+        for (TraceEvent event : this.events) {
+            String name = this.getName(event.getNodeId());
+            if (filter.test(name)) {
+                TextTraceSink.format(builder, name, this.getWidth(event.getNodeId()), event.getTime(),
+                        event.getValue()).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    public String format() {
+        return this.format(name -> true);
+    }
+}
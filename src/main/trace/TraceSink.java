@@ -0,0 +1,36 @@
+package main.trace;
+
+/**Interface describing the destination of the events recorded by the Tracer. Every event is a primitive
+ * record: the id of the node that was evaluated, the time of the evaluation (see Tracer.getTime) and the packed
+ * value of its output. The name and width of a node are given once, before its first event, so that the events
+ * can be formatted later (eg: by the TraceReader) instead of while simulating.
+ */
+public interface TraceSink {
+
+    /**Define a node, before its first event.
+     *
+     * @param nodeId - the id of the node
+     * @param name - the name of the node
+     * @param width - the number of bits of the values of the node
+     */
+    void define(int nodeId, String name, int width);
+
+    /**Record an event.
+     *
+     * @param nodeId - the id of the evaluated node
+     * @param time - the time of the evaluation
+     * @param value - the packed value of the output of the node
+     */
+    void record(int nodeId, long time, long value);
+
+    /**Write out all buffered events.
+     */
+    default void flush() {
+    }
+
+    /**Flush the sink and release its resources. No events can be recorded afterwards.
+     */
+    default void close() {
+        this.flush();
+    }
+}
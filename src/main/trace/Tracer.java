@@ -0,0 +1,128 @@
+package main.trace;
+
+import main.BitStream;
+import main.Node;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Tracer {
+
+    /**Class used by the nodes in debug mode to record their evaluations. Every node gets an id when it is traced
+     * for the first time, which is defined in the sink together with the name of the node, and every evaluation
+     * is then recorded as a primitive event (id, time, value) in the current TraceSink. The time is advanced by
+     * the ClockDriver on every clock edge, so all events of one edge have the same time.
+     * By default the events are written as text to System.out, as soon as they are recorded. To trace long runs,
+     * a buffered sink (eg: RingBufferTraceSink or BinaryTraceFileSink) should be set instead.
+     * The tracer is meant to be used from the thread running the simulation.
+     */
+
+    private static final Map<Node, Integer> ids = new IdentityHashMap<>();
+    private static final List<String> names = new ArrayList<>();
+    private static final List<Integer> widths = new ArrayList<>();
+
+    private static TraceSink sink = new TextTraceSink(System.out, name -> true, 0);
+    private static long time;
+
+    /**Getter for the sink the events are recorded in.
+     */
+    public static TraceSink getSink() {
+        return sink;
+    }
+
+    /**Set the sink to record the events in. The previous sink is flushed (but not closed) and all nodes traced
+     * so far are defined in the new sink.
+     *
+     * @param sink - the new sink
+     * @return - the previous sink
+     */
+    public static TraceSink setSink(TraceSink sink) {
+        TraceSink previous = Tracer.sink;
+        previous.flush();
+        Tracer.sink = sink;
+        for (int id = 0; id < names.size(); id++) {
+            sink.define(id, names.get(id), widths.get(id));
+        }
+        return previous;
+    }
+
+    /**Getters for the time and the traced nodes.
+     */
+    public static long getTime() {
+        return time;
+    }
+
+    public static int getNodeCount() {
+        return names.size();
+    }
+
+    /**Get the id of a traced node.
+     *
+     * @param node - the node
+     * @return - the id of the node, or -1 if it was not traced yet
+     */
+    public static int getId(Node node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**Advance the time by one step (see ClockDriver).
+     */
+    public static void advanceTime() {
+        time++;
+    }
+
+    /**Forget all traced nodes and reset the time to 0. The sink is kept.
+     */
+    public static void reset() {
+        ids.clear();
+        names.clear();
+        widths.clear();
+        time = 0;
+    }
+
+    /**Record an evaluation of a node.
+     *
+     * @param node - the evaluated node
+     * @param value - the packed value of the output of the node
+     * @param width - the number of bits of the value
+     */
+    public static void record(Node node, long value, int width) {
+        Integer id = ids.get(node);
+        if (id == null) {
+            id = names.size();
+            ids.put(node, id);
+            names.add(node.getName());
+            widths.add(width);
+            sink.define(id, node.getName(), width);
+        }
+        sink.record(id, time, value);
+    }
+
+    /**Record an evaluation of a node whose output is a single stream.
+     *
+     * @param node - the evaluated node
+     * @param out - the output stream of the node
+     */
+    public static void record(Node node, BitStream out) {
+        Tracer.record(node, out.getBits(), out.getSize());
+    }
+
+    /**Record an evaluation of a node with multiple output streams, whose values are concatenated (the first
+     * stream giving the most significant bits). Only the last 64 bits are kept.
+     *
+     * @param node - the evaluated node
+     * @param outs - the output streams of the node
+     */
+    public static void record(Node node, List<BitStream> outs) {
+        long value = 0;
+        int width = 0;
+        for (BitStream out : outs) {
+            value = out.getSize() >= Long.SIZE ? out.getBits() : (value << out.getSize()) | out.getBits();
+            width += out.getSize();
+        }
+        Tracer.record(node, value, Math.min(width, Long.SIZE));
+    }
+}
@@ -0,0 +1,263 @@
+package main.trace;
+
+import main.BitStream;
+import main.BitStreamListener;
+import main.Node;
+import main.utils.NetlistExplorer;
+import main.utils.ProcessRunner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class VcdWriter implements BitStreamListener, AutoCloseable {
+
+    /**Class used to write the activity of BitStreams as a Value Change Dump, which can be opened by waveform
+     * viewers (eg: GTKWave). The writer listens to the chosen streams (see BitStreamListener) and writes every
+     * change of their values as soon as it happens, through a fixed size buffer, so the memory used does not
+     * depend on the length of the run.
+     * The time of a change is the delta cycle of the ProcessRunner (see ProcessRunner.getDeltaCycle), counted from
+     * the moment the writer was created, so one time unit of the dump is one delta cycle.
+     * The streams have to be chosen before the first change is written, after which the header of the dump is
+     * complete. The writer has to be closed to write out the buffered changes and to stop listening.
+     */
+
+    public static final String TIMESCALE = "1ns";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char FIRST_CODE = '!';
+    private static final int CODE_BASE = '~' - '!' + 1;
+
+    private final Writer out;
+    private final String module;
+    private final List<BitStream> streams;
+    private final Map<BitStream, String> codes;
+    private final List<String> names;
+    private final Set<String> usedNames;
+    private final StringBuilder line;
+    private final long startCycle;
+
+    private boolean headerWritten;
+    private boolean closed;
+    private long lastTime;
+    private long changeCount;
+
+    /**Constructors for the VcdWriter class.
+     *
+     * @param out - where the dump should be written
+     * @param module - the name of the module containing all the streams in the dump
+     */
+    public VcdWriter(Writer out, String module) {
+        this.out = new BufferedWriter(out, BUFFER_SIZE);
+        this.module = VcdWriter.sanitize(module);
+        this.streams = new ArrayList<>();
+        this.codes = new IdentityHashMap<>();
+        this.names = new ArrayList<>();
+        this.usedNames = new HashSet<>();
+        this.line = new StringBuilder();
+        this.lastTime = -1;
+
+        ProcessRunner.trackDeltaCycles(true);
+        this.startCycle = ProcessRunner.getDeltaCycle();
+    }
+
+    /**Create a dump file, or overwrite it if it exists.
+     *
+     * @param path - the path of the file
+     * @param module - the name of the module containing all the streams in the dump
+     */
+    public VcdWriter(Path path, String module) {
+        this(VcdWriter.open(path), module);
+    }
+
+    private static Writer open(Path path) {
+        try {
+            return Files.newBufferedWriter(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Getters for the number of streams in the dump and the number of changes written.
+     */
+    public int getStreamCount() {
+        return this.streams.size();
+    }
+
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    /**Add a stream to the dump. Throws IllegalStateException if changes were already written and
+     * IllegalArgumentException if the stream already has a listener.
+     *
+     * @param stream - the stream
+     * @param name - the name of the stream in the dump (made unique if it is taken)
+     */
+    public void watch(BitStream stream, String name) {
+        if (this.headerWritten || this.closed) {
+            throw new IllegalStateException("Streams must be added to a VCD before its first change");
+        }
+        if (stream.getListener() == this) {
+            return;
+        }
+        if (stream.getListener() != null) {
+            throw new IllegalArgumentException(stream + " is already listened to");
+        }
+
+        String unique = VcdWriter.sanitize(name);
+        for (int i = 1; !this.usedNames.add(unique); i++) {
+            unique = VcdWriter.sanitize(name) + "_" + i;
+        }
+        this.codes.put(stream, VcdWriter.getCode(this.streams.size()));
+        this.streams.add(stream);
+        this.names.add(unique);
+        stream.setListener(this);
+    }
+
+    /**Add all streams of a circuit driven by a named node (see NetlistExplorer), named after their source.
+     * Streams that already have a listener are skipped.
+     *
+     * @param roots - streams of the circuit (eg: its clock)
+     */
+    public void watchAll(BitStream... roots) {
+        for (BitStream stream : new NetlistExplorer(roots).getStreams()) {
+            Node source = stream.getSource();
+            if (source != null && source.getName() != null && stream.getListener() == null) {
+                this.watch(stream, source.getName());
+            }
+        }
+    }
+
+    /**Write the header of the dump with the initial values of the streams. This is done automatically
+     * before the first change.
+     */
+    public void writeHeader() {
+        this.writeHeader(null, 0);
+    }
+
+    /**Write the header of the dump, while a stream is being changed.
+     *
+     * @param changed - the stream being changed, or null
+     * @param oldBits - the value of that stream before the change, which is its initial value
+     */
+    private void writeHeader(BitStream changed, long oldBits) {
+        if (this.headerWritten) {
+            return;
+        }
+        this.headerWritten = true;
+
+        StringBuilder header = new StringBuilder();
+        header.append("$timescale ").append(TIMESCALE).append(" $end\n");
+        header.append("$scope module ").append(this.module).append(" $end\n");
+        for (int i = 0; i < this.streams.size(); i++) {
+            BitStream stream = this.streams.get(i);
+            header.append("$var wire ").append(stream.getSize()).append(' ').append(this.codes.get(stream))
+                    .append(' ').append(this.names.get(i)).append(" $end\n");
+        }
+        header.append("$upscope $end\n$enddefinitions $end\n#0\n$dumpvars\n");
+        for (BitStream stream : this.streams) {
+            this.appendValue(header, stream, stream == changed ? oldBits : stream.getBits()).append('\n');
+        }
+        header.append("$end\n");
+        this.lastTime = 0;
+        this.write(header);
+    }
+
+    /**Write a change of a stream, preceded by the time if it is the first change at that time.
+     *
+     * @param stream - the stream whose value changed
+     * @param oldBits - the packed value before the change
+     * @param newBits - the packed value after the change
+     */
+    @Override
+    public void valueChanged(BitStream stream, long oldBits, long newBits) {
+        if (this.closed) {
+            return;
+        }
+        this.writeHeader(stream, oldBits);
+
+        this.line.setLength(0);
+        long time = ProcessRunner.getDeltaCycle() - this.startCycle;
+        if (time != this.lastTime) {
+            this.line.append('#').append(time).append('\n');
+            this.lastTime = time;
+        }
+        this.appendValue(this.line, stream, newBits).append('\n');
+        this.write(this.line);
+        this.changeCount++;
+    }
+
+    private StringBuilder appendValue(StringBuilder builder, BitStream stream, long bits) {
+        String code = this.codes.get(stream);
+        int size = stream.getSize();
+        if (size == 1) {
+            return builder.append(bits & 1).append(code);
+        }
+        builder.append('b');
+        for (int bit = size - 1; bit >= 0; bit--) {
+            builder.append((bits >>> bit & 1) == 1 ? '1' : '0');
+        }
+        return builder.append(' ').append(code);
+    }
+
+    private void write(CharSequence text) {
+        try {
+            this.out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Write out the buffered changes, stop listening to the streams and close the output.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.writeHeader();
+        this.closed = true;
+        for (BitStream stream : this.streams) {
+            if (stream.getListener() == this) {
+                stream.setListener(null);
+            }
+        }
+        ProcessRunner.trackDeltaCycles(false);
+        try {
+            long time = ProcessRunner.getDeltaCycle() - this.startCycle;
+            if (time > this.lastTime) {
+                this.out.append('#').append(String.valueOf(time)).append('\n');
+            }
+            this.out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Get the identifier code of a stream: a number written in base 94 with the printable ASCII characters.
+     *
+     * @param index - the index of the stream
+     * @return - the identifier code
+     */
+    static String getCode(int index) {
+        StringBuilder code = new StringBuilder();
+        do {
+            code.append((char) (FIRST_CODE + index % CODE_BASE));
+            index /= CODE_BASE;
+        } while (index > 0);
+        return code.toString();
+    }
+
+    private static String sanitize(String name) {
+        return name.trim().replaceAll("\\s+", "_");
+    }
+}
@@ -0,0 +1,200 @@
+package main.utils;
+
+import main.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class CircuitBuilder {
+
+    /**Class used to build a circuit without settling it after every node. Normally the constructor of
+     * every node runs the circuit starting in that node (see Node.setup), so building a large circuit (eg: the CPU)
+     * runs thousands of partial propagations over a circuit that is only half connected. While a build session
+     * is open, the nodes only check their sizes and are registered in the session. Committing the session runs
+     * the circuit once, starting from all the registered nodes (in the order they were created). The new nodes
+     * have no levels yet, so they are settled one by one even with the PARALLEL policy. The circuit is then frozen
+     * (see Freezer), so clocking it afterwards does not allocate.
+     * Sessions can be nested: opening a session while another one is open joins it, so the circuit is
+     * settled when the outermost session is committed. Nodes that are run explicitly (eg: with
+     * ProcessRunner.run) during a session are still run right away.
+     * Every thread has its own session, so independent circuits can be built on separate threads at the same time.
+     * The builder also records the circuit enclosing every node (eg: "CPU/ALU/addSub" for the gates built by the
+     * AddSubtract of the ALU of the CPU), independently of the sessions (see construct). The records do not keep
+     * the nodes from being garbage collected.
+     */
+
+    public static final String CIRCUIT_SEPARATOR = "/";
+
+    private static final ThreadLocal<CircuitBuilder> active = new ThreadLocal<>();
+    private static final ThreadLocal<String> circuit = new ThreadLocal<>();
+    private static final Map<Node, String> circuits = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final List<Node> nodes;
+    private final CircuitBuilder outer;
+    private int depth;
+
+    private CircuitBuilder(CircuitBuilder outer) {
+        this.nodes = new ArrayList<>();
+        this.outer = outer;
+    }
+
+    /**Open a build session on the current thread, or join the one that is already open.
+     *
+     * @return - the open session
+     */
+    public static CircuitBuilder begin() {
+        CircuitBuilder builder = active.get();
+        if (builder == null) {
+            builder = new CircuitBuilder(null);
+            active.set(builder);
+        }
+        builder.depth++;
+        return builder;
+    }
+
+    /**Open a build session on the current thread which does not join the session already open on it. The nodes
+     * created while the new session is open are only registered in it, so aborting it guarantees they are never
+     * settled (see NetlistImage.load). Once the new session is closed, the session that was open before is
+     * restored.
+     *
+     * @return - the new session
+     */
+    static CircuitBuilder beginDetached() {
+        CircuitBuilder builder = new CircuitBuilder(active.get());
+        active.set(builder);
+        builder.depth++;
+        return builder;
+    }
+
+    /**Get the build session open on the current thread.
+     *
+     * @return - the open session, or null if no session is open
+     */
+    public static CircuitBuilder getActive() {
+        return active.get();
+    }
+
+    /**Build a circuit in its own session, which is committed once the construction finished. If the
+     * construction fails, the session is closed without settling the circuit.
+     *
+     * @param construction - the code creating the nodes of the circuit
+     */
+    public static void build(Runnable construction) {
+        CircuitBuilder builder = CircuitBuilder.begin();
+        boolean built = false;
+        try {
+            construction.run();
+            built = true;
+        }
+        finally {
+            if (built) {
+                builder.commit();
+            }
+            else {
+                builder.abort();
+            }
+        }
+    }
+
+    /**Construct a circuit, recording it as the enclosing circuit of every node created by the construction.
+     * Circuits constructed inside it are nested in it.
+     *
+     * @param name - the name of the circuit
+     * @param construction - the code creating the nodes of the circuit (eg: its build method)
+     */
+    public static void construct(String name, Runnable construction) {
+        String outer = circuit.get();
+        circuit.set(outer == null ? name : outer + CIRCUIT_SEPARATOR + name);
+        try {
+            construction.run();
+        } finally {
+            if (outer != null) {
+                circuit.set(outer);
+            }
+            else {
+                circuit.remove();
+            }
+        }
+    }
+
+    /**Get the circuit enclosing a node.
+     *
+     * @param node - the node
+     * @return - the names of the nested circuits enclosing the node, separated by CIRCUIT_SEPARATOR and starting
+     * with the outermost one, or null if the node was not created while constructing a circuit
+     */
+    public static String getCircuit(Node node) {
+        return circuits.get(node);
+    }
+
+    /**Settle the circuit starting in a node that has just been created. If a session is open, the node
+     * is registered in it instead. If a circuit is being constructed, it is recorded as the circuit of the node.
+     *
+     * @param node - the node to settle
+     */
+    public static void settle(Node node) {
+        String name = circuit.get();
+        if (name != null) {
+            circuits.put(node, name);
+        }
+        CircuitBuilder builder = active.get();
+        if (builder != null) {
+            builder.nodes.add(node);
+            return;
+        }
+        ProcessRunner.settle(node);
+    }
+
+    /**Get the number of nodes waiting for the session to be committed.
+     *
+     * @return - the number of registered nodes
+     */
+    public int getNodeCount() {
+        return this.nodes.size();
+    }
+
+    /**Commit the session. If this closes the outermost session, the circuit is run starting from all the
+     * registered nodes, and then frozen.
+     */
+    public void commit() {
+        if (this.close()) {
+            Node[] nodes = this.nodes.toArray(new Node[0]);
+            this.nodes.clear();
+            ProcessRunner.settle(nodes);
+            Freezer.freeze(nodes);
+        }
+    }
+
+    /**Close the session without settling the registered nodes (eg: because building the circuit failed).
+     * If the session is nested in another one, the nodes are still settled when the outer session is committed.
+     */
+    public void abort() {
+        if (this.close()) {
+            this.nodes.clear();
+        }
+    }
+
+    /**Close the session.
+     *
+     * @return - true if the outermost session was closed, false if the session is still open
+     */
+    private boolean close() {
+        if (active.get() != this) {
+            throw new IllegalStateException("The build session is not open");
+        }
+        this.depth--;
+        if (this.depth > 0) {
+            return false;
+        }
+        if (this.outer != null) {
+            active.set(this.outer);
+        }
+        else {
+            active.remove();
+        }
+        return true;
+    }
+}
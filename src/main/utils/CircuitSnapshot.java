@@ -0,0 +1,220 @@
+package main.utils;
+
+import main.BitStream;
+import main.Node;
+import main.Stateful;
+import main.exceptions.SnapshotException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class CircuitSnapshot {
+
+    /**Class holding the state of a whole circuit in a compact binary form: the data and the source of every
+     * BitStream and the internal state of every Stateful node (eg: the contents of a RAM). The circuit is
+     * found with the NetlistExplorer, starting from the given BitStreams (eg: the clock of a CPU), so it has
+     * to be connected with them. A snapshot can be restored into the same circuit, or into another circuit built
+     * the same way (eg: a freshly built CPU), to continue the simulation from the captured state without
+     * simulating everything that led to it. Restoring does not evaluate any node.
+     * The snapshot starts with the MAGIC number, the VERSION of the format, the number of streams and nodes
+     * and a fingerprint of the structure of the circuit, which is checked when restoring. Then the data of
+     * every stream follows (as many bytes as needed for its size) with the index of its source, followed by
+     * the states of the Stateful nodes.
+     */
+
+    public static final int MAGIC = 0x534E4150;
+    public static final int VERSION = 1;
+
+    private static final int NO_SOURCE = -1;
+    private static final int UNKNOWN_SOURCE = -2;
+
+    private final byte[] data;
+
+    private CircuitSnapshot(byte[] data) {
+        this.data = data;
+    }
+
+    /**Getters for the size and the contents of the snapshot.
+     */
+    public int getSize() {
+        return this.data.length;
+    }
+
+    public byte[] toByteArray() {
+        return this.data.clone();
+    }
+
+    /**Create a snapshot from its binary form (see toByteArray). Throws SnapshotException if the data
+     * does not start with the header of a snapshot.
+     *
+     * @param data - the binary form of the snapshot
+     * @return - the snapshot
+     */
+    public static CircuitSnapshot fromByteArray(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != MAGIC) {
+                throw new SnapshotException("Data is not a circuit snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new SnapshotException("Unsupported snapshot version " + version);
+            }
+        } catch (IOException e) {
+            throw new SnapshotException("Data is not a circuit snapshot");
+        }
+        return new CircuitSnapshot(data.clone());
+    }
+
+    /**Save the snapshot to a file.
+     *
+     * @param path - the path of the file
+     */
+    public void save(Path path) {
+        try {
+            Files.write(path, this.data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Read a snapshot saved with save.
+     *
+     * @param path - the path of the file
+     * @return - the read snapshot
+     */
+    public static CircuitSnapshot read(Path path) {
+        try {
+            return CircuitSnapshot.fromByteArray(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Capture the state of the circuit connected with the given streams.
+     *
+     * @param roots - streams of the circuit (eg: its clock), from which the circuit is found
+     * @return - the snapshot of the circuit
+     */
+    public static CircuitSnapshot capture(BitStream... roots) {
+        Structure structure = new Structure(roots);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(structure.streams.size());
+            out.writeInt(structure.nodes.size());
+            out.writeLong(structure.fingerprint);
+
+            for (BitStream stream : structure.streams) {
+                long bits = stream.getBits();
+                for (int shift = getByteCount(stream) * 8 - 8; shift >= 0; shift -= 8) {
+                    out.writeByte((int) (bits >>> shift));
+                }
+                out.writeInt(structure.getSourceIndex(stream));
+            }
+            for (Node node : structure.nodes) {
+                if (node instanceof Stateful) {
+                    ((Stateful) node).saveState(out);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CircuitSnapshot(bytes.toByteArray());
+    }
+
+    /**Restore the state of the circuit connected with the given streams. The circuit has to have the same
+     * structure as the one the snapshot was captured from, otherwise SnapshotException is thrown.
+     *
+     * @param roots - streams of the circuit (corresponding to the ones the snapshot was captured with)
+     */
+    public void restore(BitStream... roots) {
+        Structure structure = new Structure(roots);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.data))) {
+            in.readInt();
+            in.readInt();
+            int streamCount = in.readInt();
+            int nodeCount = in.readInt();
+            long fingerprint = in.readLong();
+            if (streamCount != structure.streams.size() || nodeCount != structure.nodes.size()
+                    || fingerprint != structure.fingerprint) {
+                throw new SnapshotException("Snapshot of a circuit with " + streamCount + " streams and "
+                        + nodeCount + " nodes cannot be restored into a different circuit with "
+                        + structure.streams.size() + " streams and " + structure.nodes.size() + " nodes");
+            }
+
+            for (BitStream stream : structure.streams) {
+                long bits = 0;
+                for (int i = getByteCount(stream); i > 0; i--) {
+                    bits = (bits << 8) | in.readUnsignedByte();
+                }
+                stream.setBits(bits);
+                int source = in.readInt();
+                if (source != UNKNOWN_SOURCE) {
+                    stream.setSource(source == NO_SOURCE ? null : structure.nodes.get(source));
+                }
+            }
+            for (Node node : structure.nodes) {
+                if (node instanceof Stateful) {
+                    ((Stateful) node).restoreState(in);
+                }
+            }
+            if (in.available() != 0) {
+                throw new SnapshotException("Snapshot contains more state than the circuit");
+            }
+        } catch (IOException e) {
+            throw new SnapshotException("Snapshot is truncated (" + e.getMessage() + ")");
+        }
+    }
+
+    private static int getByteCount(BitStream stream) {
+        return (stream.getSize() + 7) / 8;
+    }
+
+    /**The streams and nodes of a circuit (see NetlistExplorer), with a fingerprint of its structure.
+     */
+    private static class Structure {
+
+        private final NetlistExplorer netlist;
+        private final List<BitStream> streams;
+        private final List<Node> nodes;
+        private final long fingerprint;
+
+        Structure(BitStream[] roots) {
+            this.netlist = new NetlistExplorer(roots);
+            this.streams = this.netlist.getStreams();
+            this.nodes = this.netlist.getNodes();
+
+            long fingerprint = 0;
+            for (BitStream stream : this.streams) {
+                fingerprint = fingerprint * 31 + stream.getSize();
+            }
+            for (Node node : this.nodes) {
+                fingerprint = fingerprint * 31 + node.getClass().getName().hashCode();
+            }
+            this.fingerprint = fingerprint;
+        }
+
+        /**Get the index of the source of a stream.
+         *
+         * @param stream - the stream
+         * @return - the index of the source node, NO_SOURCE if the stream has no source or UNKNOWN_SOURCE if
+         *          the source is not connected with the circuit (eg: a node replaced by a CompiledNetlist)
+         */
+        int getSourceIndex(BitStream stream) {
+            if (stream.getSource() == null) {
+                return NO_SOURCE;
+            }
+            int index = this.netlist.indexOf(stream.getSource());
+            return index < 0 ? UNKNOWN_SOURCE : index;
+        }
+    }
+}
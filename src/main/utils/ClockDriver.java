@@ -0,0 +1,159 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.ControlUnit;
+import main.control.Input;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.trace.Tracer;
+
+import java.util.function.BooleanSupplier;
+
+public class ClockDriver {
+
+    private static final boolean[] HIGH = new boolean[]{true};
+    private static final boolean[] LOW = new boolean[]{false};
+
+    private final Input clock;
+    private final ExecutionQueue queue;
+    private final ParallelWavefrontRunner parallelRunner;
+
+    private long cycleCount;
+    private long elapsedNanos;
+
+    /**Constructors for the ClockDriver class. The driver owns the clock Input of a circuit and runs the circuit
+     * cycle by cycle (a cycle is a rising edge followed by a falling edge). The execution queue is created once,
+     * according to the scheduling policy of the ProcessRunner at the time of construction, and reused for
+     * every edge.
+     *
+     * @param clock - the clock Input of the circuit (must be one bit wide)
+     */
+    public ClockDriver(Input clock) {
+        if (clock.getOut().getSize() != 1) {
+            throw new BitStreamInputSizeMismatch(clock);
+        }
+        this.clock = clock;
+        if (ProcessRunner.getPolicy() == SchedulingPolicy.PARALLEL) {
+            this.queue = null;
+            this.parallelRunner = new ParallelWavefrontRunner();
+        }
+        else {
+            this.queue = ProcessRunner.getPolicy().createQueue();
+            this.parallelRunner = null;
+        }
+    }
+
+    /**Create the clock Input driving the given stream. The clock starts low.
+     *
+     * @param clock - the clock BitStream of the circuit
+     */
+    public ClockDriver(BitStream clock) {
+        this(new Input(new boolean[]{false}, clock, "clock"));
+    }
+
+    /**Getters for the clock and the statistics of the driver.
+     */
+    public Input getClock() {
+        return clock;
+    }
+
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**Get the average number of cycles per second over all runs since the last reset of the statistics.
+     *
+     * @return - the number of cycles per second (0 if nothing was run)
+     */
+    public double getCyclesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.cycleCount * 1e9 / this.elapsedNanos;
+    }
+
+    /**Reset the cycle count and the elapsed time.
+     */
+    public void resetStatistics() {
+        this.cycleCount = 0;
+        this.elapsedNanos = 0;
+    }
+
+    /**Run a given number of cycles.
+     *
+     * @param cycles - the number of cycles to run
+     */
+    public void run(long cycles) {
+        long start = System.nanoTime();
+        for (long i = 0; i < cycles; i++) {
+            this.cycle();
+        }
+        this.elapsedNanos += System.nanoTime() - start;
+    }
+
+    /**Run cycles until the condition holds. The condition is checked before every cycle.
+     *
+     * @param condition - the condition to wait for
+     * @param maxCycles - the maximum number of cycles to run
+     * @return - the number of cycles that were run
+     */
+    public long runUntil(BooleanSupplier condition, long maxCycles) {
+        long start = System.nanoTime();
+        long cycles = 0;
+        while (cycles < maxCycles && !condition.getAsBoolean()) {
+            this.cycle();
+            cycles++;
+        }
+        this.elapsedNanos += System.nanoTime() - start;
+        return cycles;
+    }
+
+    /**Run whole microinstructions until one with the end bit set has been executed, i.e. until the current
+     * instruction of the CPU is finished. The bound is checked before every microinstruction, so nothing is run
+     * if it is 0, and a bound that is not a multiple of CYCLES_PER_MICROINSTRUCTION is rounded up.
+     *
+     * @param controlUnit - the control unit driven by the clock
+     * @param maxCycles - the maximum number of cycles to run
+     * @return - the number of cycles that were run
+     */
+    public long runUntilEnd(ControlUnit controlUnit, long maxCycles) {
+        BitStream microinstruction = controlUnit.getMicroinstruction();
+        long start = System.nanoTime();
+        long cycles = 0;
+        while (cycles < maxCycles) {
+            for (int i = 0; i < ControlUnit.CYCLES_PER_MICROINSTRUCTION; i++) {
+                this.cycle();
+            }
+            cycles += ControlUnit.CYCLES_PER_MICROINSTRUCTION;
+            if (microinstruction.getBit(0)) {
+                break;
+            }
+        }
+        this.elapsedNanos += System.nanoTime() - start;
+        return cycles;
+    }
+
+    /**Run a single cycle: set the clock high, propagate, set the clock low and propagate again.
+     */
+    private void cycle() {
+        this.edge(HIGH);
+        this.edge(LOW);
+        this.cycleCount++;
+
+        Profiler profiler = Profiler.getActive();
+        if (profiler != null) {
+            profiler.endCycle();
+        }
+    }
+
+    private void edge(boolean[] value) {
+        Tracer.advanceTime();
+        this.clock.setData(value);
+        if (this.parallelRunner != null) {
+            this.parallelRunner.run(this.clock);
+        }
+        else {
+            ProcessRunner.run(this.queue, this.clock);
+        }
+    }
+}
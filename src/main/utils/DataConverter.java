@@ -194,4 +194,33 @@ public class DataConverter {
         return DataConverter.convertBinToBool(binary);
     }
 
+    /**Convert boolean array to packed bits, where the first element of the array is the most significant bit.
+     * Eg: [true, false, true, true] -> 0b1011
+     *
+     * @param data - the boolean array to convert (at most 64 elements)
+     * @return - the packed bits
+     */
+    public static long convertBoolToBits(boolean[] data) {
+        long bits = 0;
+        for (boolean bit : data) {
+            bits = (bits << 1) | (bit ? 1 : 0);
+        }
+        return bits;
+    }
+
+    /**Convert packed bits to a boolean array of the given size.
+     * Eg: 0b1011, 5 -> [false, true, false, true, true]
+     *
+     * @param bits - the packed bits
+     * @param size - the size of the generated array
+     * @return - the generated boolean array
+     */
+    public static boolean[] convertBitsToBool(long bits, int size) {
+        boolean[] data = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = ((bits >>> (size - i - 1)) & 1) != 0;
+        }
+        return data;
+    }
+
 }
@@ -0,0 +1,44 @@
+package main.utils;
+
+import main.Node;
+
+import java.util.List;
+
+/**Interface describing the execution queue used by the ProcessRunner to schedule the evaluation of nodes.
+ * A node can only be present in the queue once. Adding a node that is already waiting to be evaluated
+ * has no effect, since that node will read the newest values of its inputs when it gets evaluated.
+ */
+public interface ExecutionQueue {
+
+    /**Add a node to the queue, unless it is already waiting to be evaluated.
+     *
+     * @param node - the node to add
+     */
+    void add(Node node);
+
+    /**Add all the nodes from a list to the queue.
+     *
+     * @param nodes - the nodes to add
+     */
+    default void addAll(List<Node> nodes) {
+        for (int i = 0; i < nodes.size(); i++) {
+            this.add(nodes.get(i));
+        }
+    }
+
+    /**Remove the next node from the queue.
+     *
+     * @return - the next node to evaluate
+     */
+    Node poll();
+
+    /**Remove all the nodes from the queue.
+     */
+    void clear();
+
+    int size();
+
+    default boolean isEmpty() {
+        return this.size() == 0;
+    }
+}
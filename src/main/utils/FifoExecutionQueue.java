@@ -0,0 +1,78 @@
+package main.utils;
+
+import main.Node;
+
+/**Execution queue evaluating the nodes in the order they were added (first in, first out).
+ * The nodes are stored in a ring buffer that grows when it gets full.
+ */
+public class FifoExecutionQueue implements ExecutionQueue {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Node[] buffer;
+    private int head;
+    private int size;
+
+    public FifoExecutionQueue() {
+        this.buffer = new Node[INITIAL_CAPACITY];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**Add a node at the end of the queue if it is not already queued.
+     *
+     * @param node - the node to add
+     */
+    @Override
+    public void add(Node node) {
+        if (node.isQueued()) {
+            return;
+        }
+        if (this.size == this.buffer.length) {
+            this.grow();
+        }
+        this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = node;
+        this.size++;
+        node.setQueued(true);
+    }
+
+    /**Remove the first node from the queue.
+     *
+     * @return - the first node of the queue
+     */
+    @Override
+    public Node poll() {
+        Node next = this.buffer[this.head];
+        this.buffer[this.head] = null;
+        this.head = (this.head + 1) & (this.buffer.length - 1);
+        this.size--;
+        next.setQueued(false);
+        return next;
+    }
+
+    /**Remove all the nodes from the queue. This also resets their "queued" flag.
+     */
+    @Override
+    public void clear() {
+        while (this.size > 0) {
+            this.poll();
+        }
+        this.head = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**Double the capacity of the ring buffer. The capacity is always a power of 2.
+     */
+    private void grow() {
+        Node[] newBuffer = new Node[this.buffer.length * 2];
+        for (int i = 0; i < this.size; i++) {
+            newBuffer[i] = this.buffer[(this.head + i) & (this.buffer.length - 1)];
+        }
+        this.buffer = newBuffer;
+        this.head = 0;
+    }
+}
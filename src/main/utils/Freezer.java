@@ -0,0 +1,45 @@
+package main.utils;
+
+import main.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class Freezer {
+
+    /**Class used to freeze a circuit once it has been built. Freezing turns the endpoint list of every
+     * BitStream driven by a reachable node into a fixed fan-out array (see BitStream.freeze), so that
+     * the propagation of changes through the circuit no longer allocates. The circuit should not be
+     * modified after it has been frozen, although doing so is safe (the modified streams simply unfreeze).
+     * Circuits built in a CircuitBuilder session (eg: the CPU) are frozen when the session is committed.
+     */
+
+    /**Freeze all the nodes reachable from the nodes specified as parameters.
+     *
+     * @param nodes - the nodes from which the freezing should start (eg: the inputs of the circuit)
+     * @return - the number of nodes that were frozen
+     */
+    public static int freeze(Node... nodes) {
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Node> toVisit = new ArrayList<>();
+        for (Node node : nodes) {
+            if (visited.add(node)) {
+                toVisit.add(node);
+            }
+        }
+
+        for (int i = 0; i < toVisit.size(); i++) {
+            Node node = toVisit.get(i);
+            node.freeze();
+            for (Node neighbour : Levelizer.getNeighbours(node)) {
+                if (visited.add(neighbour)) {
+                    toVisit.add(neighbour);
+                }
+            }
+        }
+        return toVisit.size();
+    }
+}
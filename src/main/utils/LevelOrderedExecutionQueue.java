@@ -0,0 +1,137 @@
+package main.utils;
+
+import main.Node;
+
+/**Execution queue evaluating the nodes wave by wave (delta cycle by delta cycle), just like the FIFO queue.
+ * The nodes added while a wave is being evaluated form the next wave. Within a wave however, the nodes with
+ * the lowest level (topological depth, see Levelizer) are evaluated first, so that a node usually sees the
+ * already updated outputs of the nodes it depends on. Keeping the waves intact preserves the timing the
+ * flip-flops built from NAND gates rely on.
+ */
+public class LevelOrderedExecutionQueue implements ExecutionQueue {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Node[] current;
+    private int currentSize;
+    private int index;
+
+    private Node[] next;
+    private int nextSize;
+    private int maxLevel;
+
+    private int[] counts;
+
+    public LevelOrderedExecutionQueue() {
+        this.current = new Node[INITIAL_CAPACITY];
+        this.currentSize = 0;
+        this.index = 0;
+        this.next = new Node[INITIAL_CAPACITY];
+        this.nextSize = 0;
+        this.maxLevel = 0;
+        this.counts = new int[INITIAL_CAPACITY];
+    }
+
+    /**Add a node to the next wave if it is not already queued.
+     *
+     * @param node - the node to add
+     */
+    @Override
+    public void add(Node node) {
+        if (node.isQueued()) {
+            return;
+        }
+        if (this.nextSize == this.next.length) {
+            Node[] newNext = new Node[this.next.length * 2];
+            System.arraycopy(this.next, 0, newNext, 0, this.nextSize);
+            this.next = newNext;
+        }
+        this.next[this.nextSize++] = node;
+        this.maxLevel = Math.max(this.maxLevel, node.getLevel());
+        node.setQueued(true);
+    }
+
+    /**Remove the next node from the current wave. If the current wave is finished,
+     * the next wave is sorted by level and becomes the current one.
+     *
+     * @return - the next node to evaluate
+     */
+    @Override
+    public Node poll() {
+        if (this.index == this.currentSize) {
+            this.startNextWave();
+        }
+        Node node = this.current[this.index];
+        this.current[this.index++] = null;
+        node.setQueued(false);
+        return node;
+    }
+
+    /**Remove the next nodes with the same level from the current wave (at most as many as fit in the array).
+     * If the current wave is finished, the next wave is sorted by level and becomes the current one.
+     *
+     * @param nodes - the array to put the removed nodes into
+     * @return - the number of removed nodes
+     */
+    public int pollLevel(Node[] nodes) {
+        if (this.index == this.currentSize) {
+            this.startNextWave();
+        }
+        int level = this.current[this.index].getLevel();
+        int count = 0;
+        while (count < nodes.length && this.index < this.currentSize
+                && this.current[this.index].getLevel() == level) {
+            nodes[count++] = this.poll();
+        }
+        return count;
+    }
+
+    /**Remove all the nodes from the queue. This also resets their "queued" flag.
+     */
+    @Override
+    public void clear() {
+        while (this.size() > 0) {
+            this.poll();
+        }
+        this.currentSize = 0;
+        this.index = 0;
+        this.maxLevel = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.currentSize - this.index + this.nextSize;
+    }
+
+    /**Move the nodes of the next wave to the current wave, sorting them by level. Counting sort is used,
+     * so that the nodes with the same level stay in the order they were added.
+     */
+    private void startNextWave() {
+        if (this.counts.length < this.maxLevel + 2) {
+            this.counts = new int[this.maxLevel + 2];
+        }
+        for (int i = 0; i < this.maxLevel + 2; i++) {
+            this.counts[i] = 0;
+        }
+        for (int i = 0; i < this.nextSize; i++) {
+            this.counts[Math.max(this.next[i].getLevel(), 0) + 1]++;
+        }
+        for (int i = 1; i < this.maxLevel + 2; i++) {
+            this.counts[i] += this.counts[i - 1];
+        }
+
+        if (this.current.length < this.nextSize) {
+            this.current = new Node[this.next.length];
+        }
+        for (int i = 0; i < this.nextSize; i++) {
+            Node node = this.next[i];
+            this.current[this.counts[Math.max(node.getLevel(), 0)]++] = node;
+            this.next[i] = null;
+        }
+
+        this.currentSize = this.nextSize;
+        this.index = 0;
+        this.nextSize = 0;
+        this.maxLevel = 0;
+    }
+}
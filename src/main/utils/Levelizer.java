@@ -0,0 +1,125 @@
+package main.utils;
+
+import main.Node;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Levelizer {
+
+    /**Class used to assign a level (topological depth) to every node reachable from the given nodes.
+     * The level of a node is the length of the longest path leading to it from one of the starting nodes.
+     * Connections closing a feedback loop (eg: in a DLatch) are ignored when computing the levels.
+     */
+
+    /**Assign the levels to all the nodes reachable from the nodes specified as parameters.
+     *
+     * @param nodes - the nodes from which the levelization should start (they get level 0)
+     * @return - the highest level assigned to any node
+     */
+    public static int levelize(Node... nodes) {
+        Map<Node, List<Node>> neighbours = new IdentityHashMap<>();
+        List<Node> order = Levelizer.sortTopologically(nodes, neighbours);
+
+        Map<Node, Integer> position = new IdentityHashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            position.put(order.get(i), i);
+            order.get(i).setLevel(0);
+        }
+
+        int maxLevel = 0;
+        for (int i = 0; i < order.size(); i++) {
+            Node node = order.get(i);
+            for (Node neighbour : neighbours.get(node)) {
+                if (position.get(neighbour) > i && neighbour.getLevel() < node.getLevel() + 1) {
+                    neighbour.setLevel(node.getLevel() + 1);
+                    maxLevel = Math.max(maxLevel, neighbour.getLevel());
+                }
+            }
+        }
+        return maxLevel;
+    }
+
+    /**Sort the nodes reachable from the starting nodes in the reverse post-order of a depth first search.
+     * This is a topological order of the circuit once the feedback connections are removed.
+     *
+     * @param nodes - the starting nodes
+     * @param neighbours - map to be filled with the neighbours of every visited node
+     * @return - the sorted list of nodes
+     */
+    private static List<Node> sortTopologically(Node[] nodes, Map<Node, List<Node>> neighbours) {
+        List<Node> postOrder = new ArrayList<>();
+        List<Node> stack = new ArrayList<>();
+        List<Integer> nextNeighbour = new ArrayList<>();
+
+        for (Node root : nodes) {
+            if (neighbours.containsKey(root)) {
+                continue;
+            }
+            neighbours.put(root, Levelizer.getNeighbours(root));
+            stack.add(root);
+            nextNeighbour.add(0);
+
+            while (!stack.isEmpty()) {
+                int top = stack.size() - 1;
+                Node node = stack.get(top);
+                int index = nextNeighbour.get(top);
+                List<Node> nodeNeighbours = neighbours.get(node);
+
+                if (index < nodeNeighbours.size()) {
+                    nextNeighbour.set(top, index + 1);
+                    Node neighbour = nodeNeighbours.get(index);
+                    if (!neighbours.containsKey(neighbour)) {
+                        neighbours.put(neighbour, Levelizer.getNeighbours(neighbour));
+                        stack.add(neighbour);
+                        nextNeighbour.add(0);
+                    }
+                }
+                else {
+                    postOrder.add(node);
+                    stack.remove(top);
+                    nextNeighbour.remove(top);
+                }
+            }
+        }
+
+        List<Node> order = new ArrayList<>();
+        for (int i = postOrder.size() - 1; i >= 0; i--) {
+            order.add(postOrder.get(i));
+        }
+        return order;
+    }
+
+    /**Get the nodes that would be added to the execution queue by a node if its output changed.
+     *
+     * @param node - the node whose neighbours should be returned
+     * @return - the list of neighbours
+     */
+    static List<Node> getNeighbours(Node node) {
+        List<Node> out = new ArrayList<>();
+        node.addNeighboursToQueue(new ExecutionQueue() {
+            @Override
+            public void add(Node neighbour) {
+                out.add(neighbour);
+            }
+
+            @Override
+            public Node poll() {
+                return null;
+            }
+
+            @Override
+            public void clear() {
+                out.clear();
+            }
+
+            @Override
+            public int size() {
+                return out.size();
+            }
+        });
+        return out;
+    }
+}
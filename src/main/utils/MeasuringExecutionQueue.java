@@ -0,0 +1,122 @@
+package main.utils;
+
+import main.Node;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**Execution queue measuring the work done by the runs using it, while delegating the scheduling to another
+ * queue. It counts the evaluated nodes and computes the logic depth of every run: the nodes the run starts
+ * from have depth 0 and a node added to the queue by a node of depth d has depth d + 1 (the highest one, if it
+ * is added by several nodes before being evaluated). The depth of a run is the highest depth of an evaluated
+ * node, i.e. the number of gate delays the circuit needs to settle.
+ * The measurements add up over all runs until they are reset, so they can be read after every run
+ * (eg: to compare the events needed per addition by the different AdderArchitectures).
+ */
+public class MeasuringExecutionQueue implements ExecutionQueue {
+
+    private final ExecutionQueue queue;
+    private final Map<Node, Integer> depths;
+    private int currentDepth;
+    private int runDepth;
+
+    private long evaluationCount;
+    private long runCount;
+    private int maxDepth;
+    private int lastDepth;
+
+    public MeasuringExecutionQueue(ExecutionQueue queue) {
+        this.queue = queue;
+        this.depths = new IdentityHashMap<>();
+        this.currentDepth = -1;
+    }
+
+    public MeasuringExecutionQueue() {
+        this(ProcessRunner.getPolicy().createQueue());
+    }
+
+    /**Getters for the measurements.
+     */
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**Get the depth of the last finished run.
+     *
+     * @return - the depth of the last run
+     */
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /**Get the average number of evaluated nodes per run.
+     *
+     * @return - the number of evaluations per run (0 if nothing was run)
+     */
+    public double getEvaluationsPerRun() {
+        return this.runCount == 0 ? 0 : (double) this.evaluationCount / this.runCount;
+    }
+
+    /**Reset all the measurements.
+     */
+    public void reset() {
+        this.evaluationCount = 0;
+        this.runCount = 0;
+        this.maxDepth = 0;
+        this.lastDepth = 0;
+    }
+
+    /**Add a node to the queue, recording its depth.
+     *
+     * @param node - the node to add
+     */
+    @Override
+    public void add(Node node) {
+        int depth = this.currentDepth + 1;
+        Integer queuedDepth = this.depths.get(node);
+        if (queuedDepth == null || queuedDepth < depth) {
+            this.depths.put(node, depth);
+        }
+        this.queue.add(node);
+    }
+
+    /**Remove the next node from the queue. The nodes added until the next poll are added by this node.
+     *
+     * @return - the next node to evaluate
+     */
+    @Override
+    public Node poll() {
+        Node next = this.queue.poll();
+        Integer depth = this.depths.remove(next);
+        this.currentDepth = depth == null ? 0 : depth;
+        this.runDepth = Math.max(this.runDepth, this.currentDepth);
+        this.evaluationCount++;
+        return next;
+    }
+
+    /**Remove all the nodes from the queue. This ends the current run (see ProcessRunner.run).
+     */
+    @Override
+    public void clear() {
+        this.queue.clear();
+        this.depths.clear();
+        this.lastDepth = this.runDepth;
+        this.maxDepth = Math.max(this.maxDepth, this.runDepth);
+        this.currentDepth = -1;
+        this.runDepth = 0;
+        this.runCount++;
+    }
+
+    @Override
+    public int size() {
+        return this.queue.size();
+    }
+}
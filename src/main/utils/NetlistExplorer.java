@@ -0,0 +1,191 @@
+package main.utils;
+
+import main.BitStream;
+import main.Node;
+import main.circuits.behavioral.BehavioralModel;
+import main.compiler.CompiledNetlist;
+import main.control.Input;
+import main.control.Output;
+import main.control.Splitter;
+import main.exceptions.NetlistCompilationException;
+import main.gates.Gate;
+import main.gates.TriState;
+import main.gates.binary.BinaryGate;
+import main.gates.multi.MultiInputGate;
+import main.gates.unary.UnaryGate;
+import main.memory.RAM;
+import main.memory.ROM;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class NetlistExplorer {
+
+    /**Class used to find all the BitStreams and nodes of a circuit. The circuit is explored starting from the
+     * given streams (eg: the clock of a CPU), by following the endpoints of every stream found and the streams
+     * of every node found. The streams and nodes are indexed in the order in which they are found, which is the
+     * same for all circuits built the same way.
+     */
+
+    private final List<BitStream> streams;
+    private final List<Node> nodes;
+    private final Map<BitStream, Integer> streamIndexes;
+    private final Map<Node, Integer> nodeIndexes;
+
+    /**Constructor for the NetlistExplorer class. Throws NetlistCompilationException if the circuit contains
+     * a node whose streams are unknown.
+     *
+     * @param roots - streams of the circuit from which the exploration starts
+     */
+    public NetlistExplorer(BitStream... roots) {
+        this.streams = new ArrayList<>();
+        this.nodes = new ArrayList<>();
+        this.streamIndexes = new IdentityHashMap<>();
+        this.nodeIndexes = new IdentityHashMap<>();
+
+        for (BitStream root : roots) {
+            this.addStream(root);
+        }
+        for (int i = 0; i < this.streams.size(); i++) {
+            for (Node node : this.streams.get(i).getEndpoints()) {
+                if (this.nodeIndexes.containsKey(node)) {
+                    continue;
+                }
+                this.nodeIndexes.put(node, this.nodes.size());
+                this.nodes.add(node);
+                for (BitStream stream : NetlistExplorer.getStreams(node)) {
+                    this.addStream(stream);
+                }
+            }
+        }
+    }
+
+    private void addStream(BitStream stream) {
+        if (!this.streamIndexes.containsKey(stream)) {
+            this.streamIndexes.put(stream, this.streams.size());
+            this.streams.add(stream);
+        }
+    }
+
+    /**Getters for the streams and nodes of the circuit, in the order in which they were found.
+     */
+    public List<BitStream> getStreams() {
+        return Collections.unmodifiableList(streams);
+    }
+
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**Get the index of a stream of the circuit.
+     *
+     * @param stream - the stream
+     * @return - the index of the stream, or -1 if it is not part of the circuit
+     */
+    public int indexOf(BitStream stream) {
+        Integer index = this.streamIndexes.get(stream);
+        return index == null ? -1 : index;
+    }
+
+    /**Get the index of a node of the circuit.
+     *
+     * @param node - the node
+     * @return - the index of the node, or -1 if it is not part of the circuit
+     */
+    public int indexOf(Node node) {
+        Integer index = this.nodeIndexes.get(node);
+        return index == null ? -1 : index;
+    }
+
+    /**Get the streams read by a node. Throws NetlistCompilationException if the node is unknown.
+     *
+     * @param node - the node
+     * @return - the input streams of the node
+     */
+    public static List<BitStream> getInputs(Node node) {
+        List<BitStream> inputs = new ArrayList<>();
+        if (node instanceof BinaryGate) {
+            Collections.addAll(inputs, ((BinaryGate) node).getIn1(), ((BinaryGate) node).getIn2());
+        }
+        else if (node instanceof UnaryGate) {
+            inputs.add(((UnaryGate) node).getIn());
+        }
+        else if (node instanceof MultiInputGate) {
+            Collections.addAll(inputs, ((MultiInputGate) node).getInStreams());
+        }
+        else if (node instanceof TriState) {
+            Collections.addAll(inputs, ((TriState) node).getIn(), ((TriState) node).getControl());
+        }
+        else if (node instanceof Splitter) {
+            inputs.addAll(((Splitter) node).getIn());
+        }
+        else if (node instanceof Output) {
+            inputs.add(((Output) node).getIn());
+        }
+        else if (node instanceof RAM) {
+            RAM ram = (RAM) node;
+            Collections.addAll(inputs, ram.getAddress(), ram.getDataIn(), ram.getWrite(), ram.getRead());
+        }
+        else if (node instanceof ROM) {
+            inputs.add(((ROM) node).getAddress());
+        }
+        else if (node instanceof BehavioralModel) {
+            Collections.addAll(inputs, ((BehavioralModel) node).getInputs());
+        }
+        else if (node instanceof CompiledNetlist) {
+            Collections.addAll(inputs, ((CompiledNetlist) node).getInputStreams());
+        }
+        else if (!(node instanceof Input)) {
+            throw new NetlistCompilationException(node);
+        }
+        return inputs;
+    }
+
+    /**Get the streams driven by a node. Throws NetlistCompilationException if the node is unknown.
+     *
+     * @param node - the node
+     * @return - the output streams of the node
+     */
+    public static List<BitStream> getOutputs(Node node) {
+        List<BitStream> outputs = new ArrayList<>();
+        if (node instanceof Gate) {
+            outputs.add(((Gate) node).getOut());
+        }
+        else if (node instanceof Splitter) {
+            outputs.addAll(((Splitter) node).getOut());
+        }
+        else if (node instanceof Input) {
+            outputs.add(((Input) node).getOut());
+        }
+        else if (node instanceof RAM) {
+            outputs.add(((RAM) node).getDataOut());
+        }
+        else if (node instanceof ROM) {
+            outputs.add(((ROM) node).getOutput());
+        }
+        else if (node instanceof BehavioralModel) {
+            Collections.addAll(outputs, ((BehavioralModel) node).getOutputs());
+        }
+        else if (node instanceof CompiledNetlist) {
+            Collections.addAll(outputs, ((CompiledNetlist) node).getDrivenStreams());
+        }
+        else if (!(node instanceof Output)) {
+            throw new NetlistCompilationException(node);
+        }
+        return outputs;
+    }
+
+    /**Get all streams a node is connected with.
+     *
+     * @param node - the node
+     * @return - the input streams followed by the output streams of the node
+     */
+    public static List<BitStream> getStreams(Node node) {
+        List<BitStream> streams = NetlistExplorer.getInputs(node);
+        streams.addAll(NetlistExplorer.getOutputs(node));
+        return streams;
+    }
+}
@@ -0,0 +1,499 @@
+package main.utils;
+
+import main.BitStream;
+import main.Node;
+import main.control.Input;
+import main.control.Output;
+import main.control.Splitter;
+import main.exceptions.NetlistFormatException;
+import main.gates.Gate;
+import main.gates.TriState;
+import main.gates.binary.AND;
+import main.gates.binary.NAND;
+import main.gates.binary.NOR;
+import main.gates.binary.OR;
+import main.gates.binary.XOR;
+import main.gates.multi.MultiAND;
+import main.gates.multi.MultiNAND;
+import main.gates.multi.MultiNOR;
+import main.gates.multi.MultiOR;
+import main.gates.unary.NOT;
+import main.memory.MappedWordStore;
+import main.memory.PackedWordStore;
+import main.memory.RAM;
+import main.memory.ROM;
+import main.memory.WordStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public class NetlistImage {
+
+    /**Class holding a whole circuit (its structure and its state) in a compact binary form, so that the circuit
+     * can be loaded again without running the code that built it (eg: the build methods of the CPU and all its
+     * parts). The circuit is found with the NetlistExplorer, starting from the given BitStreams (eg: the clock and
+     * the memory lines of a CPU), and can only contain gates, Inputs, Outputs, Splitters, RAMs and ROMs
+     * (NetlistFormatException is thrown otherwise). The ROMs are saved by reference (the path of their file), as
+     * are the RAMs backed by a MappedWordStore, while the contents of other RAMs are saved in the image.
+     * The image starts with the MAGIC number, the VERSION of the format and a table of all the strings used
+     * (names of the nodes and paths). Then come the size and the data of every stream, the nodes (their type,
+     * name, debug mode, the indexes of their input and output streams and their state), the source of every stream
+     * and the indexes of the root streams. All indexes and counts are written with 7 bits per byte.
+     * The nodes are saved in an order in which every stream gets its endpoints in the same order as in the
+     * original circuit, so the loaded circuit evaluates the nodes in the same order. Loading creates the nodes
+     * in a build session of their own that is never committed, even when a session is already open on the thread,
+     * so no node is evaluated while loading (see CircuitBuilder).
+     */
+
+    public static final int MAGIC = 0x4E45544C;
+    public static final int VERSION = 1;
+
+    private static final List<Class<? extends Node>> TYPES = List.of(AND.class, OR.class, XOR.class, NAND.class,
+            NOR.class, NOT.class, MultiAND.class, MultiOR.class, MultiNAND.class, MultiNOR.class, TriState.class,
+            Input.class, Output.class, Splitter.class, RAM.class, ROM.class);
+
+    private final byte[] data;
+
+    private NetlistImage(byte[] data) {
+        this.data = data;
+    }
+
+    /**Getters for the size and the contents of the image.
+     */
+    public int getSize() {
+        return this.data.length;
+    }
+
+    public byte[] toByteArray() {
+        return this.data.clone();
+    }
+
+    /**Create an image from its binary form (see toByteArray). Throws NetlistFormatException if the data
+     * does not start with the header of a netlist image.
+     *
+     * @param data - the binary form of the image
+     * @return - the image
+     */
+    public static NetlistImage fromByteArray(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readInt() != MAGIC) {
+                throw new NetlistFormatException("Data is not a netlist image");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new NetlistFormatException("Unsupported netlist image version " + version);
+            }
+        } catch (IOException e) {
+            throw new NetlistFormatException("Data is not a netlist image");
+        }
+        return new NetlistImage(data.clone());
+    }
+
+    /**Save the image to a file.
+     *
+     * @param path - the path of the file
+     */
+    public void save(Path path) {
+        try {
+            Files.write(path, this.data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Read an image saved with save.
+     *
+     * @param path - the path of the file
+     * @return - the read image
+     */
+    public static NetlistImage read(Path path) {
+        try {
+            return NetlistImage.fromByteArray(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**Capture the circuit connected with the given streams.
+     *
+     * @param roots - streams of the circuit (eg: its clock), from which the circuit is found
+     * @return - the image of the circuit
+     */
+    public static NetlistImage capture(BitStream... roots) {
+        NetlistExplorer netlist = new NetlistExplorer(roots);
+        List<BitStream> streams = netlist.getStreams();
+        List<Node> nodes = NetlistImage.getCreationOrder(netlist);
+        Map<Node, Integer> nodeIndexes = new IdentityHashMap<>();
+        for (Node node : nodes) {
+            nodeIndexes.put(node, nodeIndexes.size());
+        }
+        Map<String, Integer> strings = new LinkedHashMap<>();
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            writeIndex(out, streams.size());
+            for (BitStream stream : streams) {
+                out.writeByte(stream.getSize());
+                long bits = stream.getBits();
+                for (int shift = getByteCount(stream) * 8 - 8; shift >= 0; shift -= 8) {
+                    out.writeByte((int) (bits >>> shift));
+                }
+            }
+
+            writeIndex(out, nodes.size());
+            for (Node node : nodes) {
+                NetlistImage.writeNode(out, node, netlist, strings);
+            }
+
+            for (BitStream stream : streams) {
+                Integer source = stream.getSource() == null ? null : nodeIndexes.get(stream.getSource());
+                writeIndex(out, source == null ? 0 : source + 1);
+            }
+            writeIndex(out, roots.length);
+            for (BitStream root : roots) {
+                writeIndex(out, netlist.indexOf(root));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeIndex(out, strings.size());
+            for (String string : strings.keySet()) {
+                out.writeUTF(string);
+            }
+            body.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new NetlistImage(bytes.toByteArray());
+    }
+
+    /**Load the circuit of the image. Every call creates a new, independent circuit.
+     *
+     * @return - the loaded circuit
+     */
+    public LoadedCircuit load() {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.data))) {
+            in.readInt();
+            in.readInt();
+            String[] strings = new String[readIndex(in)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+
+            BitStream[] streams = new BitStream[readIndex(in)];
+            for (int i = 0; i < streams.length; i++) {
+                streams[i] = new BitStream(in.readUnsignedByte());
+                long bits = 0;
+                for (int j = getByteCount(streams[i]); j > 0; j--) {
+                    bits = (bits << 8) | in.readUnsignedByte();
+                }
+                streams[i].setBits(bits);
+            }
+
+            Node[] nodes = new Node[readIndex(in)];
+            CircuitBuilder builder = CircuitBuilder.beginDetached();
+            try {
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = NetlistImage.readNode(in, strings, streams);
+                }
+            } finally {
+                builder.abort();
+            }
+
+            for (BitStream stream : streams) {
+                int source = readIndex(in);
+                stream.setSource(source == 0 ? null : nodes[source - 1]);
+            }
+            BitStream[] roots = new BitStream[readIndex(in)];
+            for (int i = 0; i < roots.length; i++) {
+                roots[i] = streams[readIndex(in)];
+            }
+            if (in.available() != 0) {
+                throw new NetlistFormatException("Netlist image contains more data than the circuit");
+            }
+            return new LoadedCircuit(roots, streams, nodes);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new NetlistFormatException("Netlist image is corrupted (" + e.getMessage() + ")");
+        }
+    }
+
+    /**Write a node: its type, name, debug mode, input and output streams and its state.
+     *
+     * @param out - the output to write the node to
+     * @param node - the node
+     * @param netlist - the netlist with the indexes of the streams
+     * @param strings - the string table, to which new strings are added
+     * @throws IOException - if the node cannot be written
+     */
+    private static void writeNode(DataOutput out, Node node, NetlistExplorer netlist, Map<String, Integer> strings)
+            throws IOException {
+        int type = TYPES.indexOf(node.getClass());
+        if (type < 0) {
+            throw new NetlistFormatException(node);
+        }
+        out.writeByte(type);
+        writeString(out, node.getName(), strings);
+        out.writeBoolean(NetlistImage.isInDebuggerMode(node));
+        writeStreams(out, NetlistExplorer.getInputs(node), netlist);
+        writeStreams(out, NetlistExplorer.getOutputs(node), netlist);
+
+        if (node instanceof Input) {
+            ((Input) node).saveState(out);
+        }
+        else if (node instanceof Output) {
+            ((Output) node).saveState(out);
+        }
+        else if (node instanceof ROM) {
+            writeString(out, ((ROM) node).getFilepath(), strings);
+        }
+        else if (node instanceof RAM) {
+            RAM ram = (RAM) node;
+            WordStore memory = ram.getMemory();
+            if (memory instanceof MappedWordStore) {
+                out.writeBoolean(true);
+                writeString(out, ((MappedWordStore) memory).getPath().toString(), strings);
+                out.writeBoolean(ram.getLastWriteSignal());
+            }
+            else if (memory instanceof PackedWordStore) {
+                out.writeBoolean(false);
+                ram.saveState(out);
+            }
+            else {
+                throw new NetlistFormatException(node);
+            }
+        }
+    }
+
+    /**Read a node written by writeNode, creating it.
+     *
+     * @param in - the input to read the node from
+     * @param strings - the string table
+     * @param streams - the streams of the circuit
+     * @return - the created node
+     * @throws IOException - if the node cannot be read
+     */
+    private static Node readNode(DataInput in, String[] strings, BitStream[] streams) throws IOException {
+        int type = in.readUnsignedByte();
+        String name = strings[readIndex(in)];
+        boolean inDebuggerMode = in.readBoolean();
+        BitStream[] inputs = readStreams(in, streams);
+        BitStream[] outputs = readStreams(in, streams);
+
+        Class<? extends Node> nodeClass = type < TYPES.size() ? TYPES.get(type) : null;
+        if (nodeClass == AND.class) return new AND(inputs[0], inputs[1], outputs[0], name, inDebuggerMode);
+        if (nodeClass == OR.class) return new OR(inputs[0], inputs[1], outputs[0], name, inDebuggerMode);
+        if (nodeClass == XOR.class) return new XOR(inputs[0], inputs[1], outputs[0], name, inDebuggerMode);
+        if (nodeClass == NAND.class) return new NAND(inputs[0], inputs[1], outputs[0], name, inDebuggerMode);
+        if (nodeClass == NOR.class) return new NOR(inputs[0], inputs[1], outputs[0], name, inDebuggerMode);
+        if (nodeClass == NOT.class) return new NOT(inputs[0], outputs[0], name, inDebuggerMode);
+        if (nodeClass == MultiAND.class) return new MultiAND(Arrays.asList(inputs), outputs[0], name, inDebuggerMode);
+        if (nodeClass == MultiOR.class) return new MultiOR(Arrays.asList(inputs), outputs[0], name, inDebuggerMode);
+        if (nodeClass == MultiNAND.class) return new MultiNAND(Arrays.asList(inputs), outputs[0], name, inDebuggerMode);
+        if (nodeClass == MultiNOR.class) return new MultiNOR(Arrays.asList(inputs), outputs[0], name, inDebuggerMode);
+        if (nodeClass == TriState.class) return new TriState(inputs[0], inputs[1], outputs[0], name, inDebuggerMode);
+        if (nodeClass == Splitter.class) {
+            return new Splitter(Arrays.asList(inputs), Arrays.asList(outputs), name, inDebuggerMode);
+        }
+        if (nodeClass == Input.class) {
+            Input input = new Input(new boolean[outputs[0].getSize()], outputs[0], name, inDebuggerMode);
+            input.restoreState(in);
+            return input;
+        }
+        if (nodeClass == Output.class) {
+            Output output = new Output(inputs[0], name, inDebuggerMode);
+            output.restoreState(in);
+            return output;
+        }
+        if (nodeClass == ROM.class) {
+            return new ROM(strings[readIndex(in)], inputs[0], outputs[0], name, inDebuggerMode);
+        }
+        if (nodeClass == RAM.class) {
+            boolean mapped = in.readBoolean();
+            WordStore memory = mapped
+                    ? new MappedWordStore(Path.of(strings[readIndex(in)]), inputs[0].getSize(), outputs[0].getSize())
+                    : new PackedWordStore(inputs[0].getSize(), outputs[0].getSize());
+            RAM ram = new RAM(inputs[0], inputs[1], outputs[0], inputs[2], inputs[3], name, inDebuggerMode, memory);
+            if (mapped) {
+                ram.setLastWriteSignal(in.readBoolean());
+            }
+            else {
+                ram.restoreState(in);
+            }
+            return ram;
+        }
+        throw new NetlistFormatException("Unknown node type " + type);
+    }
+
+    /**Order the nodes of a circuit so that creating them in this order adds the endpoints of every stream in
+     * the same order as in the circuit, i.e. an order consistent with the order in which the nodes were created.
+     * If several nodes can come next, the one found first by the NetlistExplorer is taken.
+     *
+     * @param netlist - the netlist of the circuit
+     * @return - the nodes in the order in which they should be created
+     */
+    private static List<Node> getCreationOrder(NetlistExplorer netlist) {
+        List<Node> nodes = netlist.getNodes();
+        List<List<Integer>> successors = new ArrayList<>();
+        int[] predecessorCounts = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            successors.add(new ArrayList<>());
+        }
+        for (BitStream stream : netlist.getStreams()) {
+            int previous = -1;
+            for (Node endpoint : stream.getEndpoints()) {
+                int index = netlist.indexOf(endpoint);
+                if (previous >= 0 && previous != index) {
+                    successors.get(previous).add(index);
+                    predecessorCounts[index]++;
+                }
+                previous = index;
+            }
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            if (predecessorCounts[i] == 0) {
+                ready.add(i);
+            }
+        }
+        List<Node> order = new ArrayList<>();
+        boolean[] ordered = new boolean[nodes.size()];
+        while (order.size() < nodes.size()) {
+            if (ready.isEmpty()) {
+                for (int i = 0; i < nodes.size(); i++) {
+                    if (!ordered[i]) {
+                        ready.add(i);
+                        break;
+                    }
+                }
+            }
+            int next = ready.poll();
+            if (ordered[next]) {
+                continue;
+            }
+            ordered[next] = true;
+            order.add(nodes.get(next));
+            for (int successor : successors.get(next)) {
+                if (--predecessorCounts[successor] == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        return order;
+    }
+
+    private static boolean isInDebuggerMode(Node node) {
+        if (node instanceof Gate) return ((Gate) node).isInDebuggerMode();
+        if (node instanceof Input) return ((Input) node).isInDebuggerMode();
+        if (node instanceof Output) return ((Output) node).isInDebuggerMode();
+        if (node instanceof Splitter) return ((Splitter) node).isInDebuggerMode();
+        if (node instanceof RAM) return ((RAM) node).isInDebuggerMode();
+        return node instanceof ROM && ((ROM) node).isInDebuggerMode();
+    }
+
+    private static int getByteCount(BitStream stream) {
+        return (stream.getSize() + 7) / 8;
+    }
+
+    private static void writeStreams(DataOutput out, List<BitStream> streams, NetlistExplorer netlist)
+            throws IOException {
+        writeIndex(out, streams.size());
+        for (BitStream stream : streams) {
+            writeIndex(out, netlist.indexOf(stream));
+        }
+    }
+
+    private static BitStream[] readStreams(DataInput in, BitStream[] streams) throws IOException {
+        BitStream[] read = new BitStream[readIndex(in)];
+        for (int i = 0; i < read.length; i++) {
+            read[i] = streams[readIndex(in)];
+        }
+        return read;
+    }
+
+    private static void writeString(DataOutput out, String string, Map<String, Integer> strings) throws IOException {
+        Integer index = strings.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+        writeIndex(out, index);
+    }
+
+    /**Write a non-negative index using 7 bits per byte, the highest bit of a byte telling if more bytes follow.
+     *
+     * @param out - the output to write the index to
+     * @param index - the index
+     * @throws IOException - if the index cannot be written
+     */
+    private static void writeIndex(DataOutput out, int index) throws IOException {
+        while ((index & ~0x7F) != 0) {
+            out.writeByte((index & 0x7F) | 0x80);
+            index >>>= 7;
+        }
+        out.writeByte(index);
+    }
+
+    private static int readIndex(DataInput in) throws IOException {
+        int index = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            index |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return index;
+            }
+        }
+    }
+
+    /**A circuit loaded from an image.
+     */
+    public static class LoadedCircuit {
+
+        private final List<BitStream> roots;
+        private final List<BitStream> streams;
+        private final List<Node> nodes;
+
+        LoadedCircuit(BitStream[] roots, BitStream[] streams, Node[] nodes) {
+            this.roots = Collections.unmodifiableList(Arrays.asList(roots));
+            this.streams = Collections.unmodifiableList(Arrays.asList(streams));
+            this.nodes = Collections.unmodifiableList(Arrays.asList(nodes));
+        }
+
+        /**Getters for the root streams (in the order they were given when capturing the image), all the
+         * streams (in the order they were found by the NetlistExplorer) and the nodes of the circuit.
+         */
+        public List<BitStream> getRoots() {
+            return roots;
+        }
+
+        public List<BitStream> getStreams() {
+            return streams;
+        }
+
+        public List<Node> getNodes() {
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package main.utils;
+
+import main.Node;
+import main.gates.Gate;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelWavefrontRunner {
+
+    /**Class used to run a circuit evaluating independent gates in parallel. The nodes are evaluated wave by
+     * wave (delta cycle by delta cycle) just like with the LEVEL_ORDERED policy, and every wave is split into
+     * groups of nodes with the same level (see Levelizer). The results of the gates in a group are computed in
+     * parallel on a ForkJoinPool, while only reading the BitStreams. The outputs are then updated one by one on
+     * the calling thread, in the order of the queue, so the BitStreams and the queue are never modified
+     * concurrently and the results do not depend on the number of threads.
+     * Since the gates of a group all see the values from before the group was evaluated, the levels should be
+     * assigned with the Levelizer before running. Every group is counted as one delta cycle of the ProcessRunner
+     * (eg: for the timestamps of a VcdWriter).
+     */
+
+    public static final int DEFAULT_GRANULARITY = 64;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ForkJoinPool pool;
+    private final int granularity;
+    private final LevelOrderedExecutionQueue queue;
+
+    private Node[] group;
+    private Gate[] gates;
+    private long[] results;
+
+    /**Constructors for the ParallelWavefrontRunner class.
+     *
+     * @param pool - the pool used to compute the results of the gates
+     * @param granularity - the number of gates computed by a single task (groups with less gates are
+     *                    computed on the calling thread)
+     */
+    public ParallelWavefrontRunner(ForkJoinPool pool, int granularity) {
+        this.pool = pool;
+        this.granularity = Math.max(granularity, 1);
+        this.queue = new LevelOrderedExecutionQueue();
+        this.group = new Node[INITIAL_CAPACITY];
+        this.gates = new Gate[INITIAL_CAPACITY];
+        this.results = new long[INITIAL_CAPACITY];
+    }
+
+    public ParallelWavefrontRunner(ForkJoinPool pool) {
+        this(pool, DEFAULT_GRANULARITY);
+    }
+
+    public ParallelWavefrontRunner() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRANULARITY);
+    }
+
+    /**Getters for the attributes of the class.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getGranularity() {
+        return granularity;
+    }
+
+    /**Run the circuit starting from the nodes specified as parameters.
+     *
+     * @param nodes - the nodes from which the evaluation should start
+     */
+    public void run(Node... nodes) {
+        try {
+            for (Node node : nodes) {
+                this.queue.add(node);
+            }
+            while (!this.queue.isEmpty()) {
+                int count = this.queue.pollLevel(this.group);
+                this.evaluateGroup(count);
+                ProcessRunner.endDeltaCycle();
+                if (count == this.group.length) {
+                    this.grow();
+                }
+            }
+        } finally {
+            this.queue.clear();
+        }
+    }
+
+    /**Evaluate a group of nodes with the same level. The results of the gates are computed first (in parallel
+     * if there are enough of them), then all nodes are updated in order.
+     *
+     * @param count - the number of nodes in the group
+     */
+    private void evaluateGroup(int count) {
+        int gateCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (this.group[i] instanceof Gate && ((Gate) this.group[i]).canComputeInParallel()) {
+                this.gates[gateCount++] = (Gate) this.group[i];
+            }
+        }
+
+        if (gateCount > this.granularity) {
+            this.pool.invoke(new ComputeTask(this.gates, this.results, 0, gateCount, this.granularity));
+        }
+        else {
+            for (int i = 0; i < gateCount; i++) {
+                this.results[i] = this.gates[i].compute();
+            }
+        }
+
+        int gateIndex = 0;
+        for (int i = 0; i < count; i++) {
+            Node node = this.group[i];
+            if (gateIndex < gateCount && node == this.gates[gateIndex]) {
+                this.gates[gateIndex].update(this.results[gateIndex], this.queue);
+                this.gates[gateIndex++] = null;
+            }
+            else {
+                node.evaluate(this.queue);
+            }
+            this.group[i] = null;
+        }
+    }
+
+    /**Double the size of the buffers holding a group.
+     */
+    private void grow() {
+        this.group = new Node[this.group.length * 2];
+        this.gates = new Gate[this.gates.length * 2];
+        this.results = new long[this.results.length * 2];
+    }
+
+    /**Task computing the results of a range of gates, splitting the range until it is small enough.
+     */
+    private static class ComputeTask extends RecursiveAction {
+
+        private final Gate[] gates;
+        private final long[] results;
+        private final int from, to, granularity;
+
+        ComputeTask(Gate[] gates, long[] results, int from, int to, int granularity) {
+            this.gates = gates;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.granularity) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.results[i] = this.gates[i].compute();
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ComputeTask(this.gates, this.results, this.from, middle, this.granularity),
+                    new ComputeTask(this.gates, this.results, middle, this.to, this.granularity));
+        }
+    }
+}
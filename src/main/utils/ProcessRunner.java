@@ -2,23 +2,133 @@ package main.utils;
 
 import main.Node;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class ProcessRunner {
 
-    /**Run the circuit starting from the nodes specified as parameters.
+    private static final ThreadLocal<ParallelWavefrontRunner> parallelRunner =
+            ThreadLocal.withInitial(ParallelWavefrontRunner::new);
+
+    private static SchedulingPolicy policy = SchedulingPolicy.FIFO;
+    private static int deltaCycleTracking;
+    private static long deltaCycle;
+
+    /**Getter and setter for the policy used to schedule the evaluation of nodes.
+     */
+    public static SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    public static void setPolicy(SchedulingPolicy policy) {
+        ProcessRunner.policy = policy;
+    }
+
+    /**Get the number of delta cycles run since delta cycles are tracked. A delta cycle (wave) is the
+     * evaluation of all the nodes that were in the queue at its start, so the nodes added by one delta cycle are
+     * evaluated in the next one. Every run ends with its own delta cycle, so two runs never share one. With the
+     * PARALLEL policy, every group of nodes with the same level is a delta cycle (see ParallelWavefrontRunner).
+     *
+     * @return - the current delta cycle
+     */
+    public static long getDeltaCycle() {
+        return deltaCycle;
+    }
+
+    /**Start or stop tracking the delta cycles (eg: for the timestamps of a VcdWriter). The calls are counted,
+     * so the delta cycles are tracked until every start has been matched by a stop. While nothing is tracked,
+     * the runs do not count the delta cycles.
+     *
+     * @param track - true to start tracking, false to stop
+     */
+    public static void trackDeltaCycles(boolean track) {
+        deltaCycleTracking = Math.max(0, deltaCycleTracking + (track ? 1 : -1));
+    }
+
+    /**End a delta cycle run by another runner (see ParallelWavefrontRunner), if the delta cycles are tracked.
+     */
+    static void endDeltaCycle() {
+        if (deltaCycleTracking > 0) {
+            deltaCycle++;
+        }
+    }
+
+    /**Run the circuit starting from the nodes specified as parameters. With the PARALLEL policy, every thread
+     * reuses its own ParallelWavefrontRunner.
      *
      * @param nodes - the nodes from which the evaluation should start
      */
     public static void run(Node... nodes) {
-        List<Node> queue = new ArrayList<>();
-        for (Node node : nodes) {
-            queue.add(node);
+        if (policy == SchedulingPolicy.PARALLEL) {
+            parallelRunner.get().run(nodes);
+            return;
+        }
+        ProcessRunner.run(policy.createQueue(), nodes);
+    }
+
+    /**Settle a circuit starting from nodes that have just been built (see CircuitBuilder). Their levels are not
+     * assigned yet, so with the PARALLEL policy every wave would be a single group, in which the feedback loops
+     * (eg: the latches) oscillate forever. Such nodes are therefore always run one by one, in FIFO order.
+     *
+     * @param nodes - the nodes from which the evaluation should start
+     */
+    static void settle(Node... nodes) {
+        if (policy == SchedulingPolicy.PARALLEL) {
+            ProcessRunner.run(SchedulingPolicy.FIFO.createQueue(), nodes);
+            return;
+        }
+        ProcessRunner.run(nodes);
+    }
+
+    /**Run the circuit starting from the nodes specified as parameters, using the given execution queue.
+     * The queue is empty once the method returns, so it can be reused for the next run. If a Profiler is
+     * running, the nodes are evaluated through it, and if the delta cycles are tracked, they are counted.
+     *
+     * @param queue - the execution queue
+     * @param nodes - the nodes from which the evaluation should start
+     */
+    public static void run(ExecutionQueue queue, Node... nodes) {
+        try {
+            for (Node node : nodes) {
+                queue.add(node);
+            }
+            Profiler profiler = Profiler.getActive();
+            if (deltaCycleTracking > 0) {
+                ProcessRunner.runDeltaCycles(queue, profiler);
+                return;
+            }
+            if (profiler != null) {
+                while (!queue.isEmpty()) {
+                    profiler.evaluate(queue.poll(), queue);
+                }
+                return;
+            }
+            while (!queue.isEmpty()) {
+                Node next = queue.poll();
+                next.evaluate(queue);
+            }
+        } finally {
+            queue.clear();
         }
-        while (queue.size() > 0) {
-            Node next = queue.remove(0);
-            next.evaluate(queue);
+    }
+
+    /**Run the nodes in the queue, counting the delta cycles.
+     *
+     * @param queue - the execution queue
+     * @param profiler - the running profiler, or null
+     */
+    private static void runDeltaCycles(ExecutionQueue queue, Profiler profiler) {
+        int remaining = queue.size();
+        while (!queue.isEmpty()) {
+            if (remaining == 0) {
+                deltaCycle++;
+                remaining = queue.size();
+            }
+            remaining--;
+            if (profiler != null) {
+                profiler.evaluate(queue.poll(), queue);
+            }
+            else {
+                queue.poll().evaluate(queue);
+            }
         }
+        deltaCycle++;
     }
 }
@@ -0,0 +1,294 @@
+package main.utils;
+
+import main.BitStream;
+import main.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Profiler {
+
+    /**Class used to find the parts of a circuit that take the most simulation time. While a profiler is
+     * running, the ProcessRunner evaluates every node through it, which counts the evaluations of the node,
+     * how many of them were useful (changed an output of the node, i.e. decideIfEvaluateFurther returned true)
+     * and how many were redundant, and the time spent evaluating the node. The statistics are kept per node
+     * and per circuit, where the circuit of a node is the circuit that built it, as recorded by the CircuitBuilder
+     * (eg: the gates of the MAR of a CPU belong to "CPU/MAR/..."). The circuits are compared up to a depth, so by
+     * default all the nodes of the MAR are summed up in "CPU/MAR". The ClockDriver counts the clock cycles run
+     * while profiling, so the hot spots can be reported per clock cycle.
+     * At most one profiler runs at a time. When none is running, the only cost is a check of a static field
+     * at the start of every run of the ProcessRunner. Runs of the ParallelWavefrontRunner are not profiled.
+     */
+
+    public static final String NO_CIRCUIT = "(no circuit)";
+    public static final int DEFAULT_CIRCUIT_DEPTH = 2;
+
+    private static Profiler active;
+
+    private final Map<Node, Entry> entries;
+    private long cycleCount;
+
+    public Profiler() {
+        this.entries = new IdentityHashMap<>();
+    }
+
+    /**Get the running profiler.
+     *
+     * @return - the running profiler, or null if no profiler is running
+     */
+    public static Profiler getActive() {
+        return active;
+    }
+
+    /**Start profiling all the runs of the ProcessRunner, stopping the profiler that was running before.
+     */
+    public void start() {
+        active = this;
+    }
+
+    /**Stop profiling. The statistics are kept until reset.
+     */
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return active == this;
+    }
+
+    /**Remove all the statistics.
+     */
+    public void reset() {
+        this.entries.clear();
+        this.cycleCount = 0;
+    }
+
+    public long getCycleCount() {
+        return cycleCount;
+    }
+
+    /**Evaluate a node, recording its statistics.
+     *
+     * @param node - the node to evaluate
+     * @param queue - the execution queue
+     */
+    void evaluate(Node node, ExecutionQueue queue) {
+        Entry entry = this.entries.get(node);
+        if (entry == null) {
+            entry = new Entry(node);
+            this.entries.put(node, entry);
+        }
+
+        BitStream[] outputs = entry.outputs;
+        long[] before = entry.before;
+        for (int i = 0; i < outputs.length; i++) {
+            before[i] = outputs[i].getBits();
+        }
+
+        long start = System.nanoTime();
+        node.evaluate(queue);
+        entry.nanos += System.nanoTime() - start;
+
+        entry.evaluations++;
+        for (int i = 0; i < outputs.length; i++) {
+            if (outputs[i].getBits() != before[i]) {
+                entry.usefulEvaluations++;
+                break;
+            }
+        }
+    }
+
+    /**Record the end of a clock cycle (see ClockDriver).
+     */
+    void endCycle() {
+        this.cycleCount++;
+    }
+
+    /**Get the statistics of a node.
+     *
+     * @param node - the node
+     * @return - the statistics of the node (all zero if the node was not evaluated)
+     */
+    public HotSpot getStatistics(Node node) {
+        Entry entry = this.entries.get(node);
+        if (entry == null) {
+            return new HotSpot(node.getName(), 0, 0, 0, this.cycleCount);
+        }
+        return new HotSpot(entry.name, entry.evaluations, entry.usefulEvaluations, entry.nanos, this.cycleCount);
+    }
+
+    /**Get the nodes that took the most time.
+     *
+     * @param count - the maximum number of nodes to return
+     * @return - the statistics of the nodes, sorted by the time spent evaluating them
+     */
+    public List<HotSpot> getHotSpots(int count) {
+        List<HotSpot> hotSpots = new ArrayList<>();
+        for (Entry entry : this.entries.values()) {
+            hotSpots.add(new HotSpot(entry.name, entry.evaluations, entry.usefulEvaluations, entry.nanos,
+                    this.cycleCount));
+        }
+        return Profiler.top(hotSpots, count);
+    }
+
+    /**Get the circuits that took the most time, up to the default depth (eg: "CPU/ALU").
+     *
+     * @param count - the maximum number of circuits to return
+     * @return - the statistics of the circuits (summed over their nodes), sorted by the time spent evaluating them
+     */
+    public List<HotSpot> getCircuitHotSpots(int count) {
+        return this.getCircuitHotSpots(count, DEFAULT_CIRCUIT_DEPTH);
+    }
+
+    /**Get the circuits that took the most time, up to a given depth.
+     *
+     * @param count - the maximum number of circuits to return
+     * @param depth - the number of nested circuits that are told apart (eg: 1 sums up the whole CPU)
+     * @return - the statistics of the circuits (summed over their nodes), sorted by the time spent evaluating them
+     */
+    public List<HotSpot> getCircuitHotSpots(int count, int depth) {
+        Map<String, long[]> circuits = new LinkedHashMap<>();
+        for (Entry entry : this.entries.values()) {
+            long[] sums = circuits.computeIfAbsent(getCircuitName(entry.circuit, depth), name -> new long[3]);
+            sums[0] += entry.evaluations;
+            sums[1] += entry.usefulEvaluations;
+            sums[2] += entry.nanos;
+        }
+
+        List<HotSpot> hotSpots = new ArrayList<>();
+        for (Map.Entry<String, long[]> circuit : circuits.entrySet()) {
+            long[] sums = circuit.getValue();
+            hotSpots.add(new HotSpot(circuit.getKey(), sums[0], sums[1], sums[2], this.cycleCount));
+        }
+        return Profiler.top(hotSpots, count);
+    }
+
+    private static List<HotSpot> top(List<HotSpot> hotSpots, int count) {
+        hotSpots.sort(Comparator.comparingLong(HotSpot::getNanos).reversed()
+                .thenComparing(Comparator.comparingLong(HotSpot::getEvaluations).reversed()));
+        return Collections.unmodifiableList(hotSpots.subList(0, Math.min(count, hotSpots.size())));
+    }
+
+    /**Get the name of a circuit up to a given depth.
+     *
+     * @param circuit - the circuit, as recorded by the CircuitBuilder (eg: "CPU/ALU/addSub")
+     * @param depth - the number of nested circuits to keep (at least one)
+     * @return - the outermost circuits of the given one (eg: "CPU/ALU" for depth 2), or NO_CIRCUIT if it is null
+     */
+    public static String getCircuitName(String circuit, int depth) {
+        if (circuit == null) {
+            return NO_CIRCUIT;
+        }
+        int index = -1;
+        for (int i = 0; i < Math.max(depth, 1); i++) {
+            index = circuit.indexOf(CircuitBuilder.CIRCUIT_SEPARATOR, index + 1);
+            if (index < 0) {
+                return circuit;
+            }
+        }
+        return circuit.substring(0, index);
+    }
+
+    /**Create a report with the top hot spots per clock cycle, first by circuit and then by node.
+     *
+     * @param count - the number of circuits and nodes to report
+     * @return - the report
+     */
+    public String report(int count) {
+        StringBuilder report = new StringBuilder("Profile of " + this.cycleCount + " clock cycles:\n");
+        report.append("Circuits:\n");
+        for (HotSpot hotSpot : this.getCircuitHotSpots(count)) {
+            report.append(hotSpot).append("\n");
+        }
+        report.append("Nodes:\n");
+        for (HotSpot hotSpot : this.getHotSpots(count)) {
+            report.append(hotSpot).append("\n");
+        }
+        return report.toString();
+    }
+
+    /**The statistics of a node while profiling.
+     */
+    private static class Entry {
+
+        private final String name;
+        private final String circuit;
+        private final BitStream[] outputs;
+        private final long[] before;
+        private long evaluations, usefulEvaluations, nanos;
+
+        Entry(Node node) {
+            this.name = node.getName();
+            this.circuit = CircuitBuilder.getCircuit(node);
+            this.outputs = NetlistExplorer.getOutputs(node).toArray(new BitStream[0]);
+            this.before = new long[this.outputs.length];
+        }
+    }
+
+    /**The statistics of a node or a circuit.
+     */
+    public static class HotSpot {
+
+        private final String name;
+        private final long evaluations, usefulEvaluations, nanos, cycles;
+
+        HotSpot(String name, long evaluations, long usefulEvaluations, long nanos, long cycles) {
+            this.name = name;
+            this.evaluations = evaluations;
+            this.usefulEvaluations = usefulEvaluations;
+            this.nanos = nanos;
+            this.cycles = cycles;
+        }
+
+        /**Getters for the statistics.
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getUsefulEvaluations() {
+            return usefulEvaluations;
+        }
+
+        public long getRedundantEvaluations() {
+            return evaluations - usefulEvaluations;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**Get the averages per clock cycle (the totals if no cycle was counted).
+         */
+        public double getEvaluationsPerCycle() {
+            return this.cycles == 0 ? this.evaluations : (double) this.evaluations / this.cycles;
+        }
+
+        public double getNanosPerCycle() {
+            return this.cycles == 0 ? this.nanos : (double) this.nanos / this.cycles;
+        }
+
+        /**Override the default toString method.
+         *
+         * @return - a String representation of this
+         */
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f evaluations (%.1f%% redundant), %.0f ns per cycle", this.name,
+                    this.getEvaluationsPerCycle(),
+                    this.evaluations == 0 ? 0 : 100.0 * this.getRedundantEvaluations() / this.evaluations,
+                    this.getNanosPerCycle());
+        }
+    }
+}
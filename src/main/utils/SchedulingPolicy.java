@@ -0,0 +1,25 @@
+package main.utils;
+
+/**Enum with the available policies for scheduling the evaluation of nodes in the ProcessRunner.
+ * FIFO - evaluate the nodes in the order in which they were added to the queue
+ * LEVEL_ORDERED - evaluate the nodes with the lowest topological depth first (see Levelizer)
+ * PARALLEL - like LEVEL_ORDERED, but the gates with the same level are computed in parallel
+ *            (see ParallelWavefrontRunner)
+ */
+public enum SchedulingPolicy {
+    FIFO,
+    LEVEL_ORDERED,
+    PARALLEL;
+
+    /**Create a new, empty execution queue following this policy. The PARALLEL policy uses a level ordered
+     * queue, since the parallel evaluation itself is done by the ParallelWavefrontRunner.
+     *
+     * @return - the created queue
+     */
+    public ExecutionQueue createQueue() {
+        if (this == LEVEL_ORDERED || this == PARALLEL) {
+            return new LevelOrderedExecutionQueue();
+        }
+        return new FifoExecutionQueue();
+    }
+}
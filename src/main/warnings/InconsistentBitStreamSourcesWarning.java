@@ -1,16 +1,246 @@
 package main.warnings;
 
+import main.BitStream;
 import main.Node;
+import main.exceptions.InconsistentBitStreamSources;
 
-/**Warning to be show when a BitStream has inconsistent sources.
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**Warning to be shown when a BitStream has inconsistent sources, i.e. when a node drives a stream with a value
+ * different from the one set by the current source of the stream (eg: two TriStates enabled on the same bus).
+ * The conflicts are aggregated per pair of names of the drivers (regardless of which of them drove the stream
+ * first), and can be read with getConflicts. Only the names are kept, so the aggregated conflicts do not keep
+ * discarded circuits in memory, and the same conflict in another circuit built the same way (eg: another CPU)
+ * is counted with the first one. What happens on a conflict depends on the mode:
+ * PRINT - every conflict is printed
+ * THROTTLED - the first conflict of every pair is printed, as long as at most the print limit of conflicts were
+ *             printed in the current summary interval; the other ones are only counted and summarized at most
+ *             once per summary interval
+ * STRICT - InconsistentBitStreamSources is thrown (after counting the conflict)
+ * SILENT - the conflicts are only counted
  */
 public class InconsistentBitStreamSourcesWarning {
 
+    public enum Mode {
+        PRINT,
+        THROTTLED,
+        STRICT,
+        SILENT
+    }
+
+    public static final long DEFAULT_SUMMARY_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_PRINT_LIMIT = 10;
+    public static final int SUMMARY_SIZE = 3;
+
+    private static final Map<Conflict, Conflict> conflicts = new HashMap<>();
+    private static final Conflict probe = new Conflict(null, null);
+
+    private static Mode mode = Mode.THROTTLED;
+    private static PrintStream out = System.err;
+    private static long summaryIntervalNanos = DEFAULT_SUMMARY_INTERVAL_MILLIS * 1_000_000;
+    private static int printLimit = DEFAULT_PRINT_LIMIT;
+    private static long lastSummary = System.nanoTime();
+    private static long totalCount;
+    private static long pendingCount;
+    private static int printedCount;
+
+    /**Getters and setters for the reporting of the conflicts.
+     */
+    public static synchronized Mode getMode() {
+        return mode;
+    }
+
+    public static synchronized void setMode(Mode mode) {
+        InconsistentBitStreamSourcesWarning.mode = mode;
+    }
+
+    public static synchronized void setOutput(PrintStream out) {
+        InconsistentBitStreamSourcesWarning.out = out;
+    }
+
+    public static synchronized void setSummaryInterval(long millis) {
+        summaryIntervalNanos = millis * 1_000_000;
+    }
+
+    public static synchronized void setPrintLimit(int limit) {
+        printLimit = limit;
+    }
+
+    /**Getters for the metrics of the conflicts.
+     */
+    public static synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public static synchronized int getPairCount() {
+        return conflicts.size();
+    }
+
+    /**Get the conflicts between two drivers.
+     *
+     * @param source1 - the name of one of the drivers
+     * @param source2 - the name of the other driver
+     * @return - the number of conflicts between the drivers with the given names (in any order)
+     */
+    public static synchronized long getCount(String source1, String source2) {
+        probe.set(source1, source2);
+        Conflict conflict = conflicts.get(probe);
+        return conflict == null ? 0 : conflict.count;
+    }
+
+    /**Get all conflicts, the most frequent first.
+     *
+     * @return - copies of the aggregated conflicts
+     */
+    public static synchronized List<Conflict> getConflicts() {
+        List<Conflict> list = new ArrayList<>();
+        for (Conflict conflict : conflicts.values()) {
+            Conflict copy = new Conflict(conflict.source1, conflict.source2);
+            copy.count = conflict.count;
+            list.add(copy);
+        }
+        list.sort(Comparator.comparingLong(Conflict::getCount).reversed());
+        return Collections.unmodifiableList(list);
+    }
+
+    /**Forget all conflicts, after printing the summary of the ones that were not printed yet.
+     */
+    public static synchronized void reset() {
+        printSummary();
+        conflicts.clear();
+        totalCount = 0;
+    }
+
+    /**Report a conflict on a stream.
+     *
+     * @param stream - the stream with inconsistent sources
+     * @param oldSource - the current source of the stream
+     * @param newSource - the node driving the stream with a different value
+     */
+    public static synchronized void show(BitStream stream, Node oldSource, Node newSource) {
+        totalCount++;
+        probe.set(getName(oldSource), getName(newSource));
+        Conflict conflict = conflicts.get(probe);
+        if (conflict == null) {
+            conflict = new Conflict(probe.source1, probe.source2);
+            conflicts.put(conflict, conflict);
+        }
+        conflict.count++;
+
+        if (mode == Mode.STRICT) {
+            throw new InconsistentBitStreamSources(stream, oldSource, newSource);
+        }
+        else if (mode == Mode.PRINT
+                || (mode == Mode.THROTTLED && conflict.count == 1 && printedCount < printLimit)) {
+            out.println("Warning! Possible inconsistency between:\n" + oldSource + " and\n" + newSource);
+            printedCount++;
+        }
+        else if (mode == Mode.THROTTLED) {
+            pendingCount++;
+        }
+
+        if (mode == Mode.THROTTLED && System.nanoTime() - lastSummary >= summaryIntervalNanos) {
+            printSummary();
+        }
+    }
+
     public static void show(Node oldSource, Node newSource) {
-        System.err.println("Warning! Possible inconsistency between:\n" + oldSource + " and\n" + newSource);
+        show(null, oldSource, newSource);
+    }
+
+    public static synchronized void show(String message) {
+        if (mode != Mode.SILENT) {
+            out.println(message);
+        }
+    }
+
+    /**Print the summary of the conflicts that were counted without being printed, if there are any, and start
+     * a new summary interval.
+     */
+    public static synchronized void printSummary() {
+        lastSummary = System.nanoTime();
+        printedCount = 0;
+        if (pendingCount == 0) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder("Warning! " + pendingCount + " more inconsistencies between sources ("
+                + totalCount + " in total, " + conflicts.size() + " pairs of sources), the most frequent:");
+        List<Conflict> list = getConflicts();
+        for (int i = 0; i < Math.min(SUMMARY_SIZE, list.size()); i++) {
+            summary.append("\n\t").append(list.get(i));
+        }
+        out.println(summary);
+        pendingCount = 0;
     }
 
-    public static void show(String message) {
-        System.err.println(message);
+    private static String getName(Node node) {
+        return node == null ? "null" : String.valueOf(node.getName());
+    }
+
+    /**The conflicts between a pair of sources, identified by their names.
+     */
+    public static class Conflict {
+
+        private String source1, source2;
+        private long count;
+
+        Conflict(String source1, String source2) {
+            this.set(source1, source2);
+        }
+
+        private void set(String source1, String source2) {
+            this.source1 = source1;
+            this.source2 = source2;
+        }
+
+        /**Getters for the attributes of the class.
+         */
+        public String getSource1() {
+            return source1;
+        }
+
+        public String getSource2() {
+            return source2;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**Define the equals method to check if two conflicts are between sources with the same names
+         * (in any order).
+         *
+         * @param o - the other object to check if equal to "this"
+         * @return - true if o.equals(this), false otherwise
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Conflict)) {
+                return false;
+            }
+            Conflict other = (Conflict) o;
+            return (this.source1.equals(other.source1) && this.source2.equals(other.source2))
+                    || (this.source1.equals(other.source2) && this.source2.equals(other.source1));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.source1.hashCode() ^ this.source2.hashCode();
+        }
+
+        /**Override the default toString method.
+         *
+         * @return - a String representation of this
+         */
+        @Override
+        public String toString() {
+            return this.count + " x " + this.source1 + " <-> " + this.source2;
+        }
     }
-}
\ No newline at end of file
+}
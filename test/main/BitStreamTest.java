@@ -0,0 +1,89 @@
+package main;
+
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.control.Input;
+import main.control.Output;
+import main.gates.unary.NOT;
+import main.utils.FifoExecutionQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitStreamTest {
+
+    @Test
+    void testSetDataUpdatesBits() {
+        BitStream stream = new BitStream(4);
+        stream.setData(new boolean[]{true, false, false, true});
+
+        assertEquals(0b1001L, stream.getBits());
+        assertTrue(stream.getBit(0));
+        assertFalse(stream.getBit(1));
+        assertTrue(stream.getBit(3));
+    }
+
+    @Test
+    void testSetBitsUpdatesData() {
+        BitStream stream = new BitStream(4);
+        stream.setBits(0b0110L);
+
+        assertArrayEquals(new boolean[]{false, true, true, false}, stream.getData());
+    }
+
+    @Test
+    void testSetBitsIgnoresBitsOutsideOfStream() {
+        BitStream stream = new BitStream(3);
+        stream.setBits(0b11101L);
+
+        assertEquals(0b101L, stream.getBits());
+        assertEquals(0b111L, stream.getMask());
+    }
+
+    @Test
+    void testFullWordStream() {
+        BitStream stream = new BitStream(BitStream.MAX_SIZE);
+        stream.setBits(-1L);
+
+        assertEquals(-1L, stream.getBits());
+        assertTrue(stream.getData()[0]);
+        assertTrue(stream.getData()[BitStream.MAX_SIZE - 1]);
+    }
+
+    @Test
+    void testTooLargeStream() {
+        assertThrows(BitStreamInputSizeMismatch.class, () -> new BitStream(BitStream.MAX_SIZE + 1));
+    }
+
+    @Test
+    void testFreezeAndUnfreeze() {
+        BitStream stream = new BitStream(1);
+        assertFalse(stream.isFrozen());
+
+        stream.freeze();
+        assertTrue(stream.isFrozen());
+
+        stream.addNewEndpoint(new Output(stream));
+        assertFalse(stream.isFrozen());
+    }
+
+    @Test
+    void testFrozenStreamAddsSameNeighbours() {
+        BitStream in = new BitStream(1);
+        BitStream out = new BitStream(1);
+        Input input = new Input(new boolean[]{true}, in);
+        NOT not = new NOT(in, out);
+        Output output = new Output(in);
+
+        List<Node> expected = in.getAllNeighbours(input);
+        in.freeze();
+        FifoExecutionQueue queue = new FifoExecutionQueue();
+        in.addNeighboursToQueue(input, queue);
+
+        assertEquals(expected.size(), queue.size());
+        for (Node node : expected) {
+            assertSame(node, queue.poll());
+        }
+    }
+}
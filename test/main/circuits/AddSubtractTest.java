@@ -5,6 +5,7 @@ import main.Node;
 import main.control.Input;
 import main.control.Output;
 import main.utils.DataConverter;
+import main.utils.MeasuringExecutionQueue;
 import main.utils.ProcessRunner;
 import org.junit.jupiter.api.Test;
 
@@ -144,4 +145,69 @@ class AddSubtractTest {
         }
     }
 
-}
\ No newline at end of file
+    void testArchitecture(AdderArchitecture architecture, int size) {
+        BitStream source = new BitStream(size);
+        BitStream destination = new BitStream(size);
+        BitStream output = new BitStream(size);
+        BitStream control = new BitStream(1);
+        BitStream overflow = new BitStream(1);
+
+        Input sourceInput = new Input(new boolean[size], source);
+        Input destinationInput = new Input(new boolean[size], destination);
+        Input controlInput = new Input(new boolean[]{false}, control);
+
+        AddSubtract addSubtract = new AddSubtract(source, destination, output, control, overflow, architecture);
+        assertEquals(architecture, addSubtract.getArchitecture());
+
+        Random random = new Random(size);
+        long mask = (1L << size) - 1;
+        for (int iteration = 0; iteration < 500; iteration++) {
+            long src = random.nextLong() & mask;
+            long dst = random.nextLong() & mask;
+            boolean subtract = random.nextBoolean();
+            sourceInput.setData(DataConverter.convertBitsToBool(src, size));
+            destinationInput.setData(DataConverter.convertBitsToBool(dst, size));
+            controlInput.setData(new boolean[]{subtract});
+
+            ProcessRunner.run(sourceInput, destinationInput, controlInput);
+
+            long signedSrc = (src << (64 - size)) >> (64 - size);
+            long signedDst = (dst << (64 - size)) >> (64 - size);
+            long expected = subtract ? signedSrc - signedDst : signedSrc + signedDst;
+            boolean expectedOverflow = expected != (expected << (64 - size)) >> (64 - size);
+            assertEquals(expected & mask, output.getBits());
+            assertArrayEquals(new boolean[]{expectedOverflow}, overflow.getData());
+        }
+    }
+
+    @Test
+    void testArchitectures() {
+        for (AdderArchitecture architecture : AdderArchitecture.values()) {
+            for (int size : new int[]{2, 5, 8, Node.WORD_SIZE}) {
+                testArchitecture(architecture, size);
+            }
+        }
+    }
+
+    @Test
+    void testLookaheadSettlesFaster() {
+        int[] depths = new int[AdderArchitecture.values().length];
+        for (AdderArchitecture architecture : AdderArchitecture.values()) {
+            BitStream source = new BitStream(Node.WORD_SIZE);
+            BitStream destination = new BitStream(Node.WORD_SIZE);
+            Input sourceInput = new Input(new boolean[Node.WORD_SIZE], source);
+            new Input(DataConverter.convertBitsToBool(1, Node.WORD_SIZE), destination);
+            new AddSubtract(source, destination, new BitStream(Node.WORD_SIZE), new BitStream(1), new BitStream(1),
+                    architecture);
+
+            MeasuringExecutionQueue queue = new MeasuringExecutionQueue();
+            sourceInput.setData(DataConverter.convertBitsToBool(0xFFFF, Node.WORD_SIZE));
+            ProcessRunner.run(queue, sourceInput);
+            depths[architecture.ordinal()] = queue.getLastDepth();
+        }
+
+        assertTrue(depths[AdderArchitecture.KOGGE_STONE.ordinal()] < depths[AdderArchitecture.RIPPLE_CARRY.ordinal()]);
+        assertTrue(depths[AdderArchitecture.BRENT_KUNG.ordinal()] < depths[AdderArchitecture.RIPPLE_CARRY.ordinal()]);
+        assertTrue(depths[AdderArchitecture.CARRY_SELECT.ordinal()] < depths[AdderArchitecture.RIPPLE_CARRY.ordinal()]);
+    }
+}
@@ -1,10 +1,8 @@
 package main.circuits;
 
 import main.BitStream;
-import main.control.Input;
 import main.memory.RAM;
-import main.utils.DataConverter;
-import main.utils.ProcessRunner;
+import main.utils.ClockDriver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -14,7 +12,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class CPUTest {
 
-    Input clock;
+    ClockDriver clock;
     BitStream bus;
     CPU cpu;
     RAM ram;
@@ -28,7 +26,7 @@ class CPUTest {
         BitStream memRead = new BitStream(1);
         BitStream memWrite = new BitStream(1);
 
-        clock = new Input(new boolean[]{false}, clk);
+        clock = new ClockDriver(clk);
         cpu = new CPU(clk, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress);
         bus = cpu.getBus();
 
@@ -43,16 +41,7 @@ class CPUTest {
                 false, false, false, false, false, true, false, true});
 
         //to get to the microinstruction state
-        for (int i = 0; i < 7; i++) {
-            clock.setData(new boolean[]{true});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{false});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{true});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{false});
-            ProcessRunner.run(clock);
-        }
+        assertEquals(14, clock.runUntilEnd(cpu.getControlUnit(), 100));
         assertArrayEquals(new boolean[]{false, false, false, false, false, false, false, false,
                 false, false, false, false, false, true, false, true},
                 cpu.getRegisterFile().getRegisters().get(2).getDataBitStream().getData());
@@ -71,16 +60,7 @@ class CPUTest {
 
         testMovingIntermediateToRegister();
 
-        for (int i = 0; i < 8; i++) {
-            clock.setData(new boolean[]{true});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{false});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{true});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{false});
-            ProcessRunner.run(clock);
-        }
+        assertEquals(16, clock.runUntilEnd(cpu.getControlUnit(), 100));
         assertArrayEquals(new boolean[]{false, false, false, false, false, false, false, false,
                         false, false, false, false, false, true, false, true},
                 cpu.getRegisterFile().getRegisters().get(2).getDataBitStream().getData());
@@ -99,16 +79,7 @@ class CPUTest {
 
         testMovingBetweenRegisters();
 
-        for (int i = 0; i < 10; i++) {
-            clock.setData(new boolean[]{true});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{false});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{true});
-            ProcessRunner.run(clock);
-            clock.setData(new boolean[]{false});
-            ProcessRunner.run(clock);
-        }
+        assertEquals(20, clock.runUntilEnd(cpu.getControlUnit(), 100));
 
         assertArrayEquals(new boolean[]{false, false, false, false, false, false, false, false,
                         false, false, false, false, false, true, false, true},
@@ -121,4 +92,16 @@ class CPUTest {
                 cpu.getControlUnit().getMicroprocessor().getIR1().getDataBitStream().getData());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testBehavioralModelsGiveSameState() {
+        TestMachine gateLevel = new TestMachine(SimulationModel.GATE_LEVEL);
+        TestMachine behavioral = new TestMachine(SimulationModel.BEHAVIORAL);
+        gateLevel.loadProgram();
+        behavioral.loadProgram();
+
+        assertEquals(gateLevel.run(25), behavioral.run(25));
+        assertArrayEquals(new boolean[]{false, false, false, false, false, false, false, false,
+                        false, false, false, false, true, false, true, false},
+                behavioral.cpu.getRegisterFile().getRegisters().get(1).getDataBitStream().getData());
+    }
+}
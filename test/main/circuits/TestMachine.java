@@ -0,0 +1,53 @@
+package main.circuits;
+
+import main.BitStream;
+import main.memory.RAM;
+import main.utils.ClockDriver;
+import main.utils.DataConverter;
+
+/**A CPU connected with a RAM and driven by a ClockDriver, shared by the tests that run whole programs.
+ */
+public class TestMachine {
+
+    public final BitStream clk;
+    public final ClockDriver clock;
+    public final CPU cpu;
+    public final RAM ram;
+
+    public TestMachine(SimulationModel model) {
+        clk = new BitStream(1);
+        BitStream memoryDataOut = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memoryDataIn = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memoryAddress = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memRead = new BitStream(1);
+        BitStream memWrite = new BitStream(1);
+
+        clock = new ClockDriver(clk);
+        cpu = new CPU(clk, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress, model);
+        ram = new RAM(memoryAddress, memoryDataIn, memoryDataOut, memWrite, memRead);
+    }
+
+    public TestMachine() {
+        this(SimulationModel.GATE_LEVEL);
+    }
+
+    /**Load the program shared by the tests into the RAM. After 25 microinstructions, the second register
+     * of the register file holds 10.
+     */
+    public void loadProgram() {
+        ram.putData(0, DataConverter.convertBinToBool("0001000000000001"));
+        ram.putData(1, DataConverter.convertBinToBool("0000000000000101"));
+        ram.putData(2, DataConverter.convertBinToBool("0000101000000000"));
+        ram.putData(4, DataConverter.convertBinToBool("0000101000000010"));
+    }
+
+    /**Run the CPU for a number of microinstructions.
+     *
+     * @param microinstructions - the number of microinstructions to run
+     * @return - the status of the CPU after running
+     */
+    public String run(int microinstructions) {
+        clock.run(microinstructions * ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+        return cpu.requestStatus();
+    }
+}
@@ -0,0 +1,72 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.circuits.ALU;
+import main.circuits.SimulationModel;
+import main.control.Input;
+import main.utils.DataConverter;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehavioralALUTest {
+
+    @Test
+    void testMatchesGateLevel() {
+        BitStream source = new BitStream(4);
+        BitStream destination = new BitStream(4);
+        BitStream opCode = new BitStream(5);
+        BitStream gateOutput = new BitStream(4);
+        BitStream gateOverflow = new BitStream(1);
+        BitStream behavioralOutput = new BitStream(4);
+        BitStream behavioralOverflow = new BitStream(1);
+
+        Input sourceInput = new Input(new boolean[4], source);
+        Input destinationInput = new Input(new boolean[4], destination);
+        Input opCodeInput = new Input(new boolean[5], opCode);
+
+        new ALU(source, destination, gateOutput, opCode, new BitStream(1), gateOverflow);
+        new ALU(source, destination, behavioralOutput, opCode, new BitStream(1), behavioralOverflow,
+                SimulationModel.BEHAVIORAL);
+
+        for (int operation = BehavioralALU.ADD; operation <= BehavioralALU.NOR; operation++) {
+            opCodeInput.setData(DataConverter.convertBitsToBool(operation, 5));
+            for (int src = 0; src < 16; src++) {
+                for (int dst = 0; dst < 16; dst++) {
+                    sourceInput.setData(DataConverter.convertBitsToBool(src, 4));
+                    destinationInput.setData(DataConverter.convertBitsToBool(dst, 4));
+                    ProcessRunner.run(sourceInput, destinationInput, opCodeInput);
+
+                    String message = "op " + operation + ", src " + src + ", dst " + dst;
+                    assertEquals(gateOutput.getBits(), behavioralOutput.getBits(), message);
+                    assertEquals(gateOverflow.getBits(), behavioralOverflow.getBits(), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testOutputNotDrivenForOtherOperations() {
+        BitStream source = new BitStream(4);
+        BitStream destination = new BitStream(4);
+        BitStream opCode = new BitStream(5);
+        BitStream output = new BitStream(4);
+        BitStream overflow = new BitStream(1);
+
+        Input sourceInput = new Input(DataConverter.convertBitsToBool(3, 4), source);
+        Input destinationInput = new Input(DataConverter.convertBitsToBool(4, 4), destination);
+        Input opCodeInput = new Input(DataConverter.convertBitsToBool(BehavioralALU.ADD, 5), opCode);
+        BehavioralALU alu = new BehavioralALU(source, destination, output, opCode, overflow);
+        ProcessRunner.run(sourceInput, destinationInput, opCodeInput);
+
+        assertEquals(7, output.getBits());
+        assertSame(alu, output.getSource());
+
+        opCodeInput.setData(DataConverter.convertBitsToBool(9, 5));
+        ProcessRunner.run(opCodeInput);
+
+        assertEquals(7, output.getBits());
+        assertNull(output.getSource());
+    }
+}
@@ -0,0 +1,65 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.circuits.RegisterFile;
+import main.circuits.SimulationModel;
+import main.control.Input;
+import main.utils.DataConverter;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehavioralRegisterFileTest {
+
+    @Test
+    void testMatchesGateLevel() {
+        BitStream input = new BitStream(8);
+        BitStream RFIn = new BitStream(1);
+        BitStream RFOut = new BitStream(1);
+        BitStream addressWrite = new BitStream(3);
+        BitStream addressRead = new BitStream(3);
+        BitStream gateOutput = new BitStream(8);
+        BitStream behavioralOutput = new BitStream(8);
+
+        Input mainInput = new Input(new boolean[8], input);
+        Input RFInInput = new Input(new boolean[1], RFIn);
+        Input RFOutInput = new Input(new boolean[1], RFOut);
+        Input addressWriteInput = new Input(new boolean[3], addressWrite);
+        Input addressReadInput = new Input(new boolean[3], addressRead);
+
+        RegisterFile gateRegisterFile = new RegisterFile(input, gateOutput, RFIn, RFOut,
+                addressWrite, addressRead);
+        RegisterFile behavioralRegisterFile = new RegisterFile(input, behavioralOutput, RFIn, RFOut,
+                addressWrite, addressRead, SimulationModel.BEHAVIORAL);
+
+        assertEquals(8, behavioralRegisterFile.getRegisters().size());
+
+        Random random = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            mainInput.setData(DataConverter.convertBitsToBool(random.nextInt(256), 8));
+            addressWriteInput.setData(DataConverter.convertBitsToBool(random.nextInt(8), 3));
+            addressReadInput.setData(DataConverter.convertBitsToBool(random.nextInt(8), 3));
+            ProcessRunner.run(mainInput, addressWriteInput, addressReadInput);
+
+            RFInInput.setData(new boolean[]{true});
+            ProcessRunner.run(RFInInput);
+            RFInInput.setData(new boolean[]{false});
+            ProcessRunner.run(RFInInput);
+
+            RFOutInput.setData(new boolean[]{true});
+            ProcessRunner.run(RFOutInput);
+            assertEquals(gateOutput.getBits(), behavioralOutput.getBits());
+            RFOutInput.setData(new boolean[]{false});
+            ProcessRunner.run(RFOutInput);
+
+            for (int j = 0; j < 8; j++) {
+                assertEquals(gateRegisterFile.getRegisters().get(j).getDataBitStream().getBits(),
+                        behavioralRegisterFile.getRegisters().get(j).getDataBitStream().getBits());
+            }
+        }
+        assertEquals(gateRegisterFile.requestStatus(), behavioralRegisterFile.requestStatus());
+    }
+}
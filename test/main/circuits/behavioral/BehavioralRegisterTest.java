@@ -0,0 +1,89 @@
+package main.circuits.behavioral;
+
+import main.BitStream;
+import main.circuits.Register;
+import main.circuits.SimulationModel;
+import main.control.Input;
+import main.utils.DataConverter;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehavioralRegisterTest {
+
+    @Test
+    void testStoresOnFallingEdge() {
+        BitStream input = new BitStream(4);
+        BitStream output = new BitStream(4);
+        BitStream enable = new BitStream(1);
+        enable.setData(new boolean[]{true});
+        BitStream regIn = new BitStream(1);
+        BitStream regOut = new BitStream(1);
+
+        Input mainInput = new Input(new boolean[]{true, true, false, true}, input);
+        Input regInInput = new Input(new boolean[]{true}, regIn);
+        Input regOutInput = new Input(new boolean[]{true}, regOut);
+
+        Register register = new Register(input, output, regIn, regOut, enable, SimulationModel.BEHAVIORAL);
+        ProcessRunner.run(mainInput, regInInput, regOutInput);
+        assertEquals(0, register.getDataBitStream().getBits());
+
+        regInInput.setData(new boolean[]{false});
+        ProcessRunner.run(regInInput);
+        assertArrayEquals(new boolean[]{true, true, false, true}, output.getData());
+
+        mainInput.setData(new boolean[]{false, true, false, false});
+        ProcessRunner.run(mainInput);
+        assertArrayEquals(new boolean[]{true, true, false, true}, output.getData());
+    }
+
+    @Test
+    void testMatchesGateLevel() {
+        BitStream input = new BitStream(8);
+        BitStream enable = new BitStream(1);
+        BitStream regIn = new BitStream(1);
+        BitStream regOut = new BitStream(1);
+        BitStream gateOutput = new BitStream(8);
+        BitStream behavioralOutput = new BitStream(8);
+
+        Input mainInput = new Input(new boolean[8], input);
+        Input enableInput = new Input(new boolean[1], enable);
+        Input regInInput = new Input(new boolean[1], regIn);
+        Input regOutInput = new Input(new boolean[1], regOut);
+
+        Register gateRegister = new Register(input, gateOutput, regIn, regOut, enable);
+        Register behavioralRegister = new Register(input, behavioralOutput, regIn, regOut, enable,
+                SimulationModel.BEHAVIORAL);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            Input changed;
+            switch (random.nextInt(4)) {
+                case 0:
+                    changed = mainInput;
+                    mainInput.setData(DataConverter.convertBitsToBool(random.nextInt(256), 8));
+                    break;
+                case 1:
+                    changed = enableInput;
+                    enableInput.setData(new boolean[]{random.nextBoolean()});
+                    break;
+                case 2:
+                    changed = regInInput;
+                    regInInput.setData(new boolean[]{random.nextBoolean()});
+                    break;
+                default:
+                    changed = regOutInput;
+                    regOutInput.setData(new boolean[]{random.nextBoolean()});
+            }
+            ProcessRunner.run(changed);
+
+            assertEquals(gateRegister.getDataBitStream().getBits(), behavioralRegister.getDataBitStream().getBits());
+            if (regOut.getBit(0)) {
+                assertEquals(gateOutput.getBits(), behavioralOutput.getBits());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package main.compiler;
+
+import main.BitStream;
+import main.circuits.ControlUnit;
+import main.circuits.Microprocessor;
+import main.circuits.SimulationModel;
+import main.circuits.TestMachine;
+import main.control.Input;
+import main.exceptions.NetlistCompilationException;
+import main.gates.binary.AND;
+import main.gates.binary.XOR;
+import main.utils.DataConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSimulatorTest {
+
+    private static long[] randomProgram(Random random) {
+        long[] program = new long[40];
+        for (int i = 0; i < program.length; i += 2) {
+            program[i] = random.nextInt(1 << 16) & 0x3F00 | random.nextInt(3);
+            program[i + 1] = random.nextInt(1 << 16);
+        }
+        return program;
+    }
+
+    @Test
+    void testGates() {
+        BitStream a = new BitStream(4);
+        BitStream b = new BitStream(4);
+        BitStream and = new BitStream(4);
+        BitStream xor = new BitStream(4);
+        new Input(DataConverter.convertBinToBool("0000"), a);
+        new Input(DataConverter.convertBinToBool("0000"), b);
+        new AND(a, b, and);
+        new XOR(a, b, xor);
+
+        BatchSimulator batch = new BatchSimulator(a, b);
+        for (int lane = 0; lane < BatchSimulator.LANES; lane++) {
+            batch.setBits(a, lane, lane & 0xF);
+            batch.setBits(b, lane, (lane >> 2) & 0xF);
+        }
+        batch.run();
+
+        for (int lane = 0; lane < BatchSimulator.LANES; lane++) {
+            assertEquals(lane & (lane >> 2) & 0xF, batch.getBits(and, lane));
+            assertEquals((lane ^ (lane >> 2)) & 0xF, batch.getBits(xor, lane));
+        }
+        assertEquals(0, and.getBits());
+    }
+
+    @Test
+    void testLanesMatchSeparateCPUs() {
+        Random random = new Random(7);
+        int microinstructions = 60;
+        TestMachine batchMachine = new TestMachine(SimulationModel.GATE_LEVEL);
+        BatchSimulator batch = new BatchSimulator(batchMachine.clk);
+
+        long[][] programs = new long[BatchSimulator.LANES][];
+        for (int lane = 0; lane < BatchSimulator.LANES; lane++) {
+            programs[lane] = randomProgram(random);
+            for (int i = 0; i < programs[lane].length; i++) {
+                batch.getMemory(batchMachine.ram, lane).write(i, programs[lane][i]);
+            }
+        }
+        batch.runCycles(batchMachine.clk, (long) microinstructions * ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+
+        for (int lane = 0; lane < BatchSimulator.LANES; lane += 9) {
+            TestMachine machine = new TestMachine(SimulationModel.GATE_LEVEL);
+            for (int i = 0; i < programs[lane].length; i++) {
+                machine.ram.putData(i, DataConverter.convertBitsToBool(programs[lane][i], Microprocessor.WORD_SIZE));
+            }
+            machine.clock.run((long) microinstructions * ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+
+            for (int register = 0; register < 8; register++) {
+                BitStream data = machine.cpu.getRegisterFile().getRegisters().get(register).getDataBitStream();
+                BitStream batchData = batchMachine.cpu.getRegisterFile().getRegisters().get(register)
+                        .getDataBitStream();
+                assertEquals(data.getBits(), batch.getBits(batchData, lane));
+            }
+        }
+    }
+
+    @Test
+    void testBehavioralModelsAreRejected() {
+        TestMachine machine = new TestMachine(SimulationModel.BEHAVIORAL);
+        assertThrows(NetlistCompilationException.class, () -> new BatchSimulator(machine.clk));
+    }
+
+    @Test
+    void testUnknownStream() {
+        TestMachine machine = new TestMachine(SimulationModel.GATE_LEVEL);
+        BatchSimulator batch = new BatchSimulator(machine.clk);
+        assertThrows(IllegalArgumentException.class, () -> batch.getBits(new BitStream(1), 0));
+    }
+}
@@ -0,0 +1,119 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.circuits.TestMachine;
+import main.control.Input;
+import main.control.Output;
+import main.gates.binary.AND;
+import main.gates.binary.NAND;
+import main.gates.binary.XOR;
+import main.gates.unary.NOT;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantPropagatorTest {
+
+    @Test
+    void testFoldConstantGates() {
+        BitStream a = new BitStream(1);
+        BitStream zero = new BitStream(1);
+        BitStream one = new BitStream(1);
+        one.setData(new boolean[]{true});
+        BitStream masked = new BitStream(1);
+        BitStream passed = new BitStream(1);
+        BitStream notOne = new BitStream(1);
+        BitStream out = new BitStream(1);
+        Input input = new Input(new boolean[]{true}, a);
+        new AND(a, zero, masked);
+        new AND(a, one, passed);
+        new NOT(one, notOne);
+        XOR xor = new XOR(passed, masked, out);
+
+        OptimizationReport report = ConstantPropagator.optimize(a, out);
+        assertEquals(5, report.getNodeCount());
+        assertEquals(7, report.getStreamCount());
+        assertEquals(3, report.getRemovedNodes());
+        assertEquals(4, report.getRemovedStreams());
+        assertSame(a, xor.getIn1());
+        assertSame(masked, xor.getIn2());
+        assertNull(masked.getSource());
+        assertArrayEquals(new boolean[]{false}, masked.getData());
+
+        input.setData(new boolean[]{false});
+        ProcessRunner.run(input);
+        assertArrayEquals(new boolean[]{false}, out.getData());
+        input.setData(new boolean[]{true});
+        ProcessRunner.run(input);
+        assertArrayEquals(new boolean[]{true}, out.getData());
+    }
+
+    @Test
+    void testRemoveDeadLogic() {
+        BitStream a = new BitStream(1);
+        BitStream notA = new BitStream(1);
+        BitStream notNotA = new BitStream(1);
+        BitStream q1 = new BitStream(1);
+        BitStream q2 = new BitStream(1);
+        BitStream probed = new BitStream(1);
+        BitStream shown = new BitStream(1);
+        new Input(new boolean[]{true}, a);
+        new NOT(a, notA);
+        new NOT(notA, notNotA);
+        new NAND(a, q2, q1);
+        new NAND(a, q1, q2);
+        NOT probe = new NOT(a, probed, "probe");
+        NOT kept = new NOT(a, shown);
+        new Output(shown);
+
+        OptimizationReport report = ConstantPropagator.optimize(List.of("probe"), a);
+        assertEquals(8, report.getNodeCount());
+        assertEquals(4, report.getRemovedNodes());
+        assertEquals(4, report.getRemovedStreams());
+        assertTrue(notA.getEndpoints().isEmpty());
+        assertTrue(q1.getEndpoints().isEmpty());
+        assertEquals(List.of(probe), probed.getEndpoints());
+        assertTrue(a.getEndpoints().contains(kept));
+    }
+
+    @Test
+    void testKeepRoots() {
+        BitStream one = new BitStream(1);
+        one.setData(new boolean[]{true});
+        BitStream notOne = new BitStream(1);
+        new NOT(one, notOne);
+
+        OptimizationReport report = ConstantPropagator.optimize(one, notOne);
+        assertEquals(0, report.getRemovedNodes());
+        assertEquals("Constant propagation: removed 0 of 1 nodes and 0 of 2 streams", report.toString());
+    }
+
+    @Test
+    void testOptimizeCPU() {
+        TestMachine original = new TestMachine();
+        TestMachine optimized = new TestMachine();
+        original.loadProgram();
+        optimized.loadProgram();
+        List<BitStream> observed = optimized.cpu.getObservedStreams();
+        List<Node> sources = new ArrayList<>();
+        for (BitStream stream : observed) {
+            assertTrue(stream.isObserved());
+            sources.add(stream.getSource());
+        }
+        OptimizationReport report = ConstantPropagator.optimize(optimized.clk);
+        assertTrue(report.getRemovedNodes() > 0);
+        assertTrue(report.getRemovedStreams() > 0);
+        for (int i = 0; i < observed.size(); i++) {
+            assertSame(sources.get(i), observed.get(i).getSource());
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(original.run(5), optimized.run(5));
+        }
+    }
+}
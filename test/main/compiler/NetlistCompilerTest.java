@@ -0,0 +1,132 @@
+package main.compiler;
+
+import main.BitStream;
+import main.Node;
+import main.circuits.AddSubtract;
+import main.circuits.LogicUnit;
+import main.circuits.Multiplexer;
+import main.circuits.memory.DFlipFlop;
+import main.control.Input;
+import main.exceptions.NetlistCompilationException;
+import main.utils.DataConverter;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetlistCompilerTest {
+
+    @Test
+    void testAddSubtract() {
+        BitStream source = new BitStream(Node.WORD_SIZE);
+        BitStream destination = new BitStream(Node.WORD_SIZE);
+        BitStream control = new BitStream(1);
+        BitStream output = new BitStream(Node.WORD_SIZE);
+        BitStream overflow = new BitStream(1);
+        Input sourceInput = new Input(new boolean[Node.WORD_SIZE], source);
+        Input destinationInput = new Input(new boolean[Node.WORD_SIZE], destination);
+        Input controlInput = new Input(new boolean[1], control);
+        new AddSubtract(source, destination, output, control, overflow);
+
+        CompiledNetlist netlist = NetlistCompiler.compile(List.of(source, destination, control),
+                List.of(output, overflow), "ADD/SUB");
+        netlist.install();
+
+        assertTrue(netlist.isInstalled());
+        assertTrue(netlist.getDepth() > 1);
+        assertEquals(netlist.getNodes().size(), netlist.getInstructionCount());
+        assertTrue(source.getEndpoints().contains(netlist));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            int src = random.nextInt(1 << Node.WORD_SIZE);
+            int dst = random.nextInt(1 << Node.WORD_SIZE);
+            boolean subtract = random.nextBoolean();
+
+            sourceInput.setData(DataConverter.convertBitsToBool(src, Node.WORD_SIZE));
+            destinationInput.setData(DataConverter.convertBitsToBool(dst, Node.WORD_SIZE));
+            controlInput.setData(new boolean[]{subtract});
+            ProcessRunner.run(sourceInput, destinationInput, controlInput);
+
+            int expected = subtract ? src - dst : src + dst;
+            assertEquals(expected & 0xFFFF, output.getBits());
+        }
+    }
+
+    @Test
+    void testLogicUnitMatchesEventDriven() {
+        BitStream source = new BitStream(4);
+        BitStream destination = new BitStream(4);
+        BitStream eventOutput = new BitStream(4);
+        BitStream compiledOutput = new BitStream(4);
+        List<BitStream> controls = new ArrayList<>();
+        List<Input> controlInputs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            BitStream controlStream = new BitStream(1);
+            controls.add(controlStream);
+            controlInputs.add(new Input(new boolean[1], controlStream));
+        }
+        Input sourceInput = new Input(DataConverter.convertBitsToBool(0b1010, 4), source);
+        Input destinationInput = new Input(DataConverter.convertBitsToBool(0b0110, 4), destination);
+        new LogicUnit(source, destination, eventOutput, controls, "event", false, 0);
+        new LogicUnit(source, destination, compiledOutput, controls, "compiled", false, 0);
+
+        List<BitStream> inputs = new ArrayList<>(controls);
+        inputs.add(source);
+        inputs.add(destination);
+        NetlistCompiler.compile(inputs, List.of(compiledOutput)).install();
+
+        for (int i = 0; i < controlInputs.size(); i++) {
+            controlInputs.get(i).setData(new boolean[]{true});
+            ProcessRunner.run(controlInputs.get(i));
+            assertEquals(eventOutput.getBits(), compiledOutput.getBits());
+
+            controlInputs.get(i).setData(new boolean[]{false});
+            ProcessRunner.run(controlInputs.get(i));
+        }
+    }
+
+    @Test
+    void testMultiplexerMatchesEventDriven() {
+        List<BitStream> inputs = new ArrayList<>();
+        List<Input> inputNodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            BitStream input = new BitStream(8);
+            inputs.add(input);
+            inputNodes.add(new Input(DataConverter.convertBitsToBool(i * 37 + 5, 8), input));
+        }
+        BitStream select = new BitStream(2);
+        Input selectInput = new Input(new boolean[2], select);
+        BitStream eventOutput = new BitStream(8);
+        BitStream compiledOutput = new BitStream(8);
+        new Multiplexer(inputs, select, eventOutput, "event");
+        new Multiplexer(inputs, select, compiledOutput, "compiled");
+
+        List<BitStream> compiledInputs = new ArrayList<>(inputs);
+        compiledInputs.add(select);
+        NetlistCompiler.compile(compiledInputs, List.of(compiledOutput)).install();
+
+        for (int i = 0; i < 4; i++) {
+            selectInput.setData(DataConverter.convertBitsToBool(i, 2));
+            ProcessRunner.run(selectInput);
+            assertEquals(i * 37 + 5, compiledOutput.getBits());
+            assertEquals(eventOutput.getBits(), compiledOutput.getBits());
+        }
+    }
+
+    @Test
+    void testFeedbackLoopIsRejected() {
+        BitStream D = new BitStream(1);
+        BitStream clock = new BitStream(1);
+        BitStream enable = new BitStream(1);
+        BitStream Q = new BitStream(1);
+        new DFlipFlop(D, clock, enable, new BitStream(1), new BitStream(1), Q, new BitStream(1), true);
+
+        assertThrows(NetlistCompilationException.class,
+                () -> NetlistCompiler.compile(List.of(D, clock, enable), List.of(Q)));
+    }
+}
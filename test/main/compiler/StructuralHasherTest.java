@@ -0,0 +1,105 @@
+package main.compiler;
+
+import main.BitStream;
+import main.circuits.TestMachine;
+import main.control.Input;
+import main.control.Splitter;
+import main.gates.binary.AND;
+import main.gates.binary.OR;
+import main.gates.unary.NOT;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuralHasherTest {
+
+    @Test
+    void testMergeIdenticalGates() {
+        BitStream a = new BitStream(1);
+        BitStream b = new BitStream(1);
+        BitStream notA1 = new BitStream(1);
+        BitStream notA2 = new BitStream(1);
+        BitStream and1 = new BitStream(1);
+        BitStream and2 = new BitStream(1);
+        BitStream out = new BitStream(1);
+        Input inputA = new Input(new boolean[]{false}, a);
+        Input inputB = new Input(new boolean[]{true}, b);
+        new NOT(a, notA1);
+        new NOT(a, notA2);
+        new AND(notA1, b, and1);
+        new AND(b, notA2, and2);
+        OR or = new OR(and1, and2, out);
+
+        OptimizationReport report = StructuralHasher.optimize(a, b, out);
+        assertEquals(7, report.getNodeCount());
+        assertEquals(2, report.getRemovedNodes());
+        assertEquals(2, report.getRemovedStreams());
+        assertSame(or.getIn1(), or.getIn2());
+        assertTrue(and1.getEndpoints().isEmpty() != and2.getEndpoints().isEmpty());
+        assertTrue(notA1.getEndpoints().isEmpty() != notA2.getEndpoints().isEmpty());
+
+        inputA.setData(new boolean[]{true});
+        ProcessRunner.run(inputA);
+        assertArrayEquals(new boolean[]{false}, out.getData());
+        inputA.setData(new boolean[]{false});
+        inputB.setData(new boolean[]{true});
+        ProcessRunner.run(inputA, inputB);
+        assertArrayEquals(new boolean[]{true}, out.getData());
+    }
+
+    @Test
+    void testMergeSplitters() {
+        BitStream in = new BitStream(2);
+        BitStream high1 = new BitStream(1);
+        BitStream low1 = new BitStream(1);
+        BitStream high2 = new BitStream(1);
+        BitStream low2 = new BitStream(1);
+        BitStream out1 = new BitStream(1);
+        BitStream out2 = new BitStream(1);
+        Input input = new Input(new boolean[]{false, true}, in);
+        new Splitter(List.of(in), List.of(high1, low1));
+        new Splitter(List.of(in), List.of(high2, low2));
+        new AND(high1, low1, out1);
+        new AND(high2, low2, out2);
+
+        OptimizationReport report = StructuralHasher.optimize(in, out1, out2);
+        assertEquals(1, report.getRemovedNodes());
+        assertEquals(2, report.getRemovedStreams());
+
+        input.setData(new boolean[]{true, true});
+        ProcessRunner.run(input);
+        assertArrayEquals(new boolean[]{true}, out1.getData());
+        assertArrayEquals(new boolean[]{true}, out2.getData());
+    }
+
+    @Test
+    void testKeepRoots() {
+        BitStream a = new BitStream(1);
+        BitStream notA1 = new BitStream(1);
+        BitStream notA2 = new BitStream(1);
+        new NOT(a, notA1);
+        new NOT(a, notA2);
+
+        OptimizationReport report = StructuralHasher.optimize(a, notA1, notA2);
+        assertEquals(0, report.getRemovedNodes());
+        assertEquals("Structural hashing: removed 0 of 2 nodes and 0 of 3 streams", report.toString());
+    }
+
+    @Test
+    void testOptimizeCPU() {
+        TestMachine original = new TestMachine();
+        TestMachine optimized = new TestMachine();
+        original.loadProgram();
+        optimized.loadProgram();
+        OptimizationReport report = StructuralHasher.optimize(optimized.clk);
+        assertTrue(report.getRemovedNodes() > 0);
+        assertTrue(report.getRemovedStreams() > 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(original.run(5), optimized.run(5));
+        }
+    }
+}
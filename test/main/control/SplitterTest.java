@@ -5,6 +5,8 @@ import main.Node;
 import main.exceptions.IllegalSplitException;
 import main.exceptions.InconsistentBitStreamSources;
 import main.gates.binary.OR;
+import main.gates.unary.NOT;
+import main.utils.MeasuringExecutionQueue;
 import main.utils.ProcessRunner;
 import org.junit.jupiter.api.Test;
 
@@ -383,4 +385,45 @@ class SplitterTest {
 //            Splitter splitter = new Splitter(in, out);
 //        });
 //    }
-}
\ No newline at end of file
+
+    @Test
+    void testOnlyChangedSlicesWakeNeighbours() {
+        BitStream in1 = new BitStream(4);
+        List<BitStream> out = new ArrayList<>();
+        List<NOT> nots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            BitStream outStream = new BitStream(1);
+            out.add(outStream);
+            nots.add(new NOT(outStream, new BitStream(1)));
+        }
+        Splitter splitter = new Splitter(List.of(in1), out);
+
+        MeasuringExecutionQueue queue = new MeasuringExecutionQueue();
+        in1.setData(new boolean[]{false, false, true, false});
+        ProcessRunner.run(queue, splitter);
+
+        assertEquals(2, queue.getEvaluationCount());
+        assertArrayEquals(new boolean[]{false}, nots.get(2).getOut().getData());
+        assertArrayEquals(new boolean[]{true}, nots.get(3).getOut().getData());
+
+        queue.reset();
+        ProcessRunner.run(queue, splitter);
+        assertEquals(1, queue.getEvaluationCount());
+    }
+
+    @Test
+    void testReplicationAndConcatenation() {
+        BitStream in1 = new BitStream(1);
+        BitStream in2 = new BitStream(2);
+        BitStream out1 = new BitStream(2);
+        BitStream out2 = new BitStream(4);
+
+        Splitter splitter = new Splitter(List.of(in1, in2), List.of(out1, out2));
+        in1.setData(new boolean[]{true});
+        in2.setData(new boolean[]{false, true});
+        ProcessRunner.run(splitter);
+
+        assertArrayEquals(new boolean[]{true, true}, out1.getData());
+        assertArrayEquals(new boolean[]{false, false, true, true}, out2.getData());
+    }
+}
@@ -0,0 +1,58 @@
+package main.emulator;
+
+import main.circuits.SimulationModel;
+import main.exceptions.EmulatorDivergenceException;
+import main.utils.DataConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockStepEmulatorTest {
+
+    void putProgram(LockStepEmulator lockStep) {
+        lockStep.putData(0, DataConverter.convertBinToBool("0001000000000001"));
+        lockStep.putData(1, DataConverter.convertBinToBool("0000000000000101"));
+        lockStep.putData(2, DataConverter.convertBinToBool("0000101000000000"));
+        lockStep.putData(4, DataConverter.convertBinToBool("0000101000000010"));
+    }
+
+    @Test
+    void testEveryCycle() {
+        LockStepEmulator lockStep = new LockStepEmulator(1);
+        putProgram(lockStep);
+
+        lockStep.run(40);
+
+        assertEquals(40, lockStep.getCycleCount());
+        assertEquals(10, lockStep.getEmulator().getRegister(1));
+    }
+
+    @Test
+    void testRandomProgramWithBehavioralModels() {
+        LockStepEmulator lockStep = new LockStepEmulator(5, SimulationModel.BEHAVIORAL);
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i += 2) {
+            int instruction = random.nextInt(1 << 16) & 0x3F00 | random.nextInt(3);
+            lockStep.putData(i, DataConverter.convertBitsToBool(instruction, 16));
+            lockStep.putData(i + 1, DataConverter.convertBitsToBool(random.nextInt(1 << 16), 16));
+        }
+
+        assertDoesNotThrow(() -> lockStep.run(300));
+    }
+
+    @Test
+    void testDivergenceIsDetected() {
+        LockStepEmulator lockStep = new LockStepEmulator(4);
+        putProgram(lockStep);
+        lockStep.getEmulator().putData(1, DataConverter.convertBinToBool("0000000000000110"));
+
+        assertThrows(EmulatorDivergenceException.class, () -> lockStep.run(20));
+    }
+
+    @Test
+    void testIllegalInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new LockStepEmulator(0));
+    }
+}
@@ -0,0 +1,69 @@
+package main.emulator;
+
+import main.utils.DataConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrocodeEmulatorTest {
+
+    MicrocodeEmulator emulator;
+
+    @BeforeEach
+    void setup() {
+        emulator = new MicrocodeEmulator();
+        emulator.putData(0, DataConverter.convertBinToBool("0001000000000001"));
+        emulator.putData(1, DataConverter.convertBinToBool("0000000000000101"));
+        emulator.putData(2, DataConverter.convertBinToBool("0000101000000000"));
+        emulator.putData(4, DataConverter.convertBinToBool("0000101000000010"));
+    }
+
+    @Test
+    void testMovingIntermediateToRegister() {
+        emulator.run(7);
+
+        assertEquals(5, emulator.getRegister(2));
+        assertEquals(0b0001000000000001, emulator.getIR1());
+        assertEquals(5, emulator.getIR2());
+        assertEquals(2, emulator.getPC());
+        assertEquals(1, emulator.getInstructionCount());
+    }
+
+    @Test
+    void testRegisterAddition() {
+        assertEquals(7, emulator.runInstructions(1));
+        assertEquals(8, emulator.runInstructions(1));
+        assertEquals(10, emulator.runInstructions(1));
+
+        assertEquals(5, emulator.getRegister(2));
+        assertEquals(10, emulator.getRegister(1));
+        assertEquals(6, emulator.getPC());
+        assertEquals(25, emulator.getCycleCount());
+    }
+
+    @Test
+    void testAdditionOverflows() {
+        emulator.putData(1, DataConverter.convertBinToBool("0111111111111111"));
+        emulator.run(24);
+        assertTrue(emulator.requestStatus().contains("Overflow: true"));
+
+        emulator.run(1);
+        assertEquals(0b1111111111111110, emulator.getRegister(1));
+    }
+
+    @Test
+    void testInitialStatus() {
+        String status = emulator.requestStatus();
+
+        assertTrue(status.startsWith("CPU (CPU):\nBUS: 0000000000000000 (0, 0)\n"));
+        assertTrue(status.contains("Micro Instruction: 000000000000000000000000\n"));
+        assertTrue(status.endsWith("MDO: 0000000000000000 (0, 0)\n"));
+    }
+
+    @Test
+    void testGetData() {
+        assertArrayEquals(DataConverter.convertBinToBool("0000101000000010"), emulator.getData(4));
+        assertArrayEquals(new boolean[16], emulator.getData(5));
+    }
+}
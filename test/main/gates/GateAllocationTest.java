@@ -0,0 +1,137 @@
+package main.gates;
+
+import main.BitStream;
+import main.gates.binary.*;
+import main.gates.multi.MultiAND;
+import main.gates.multi.MultiNAND;
+import main.gates.multi.MultiNOR;
+import main.gates.multi.MultiOR;
+import main.gates.unary.NOT;
+import main.utils.ExecutionQueue;
+import main.utils.FifoExecutionQueue;
+import main.utils.Freezer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GateAllocationTest {
+
+    private static final int WARMUP_ROUNDS = 20000;
+    private static final int MEASURED_ROUNDS = 100000;
+
+    BitStream in1, in2, in3, control;
+    Gate[] gates;
+
+    @BeforeEach
+    void setup() {
+        in1 = new BitStream(16);
+        in2 = new BitStream(16);
+        in3 = new BitStream(16);
+        control = new BitStream(1);
+        control.setData(new boolean[]{true});
+
+        gates = new Gate[]{
+                new AND(in1, in2, new BitStream(16)),
+                new OR(in1, in2, new BitStream(16)),
+                new XOR(in1, in2, new BitStream(16)),
+                new NAND(in1, in2, new BitStream(16)),
+                new NOR(in1, in2, new BitStream(16)),
+                new NOT(in1, new BitStream(16)),
+                new MultiAND(List.of(in1, in2, in3), new BitStream(16)),
+                new MultiOR(List.of(in1, in2, in3), new BitStream(16)),
+                new MultiNAND(List.of(in1, in2, in3), new BitStream(16)),
+                new MultiNOR(List.of(in1, in2, in3), new BitStream(16)),
+                new TriState(in1, control, new BitStream(16))
+        };
+    }
+
+    /**Get the number of bytes allocated so far by the current thread.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private long computeAll(int rounds) {
+        long checksum = 0;
+        for (int i = 0; i < rounds; i++) {
+            in1.setBits(i);
+            in2.setBits(i * 31L);
+            in3.setBits(~i);
+            for (Gate gate : gates) {
+                checksum += gate.compute();
+            }
+        }
+        return checksum;
+    }
+
+    private void evaluateAll(ExecutionQueue queue, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            for (Gate gate : gates) {
+                gate.evaluate(queue);
+            }
+        }
+    }
+
+    @Test
+    void testComputeDoesNotAllocate() {
+        computeAll(WARMUP_ROUNDS);
+
+        long before = allocatedBytes();
+        computeAll(MEASURED_ROUNDS);
+        long allocated = allocatedBytes() - before;
+
+        double bytesPerEvaluation = (double) allocated / (MEASURED_ROUNDS * gates.length);
+        assertTrue(bytesPerEvaluation < 1, "Allocated " + bytesPerEvaluation + " bytes per evaluation");
+    }
+
+    @Test
+    void testEvaluateDoesNotAllocate() {
+        ExecutionQueue queue = new FifoExecutionQueue();
+        in1.setBits(0x1234);
+        in2.setBits(0x4321);
+        in3.setBits(0xFFFF);
+        evaluateAll(queue, 1);
+        queue.clear();
+
+        evaluateAll(queue, WARMUP_ROUNDS);
+
+        long before = allocatedBytes();
+        evaluateAll(queue, MEASURED_ROUNDS);
+        long allocated = allocatedBytes() - before;
+
+        double bytesPerEvaluation = (double) allocated / (MEASURED_ROUNDS * gates.length);
+        assertTrue(bytesPerEvaluation < 1, "Allocated " + bytesPerEvaluation + " bytes per evaluation");
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testPropagationThroughFrozenStreamsDoesNotAllocate() {
+        ExecutionQueue queue = new FifoExecutionQueue();
+        for (Gate gate : gates) {
+            new NOT(gate.getOut(), new BitStream(16));
+        }
+        Freezer.freeze(gates);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            in1.setBits(i);
+            evaluateAll(queue, 1);
+            queue.clear();
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            in1.setBits(i);
+            evaluateAll(queue, 1);
+            queue.clear();
+        }
+        long allocated = allocatedBytes() - before;
+
+        double bytesPerEvaluation = (double) allocated / (MEASURED_ROUNDS * gates.length);
+        assertTrue(bytesPerEvaluation < 1, "Allocated " + bytesPerEvaluation + " bytes per evaluation");
+    }
+}
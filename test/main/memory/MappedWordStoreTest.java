@@ -0,0 +1,63 @@
+package main.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedWordStoreTest {
+
+    @Test
+    void testImagePersists() throws IOException {
+        Path path = Files.createTempFile("mappedWordStore", ".img");
+        try {
+            try (MappedWordStore store = new MappedWordStore(path, 16, 16)) {
+                store.write(0, 0xABCD);
+                store.write(65535, 0x8001);
+                assertEquals(0xABCD, store.read(0));
+                assertEquals(0, store.read(1));
+            }
+            assertEquals(2 * 65536, Files.size(path));
+
+            try (MappedWordStore store = new MappedWordStore(path, 16, 16)) {
+                assertEquals(0xABCD, store.read(0));
+                assertEquals(0x8001, store.read(65535));
+                assertEquals(0, store.read(1));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testWordSizes() throws IOException {
+        int[] wordSizes = {1, 5, 8, 12, 32, 64};
+        for (int wordSize : wordSizes) {
+            Path path = Files.createTempFile("mappedWordStore", ".img");
+            try (MappedWordStore store = new MappedWordStore(path, 4, wordSize)) {
+                long mask = wordSize == 64 ? -1L : (1L << wordSize) - 1;
+                for (int i = 0; i < 16; i++) {
+                    store.write(i, -1L - i);
+                }
+                for (int i = 0; i < 16; i++) {
+                    assertEquals((-1L - i) & mask, store.read(i));
+                }
+            } finally {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void testOutOfBounds() throws IOException {
+        Path path = Files.createTempFile("mappedWordStore", ".img");
+        try (MappedWordStore store = new MappedWordStore(path, 3, 8)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> store.read(8));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
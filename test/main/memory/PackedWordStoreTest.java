@@ -0,0 +1,96 @@
+package main.memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedWordStoreTest {
+
+    @Test
+    void testReadWrite() {
+        PackedWordStore store = new PackedWordStore(16, 16);
+
+        store.write(0, 0xABCD);
+        store.write(1, 0x1234);
+        store.write(3, 0xFFFF);
+        store.write(65535, 0x8001);
+
+        assertEquals(0xABCD, store.read(0));
+        assertEquals(0x1234, store.read(1));
+        assertEquals(0, store.read(2));
+        assertEquals(0xFFFF, store.read(3));
+        assertEquals(0x8001, store.read(65535));
+
+        store.write(1, 0);
+        assertEquals(0xABCD, store.read(0));
+        assertEquals(0, store.read(1));
+        assertEquals(0xFFFF, store.read(3));
+    }
+
+    @Test
+    void testOddWordSizes() {
+        PackedWordStore store = new PackedWordStore(4, 3);
+        for (int i = 0; i < 16; i++) {
+            store.write(i, i);
+        }
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i & 7, store.read(i));
+        }
+
+        PackedWordStore wide = new PackedWordStore(2, 64);
+        wide.write(3, -1L);
+        assertEquals(-1L, wide.read(3));
+        assertEquals(0, wide.read(2));
+    }
+
+    @Test
+    void testPagesAreAllocatedLazily() {
+        PackedWordStore store = new PackedWordStore(32, 16);
+        assertEquals(1L << 32, store.getSize());
+        assertEquals(0, store.getAllocatedPages());
+
+        assertEquals(0, store.read(0xFFFFFFFFL));
+        store.write(0x12345678L, 0);
+        assertEquals(0, store.getAllocatedPages());
+
+        store.write(0x12345678L, 42);
+        store.write(0x12345679L, 43);
+        store.write(0xFFFFFFFFL, 44);
+        assertEquals(2, store.getAllocatedPages());
+        assertEquals(42, store.read(0x12345678L));
+        assertEquals(43, store.read(0x12345679L));
+        assertEquals(44, store.read(0xFFFFFFFFL));
+    }
+
+    @Test
+    void testOutOfBounds() {
+        PackedWordStore store = new PackedWordStore(3, 4);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> store.read(8));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.write(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PackedWordStore(3, 65));
+    }
+
+    @Test
+    void testFindNonZero() {
+        PackedWordStore store = new PackedWordStore(32, 16);
+        assertEquals(-1, store.findNonZero(0));
+
+        store.write(5, 1);
+        store.write(6, 2);
+        store.write(0x12345678L, 3);
+        store.write(0xFFFFFFFFL, 4);
+        store.write(0x12345679L, 0);
+        assertEquals(5, store.findNonZero(0));
+        assertEquals(5, store.findNonZero(5));
+        assertEquals(6, store.findNonZero(6));
+        assertEquals(0x12345678L, store.findNonZero(7));
+        assertEquals(0xFFFFFFFFL, store.findNonZero(0x12345679L));
+        assertEquals(-1, store.findNonZero(1L << 32));
+
+        PackedWordStore bits = new PackedWordStore(3, 1);
+        bits.write(6, 1);
+        assertEquals(6, bits.findNonZero(0));
+        assertEquals(-1, bits.findNonZero(7));
+    }
+}
@@ -1,10 +1,15 @@
 package main.memory;
 
 import main.BitStream;
+import main.exceptions.BitStreamInputSizeMismatch;
 import main.utils.ProcessRunner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RAMTest {
@@ -91,4 +96,50 @@ class RAMTest {
         assertArrayEquals(new boolean[]{false, false, false, true}, dataOut.getData());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testPutAndGetData() {
+        ram.putData(5, new boolean[]{true, false, true, true});
+
+        assertArrayEquals(new boolean[]{true, false, true, true}, ram.getData(5));
+        assertEquals(0b1011, ram.getMemory().read(5));
+
+        address.setData(new boolean[]{true, false, true});
+        read.setData(new boolean[]{true});
+        ProcessRunner.run(ram);
+
+        assertArrayEquals(new boolean[]{true, false, true, true}, dataOut.getData());
+    }
+
+    @Test
+    void testMappedMemory() throws IOException {
+        Path path = Files.createTempFile("ram", ".img");
+        try {
+            try (MappedWordStore store = new MappedWordStore(path, 3, 4)) {
+                RAM mapped = new RAM(new BitStream(3), dataIn, new BitStream(4), write, read, store);
+                dataIn.setData(new boolean[]{false, true, true, false});
+                write.setData(new boolean[]{true});
+                ProcessRunner.run(mapped);
+                write.setData(new boolean[]{false});
+                ProcessRunner.run(mapped);
+            }
+
+            try (MappedWordStore store = new MappedWordStore(path, 3, 4)) {
+                BitStream out = new BitStream(4);
+                read.setData(new boolean[]{true});
+                RAM mapped = new RAM(new BitStream(3), new BitStream(4), out, new BitStream(1), read, store);
+
+                assertArrayEquals(new boolean[]{false, true, true, false}, out.getData());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testMemorySizeMismatch() {
+        assertThrows(BitStreamInputSizeMismatch.class, () -> new RAM(new BitStream(3), new BitStream(4),
+                new BitStream(4), new BitStream(1), new BitStream(1), new PackedWordStore(3, 8)));
+        assertThrows(BitStreamInputSizeMismatch.class, () -> new RAM(new BitStream(4), new BitStream(4),
+                new BitStream(4), new BitStream(1), new BitStream(1), new PackedWordStore(3, 4)));
+    }
+}
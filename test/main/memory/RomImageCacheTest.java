@@ -0,0 +1,144 @@
+package main.memory;
+
+import main.BitStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RomImageCacheTest {
+
+    private static Path createStorage(boolean[] firstRow) throws IOException {
+        Path path = Files.createTempFile("romImageCache", ".stg");
+        Storage storage = new Storage(path.toString(), 4, 4);
+        storage.putData(0, firstRow);
+        storage.save();
+        return path;
+    }
+
+    @Test
+    void testSharedImage() throws IOException {
+        Path path = createStorage(new boolean[]{true, false, true, true});
+        try {
+            RomImageCache cache = new RomImageCache(1);
+            RomImage first = cache.acquire(path.toString());
+            RomImage second = cache.acquire(path.toString());
+            assertSame(first, second);
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.getHits());
+            assertEquals(2, cache.getReferenceCount(first));
+            assertEquals(0b1011, first.read(0));
+            assertEquals(4, first.getWordSize());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testModifiedFileIsReadAgain() throws IOException {
+        Path path = createStorage(new boolean[]{true, false, true, true});
+        try {
+            RomImageCache cache = new RomImageCache(1);
+            RomImage first = cache.acquire(path.toString());
+
+            Storage storage = Storage.read(path.toString());
+            storage.putData(0, new boolean[]{false, true, true, false});
+            storage.save();
+            Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 1000));
+
+            RomImage second = cache.acquire(path.toString());
+            assertNotSame(first, second);
+            assertEquals(0b1011, first.read(0));
+            assertEquals(0b0110, second.read(0));
+            assertEquals(2, cache.getMisses());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testEqualContentsAreShared() throws IOException {
+        Path path1 = createStorage(new boolean[]{true, true, false, false});
+        Path path2 = createStorage(new boolean[]{true, true, false, false});
+        try {
+            RomImageCache cache = new RomImageCache(1);
+            assertSame(cache.acquire(path1.toString()), cache.acquire(path2.toString()));
+            assertEquals(1, cache.getImageCount());
+        } finally {
+            Files.deleteIfExists(path1);
+            Files.deleteIfExists(path2);
+        }
+    }
+
+    @Test
+    void testEviction() throws IOException {
+        Path path1 = createStorage(new boolean[]{true, false, false, false});
+        Path path2 = createStorage(new boolean[]{false, true, false, false});
+        try {
+            RomImageCache cache = new RomImageCache(1);
+            RomImage first = cache.acquire(path1.toString());
+            RomImage second = cache.acquire(path2.toString());
+
+            cache.release(first);
+            assertEquals(2, cache.getImageCount());
+            cache.release(second);
+            assertEquals(1, cache.getImageCount());
+            assertEquals(1, cache.getEvictions());
+            assertThrows(IllegalStateException.class, () -> cache.release(second));
+
+            assertSame(second, cache.acquire(path2.toString()));
+            assertNotSame(first, cache.acquire(path1.toString()));
+            assertEquals(3, cache.getMisses());
+
+            cache.evictUnreferenced();
+            assertEquals(2, cache.getImageCount());
+        } finally {
+            Files.deleteIfExists(path1);
+            Files.deleteIfExists(path2);
+        }
+    }
+
+    @Test
+    void testRomsShareImage() throws IOException {
+        Path path = createStorage(new boolean[]{false, true, true, true});
+        try {
+            BitStream address1 = new BitStream(2);
+            BitStream address2 = new BitStream(2);
+            BitStream output1 = new BitStream(4);
+            BitStream output2 = new BitStream(4);
+            ROM rom1 = new ROM(path.toString(), address1, output1);
+            ROM rom2 = new ROM(path.toString(), address2, output2);
+
+            assertSame(rom1.getImage(), rom2.getImage());
+            assertEquals(2, RomImageCache.getShared().getReferenceCount(rom1.getImage()));
+            assertArrayEquals(new boolean[]{false, true, true, true}, output2.getData());
+
+            rom1.release();
+            rom1.release();
+            assertEquals(1, RomImageCache.getShared().getReferenceCount(rom2.getImage()));
+            rom2.release();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testUnreadableFile() throws IOException {
+        Path directory = Files.createTempDirectory("romImageCache");
+        try {
+            RomImageCache cache = new RomImageCache(1);
+            UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+                    () -> cache.acquire(directory.toString()));
+            assertTrue(exception.getMessage().contains(directory.toString()));
+            assertThrows(UncheckedIOException.class, () -> cache.acquire(directory.toString()));
+            assertEquals(2, cache.getMisses());
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package main.memory;
 
+import main.exceptions.StorageFormatException;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -44,4 +52,99 @@ class StorageTest {
         assertArrayEquals(new boolean[]{true, false, false, false}, read2.getData()[2]);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testCompactFormat() throws IOException {
+        Storage storage = new Storage(filepath, 5, 4);
+        storage.putData(0, new boolean[]{true, true, false, true});
+        storage.putData(1, new boolean[]{false, false, true, false});
+        storage.save();
+
+        byte[] bytes = Files.readAllBytes(Path.of(filepath));
+        assertEquals(Storage.HEADER_SIZE + 3, bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertEquals(Storage.MAGIC, buffer.getInt());
+        assertEquals(Storage.VERSION, buffer.getInt());
+        assertEquals(5, buffer.getInt());
+        assertEquals(4, buffer.getInt());
+        assertEquals((byte) 0b11010010, bytes[Storage.HEADER_SIZE]);
+        assertEquals(0, bytes[Storage.HEADER_SIZE + 1]);
+    }
+
+    @Test
+    void testOddWordSize() {
+        Storage storage = new Storage(filepath, 3, 11);
+        storage.putData(1, new boolean[]{true, false, true, true, false, false, true, false, true, true, true});
+        storage.putData(2, new boolean[]{false, false, false, false, false, false, false, false, false, false, true});
+        storage.save();
+
+        Storage read = Storage.read(filepath);
+        assertEquals(3, read.getSize());
+        assertEquals(11, read.getWordSize());
+        assertEquals(storage, read);
+    }
+
+    @Test
+    void testImportLegacy() throws IOException {
+        Path path = Files.createTempFile("legacyStorage", ".stg");
+        try {
+            Storage storage = new Storage(path.toString(), 4, 8);
+            storage.putData(2, new boolean[]{true, false, false, true, true, false, false, true});
+            try (OutputStream out = Files.newOutputStream(path);
+                 ObjectOutputStream oos = new ObjectOutputStream(out)) {
+                oos.writeObject(storage);
+            }
+
+            Storage read = Storage.read(path.toString());
+            assertEquals(storage, read);
+            assertEquals(path.toString(), read.getFilepath());
+
+            read.save();
+            assertEquals(Storage.HEADER_SIZE + 4, Files.size(path));
+            assertEquals(storage, Storage.read(path.toString()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testChecksumMismatch() throws IOException {
+        Storage storage = new Storage(filepath, 5, 4);
+        storage.putData(0, new boolean[]{true, true, false, true});
+        storage.save();
+
+        byte[] bytes = Files.readAllBytes(Path.of(filepath));
+        bytes[Storage.HEADER_SIZE] ^= 1;
+        Files.write(Path.of(filepath), bytes);
+        assertThrows(StorageFormatException.class, () -> Storage.read(filepath));
+    }
+
+    @Test
+    void testNotAStorage() throws IOException {
+        Path path = Files.createTempFile("notAStorage", ".stg");
+        try {
+            Files.write(path, new byte[]{1, 2, 3});
+            assertThrows(StorageFormatException.class, () -> Storage.read(path.toString()));
+
+            Files.write(path, new byte[]{(byte) 0xAC, (byte) 0xED, 0, 5, 't', 0, 1, 'a'});
+            assertThrows(StorageFormatException.class, () -> Storage.read(path.toString()));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testUnreadableAndUnwritableFile() throws IOException {
+        Path directory = Files.createTempDirectory("storage");
+        try {
+            UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+                    () -> Storage.read(directory.resolve("missing.stg").toString()));
+            assertTrue(exception.getMessage().contains("missing.stg"));
+
+            Storage storage = new Storage(directory.toString(), 2, 4);
+            exception = assertThrows(UncheckedIOException.class, storage::save);
+            assertTrue(exception.getMessage().contains(directory.toString()));
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+}
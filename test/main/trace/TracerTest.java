@@ -0,0 +1,138 @@
+package main.trace;
+
+import main.BitStream;
+import main.control.Input;
+import main.exceptions.TraceFormatException;
+import main.gates.binary.AND;
+import main.gates.unary.NOT;
+import main.utils.ClockDriver;
+import main.utils.ProcessRunner;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    private static class Circuit {
+
+        final Input input;
+        final NOT not;
+        final AND and;
+
+        Circuit() {
+            BitStream in = new BitStream(2);
+            BitStream notOut = new BitStream(2);
+            BitStream andOut = new BitStream(2);
+            input = new Input(new boolean[]{false, false}, in);
+            not = new NOT(in, notOut, "not", true);
+            and = new AND(in, notOut, andOut, "and", true);
+        }
+
+        void toggle() {
+            input.setData(new boolean[]{true, false});
+            ProcessRunner.run(input);
+        }
+    }
+
+    private static void trace(TraceSink sink, Runnable run) {
+        TraceSink previous = Tracer.setSink(sink);
+        Tracer.reset();
+        try {
+            run.run();
+        } finally {
+            Tracer.setSink(previous);
+            Tracer.reset();
+        }
+    }
+
+    @Test
+    void testRingBuffer() {
+        RingBufferTraceSink sink = new RingBufferTraceSink(4);
+        trace(sink, () -> {
+            Circuit circuit = new Circuit();
+            circuit.toggle();
+            assertEquals(0, Tracer.getId(circuit.not));
+            assertEquals(1, Tracer.getId(circuit.and));
+            assertEquals(-1, Tracer.getId(circuit.input));
+        });
+
+        List<TraceEvent> events = sink.getEvents();
+        assertEquals(4, sink.getCapacity());
+        assertEquals(sink.getRecordedCount() - sink.getDroppedCount(), events.size());
+        TraceEvent last = events.get(events.size() - 1);
+        assertEquals(new TraceEvent(1, 0, 0b00), last);
+        assertTrue(sink.format().contains("[0] not: 01\n"));
+
+        sink.clear();
+        assertTrue(sink.getEvents().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferTraceSink(0));
+    }
+
+    @Test
+    void testBinaryFile() throws IOException {
+        Path path = Files.createTempFile("trace", ".trc");
+        try {
+            BinaryTraceFileSink sink = new BinaryTraceFileSink(path);
+            RingBufferTraceSink expected = new RingBufferTraceSink();
+            trace(sink, () -> {
+                Circuit circuit = new Circuit();
+                circuit.toggle();
+            });
+            sink.close();
+            trace(expected, () -> {
+                Circuit circuit = new Circuit();
+                circuit.toggle();
+            });
+
+            TraceReader reader = new TraceReader(path);
+            assertEquals(expected.getEvents(), reader.getEvents());
+            assertEquals(sink.getEventCount(), reader.getEvents().size());
+            assertEquals("not", reader.getName(0));
+            assertEquals(2, reader.getWidth(0));
+            assertEquals(expected.format(), reader.format());
+            assertFalse(reader.format(name -> name.equals("and")).contains("not"));
+
+            Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+            assertThrows(TraceFormatException.class, () -> new TraceReader(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testFilteredText() {
+        StringWriter writer = new StringWriter();
+        TextTraceSink sink = new TextTraceSink(writer, name -> name.startsWith("a"));
+        trace(sink, () -> {
+            Circuit circuit = new Circuit();
+            circuit.toggle();
+            assertEquals("", writer.toString());
+        });
+
+        String text = writer.toString();
+        assertTrue(text.contains("[0] and: 00\n"));
+        assertFalse(text.contains("not"));
+    }
+
+    @Test
+    void testTimeAdvancesWithClock() {
+        RingBufferTraceSink sink = new RingBufferTraceSink();
+        trace(sink, () -> {
+            BitStream clock = new BitStream(1);
+            ClockDriver driver = new ClockDriver(clock);
+            new NOT(clock, new BitStream(1), "clockNot", true);
+            driver.run(3);
+            assertEquals(6, Tracer.getTime());
+        });
+
+        List<TraceEvent> events = sink.getEvents();
+        assertEquals(6, events.get(events.size() - 1).getTime());
+        assertEquals(1, events.get(events.size() - 1).getValue());
+    }
+}
@@ -0,0 +1,122 @@
+package main.trace;
+
+import main.BitStream;
+import main.control.Input;
+import main.gates.binary.AND;
+import main.gates.unary.NOT;
+import main.utils.ClockDriver;
+import main.utils.Levelizer;
+import main.utils.ProcessRunner;
+import main.utils.SchedulingPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VcdWriterTest {
+
+    @Test
+    void testChanges() {
+        BitStream in = new BitStream(2);
+        BitStream notOut = new BitStream(2);
+        BitStream andOut = new BitStream(2);
+        Input input = new Input(new boolean[]{false, false}, in);
+        new NOT(in, notOut, "not");
+        new AND(in, notOut, andOut, "and");
+
+        StringWriter text = new StringWriter();
+        VcdWriter vcd = new VcdWriter(text, "test circuit");
+        vcd.watch(in, "in");
+        vcd.watch(notOut, "not out");
+        vcd.watch(notOut, "again");
+        assertEquals(2, vcd.getStreamCount());
+        assertThrows(IllegalArgumentException.class, () -> new VcdWriter(new StringWriter(), "other").watch(in, "in"));
+
+        input.setData(new boolean[]{true, false});
+        ProcessRunner.run(input);
+        assertThrows(IllegalStateException.class, () -> vcd.watch(andOut, "and"));
+        vcd.close();
+
+        assertNull(in.getListener());
+        assertEquals(2, vcd.getChangeCount());
+        String dump = text.toString();
+        assertTrue(dump.contains("$scope module test_circuit $end\n"));
+        assertTrue(dump.contains("$var wire 2 ! in $end\n"));
+        assertTrue(dump.contains("$var wire 2 \" not_out $end\n"));
+        assertTrue(dump.contains("$dumpvars\nb00 !\nb11 \"\n$end\n"));
+        assertTrue(dump.contains("$end\nb10 !\n#1\nb01 \"\n"));
+    }
+
+    @Test
+    void testParallelPolicy() {
+        BitStream in = new BitStream(2);
+        BitStream notOut = new BitStream(2);
+        BitStream notNotOut = new BitStream(2);
+        Input input = new Input(new boolean[]{false, false}, in);
+        new NOT(in, notOut, "not");
+        new NOT(notOut, notNotOut, "notNot");
+        Levelizer.levelize(input);
+
+        StringWriter text = new StringWriter();
+        VcdWriter vcd = new VcdWriter(text, "parallel");
+        vcd.watch(in, "in");
+        vcd.watch(notOut, "not out");
+        vcd.watch(notNotOut, "not not out");
+
+        ProcessRunner.setPolicy(SchedulingPolicy.PARALLEL);
+        try {
+            input.setData(new boolean[]{true, false});
+            ProcessRunner.run(input);
+        } finally {
+            ProcessRunner.setPolicy(SchedulingPolicy.FIFO);
+        }
+        vcd.close();
+
+        assertEquals(3, vcd.getChangeCount());
+        assertTrue(text.toString().contains("$end\nb10 !\n#1\nb01 \"\n#2\nb10 #\n#3\n"));
+    }
+
+    @Test
+    void testClockedCircuitToFile() throws IOException {
+        BitStream clock = new BitStream(1);
+        ClockDriver driver = new ClockDriver(clock);
+        BitStream notClock = new BitStream(1);
+        new NOT(clock, notClock, "clockNot");
+
+        Path path = Files.createTempFile("waves", ".vcd");
+        try {
+            try (VcdWriter vcd = new VcdWriter(path, "clocked")) {
+                vcd.watchAll(clock);
+                assertEquals(2, vcd.getStreamCount());
+                driver.run(5);
+                assertEquals(20, vcd.getChangeCount());
+            }
+
+            List<String> lines = Files.readAllLines(path);
+            assertTrue(lines.contains("$var wire 1 ! clock $end"));
+            assertTrue(lines.contains("$var wire 1 \" clockNot $end"));
+            long previous = -1;
+            for (String line : lines) {
+                if (line.startsWith("#")) {
+                    long time = Long.parseLong(line.substring(1));
+                    assertTrue(time > previous);
+                    previous = time;
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testCodes() {
+        assertEquals("!", VcdWriter.getCode(0));
+        assertEquals("~", VcdWriter.getCode(93));
+        assertEquals("!\"", VcdWriter.getCode(94));
+    }
+}
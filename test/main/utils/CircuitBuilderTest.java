@@ -0,0 +1,134 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.TestMachine;
+import main.control.Input;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.gates.binary.AND;
+import main.gates.unary.NOT;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBuilderTest {
+
+    @Test
+    void testSettleOnCommit() {
+        BitStream in = new BitStream(1);
+        BitStream not1 = new BitStream(1);
+        BitStream not2 = new BitStream(1);
+        BitStream and = new BitStream(1);
+
+        CircuitBuilder builder = CircuitBuilder.begin();
+        new Input(new boolean[]{true}, in);
+        new NOT(in, not1);
+        new NOT(not1, not2);
+        new AND(in, not2, and);
+
+        assertEquals(4, builder.getNodeCount());
+        assertFalse(in.getData()[0]);
+        assertFalse(and.getData()[0]);
+
+        builder.commit();
+        assertNull(CircuitBuilder.getActive());
+        assertTrue(in.getData()[0]);
+        assertFalse(not1.getData()[0]);
+        assertTrue(not2.getData()[0]);
+        assertTrue(and.getData()[0]);
+    }
+
+    @Test
+    void testNestedSessions() {
+        BitStream in = new BitStream(1);
+        BitStream out = new BitStream(1);
+
+        CircuitBuilder outer = CircuitBuilder.begin();
+        CircuitBuilder.build(() -> new NOT(in, out));
+        assertSame(outer, CircuitBuilder.getActive());
+        assertFalse(out.getData()[0]);
+
+        outer.commit();
+        assertNull(CircuitBuilder.getActive());
+        assertTrue(out.getData()[0]);
+    }
+
+    @Test
+    void testFailedBuild() {
+        BitStream in = new BitStream(1);
+        BitStream out = new BitStream(1);
+
+        assertThrows(BitStreamInputSizeMismatch.class, () -> CircuitBuilder.build(() -> {
+            new NOT(in, out);
+            new AND(in, new BitStream(2), new BitStream(1));
+        }));
+        assertNull(CircuitBuilder.getActive());
+        assertFalse(out.getData()[0]);
+
+    }
+
+    @Test
+    void testCommitClosedSession() {
+        CircuitBuilder builder = CircuitBuilder.begin();
+        builder.commit();
+        assertThrows(IllegalStateException.class, builder::commit);
+    }
+
+    @Test
+    void testSessionPerThread() throws Exception {
+        CircuitBuilder builder = CircuitBuilder.begin();
+        try {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                assertNull(executor.submit(CircuitBuilder::getActive).get());
+            } finally {
+                executor.shutdown();
+            }
+            assertSame(builder, CircuitBuilder.getActive());
+        } finally {
+            builder.abort();
+        }
+    }
+
+    @Test
+    void testBuildCPUsConcurrently() throws Exception {
+        CircuitBuilder builder = CircuitBuilder.begin();
+        TestMachine expected = new TestMachine();
+        int nodeCount = builder.getNodeCount();
+        builder.commit();
+        expected.loadProgram();
+        String expectedStatus = expected.run(25);
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier built = new CyclicBarrier(threads);
+            List<Future<TestMachine>> machines = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                machines.add(executor.submit(() -> {
+                    CircuitBuilder session = CircuitBuilder.begin();
+                    TestMachine machine = new TestMachine();
+                    built.await();
+                    assertSame(session, CircuitBuilder.getActive());
+                    assertEquals(nodeCount, session.getNodeCount());
+                    session.commit();
+                    return machine;
+                }));
+            }
+            for (Future<TestMachine> future : machines) {
+                TestMachine machine = future.get();
+                machine.loadProgram();
+                assertEquals(expectedStatus, machine.run(25));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertNull(CircuitBuilder.getActive());
+    }
+}
@@ -0,0 +1,80 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.SimulationModel;
+import main.circuits.TestMachine;
+import main.exceptions.SnapshotException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitSnapshotTest {
+
+    @Test
+    void testRestoreIntoFreshCPU() {
+        TestMachine original = new TestMachine(SimulationModel.GATE_LEVEL);
+        original.loadProgram();
+        original.run(12);
+        CircuitSnapshot snapshot = CircuitSnapshot.capture(original.clk);
+        String expected = original.run(13);
+
+        TestMachine copy = new TestMachine(SimulationModel.GATE_LEVEL);
+        snapshot.restore(copy.clk);
+        assertEquals(expected, copy.run(13));
+        assertArrayEquals(original.ram.getData(4), copy.ram.getData(4));
+        assertArrayEquals(new boolean[]{false, false, false, false, false, false, false, false,
+                        false, false, false, false, true, false, true, false},
+                copy.cpu.getRegisterFile().getRegisters().get(1).getDataBitStream().getData());
+    }
+
+    @Test
+    void testRestoreBehavioralModels() {
+        TestMachine original = new TestMachine(SimulationModel.BEHAVIORAL);
+        original.loadProgram();
+        original.run(12);
+        CircuitSnapshot snapshot = CircuitSnapshot.capture(original.clk);
+        String expected = original.run(13);
+
+        TestMachine copy = new TestMachine(SimulationModel.BEHAVIORAL);
+        snapshot.restore(copy.clk);
+        assertEquals(expected, copy.run(13));
+    }
+
+    @Test
+    void testRestoreSameCircuit() {
+        TestMachine machine = new TestMachine(SimulationModel.GATE_LEVEL);
+        machine.loadProgram();
+        machine.run(7);
+        CircuitSnapshot snapshot = CircuitSnapshot.capture(machine.clk);
+        String expected = machine.run(18);
+
+        snapshot.restore(machine.clk);
+        machine.ram.putData(100, DataConverter.convertBinToBool("1111111111111111"));
+        snapshot.restore(machine.clk);
+        assertArrayEquals(new boolean[16], machine.ram.getData(100));
+        assertEquals(expected, machine.run(18));
+    }
+
+    @Test
+    void testByteArrayRoundTrip() {
+        TestMachine original = new TestMachine(SimulationModel.GATE_LEVEL);
+        original.loadProgram();
+        original.run(5);
+        byte[] data = CircuitSnapshot.capture(original.clk).toByteArray();
+        String expected = original.run(20);
+
+        TestMachine copy = new TestMachine(SimulationModel.GATE_LEVEL);
+        CircuitSnapshot.fromByteArray(data).restore(copy.clk);
+        assertEquals(expected, copy.run(20));
+
+        assertThrows(SnapshotException.class, () -> CircuitSnapshot.fromByteArray(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    void testDifferentCircuit() {
+        TestMachine gateLevel = new TestMachine(SimulationModel.GATE_LEVEL);
+        TestMachine behavioral = new TestMachine(SimulationModel.BEHAVIORAL);
+        CircuitSnapshot snapshot = CircuitSnapshot.capture(gateLevel.clk);
+        assertThrows(SnapshotException.class, () -> snapshot.restore(behavioral.clk));
+    }
+}
@@ -0,0 +1,104 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.CPU;
+import main.circuits.Microprocessor;
+import main.circuits.memory.TFlipFlop;
+import main.control.Input;
+import main.exceptions.BitStreamInputSizeMismatch;
+import main.memory.RAM;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockDriverTest {
+
+    BitStream buildCounter(BitStream clock, BitStream q0, BitStream q1) {
+        BitStream constant = new BitStream(1);
+        constant.setData(new boolean[]{true});
+        BitStream notQ0 = new BitStream(1);
+        new TFlipFlop(constant, clock, constant, new BitStream(1), new BitStream(1), q0, notQ0, true);
+        new TFlipFlop(constant, notQ0, constant, new BitStream(1), new BitStream(1), q1, new BitStream(1), true);
+        return notQ0;
+    }
+
+    @Test
+    void testRun() {
+        BitStream clock = new BitStream(1);
+        BitStream q0 = new BitStream(1);
+        BitStream q1 = new BitStream(1);
+        ClockDriver driver = new ClockDriver(clock);
+        buildCounter(clock, q0, q1);
+
+        driver.run(1);
+        assertArrayEquals(new boolean[]{true, false}, new boolean[]{q0.getData()[0], q1.getData()[0]});
+        driver.run(2);
+        assertArrayEquals(new boolean[]{true, true}, new boolean[]{q0.getData()[0], q1.getData()[0]});
+        assertEquals(3, driver.getCycleCount());
+        assertFalse(clock.getData()[0]);
+    }
+
+    @Test
+    void testRunUntil() {
+        BitStream clock = new BitStream(1);
+        BitStream q0 = new BitStream(1);
+        BitStream q1 = new BitStream(1);
+        ClockDriver driver = new ClockDriver(new Input(new boolean[]{false}, clock));
+        buildCounter(clock, q0, q1);
+
+        assertEquals(2, driver.runUntil(() -> q1.getData()[0] && !q0.getData()[0], 10));
+        assertEquals(0, driver.runUntil(() -> q1.getData()[0], 10));
+        assertEquals(10, driver.runUntil(() -> false, 10));
+        assertEquals(12, driver.getCycleCount());
+    }
+
+    @Test
+    void testRunUntilEnd() {
+        BitStream clock = new BitStream(1);
+        BitStream memoryDataOut = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memoryDataIn = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memoryAddress = new BitStream(Microprocessor.WORD_SIZE);
+        BitStream memRead = new BitStream(1);
+        BitStream memWrite = new BitStream(1);
+        ClockDriver driver = new ClockDriver(clock);
+        CPU cpu = new CPU(clock, memRead, memWrite, memoryDataOut, memoryDataIn, memoryAddress);
+        RAM ram = new RAM(memoryAddress, memoryDataIn, memoryDataOut, memWrite, memRead);
+        ram.putData(0, DataConverter.convertBinToBool("0001000000000001"));
+        ram.putData(1, DataConverter.convertBinToBool("0000000000000101"));
+
+        assertEquals(14, driver.runUntilEnd(cpu.getControlUnit(), 100));
+        assertEquals(5, DataConverter.convertBoolToUnsignedDec(
+                cpu.getRegisterFile().getRegisters().get(2).getDataBitStream().getData()));
+        assertEquals(4, driver.runUntilEnd(cpu.getControlUnit(), 4));
+
+        long cycleCount = driver.getCycleCount();
+        assertEquals(0, driver.runUntilEnd(cpu.getControlUnit(), 0));
+        assertEquals(cycleCount, driver.getCycleCount());
+        assertEquals(2, driver.runUntilEnd(cpu.getControlUnit(), 1));
+        assertEquals(cycleCount + 2, driver.getCycleCount());
+    }
+
+    @Test
+    void testStatistics() {
+        BitStream clock = new BitStream(1);
+        ClockDriver driver = new ClockDriver(clock);
+        buildCounter(clock, new BitStream(1), new BitStream(1));
+
+        assertEquals(0, driver.getCyclesPerSecond());
+        driver.run(100);
+        assertTrue(driver.getElapsedNanos() > 0);
+        assertTrue(driver.getCyclesPerSecond() > 0);
+
+        driver.resetStatistics();
+        assertEquals(0, driver.getCycleCount());
+        assertEquals(0, driver.getElapsedNanos());
+    }
+
+    @Test
+    void testClockMustBeOneBit() {
+        BitStream clock = new BitStream(2);
+        Input input = new Input(new boolean[]{false, false}, clock);
+
+        assertThrows(BitStreamInputSizeMismatch.class, () -> new ClockDriver(input));
+    }
+}
@@ -121,4 +121,15 @@ class DataConverterTest {
                 DataConverter.convertSignedDecToBool(decimal, 8));
     }
 
-}
\ No newline at end of file
+    @Test
+    void convertBoolToPackedBitsTest() {
+        assertEquals(0b1011L, DataConverter.convertBoolToBits(new boolean[]{true, false, true, true}));
+    }
+
+    @Test
+    void convertPackedBitsToBoolTest() {
+        assertArrayEquals(new boolean[]{false, true, false, true, true},
+                DataConverter.convertBitsToBool(0b1011L, 5));
+    }
+
+}
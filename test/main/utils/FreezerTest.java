@@ -0,0 +1,75 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.TestMachine;
+import main.circuits.memory.DFlipFlop;
+import main.control.Input;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreezerTest {
+
+    BitStream D, clock, enable, Q;
+    Input dInput, clockInput;
+
+    private void buildFlipFlop() {
+        D = new BitStream(2);
+        clock = new BitStream(1);
+        enable = new BitStream(1);
+        enable.setData(new boolean[]{true});
+        Q = new BitStream(2);
+        new DFlipFlop(D, clock, enable, new BitStream(1), new BitStream(1),
+                Q, new BitStream(2), true);
+
+        dInput = new Input(new boolean[]{true, false}, D);
+        clockInput = new Input(new boolean[]{false}, clock);
+    }
+
+    @Test
+    void testFreezeReachableStreams() {
+        buildFlipFlop();
+
+        assertTrue(Freezer.freeze(dInput, clockInput) > 2);
+        assertTrue(D.isFrozen());
+        assertTrue(clock.isFrozen());
+        assertTrue(Q.isFrozen());
+        assertFalse(enable.isFrozen());
+    }
+
+    @Test
+    void testFrozenCircuitBehavesTheSame() {
+        buildFlipFlop();
+        Freezer.freeze(dInput, clockInput);
+
+        clockInput.setData(new boolean[]{true});
+        ProcessRunner.run(clockInput);
+        assertArrayEquals(new boolean[]{true, false}, Q.getData());
+
+        dInput.setData(new boolean[]{false, true});
+        clockInput.setData(new boolean[]{false});
+        ProcessRunner.run(dInput, clockInput);
+        assertArrayEquals(new boolean[]{true, false}, Q.getData());
+
+        clockInput.setData(new boolean[]{true});
+        ProcessRunner.run(clockInput);
+        assertArrayEquals(new boolean[]{false, true}, Q.getData());
+    }
+
+    @Test
+    void testBuiltCPUIsFrozen() {
+        TestMachine frozen = new TestMachine();
+        TestMachine unfrozen = new TestMachine();
+        frozen.loadProgram();
+        unfrozen.loadProgram();
+        assertTrue(frozen.cpu.getBus().isFrozen());
+
+        for (BitStream stream : new NetlistExplorer(unfrozen.clk).getStreams()) {
+            stream.unfreeze();
+        }
+        assertFalse(unfrozen.cpu.getBus().isFrozen());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(unfrozen.run(1), frozen.run(1));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package main.utils;
+
+import main.BitStream;
+import main.control.Input;
+import main.gates.binary.AND;
+import main.gates.unary.NOT;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeasuringExecutionQueueTest {
+
+    @Test
+    void testChain() {
+        BitStream in = new BitStream(1);
+        BitStream not1 = new BitStream(1);
+        BitStream not2 = new BitStream(1);
+        BitStream and = new BitStream(1);
+        Input input = new Input(new boolean[]{false}, in);
+        new NOT(in, not1);
+        new NOT(not1, not2);
+        new AND(in, not2, and);
+
+        MeasuringExecutionQueue queue = new MeasuringExecutionQueue(new FifoExecutionQueue());
+        input.setData(new boolean[]{true});
+        ProcessRunner.run(queue, input);
+
+        assertEquals(3, queue.getLastDepth());
+        assertEquals(5, queue.getEvaluationCount());
+        assertEquals(1, queue.getRunCount());
+        assertTrue(queue.isEmpty());
+
+        input.setData(new boolean[]{true});
+        ProcessRunner.run(queue, input);
+        assertEquals(1, queue.getLastDepth());
+        assertEquals(3, queue.getMaxDepth());
+        assertEquals(2, queue.getRunCount());
+
+        queue.reset();
+        assertEquals(0, queue.getEvaluationCount());
+        assertEquals(0, queue.getEvaluationsPerRun());
+    }
+}
@@ -0,0 +1,168 @@
+package main.utils;
+
+import main.BitStream;
+import main.Node;
+import main.circuits.ControlUnit;
+import main.circuits.SimulationModel;
+import main.circuits.TestMachine;
+import main.control.Input;
+import main.exceptions.NetlistFormatException;
+import main.gates.binary.AND;
+import main.gates.unary.NOT;
+import main.memory.MappedWordStore;
+import main.memory.RAM;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetlistImageTest {
+
+    private static void assertSameState(List<BitStream> expected, List<BitStream> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getSize(), actual.get(i).getSize());
+            assertEquals(expected.get(i).getBits(), actual.get(i).getBits(), "stream " + i);
+        }
+    }
+
+    @Test
+    void testLoadCPU() {
+        TestMachine original = new TestMachine(SimulationModel.GATE_LEVEL);
+        original.loadProgram();
+        original.clock.run(12 * ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+        NetlistImage image = NetlistImage.fromByteArray(NetlistImage.capture(original.clk).toByteArray());
+
+        NetlistImage.LoadedCircuit loaded = image.load();
+        List<BitStream> streams = new NetlistExplorer(original.clk).getStreams();
+        assertSameState(streams, loaded.getStreams());
+        assertEquals(new NetlistExplorer(original.clk).getNodes().size(), loaded.getNodes().size());
+
+        ClockDriver clock = new ClockDriver((Input) loaded.getRoots().get(0).getSource());
+        for (int i = 0; i < 13; i++) {
+            original.clock.run(ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+            clock.run(ControlUnit.CYCLES_PER_MICROINSTRUCTION);
+            assertSameState(streams, loaded.getStreams());
+        }
+
+        RAM ram = null;
+        for (Node node : loaded.getNodes()) {
+            if (node instanceof RAM) {
+                ram = (RAM) node;
+            }
+        }
+        assertNotNull(ram);
+        assertArrayEquals(original.ram.getData(4), ram.getData(4));
+    }
+
+    @Test
+    void testLoadDoesNotEvaluate() {
+        BitStream in = new BitStream(2);
+        BitStream not = new BitStream(2);
+        BitStream out = new BitStream(2);
+        Input input = new Input(new boolean[]{false, true}, in, "input");
+        new NOT(in, not, "not");
+        new AND(in, not, out, "and");
+        input.setData(new boolean[]{true, true});
+
+        NetlistImage.LoadedCircuit loaded = NetlistImage.capture(in).load();
+        assertSameState(new NetlistExplorer(in).getStreams(), loaded.getStreams());
+        assertEquals(3, loaded.getNodes().size());
+        Input loadedInput = (Input) loaded.getRoots().get(0).getSource();
+        assertEquals("input", loadedInput.getName());
+        assertArrayEquals(new boolean[]{true, true}, loadedInput.getData());
+        assertSame(loadedInput, loaded.getNodes().get(0));
+
+        ProcessRunner.run(loadedInput);
+        assertArrayEquals(new boolean[]{false, false}, loaded.getStreams().get(1).getData());
+    }
+
+    @Test
+    void testLoadInsideSession() {
+        BitStream in = new BitStream(2);
+        BitStream not = new BitStream(2);
+        BitStream out = new BitStream(2);
+        Input input = new Input(new boolean[]{false, true}, in, "input");
+        new NOT(in, not, "not");
+        new AND(in, not, out, "and");
+        input.setData(new boolean[]{true, true});
+        NetlistImage image = NetlistImage.capture(in);
+
+        CircuitBuilder builder = CircuitBuilder.begin();
+        NetlistImage.LoadedCircuit loaded;
+        try {
+            new NOT(new BitStream(1), new BitStream(1), "outer");
+            loaded = image.load();
+            assertSame(builder, CircuitBuilder.getActive());
+            assertEquals(1, builder.getNodeCount());
+        } finally {
+            builder.commit();
+        }
+        assertNull(CircuitBuilder.getActive());
+        assertSameState(new NetlistExplorer(in).getStreams(), loaded.getStreams());
+    }
+
+    @Test
+    void testSaveAndRead() throws IOException {
+        TestMachine original = new TestMachine(SimulationModel.GATE_LEVEL);
+        original.loadProgram();
+        NetlistImage image = NetlistImage.capture(original.clk);
+        Path path = Files.createTempFile("cpu", ".net");
+        try {
+            image.save(path);
+            assertArrayEquals(image.toByteArray(), NetlistImage.read(path).toByteArray());
+            assertEquals(image.getSize(), Files.size(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+        assertArrayEquals(image.toByteArray(), NetlistImage.capture(original.clk).toByteArray());
+    }
+
+    @Test
+    void testMappedMemoryByReference() throws IOException {
+        Path path = Files.createTempFile("ram", ".img");
+        BitStream write = new BitStream(1);
+        BitStream read = new BitStream(1);
+        try (MappedWordStore store = new MappedWordStore(path, 8, 16)) {
+            RAM ram = new RAM(new BitStream(8), new BitStream(16), new BitStream(16), write, read, store);
+            for (int i = 0; i < 256; i++) {
+                ram.putData(i, DataConverter.convertBitsToBool(i * 257, 16));
+            }
+            write.setData(new boolean[]{true});
+            ProcessRunner.run(ram);
+
+            NetlistImage image = NetlistImage.capture(write);
+            assertTrue(image.getSize() < 256);
+
+            RAM loaded = (RAM) image.load().getNodes().get(0);
+            try (MappedWordStore loadedStore = (MappedWordStore) loaded.getMemory()) {
+                assertEquals(path, loadedStore.getPath());
+                assertTrue(loaded.getLastWriteSignal());
+                assertArrayEquals(DataConverter.convertBitsToBool(5 * 257, 16), loaded.getData(5));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testUnsupportedNodes() {
+        TestMachine behavioral = new TestMachine(SimulationModel.BEHAVIORAL);
+        assertThrows(NetlistFormatException.class, () -> NetlistImage.capture(behavioral.clk));
+    }
+
+    @Test
+    void testInvalidData() {
+        assertThrows(NetlistFormatException.class, () -> NetlistImage.fromByteArray(new byte[]{1, 2, 3}));
+
+        TestMachine original = new TestMachine(SimulationModel.GATE_LEVEL);
+        byte[] data = NetlistImage.capture(original.clk).toByteArray();
+        byte[] truncated = new byte[data.length / 2];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        assertThrows(NetlistFormatException.class, () -> NetlistImage.fromByteArray(truncated).load());
+    }
+}
@@ -0,0 +1,143 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.AddSubtract;
+import main.circuits.TestMachine;
+import main.circuits.memory.DFlipFlop;
+import main.control.Input;
+import main.gates.binary.XOR;
+import main.gates.unary.NOT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelWavefrontRunnerTest {
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testWideCircuit() {
+        BitStream a = new BitStream(8);
+        BitStream b = new BitStream(8);
+        Input aInput = new Input(new boolean[8], a);
+        Input bInput = new Input(new boolean[8], b);
+        BitStream[] xorOuts = new BitStream[300];
+        BitStream[] notOuts = new BitStream[300];
+        for (int i = 0; i < xorOuts.length; i++) {
+            xorOuts[i] = new BitStream(8);
+            notOuts[i] = new BitStream(8);
+            new XOR(a, b, xorOuts[i]);
+            new NOT(xorOuts[i], notOuts[i]);
+        }
+        Levelizer.levelize(aInput, bInput);
+
+        ParallelWavefrontRunner runner = new ParallelWavefrontRunner(pool, 1);
+        aInput.setData(DataConverter.convertBitsToBool(0b10110011, 8));
+        bInput.setData(DataConverter.convertBitsToBool(0b01010101, 8));
+        runner.run(aInput, bInput);
+
+        for (int i = 0; i < xorOuts.length; i++) {
+            assertEquals(0b11100110, xorOuts[i].getBits());
+            assertEquals(0b00011001, notOuts[i].getBits());
+        }
+    }
+
+    @Test
+    void testAddSubtractMatchesSequential() {
+        BitStream source = new BitStream(16);
+        BitStream destination = new BitStream(16);
+        BitStream control = new BitStream(1);
+        BitStream output = new BitStream(16);
+        Input sourceInput = new Input(new boolean[16], source);
+        Input destinationInput = new Input(new boolean[16], destination);
+        Input controlInput = new Input(new boolean[1], control);
+        new AddSubtract(source, destination, output, control, new BitStream(1));
+        Levelizer.levelize(sourceInput, destinationInput, controlInput);
+
+        ParallelWavefrontRunner runner = new ParallelWavefrontRunner(pool, 2);
+        for (int i = 0; i < 50; i++) {
+            int src = i * 1237 & 0xFFFF;
+            int dst = i * 311 & 0xFFFF;
+            sourceInput.setData(DataConverter.convertBitsToBool(src, 16));
+            destinationInput.setData(DataConverter.convertBitsToBool(dst, 16));
+            controlInput.setData(new boolean[]{i % 2 == 1});
+            runner.run(sourceInput, destinationInput, controlInput);
+
+            assertEquals((i % 2 == 1 ? src - dst : src + dst) & 0xFFFF, output.getBits());
+        }
+    }
+
+    @Test
+    void testParallelPolicyWithFlipFlop() {
+        BitStream D = new BitStream(2);
+        BitStream clock = new BitStream(1);
+        BitStream enable = new BitStream(1);
+        enable.setData(new boolean[]{true});
+        BitStream Q = new BitStream(2);
+        new DFlipFlop(D, clock, enable, new BitStream(1), new BitStream(1), Q, new BitStream(2), true);
+
+        Input dInput = new Input(new boolean[]{true, false}, D);
+        Input clockInput = new Input(new boolean[]{false}, clock);
+        Levelizer.levelize(dInput, clockInput);
+
+        ProcessRunner.setPolicy(SchedulingPolicy.PARALLEL);
+        try {
+            clockInput.setData(new boolean[]{true});
+            ProcessRunner.run(clockInput);
+            assertArrayEquals(new boolean[]{true, false}, Q.getData());
+
+            dInput.setData(new boolean[]{false, true});
+            clockInput.setData(new boolean[]{false});
+            ProcessRunner.run(dInput, clockInput);
+            assertArrayEquals(new boolean[]{true, false}, Q.getData());
+
+            clockInput.setData(new boolean[]{true});
+            ProcessRunner.run(clockInput);
+            assertArrayEquals(new boolean[]{false, true}, Q.getData());
+        } finally {
+            ProcessRunner.setPolicy(SchedulingPolicy.FIFO);
+        }
+    }
+
+    @Test
+    void testParallelPolicyWithCPU() {
+        TestMachine sequential = new TestMachine();
+        sequential.loadProgram();
+        TestMachine parallel;
+        ProcessRunner.setPolicy(SchedulingPolicy.PARALLEL);
+        try {
+            parallel = new TestMachine();
+            parallel.loadProgram();
+        } finally {
+            ProcessRunner.setPolicy(SchedulingPolicy.FIFO);
+        }
+        assertEquals(sequential.cpu.requestStatus(), parallel.cpu.requestStatus());
+        Levelizer.levelize(parallel.clock.getClock());
+
+        ProcessRunner.trackDeltaCycles(true);
+        try {
+            for (int i = 0; i < 5; i++) {
+                long start = ProcessRunner.getDeltaCycle();
+                String expected = sequential.run(5);
+                long sequentialDeltaCycles = ProcessRunner.getDeltaCycle() - start;
+
+                start = ProcessRunner.getDeltaCycle();
+                assertEquals(expected, parallel.run(5));
+                assertTrue(ProcessRunner.getDeltaCycle() - start > sequentialDeltaCycles);
+            }
+        } finally {
+            ProcessRunner.trackDeltaCycles(false);
+        }
+        assertArrayEquals(new boolean[]{false, false, false, false, false, false, false, false,
+                        false, false, false, false, true, false, true, false},
+                parallel.cpu.getRegisterFile().getRegisters().get(1).getDataBitStream().getData());
+    }
+}
@@ -0,0 +1,192 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.TestMachine;
+import main.circuits.memory.DFlipFlop;
+import main.control.Input;
+import main.gates.binary.AND;
+import main.gates.binary.XOR;
+import main.gates.unary.NOT;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessRunnerTest {
+
+    @Test
+    void testFifoQueueOrderAndDeduplication() {
+        BitStream in = new BitStream(1);
+        NOT not1 = new NOT(in, new BitStream(1));
+        NOT not2 = new NOT(in, new BitStream(1));
+
+        ExecutionQueue queue = new FifoExecutionQueue();
+        queue.add(not1);
+        queue.add(not2);
+        queue.add(not1);
+
+        assertEquals(2, queue.size());
+        assertTrue(not1.isQueued());
+        assertSame(not1, queue.poll());
+        assertFalse(not1.isQueued());
+
+        queue.add(not1);
+        assertSame(not2, queue.poll());
+        assertSame(not1, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testFifoQueueGrowing() {
+        BitStream in = new BitStream(1);
+        NOT[] nots = new NOT[200];
+        ExecutionQueue queue = new FifoExecutionQueue();
+        for (int i = 0; i < nots.length; i++) {
+            nots[i] = new NOT(in, new BitStream(1));
+            queue.add(nots[i]);
+        }
+        assertEquals(200, queue.size());
+        for (NOT not : nots) {
+            assertSame(not, queue.poll());
+        }
+    }
+
+    @Test
+    void testLevelOrderedQueue() {
+        BitStream a = new BitStream(1);
+        BitStream b = new BitStream(1);
+        BitStream xorOut = new BitStream(1);
+        BitStream andOut = new BitStream(1);
+        BitStream notOut = new BitStream(1);
+        Input inputA = new Input(new boolean[]{false}, a);
+        Input inputB = new Input(new boolean[]{false}, b);
+        XOR xor = new XOR(a, b, xorOut);
+        NOT not = new NOT(xorOut, notOut);
+        AND and = new AND(notOut, a, andOut);
+
+        assertEquals(3, Levelizer.levelize(inputA, inputB));
+        assertEquals(0, inputA.getLevel());
+        assertEquals(1, xor.getLevel());
+        assertEquals(2, not.getLevel());
+        assertEquals(3, and.getLevel());
+
+        ExecutionQueue queue = new LevelOrderedExecutionQueue();
+        queue.add(and);
+        queue.add(xor);
+        queue.add(not);
+        assertSame(xor, queue.poll());
+        queue.add(and);
+        assertSame(not, queue.poll());
+        assertSame(and, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testLevelOrderedPolicyWithFlipFlop() {
+        BitStream D = new BitStream(2);
+        BitStream clock = new BitStream(1);
+        BitStream enable = new BitStream(1);
+        enable.setData(new boolean[]{true});
+        BitStream Q = new BitStream(2);
+        DFlipFlop dFlipFlop = new DFlipFlop(D, clock, enable, new BitStream(1), new BitStream(1),
+                Q, new BitStream(2), true);
+
+        Input dInput = new Input(new boolean[]{true, false}, D);
+        Input clockInput = new Input(new boolean[]{false}, clock);
+        Levelizer.levelize(dInput, clockInput);
+
+        ProcessRunner.setPolicy(SchedulingPolicy.LEVEL_ORDERED);
+        try {
+            clockInput.setData(new boolean[]{true});
+            ProcessRunner.run(clockInput);
+            assertArrayEquals(new boolean[]{true, false}, Q.getData());
+
+            dInput.setData(new boolean[]{false, true});
+            clockInput.setData(new boolean[]{false});
+            ProcessRunner.run(dInput, clockInput);
+            assertArrayEquals(new boolean[]{true, false}, Q.getData());
+
+            clockInput.setData(new boolean[]{true});
+            ProcessRunner.run(clockInput);
+            assertArrayEquals(new boolean[]{false, true}, Q.getData());
+        } finally {
+            ProcessRunner.setPolicy(SchedulingPolicy.FIFO);
+        }
+    }
+
+    @Test
+    void testLevelOrderedPolicyWithCPU() {
+        TestMachine fifo = new TestMachine();
+        fifo.loadProgram();
+        TestMachine unlevelized, levelized;
+        ProcessRunner.setPolicy(SchedulingPolicy.LEVEL_ORDERED);
+        try {
+            unlevelized = new TestMachine();
+            levelized = new TestMachine();
+        } finally {
+            ProcessRunner.setPolicy(SchedulingPolicy.FIFO);
+        }
+        unlevelized.loadProgram();
+        levelized.loadProgram();
+        Levelizer.levelize(levelized.clock.getClock());
+
+        for (int i = 0; i < 5; i++) {
+            String expected = fifo.run(5);
+            assertEquals(expected, unlevelized.run(5));
+            assertEquals(expected, levelized.run(5));
+        }
+    }
+
+    @Test
+    void testLevelOrderedPolicyWithShiftRegister() {
+        String expected = runShiftRegister(false);
+        assertEquals("1000 1100 0110 0011 ", expected);
+
+        ProcessRunner.setPolicy(SchedulingPolicy.LEVEL_ORDERED);
+        try {
+            assertEquals(expected, runShiftRegister(false));
+            assertEquals(expected, runShiftRegister(true));
+        } finally {
+            ProcessRunner.setPolicy(SchedulingPolicy.FIFO);
+        }
+    }
+
+    /**Run the scenario of ShiftRegisterTest with the current policy.
+     *
+     * @param levelize - true if the levels should be assigned before running
+     * @return - the outputs of the four flip-flops after every rising edge
+     */
+    private static String runShiftRegister(boolean levelize) {
+        BitStream in = new BitStream(1);
+        BitStream clk = new BitStream(1);
+        BitStream enable = new BitStream(1);
+        enable.setData(new boolean[]{true});
+        BitStream[] q = new BitStream[4];
+        BitStream previous = in;
+        for (int i = 0; i < q.length; i++) {
+            q[i] = new BitStream(1);
+            new DFlipFlop(previous, clk, enable, new BitStream(1), new BitStream(1),
+                    q[i], new BitStream(1), true);
+            previous = q[i];
+        }
+        Input clock = new Input(new boolean[]{false}, clk);
+        Input input = new Input(new boolean[]{false}, in);
+        if (levelize) {
+            Levelizer.levelize(clock, input);
+        }
+
+        StringBuilder outputs = new StringBuilder();
+        boolean[] data = {true, true, false, false};
+        for (boolean bit : data) {
+            clock.setData(new boolean[]{false});
+            input.setData(new boolean[]{bit});
+            ProcessRunner.run(clock, input);
+            clock.setData(new boolean[]{true});
+            ProcessRunner.run(clock);
+            for (BitStream stream : q) {
+                outputs.append(stream.getData()[0] ? '1' : '0');
+            }
+            outputs.append(' ');
+        }
+        return outputs.toString();
+    }
+}
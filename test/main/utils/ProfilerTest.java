@@ -0,0 +1,130 @@
+package main.utils;
+
+import main.BitStream;
+import main.circuits.Register;
+import main.circuits.TestMachine;
+import main.control.Input;
+import main.gates.binary.AND;
+import main.gates.unary.NOT;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilerTest {
+
+    @Test
+    void testUsefulAndRedundantEvaluations() {
+        BitStream in = new BitStream(1);
+        BitStream other = new BitStream(1);
+        BitStream notOut = new BitStream(1);
+        BitStream andOut = new BitStream(1);
+        Input input = new Input(new boolean[]{false}, in);
+        new Input(new boolean[]{false}, other);
+        CircuitBuilder.construct("first", () -> new NOT(in, notOut, "not"));
+        CircuitBuilder.construct("second", () -> new AND(in, other, andOut, "and"));
+        NOT not = (NOT) notOut.getSource();
+        AND and = (AND) andOut.getSource();
+
+        Profiler profiler = new Profiler();
+        profiler.start();
+        try {
+            input.setData(new boolean[]{true});
+            ProcessRunner.run(input);
+            input.setData(new boolean[]{false});
+            ProcessRunner.run(input);
+        } finally {
+            profiler.stop();
+        }
+        input.setData(new boolean[]{true});
+        ProcessRunner.run(input);
+
+        Profiler.HotSpot notStatistics = profiler.getStatistics(not);
+        assertEquals(2, notStatistics.getEvaluations());
+        assertEquals(2, notStatistics.getUsefulEvaluations());
+        Profiler.HotSpot andStatistics = profiler.getStatistics(and);
+        assertEquals(2, andStatistics.getEvaluations());
+        assertEquals(2, andStatistics.getRedundantEvaluations());
+
+        List<Profiler.HotSpot> circuits = profiler.getCircuitHotSpots(10);
+        assertEquals(3, circuits.size());
+        assertTrue(circuits.stream().anyMatch(hotSpot -> hotSpot.getName().equals("first")));
+        assertTrue(circuits.stream().anyMatch(hotSpot -> hotSpot.getName().equals(Profiler.NO_CIRCUIT)));
+        assertEquals(1, profiler.getHotSpots(1).size());
+        assertFalse(profiler.isRunning());
+        assertNull(Profiler.getActive());
+    }
+
+    @Test
+    void testCyclesOfRegister() {
+        BitStream input = new BitStream(16);
+        BitStream output = new BitStream(16);
+        BitStream regIn = new BitStream(1);
+        BitStream regOut = new BitStream(1);
+        BitStream enable = new BitStream(1);
+        enable.setData(new boolean[]{true});
+        new Input(DataConverter.convertBitsToBool(0x1234, 16), input);
+        new Input(new boolean[]{true}, regOut);
+        ClockDriver driver = new ClockDriver(regIn);
+        new Register(input, output, regIn, regOut, enable, "reg");
+
+        Profiler profiler = new Profiler();
+        profiler.start();
+        try {
+            driver.run(4);
+        } finally {
+            profiler.stop();
+        }
+
+        assertEquals(4, profiler.getCycleCount());
+        assertEquals(0x1234, output.getBits());
+        Profiler.HotSpot register = profiler.getCircuitHotSpots(1).get(0);
+        assertTrue(register.getEvaluations() > 0);
+        assertEquals((double) register.getEvaluations() / 4, register.getEvaluationsPerCycle());
+        assertTrue(profiler.report(3).startsWith("Profile of 4 clock cycles"));
+
+        profiler.reset();
+        assertEquals(0, profiler.getCycleCount());
+        assertTrue(profiler.getHotSpots(5).isEmpty());
+    }
+
+    @Test
+    void testCircuitName() {
+        assertEquals("CPU/MAR", Profiler.getCircuitName("CPU/MAR/mainDLatch", 2));
+        assertEquals("CPU", Profiler.getCircuitName("CPU/MAR/mainDLatch", 1));
+        assertEquals("CPU/MAR", Profiler.getCircuitName("CPU/MAR", 3));
+        assertEquals(Profiler.NO_CIRCUIT, Profiler.getCircuitName(null, 2));
+    }
+
+    @Test
+    void testCircuitsOfCPU() {
+        TestMachine machine = new TestMachine();
+        machine.loadProgram();
+
+        Profiler profiler = new Profiler();
+        profiler.start();
+        try {
+            machine.run(25);
+        } finally {
+            profiler.stop();
+        }
+
+        List<Profiler.HotSpot> nodes = profiler.getHotSpots(Integer.MAX_VALUE);
+        List<Profiler.HotSpot> circuits = profiler.getCircuitHotSpots(Integer.MAX_VALUE);
+        List<Profiler.HotSpot> cpu = profiler.getCircuitHotSpots(Integer.MAX_VALUE, 1);
+        long evaluations = nodes.stream().mapToLong(Profiler.HotSpot::getEvaluations).sum();
+        assertEquals(evaluations, circuits.stream().mapToLong(Profiler.HotSpot::getEvaluations).sum());
+        assertEquals(evaluations, cpu.stream().mapToLong(Profiler.HotSpot::getEvaluations).sum());
+
+        List<String> names = circuits.stream().map(Profiler.HotSpot::getName).collect(Collectors.toList());
+        assertTrue(names.containsAll(List.of("CPU/MAR", "CPU/ALU", "CPU/controlUnit", "CPU/registerFile", "CPU")));
+        Profiler.HotSpot rest = cpu.stream().filter(hotSpot -> hotSpot.getName().equals(Profiler.NO_CIRCUIT))
+                .findFirst().orElseThrow();
+        Profiler.HotSpot whole = cpu.stream().filter(hotSpot -> hotSpot.getName().equals("CPU"))
+                .findFirst().orElseThrow();
+        assertTrue(rest.getEvaluations() < whole.getEvaluations());
+        assertEquals(2, cpu.size());
+    }
+}
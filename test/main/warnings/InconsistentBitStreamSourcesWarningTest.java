@@ -0,0 +1,195 @@
+package main.warnings;
+
+import main.BitStream;
+import main.control.Input;
+import main.exceptions.InconsistentBitStreamSources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InconsistentBitStreamSourcesWarningTest {
+
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    void setUp() {
+        this.output = new ByteArrayOutputStream();
+        InconsistentBitStreamSourcesWarning.setOutput(new PrintStream(this.output, true));
+        InconsistentBitStreamSourcesWarning.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        InconsistentBitStreamSourcesWarning.setOutput(System.err);
+        InconsistentBitStreamSourcesWarning.setMode(InconsistentBitStreamSourcesWarning.Mode.THROTTLED);
+        InconsistentBitStreamSourcesWarning.setSummaryInterval(
+                InconsistentBitStreamSourcesWarning.DEFAULT_SUMMARY_INTERVAL_MILLIS);
+        InconsistentBitStreamSourcesWarning.setPrintLimit(InconsistentBitStreamSourcesWarning.DEFAULT_PRINT_LIMIT);
+        InconsistentBitStreamSourcesWarning.reset();
+    }
+
+    private static void fight(BitStream stream, Input input1, Input input2, int times) {
+        for (int i = 0; i < times; i++) {
+            InconsistentBitStreamSourcesWarning.show(stream, input1, input2);
+            InconsistentBitStreamSourcesWarning.show(stream, input2, input1);
+        }
+    }
+
+    private static Input createInput(String name, boolean value) {
+        return new Input(new boolean[]{value}, new BitStream(1), name);
+    }
+
+    @Test
+    void testAggregation() {
+        BitStream stream = new BitStream(1);
+        BitStream other = new BitStream(1);
+        Input input1 = createInput("input1", true);
+        Input input2 = createInput("input2", false);
+        Input input3 = createInput("input3", true);
+        Input input4 = createInput("input4", false);
+
+        fight(stream, input1, input2, 10);
+        fight(other, input3, input4, 3);
+
+        assertEquals(26, InconsistentBitStreamSourcesWarning.getTotalCount());
+        assertEquals(2, InconsistentBitStreamSourcesWarning.getPairCount());
+        assertEquals(20, InconsistentBitStreamSourcesWarning.getCount("input1", "input2"));
+        assertEquals(20, InconsistentBitStreamSourcesWarning.getCount("input2", "input1"));
+        assertEquals(6, InconsistentBitStreamSourcesWarning.getCount("input3", "input4"));
+        assertEquals(0, InconsistentBitStreamSourcesWarning.getCount("input1", "input3"));
+
+        List<InconsistentBitStreamSourcesWarning.Conflict> conflicts = InconsistentBitStreamSourcesWarning.getConflicts();
+        assertEquals(2, conflicts.size());
+        assertEquals("input1", conflicts.get(0).getSource1());
+        assertEquals(20, conflicts.get(0).getCount());
+        assertEquals("input4", conflicts.get(1).getSource2());
+    }
+
+    @Test
+    void testSameNamesInAnotherCircuit() {
+        InconsistentBitStreamSourcesWarning.setSummaryInterval(Long.MAX_VALUE / 1_000_000);
+        fight(new BitStream(1), createInput("driver1", true), createInput("driver2", false), 1);
+        fight(new BitStream(1), createInput("driver2", true), createInput("driver1", false), 1);
+
+        assertEquals(1, InconsistentBitStreamSourcesWarning.getPairCount());
+        assertEquals(4, InconsistentBitStreamSourcesWarning.getCount("driver1", "driver2"));
+        assertEquals(1, this.output.toString().split("Possible inconsistency", -1).length - 1);
+    }
+
+    @Test
+    void testConflictsDoNotKeepCircuits() {
+        BitStream stream = new BitStream(1);
+        Input input1 = createInput("input1", true);
+        Input input2 = createInput("input2", false);
+        fight(stream, input1, input2, 1);
+
+        WeakReference<BitStream> streamReference = new WeakReference<>(stream);
+        WeakReference<Input> inputReference = new WeakReference<>(input1);
+        stream = null;
+        input1 = null;
+        input2 = null;
+        for (int i = 0; i < 50 && (streamReference.get() != null || inputReference.get() != null); i++) {
+            System.gc();
+        }
+        assertNull(streamReference.get());
+        assertNull(inputReference.get());
+        assertEquals(2, InconsistentBitStreamSourcesWarning.getCount("input1", "input2"));
+    }
+
+    @Test
+    void testPrintLimit() {
+        InconsistentBitStreamSourcesWarning.setSummaryInterval(Long.MAX_VALUE / 1_000_000);
+        InconsistentBitStreamSourcesWarning.setPrintLimit(2);
+        for (int i = 0; i < 5; i++) {
+            fight(new BitStream(1), createInput("a" + i, true), createInput("b" + i, false), 1);
+        }
+        assertEquals(2, this.output.toString().split("Possible inconsistency", -1).length - 1);
+
+        InconsistentBitStreamSourcesWarning.printSummary();
+        assertTrue(this.output.toString().contains("8 more inconsistencies between sources (10 in total, 5 pairs"));
+
+        fight(new BitStream(1), createInput("c", true), createInput("d", false), 1);
+        assertEquals(3, this.output.toString().split("Possible inconsistency", -1).length - 1);
+    }
+
+    @Test
+    void testResetPrintsSummary() {
+        InconsistentBitStreamSourcesWarning.setSummaryInterval(Long.MAX_VALUE / 1_000_000);
+        fight(new BitStream(1), createInput("input1", true), createInput("input2", false), 3);
+
+        InconsistentBitStreamSourcesWarning.reset();
+        assertTrue(this.output.toString().contains("5 more inconsistencies between sources (6 in total, 1 pairs"));
+        assertEquals(0, InconsistentBitStreamSourcesWarning.getPairCount());
+    }
+
+    @Test
+    void testThrottled() {
+        InconsistentBitStreamSourcesWarning.setSummaryInterval(Long.MAX_VALUE / 1_000_000);
+        BitStream stream = new BitStream(1);
+        Input input1 = createInput("input1", true);
+        Input input2 = createInput("input2", false);
+
+        fight(stream, input1, input2, 100);
+
+        String printed = this.output.toString();
+        assertEquals(1, printed.split("Possible inconsistency", -1).length - 1);
+        assertEquals(200, InconsistentBitStreamSourcesWarning.getTotalCount());
+
+        InconsistentBitStreamSourcesWarning.printSummary();
+        assertTrue(this.output.toString().contains("199 more inconsistencies between sources (200 in total, 1 pairs"));
+        assertTrue(this.output.toString().contains("200 x " + input1.getName() + " <-> " + input2.getName()));
+    }
+
+    @Test
+    void testPeriodicSummary() {
+        InconsistentBitStreamSourcesWarning.setSummaryInterval(0);
+        BitStream stream = new BitStream(1);
+        Input input1 = createInput("input1", true);
+        Input input2 = createInput("input2", false);
+
+        fight(stream, input1, input2, 2);
+
+        String printed = this.output.toString();
+        assertEquals(1, printed.split("Possible inconsistency", -1).length - 1);
+        assertEquals(3, printed.split("1 more inconsistencies", -1).length - 1);
+    }
+
+    @Test
+    void testPrintAndSilent() {
+        BitStream stream = new BitStream(1);
+        Input input1 = createInput("input1", true);
+        Input input2 = createInput("input2", false);
+        InconsistentBitStreamSourcesWarning.setMode(InconsistentBitStreamSourcesWarning.Mode.PRINT);
+        fight(stream, input1, input2, 2);
+        assertEquals(4, this.output.toString().split("Possible inconsistency", -1).length - 1);
+
+        this.output.reset();
+        InconsistentBitStreamSourcesWarning.setMode(InconsistentBitStreamSourcesWarning.Mode.SILENT);
+        fight(stream, input1, input2, 2);
+        InconsistentBitStreamSourcesWarning.printSummary();
+        assertEquals("", this.output.toString());
+        assertEquals(8, InconsistentBitStreamSourcesWarning.getTotalCount());
+    }
+
+    @Test
+    void testStrict() {
+        InconsistentBitStreamSourcesWarning.setMode(InconsistentBitStreamSourcesWarning.Mode.STRICT);
+        BitStream stream = new BitStream(1);
+        Input input1 = new Input(new boolean[]{true}, stream);
+
+        InconsistentBitStreamSources exception = assertThrows(InconsistentBitStreamSources.class,
+                () -> new Input(new boolean[]{false}, stream));
+        assertSame(stream, exception.getStream());
+        assertSame(input1, exception.getOldSource());
+        assertNotNull(exception.getNewSource());
+        assertEquals(1, InconsistentBitStreamSourcesWarning.getTotalCount());
+        assertEquals("", this.output.toString());
+    }
+}